@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package benchmarkutils;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.MassSpectrumType;
+import io.github.mzmine.datamodel.PolarityType;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.datamodel.impl.SimpleScan;
+import io.github.mzmine.datamodel.impl.masslist.ScanPointerMassList;
+import io.github.mzmine.modules.io.import_rawdata_all.AdvancedSpectraImportParameters;
+import io.github.mzmine.modules.tools.batchwizard.subparameters.MassDetectorWizardOptions;
+import io.github.mzmine.parameters.parametertypes.selectors.ScanSelection;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.project.impl.RawDataFileImpl;
+import io.github.mzmine.util.collections.BinarySearch;
+import io.github.mzmine.util.collections.IndexRange;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import javafx.scene.paint.Color;
+import org.jetbrains.annotations.NotNull;
+import testutils.MZmineTestUtil;
+
+/**
+ * Data for the JMH benchmarks. Synthetic data is generated from fixed seeds and the test resource
+ * file is always the same, so results are comparable between runs and branches.
+ */
+public final class BenchmarkData {
+
+  /**
+   * Centroided LC-MS test file with 521 scans
+   */
+  public static final String TEST_RESOURCE_FILE = "rawdatafiles/DOM_b.mzXML";
+  public static final long SEED = 42;
+  private static final double MIN_MZ = 100;
+  private static final double MAX_MZ = 1000;
+  private static boolean coreStarted = false;
+  private static RawDataFile testResourceFile;
+
+  private BenchmarkData() {
+  }
+
+  /**
+   * Starts the mzmine core once per fork. Needed for modules that read the configuration.
+   */
+  public static synchronized void startCore() {
+    if (!coreStarted) {
+      MZmineTestUtil.startMzmineCore();
+      coreStarted = true;
+    }
+  }
+
+  /**
+   * @return the {@link #TEST_RESOURCE_FILE} with mass lists of all data points. Imported once per
+   * fork.
+   */
+  public static synchronized @NotNull RawDataFile testResourceFile() {
+    if (testResourceFile == null) {
+      startCore();
+      final var advancedImport = AdvancedSpectraImportParameters.create(
+          MassDetectorWizardOptions.ABSOLUTE_NOISE_LEVEL, 0d, 0d, null, ScanSelection.ALL_SCANS,
+          false);
+      try {
+        MZmineTestUtil.importFiles(List.of(TEST_RESOURCE_FILE), 120, advancedImport);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException("Import of " + TEST_RESOURCE_FILE + " interrupted", e);
+      }
+      testResourceFile = Objects.requireNonNull(
+          MZmineTestUtil.getRawFromProject(new File(TEST_RESOURCE_FILE).getName()),
+          "Test resource file was not imported");
+    }
+    return testResourceFile;
+  }
+
+  /**
+   * @return the test resource file or a synthetic file with 500 scans of 1000 signals
+   */
+  public static @NotNull RawDataFile rawDataFile(@NotNull BenchmarkSource source) {
+    return switch (source) {
+      case SYNTHETIC -> syntheticLcMsFile(500, 1000);
+      case TEST_RESOURCE -> testResourceFile();
+    };
+  }
+
+  /**
+   * Centroided MS1 file. A fixed set of compounds elutes as gaussian peaks, the remaining signals
+   * are random noise. All scans have a {@link ScanPointerMassList}.
+   *
+   * @param numScans       number of scans with 1 s distance
+   * @param signalsPerScan number of signals per scan
+   */
+  public static @NotNull RawDataFile syntheticLcMsFile(int numScans, int signalsPerScan) {
+    final Random random = new Random(SEED);
+    final RawDataFileImpl file = new RawDataFileImpl("synthetic_%d_scans".formatted(numScans),
+        null, null, Color.BLACK);
+
+    final int compounds = signalsPerScan / 4;
+    final double[] compoundMz = new double[compounds];
+    final double[] compoundRt = new double[compounds];
+    final double[] compoundHeight = new double[compounds];
+    for (int c = 0; c < compounds; c++) {
+      compoundMz[c] = MIN_MZ + random.nextDouble() * (MAX_MZ - MIN_MZ);
+      compoundRt[c] = random.nextDouble() * numScans / 60d;
+      compoundHeight[c] = Math.exp(8 + random.nextDouble() * 10);
+    }
+
+    for (int s = 0; s < numScans; s++) {
+      final float rt = s / 60f;
+      final double[] mzs = new double[signalsPerScan];
+      final double[] intensities = new double[signalsPerScan];
+      for (int i = 0; i < signalsPerScan; i++) {
+        if (i < compounds) {
+          // gaussian peaks with 6 s standard deviation and a small m/z error
+          final double dRt = (rt - compoundRt[i]) / 0.1;
+          mzs[i] = compoundMz[i] + random.nextGaussian() * 0.0005;
+          intensities[i] = compoundHeight[i] * Math.exp(-0.5 * dRt * dRt) + random.nextDouble();
+        } else {
+          mzs[i] = MIN_MZ + random.nextDouble() * (MAX_MZ - MIN_MZ);
+          intensities[i] = random.nextDouble() * 1000;
+        }
+      }
+      sortByMz(mzs, intensities);
+      final SimpleScan scan = new SimpleScan(file, s + 1, 1, rt, null, mzs, intensities,
+          MassSpectrumType.CENTROIDED, PolarityType.POSITIVE, "synthetic",
+          Range.closed(MIN_MZ, MAX_MZ));
+      scan.addMassList(new ScanPointerMassList(scan));
+      file.addScan(scan);
+    }
+    return file;
+  }
+
+  /**
+   * Profile spectrum with gaussian peaks sampled every 2 mDa and zero intensities in between.
+   *
+   * @param peaks number of peaks
+   * @return [mzs, intensities]
+   */
+  public static double[][] profileSpectrum(@NotNull Random random, int peaks) {
+    final int pointsPerPeak = 21;
+    final double step = 0.002;
+    final double peakDistance = (MAX_MZ - MIN_MZ) / peaks;
+    final double[] mzs = new double[peaks * (pointsPerPeak + 2)];
+    final double[] intensities = new double[mzs.length];
+    int n = 0;
+    for (int p = 0; p < peaks; p++) {
+      final double center = MIN_MZ + p * peakDistance + peakDistance * random.nextDouble() * 0.5
+          + pointsPerPeak * step;
+      final double height = Math.exp(5 + random.nextDouble() * 10);
+      final double sigma = step * (2 + random.nextDouble() * 2);
+      final double start = center - pointsPerPeak / 2 * step;
+      // zero intensity before and after each peak like in vendor profile data
+      mzs[n++] = start - step;
+      for (int i = 0; i < pointsPerPeak; i++) {
+        final double mz = start + i * step;
+        final double d = (mz - center) / sigma;
+        mzs[n] = mz;
+        intensities[n++] = height * Math.exp(-0.5 * d * d);
+      }
+      mzs[n++] = start + pointsPerPeak * step;
+    }
+    return new double[][]{mzs, intensities};
+  }
+
+  /**
+   * @param signals number of signals between m/z 100 and 1000
+   * @return [mzs, intensities] sorted by m/z
+   */
+  public static double[][] centroidSpectrum(@NotNull Random random, int signals) {
+    final double[] mzs = new double[signals];
+    final double[] intensities = new double[signals];
+    for (int i = 0; i < signals; i++) {
+      mzs[i] = MIN_MZ + random.nextDouble() * (MAX_MZ - MIN_MZ);
+      intensities[i] = Math.exp(random.nextDouble() * 12);
+    }
+    sortByMz(mzs, intensities);
+    return new double[][]{mzs, intensities};
+  }
+
+  /**
+   * Chromatogram with overlapping gaussian peaks on a noisy baseline.
+   *
+   * @param points number of data points with 0.01 min distance
+   * @param peaks  number of peaks
+   * @return [retention times, intensities]
+   */
+  public static double[][] chromatogram(@NotNull Random random, int points, int peaks) {
+    final double[] x = new double[points];
+    final double[] y = new double[points];
+    for (int i = 0; i < points; i++) {
+      x[i] = i * 0.01;
+      y[i] = random.nextDouble() * 100;
+    }
+    for (int p = 0; p < peaks; p++) {
+      final double center = random.nextDouble() * points * 0.01;
+      final double sigma = 0.02 + random.nextDouble() * 0.05;
+      final double height = Math.exp(8 + random.nextDouble() * 8);
+      for (int i = 0; i < points; i++) {
+        final double d = (x[i] - center) / sigma;
+        y[i] += height * Math.exp(-0.5 * d * d);
+      }
+    }
+    return new double[][]{x, y};
+  }
+
+  /**
+   * @return [mzs, intensities] of all scans of the file
+   */
+  public static List<double[][]> spectra(@NotNull RawDataFile file) {
+    final List<double[][]> spectra = new ArrayList<>(file.getNumOfScans());
+    for (Scan scan : file.getScans()) {
+      final int n = scan.getNumberOfDataPoints();
+      spectra.add(new double[][]{scan.getMzValues(new double[n]),
+          scan.getIntensityValues(new double[n])});
+    }
+    return spectra;
+  }
+
+  /**
+   * Extracts ion chromatograms of the base peaks of evenly spaced MS1 scans.
+   *
+   * @param count number of chromatograms
+   * @return [retention times, intensities] for each chromatogram
+   */
+  public static List<double[][]> extractChromatograms(@NotNull RawDataFile file, int count,
+      @NotNull MZTolerance mzTolerance) {
+    final List<Scan> scans = file.getScans().stream().filter(s -> s.getMSLevel() == 1)
+        .filter(s -> s.getNumberOfDataPoints() > 0).toList();
+    final List<double[]> mzValues = scans.stream()
+        .map(s -> s.getMzValues(new double[s.getNumberOfDataPoints()])).toList();
+    final List<double[]> intensityValues = scans.stream()
+        .map(s -> s.getIntensityValues(new double[s.getNumberOfDataPoints()])).toList();
+
+    final List<double[][]> chromatograms = new ArrayList<>(count);
+    for (int c = 0; c < count; c++) {
+      final Scan source = scans.get((int) ((c + 0.5) * scans.size() / count));
+      final Double basePeakMz = source.getBasePeakMz();
+      if (basePeakMz == null) {
+        continue;
+      }
+      final Range<Double> mzRange = mzTolerance.getToleranceRange(basePeakMz);
+      final double[] x = new double[scans.size()];
+      final double[] y = new double[scans.size()];
+      for (int s = 0; s < scans.size(); s++) {
+        x[s] = scans.get(s).getRetentionTime();
+        final IndexRange indices = BinarySearch.indexRange(mzValues.get(s), mzRange);
+        if (indices.isEmpty()) {
+          continue;
+        }
+        final double[] intensities = intensityValues.get(s);
+        for (int i = indices.min(); i < indices.maxExclusive(); i++) {
+          y[s] = Math.max(y[s], intensities[i]);
+        }
+      }
+      chromatograms.add(new double[][]{x, y});
+    }
+    return chromatograms;
+  }
+
+  private static void sortByMz(double[] mzs, double[] intensities) {
+    final Integer[] order = new Integer[mzs.length];
+    Arrays.setAll(order, i -> i);
+    Arrays.sort(order, (a, b) -> Double.compare(mzs[a], mzs[b]));
+    final double[] mzCopy = mzs.clone();
+    final double[] intensityCopy = intensities.clone();
+    for (int i = 0; i < order.length; i++) {
+      mzs[i] = mzCopy[order[i]];
+      intensities[i] = intensityCopy[order[i]];
+    }
+  }
+}
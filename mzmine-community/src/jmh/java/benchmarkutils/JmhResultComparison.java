@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package benchmarkutils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compares two JMH JSON result files, usually of two branches. Benchmarks are matched by name and
+ * parameters. The speedup is positive if the current result is faster, independent of the mode
+ * (throughput or average time). Changes within the summed score errors of both runs are not
+ * flagged.
+ * <p>
+ * Usage: {@code JmhResultComparison baseline.json current.json}
+ */
+public class JmhResultComparison {
+
+  private static final Logger logger = Logger.getLogger(JmhResultComparison.class.getName());
+
+  public static void main(String[] args) {
+    if (args.length < 2) {
+      logger.severe("Usage: JmhResultComparison baseline.json current.json");
+      return;
+    }
+    try {
+      final Map<String, Result> baseline = read(Path.of(args[0]));
+      final Map<String, Result> current = read(Path.of(args[1]));
+      System.out.println(compare(baseline, current));
+    } catch (IOException e) {
+      logger.log(Level.SEVERE, "Failed to compare JMH results: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * @return results by benchmark name and parameters in the order of the file
+   */
+  @NotNull
+  public static Map<String, Result> read(@NotNull final Path file) throws IOException {
+    final JsonNode root = new ObjectMapper().readTree(file.toFile());
+    final Map<String, Result> results = new LinkedHashMap<>();
+    for (final JsonNode node : root) {
+      final Result result = Result.of(node);
+      results.put(result.key(), result);
+    }
+    return results;
+  }
+
+  /**
+   * @return a text table with one line per benchmark of the current results
+   */
+  @NotNull
+  public static String compare(@NotNull final Map<String, Result> baseline,
+      @NotNull final Map<String, Result> current) {
+    final List<String[]> lines = new ArrayList<>();
+    lines.add(new String[]{"Benchmark", "Unit", "Baseline", "Current", "Speedup", ""});
+    for (final Result result : current.values()) {
+      final Result base = baseline.get(result.key());
+      if (base == null) {
+        lines.add(new String[]{result.key(), result.unit(), "", format(result), "", "new"});
+        continue;
+      }
+      if (!base.unit().equals(result.unit()) || !base.mode().equals(result.mode())) {
+        lines.add(new String[]{result.key(), result.unit(), format(base), format(result), "",
+            "unit or mode changed"});
+        continue;
+      }
+      final double speedup = result.speedupOver(base);
+      final String flag = result.isSignificantlyDifferent(base) ? (speedup > 1 ? "faster"
+          : "SLOWER") : "";
+      lines.add(new String[]{result.key(), result.unit(), format(base), format(result),
+          "%.2fx".formatted(speedup), flag});
+    }
+    for (final String key : baseline.keySet()) {
+      if (!current.containsKey(key)) {
+        lines.add(new String[]{key, baseline.get(key).unit(), format(baseline.get(key)), "", "",
+            "removed"});
+      }
+    }
+    return toTable(lines);
+  }
+
+  private static String format(@NotNull final Result result) {
+    return Double.isNaN(result.error()) ? "%.3f".formatted(result.score())
+        : "%.3f ± %.3f".formatted(result.score(), result.error());
+  }
+
+  private static String toTable(@NotNull final List<String[]> lines) {
+    final int[] widths = new int[lines.getFirst().length];
+    for (final String[] line : lines) {
+      for (int i = 0; i < line.length; i++) {
+        widths[i] = Math.max(widths[i], line[i].length());
+      }
+    }
+    final StringBuilder b = new StringBuilder();
+    for (final String[] line : lines) {
+      for (int i = 0; i < line.length; i++) {
+        final String format = i == 0 ? "%-" + widths[i] + "s" : "  %" + widths[i] + "s";
+        b.append(format.formatted(line[i]));
+      }
+      b.append('\n');
+    }
+    return b.toString();
+  }
+
+  /**
+   * @param key   benchmark name with sorted parameters
+   * @param mode  jmh mode like thrpt or avgt
+   * @param error NaN if the run had too few iterations
+   */
+  public record Result(@NotNull String key, @NotNull String mode, double score, double error,
+                       @NotNull String unit) {
+
+    @NotNull
+    static Result of(@NotNull final JsonNode node) {
+      final Map<String, String> params = new TreeMap<>();
+      final @Nullable JsonNode paramsNode = node.get("params");
+      if (paramsNode != null) {
+        final Iterator<Entry<String, JsonNode>> fields = paramsNode.fields();
+        while (fields.hasNext()) {
+          final Entry<String, JsonNode> field = fields.next();
+          params.put(field.getKey(), field.getValue().asText());
+        }
+      }
+      final String name = node.get("benchmark").asText();
+      final String key = params.isEmpty() ? name : name + params;
+      final JsonNode metric = node.get("primaryMetric");
+      return new Result(key, node.get("mode").asText(), metric.get("score").asDouble(),
+          metric.get("scoreError").asDouble(Double.NaN), metric.get("scoreUnit").asText());
+    }
+
+    /**
+     * @return values > 1 if this result is faster than the baseline
+     */
+    public double speedupOver(@NotNull final Result baseline) {
+      return isThroughput() ? score / baseline.score : baseline.score / score;
+    }
+
+    public boolean isSignificantlyDifferent(@NotNull final Result baseline) {
+      final double errors = (Double.isNaN(error) ? 0 : error) + (Double.isNaN(baseline.error) ? 0
+          : baseline.error);
+      return Math.abs(score - baseline.score) > errors;
+    }
+
+    private boolean isThroughput() {
+      return mode.equals("thrpt");
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.datamodel.data_access;
+
+import benchmarkutils.BenchmarkData;
+import benchmarkutils.BenchmarkSource;
+import io.github.mzmine.datamodel.MassSpectrum;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.datamodel.data_access.EfficientDataAccess.ScanDataType;
+import io.github.mzmine.parameters.parametertypes.selectors.ScanSelection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Time to iterate all data points of all MS1 scans of a file with a {@link ScanDataAccess} vs.
+ * copying the values of each scan into reused arrays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScanDataAccessBenchmark {
+
+  @Param({"SYNTHETIC", "TEST_RESOURCE"})
+  public BenchmarkSource source;
+
+  @Param({"RAW", "MASS_LIST"})
+  public ScanDataType type;
+
+  private RawDataFile raw;
+  private ScanSelection selection;
+  private double[] mzBuffer;
+  private double[] intensityBuffer;
+
+  @Setup
+  public void setup() {
+    raw = BenchmarkData.rawDataFile(source);
+    selection = new ScanSelection(1);
+    mzBuffer = new double[raw.getMaxRawDataPoints()];
+    intensityBuffer = new double[raw.getMaxRawDataPoints()];
+  }
+
+  @Benchmark
+  public double scanDataAccess() {
+    final ScanDataAccess access = EfficientDataAccess.of(raw, type, selection);
+    double sum = 0;
+    while (access.hasNextScan()) {
+      access.nextScan();
+      for (int i = 0; i < access.getNumberOfDataPoints(); i++) {
+        sum += access.getMzValue(i) * access.getIntensityValue(i);
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double scanArrays() {
+    double sum = 0;
+    for (final Scan scan : selection.getMatchingScans(raw)) {
+      final MassSpectrum spectrum = type == ScanDataType.RAW ? scan : scan.getMassList();
+      final int n = spectrum.getNumberOfDataPoints();
+      if (mzBuffer.length < n) {
+        mzBuffer = new double[n];
+        intensityBuffer = new double[n];
+      }
+      spectrum.getMzValues(mzBuffer);
+      spectrum.getIntensityValues(intensityBuffer);
+      for (int i = 0; i < n; i++) {
+        sum += mzBuffer[i] * intensityBuffer[i];
+      }
+    }
+    return sum;
+  }
+}
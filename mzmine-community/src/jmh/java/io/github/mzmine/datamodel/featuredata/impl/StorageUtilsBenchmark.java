@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.datamodel.featuredata.impl;
+
+import benchmarkutils.BenchmarkData;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.datamodel.featuredata.IonTimeSeries;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Time to combine many short ion series into a single buffer with
+ * {@link StorageUtils#storeIonSeriesToSingleBuffer}, like done for mobilograms. Uses in-memory
+ * storage so repeated invocations do not fill up the temporary files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StorageUtilsBenchmark {
+
+  @Param({"100", "1000"})
+  public int series;
+
+  @Param({"20", "200"})
+  public int length;
+
+  private List<IonTimeSeries<Scan>> seriesList;
+  private int[] offsets;
+
+  @Setup
+  public void setup() {
+    final RawDataFile raw = BenchmarkData.syntheticLcMsFile(length, 1);
+    final List<Scan> scans = raw.getScans();
+    final Random random = new Random(BenchmarkData.SEED);
+    seriesList = new ArrayList<>(series);
+    for (int s = 0; s < series; s++) {
+      final double[] mzs = new double[length];
+      final double[] intensities = new double[length];
+      for (int i = 0; i < length; i++) {
+        mzs[i] = 500 + random.nextDouble() * 0.01;
+        intensities[i] = random.nextDouble() * 1E5;
+      }
+      seriesList.add(new SimpleIonTimeSeries(null, mzs, intensities, scans));
+    }
+    offsets = new int[series];
+  }
+
+  @Benchmark
+  public MemorySegment[] storeToSingleBuffer() {
+    return StorageUtils.storeIonSeriesToSingleBuffer(null, seriesList, offsets);
+  }
+}
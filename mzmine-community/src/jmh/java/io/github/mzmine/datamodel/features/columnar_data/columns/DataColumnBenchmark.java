@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.datamodel.features.columnar_data.columns;
+
+import io.github.mzmine.datamodel.features.types.DataTypes;
+import io.github.mzmine.datamodel.features.types.numbers.MZType;
+import io.github.mzmine.util.MemoryMapStorage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Values per second read and written through the feature list {@link DataColumn}s: primitive
+ * access, boxed access and boxed access through the {@link OptimisticallySynchronizedDataColumn}
+ * that is used by the feature list data model. Columns are either in memory or memory mapped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataColumnBenchmark {
+
+  private static final int SIZE = 100_000;
+
+  @Param({"false", "true"})
+  public boolean memoryMapped;
+
+  private NullableDoubleDataColumn column;
+  private DataColumn<Double> synchronizedColumn;
+
+  @Setup
+  public void setup() {
+    final MemoryMapStorage storage = memoryMapped ? MemoryMapStorage.create() : null;
+    column = DataColumns.ofDouble(storage, SIZE);
+    synchronizedColumn = DataColumns.ofTypeSynchronized(DataTypes.get(MZType.class), storage,
+        SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      column.setDouble(i, i * 0.5);
+      synchronizedColumn.set(i, i * 0.5);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public double getPrimitive() {
+    double sum = 0;
+    for (int i = 0; i < SIZE; i++) {
+      sum += column.getDouble(i);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void setPrimitive() {
+    for (int i = 0; i < SIZE; i++) {
+      column.setDouble(i, i);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public double getBoxed() {
+    double sum = 0;
+    for (int i = 0; i < SIZE; i++) {
+      final Double value = column.get(i);
+      if (value != null) {
+        sum += value;
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void setBoxed() {
+    for (int i = 0; i < SIZE; i++) {
+      column.set(i, (double) i);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public double getSynchronized() {
+    double sum = 0;
+    for (int i = 0; i < SIZE; i++) {
+      final Double value = synchronizedColumn.get(i);
+      if (value != null) {
+        sum += value;
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void setSynchronized() {
+    for (int i = 0; i < SIZE; i++) {
+      synchronizedColumn.set(i, (double) i);
+    }
+  }
+}
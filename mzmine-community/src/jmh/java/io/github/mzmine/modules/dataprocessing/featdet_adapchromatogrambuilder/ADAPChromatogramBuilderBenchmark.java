@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_adapchromatogrambuilder;
+
+import benchmarkutils.BenchmarkData;
+import benchmarkutils.BenchmarkSource;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.parameters.ParameterSet;
+import io.github.mzmine.parameters.parametertypes.selectors.RawDataFilesSelectionType;
+import io.github.mzmine.parameters.parametertypes.selectors.ScanSelection;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.project.impl.MZmineProjectImpl;
+import io.github.mzmine.taskcontrol.TaskStatus;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Time to build the chromatograms of one file with each {@link ADAPChromatogramBuilderEngine}.
+ * Includes the creation of the feature list like the module does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ADAPChromatogramBuilderBenchmark {
+
+  @Param({"SYNTHETIC", "TEST_RESOURCE"})
+  public BenchmarkSource source;
+
+  @Param({"RANGE_MAP", "PRIMITIVE"})
+  public ADAPChromatogramBuilderEngine engine;
+
+  private RawDataFile raw;
+  private ParameterSet param;
+
+  @Setup
+  public void setup() {
+    BenchmarkData.startCore();
+    raw = BenchmarkData.rawDataFile(source);
+    // same parameters as the engine test
+    param = new ADAPChromatogramBuilderParameters().cloneParameterSet();
+    param.getParameter(ADAPChromatogramBuilderParameters.dataFiles)
+        .setValue(RawDataFilesSelectionType.ALL_FILES);
+    param.setParameter(ADAPChromatogramBuilderParameters.scanSelection, new ScanSelection(1));
+    param.setParameter(ADAPChromatogramBuilderParameters.minimumConsecutiveScans, 4);
+    param.setParameter(ADAPChromatogramBuilderParameters.mzTolerance, new MZTolerance(0.002, 10));
+    param.setParameter(ADAPChromatogramBuilderParameters.minHighestPoint, 3E5);
+    param.setParameter(ADAPChromatogramBuilderParameters.minGroupIntensity, 1E5);
+    param.setParameter(ADAPChromatogramBuilderParameters.suffix, "chrom");
+    param.setParameter(ADAPChromatogramBuilderParameters.builderEngine, engine);
+  }
+
+  @Benchmark
+  public MZmineProjectImpl buildChromatograms() {
+    final MZmineProjectImpl project = new MZmineProjectImpl();
+    final var task = ModularADAPChromatogramBuilderTask.forChromatography(project, raw, param, null,
+        Instant.now(), ModularADAPChromatogramBuilderModule.class);
+    task.run();
+    if (task.getStatus() != TaskStatus.FINISHED) {
+      throw new IllegalStateException(task.getErrorMessage());
+    }
+    return project;
+  }
+}
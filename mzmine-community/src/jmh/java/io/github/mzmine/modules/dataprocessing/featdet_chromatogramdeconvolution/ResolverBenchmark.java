@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution;
+
+import benchmarkutils.BenchmarkData;
+import benchmarkutils.BenchmarkSource;
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.features.ModularFeatureList;
+import io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution.minimumsearch.MinimumSearchFeatureResolver;
+import io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution.savitzkygolay.SavitzkyGolayFeatureResolver;
+import io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution.savitzkygolay.SavitzkyGolayFeatureResolverParameters;
+import io.github.mzmine.parameters.ParameterSet;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Chromatograms per second of the resolvers on primitive arrays. Synthetic chromatograms have
+ * 1000 points with 10 overlapping peaks, test resource chromatograms are extracted base peak EICs.
+ * The intensities are copied before each call because resolvers may modify them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ResolverBenchmark {
+
+  private static final int CHROMATOGRAMS = 50;
+  private static final int SYNTHETIC_POINTS = 1000;
+  private static final int SYNTHETIC_PEAKS = 10;
+
+  @Param({"SYNTHETIC", "TEST_RESOURCE"})
+  public BenchmarkSource source;
+
+  private double[][] x;
+  private double[][] y;
+  private MinimumSearchFeatureResolver minimumSearch;
+  private SavitzkyGolayFeatureResolver savitzkyGolay;
+
+  @Setup
+  public void setup() {
+    BenchmarkData.startCore();
+    final List<double[][]> chromatograms;
+    final RawDataFile raw;
+    if (source == BenchmarkSource.SYNTHETIC) {
+      raw = BenchmarkData.syntheticLcMsFile(10, 10);
+      final Random random = new Random(BenchmarkData.SEED);
+      chromatograms = new ArrayList<>(CHROMATOGRAMS);
+      for (int i = 0; i < CHROMATOGRAMS; i++) {
+        chromatograms.add(BenchmarkData.chromatogram(random, SYNTHETIC_POINTS, SYNTHETIC_PEAKS));
+      }
+    } else {
+      raw = BenchmarkData.testResourceFile();
+      chromatograms = BenchmarkData.extractChromatograms(raw, CHROMATOGRAMS,
+          new MZTolerance(0.002, 10));
+    }
+    x = new double[CHROMATOGRAMS][];
+    y = new double[CHROMATOGRAMS][];
+    for (int i = 0; i < CHROMATOGRAMS; i++) {
+      // fewer chromatograms may be extracted, repeat them to keep the operation count fixed
+      final double[][] chromatogram = chromatograms.get(i % chromatograms.size());
+      x[i] = chromatogram[0];
+      y[i] = chromatogram[1];
+    }
+
+    // resolvers only need the feature list for the raw data file and the selected scans
+    final ModularFeatureList flist = new ModularFeatureList("benchmark", null, raw);
+    minimumSearch = new MinimumSearchFeatureResolver(flist, ResolvingDimension.RETENTION_TIME,
+        0.85, 0.04, 0d, 1E5, 1.7, Range.closed(0d, 10d), 5);
+
+    final ParameterSet sgParam = new SavitzkyGolayFeatureResolverParameters().cloneParameterSet();
+    sgParam.setParameter(GeneralResolverParameters.dimension, ResolvingDimension.RETENTION_TIME);
+    sgParam.setParameter(GeneralResolverParameters.MIN_NUMBER_OF_DATAPOINTS, 5);
+    sgParam.setParameter(SavitzkyGolayFeatureResolverParameters.MIN_PEAK_HEIGHT, 1E5);
+    sgParam.setParameter(SavitzkyGolayFeatureResolverParameters.PEAK_DURATION,
+        Range.closed(0d, 10d));
+    sgParam.setParameter(SavitzkyGolayFeatureResolverParameters.DERIVATIVE_THRESHOLD_LEVEL, 0.2);
+    savitzkyGolay = (SavitzkyGolayFeatureResolver) new SavitzkyGolayFeatureResolverParameters()
+        .getResolver(sgParam, flist);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CHROMATOGRAMS)
+  public void minimumSearch(Blackhole bh) {
+    for (int i = 0; i < CHROMATOGRAMS; i++) {
+      bh.consume(minimumSearch.resolve(x[i], y[i].clone()));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CHROMATOGRAMS)
+  public void savitzkyGolay(Blackhole bh) {
+    for (int i = 0; i < CHROMATOGRAMS; i++) {
+      bh.consume(savitzkyGolay.resolve(x[i], y[i].clone()));
+    }
+  }
+}
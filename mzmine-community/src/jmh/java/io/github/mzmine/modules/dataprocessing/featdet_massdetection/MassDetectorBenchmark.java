@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_massdetection;
+
+import benchmarkutils.BenchmarkData;
+import benchmarkutils.BenchmarkSource;
+import io.github.mzmine.datamodel.AbundanceMeasure;
+import io.github.mzmine.datamodel.MassSpectrum;
+import io.github.mzmine.datamodel.MassSpectrumType;
+import io.github.mzmine.datamodel.impl.SimpleMassSpectrum;
+import io.github.mzmine.modules.dataprocessing.featdet_massdetection.centroid.CentroidMassDetector;
+import io.github.mzmine.modules.dataprocessing.featdet_massdetection.exactmass.ExactMassDetector;
+import io.github.mzmine.modules.dataprocessing.featdet_massdetection.factor_of_lowest.FactorOfLowestMassDetector;
+import io.github.mzmine.modules.dataprocessing.featdet_massdetection.local_max.LocalMaxMassDetector;
+import io.github.mzmine.modules.dataprocessing.featdet_massdetection.wavelet.WaveletMassDetector;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Spectra per second of the mass detectors. Synthetic spectra are profile spectra with 1000 peaks,
+ * the test resource spectra are centroided. All detectors run on both to see regressions in the
+ * shared code paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MassDetectorBenchmark {
+
+  private static final int SPECTRA = 100;
+  private static final int SYNTHETIC_PEAKS = 1000;
+  private static final double NOISE_LEVEL = 1000;
+
+  @Param({"SYNTHETIC", "TEST_RESOURCE"})
+  public BenchmarkSource source;
+
+  private double[][] mzs;
+  private double[][] intensities;
+  private MassSpectrum[] spectra;
+  private MassSpectrumType type;
+  private LocalMaxMassDetector localMax;
+  private WaveletMassDetector wavelet;
+
+  @Setup
+  public void setup() {
+    mzs = new double[SPECTRA][];
+    intensities = new double[SPECTRA][];
+    spectra = new MassSpectrum[SPECTRA];
+    if (source == BenchmarkSource.SYNTHETIC) {
+      type = MassSpectrumType.PROFILE;
+      final Random random = new Random(BenchmarkData.SEED);
+      for (int i = 0; i < SPECTRA; i++) {
+        final double[][] data = BenchmarkData.profileSpectrum(random, SYNTHETIC_PEAKS);
+        mzs[i] = data[0];
+        intensities[i] = data[1];
+      }
+    } else {
+      type = MassSpectrumType.CENTROIDED;
+      final List<double[][]> all = BenchmarkData.spectra(BenchmarkData.testResourceFile())
+          .stream().filter(data -> data[0].length > 0).toList();
+      for (int i = 0; i < SPECTRA; i++) {
+        // evenly spaced over the whole run
+        final double[][] data = all.get(i * all.size() / SPECTRA);
+        mzs[i] = data[0];
+        intensities[i] = data[1];
+      }
+    }
+    for (int i = 0; i < SPECTRA; i++) {
+      spectra[i] = new SimpleMassSpectrum(mzs[i], intensities[i], type);
+    }
+    localMax = new LocalMaxMassDetector(NOISE_LEVEL, AbundanceMeasure.Height, 3);
+    wavelet = new WaveletMassDetector(NOISE_LEVEL, 5, 0.3);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SPECTRA)
+  public void centroid(Blackhole bh) {
+    for (int i = 0; i < SPECTRA; i++) {
+      bh.consume(CentroidMassDetector.getMassValues(mzs[i], intensities[i], NOISE_LEVEL));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SPECTRA)
+  public void exactMass(Blackhole bh) {
+    for (int i = 0; i < SPECTRA; i++) {
+      bh.consume(ExactMassDetector.getMassValues(mzs[i], intensities[i], NOISE_LEVEL));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SPECTRA)
+  public void factorOfLowest(Blackhole bh) {
+    for (int i = 0; i < SPECTRA; i++) {
+      bh.consume(FactorOfLowestMassDetector.getMassValues(mzs[i], intensities[i], type, 2.5));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SPECTRA)
+  public void localMax(Blackhole bh) {
+    for (int i = 0; i < SPECTRA; i++) {
+      bh.consume(localMax.getMassValues(spectra[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SPECTRA)
+  public void wavelet(Blackhole bh) {
+    for (int i = 0; i < SPECTRA; i++) {
+      bh.consume(wavelet.getMassValues(spectra[i]));
+    }
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.scans;
+
+import benchmarkutils.BenchmarkData;
+import benchmarkutils.BenchmarkSource;
+import com.google.common.collect.Range;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.util.collections.BinarySearch;
+import io.github.mzmine.util.collections.BinarySearch.DefaultTo;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Lookups per second in single spectra with {@link BinarySearch}, {@link MZTolerance} and the
+ * {@link ScanUtils} kernels that are called for every scan in feature detection and EIC
+ * extraction. Each lookup uses a new m/z from a fixed list of queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScanUtilsBenchmark {
+
+  private static final int SPECTRA = 100;
+  private static final int QUERIES_PER_SPECTRUM = 10;
+  private static final int LOOKUPS = SPECTRA * QUERIES_PER_SPECTRUM;
+  private static final MZTolerance MZ_TOL = new MZTolerance(0.002, 10);
+
+  @Param({"SYNTHETIC", "TEST_RESOURCE"})
+  public BenchmarkSource source;
+
+  private double[][] mzs;
+  private double[][] intensities;
+  private double[] queries;
+  private Range<Double>[] queryRanges;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    final List<double[][]> all = BenchmarkData.spectra(BenchmarkData.rawDataFile(source))
+        .stream().filter(data -> data[0].length > 0).toList();
+    mzs = new double[SPECTRA][];
+    intensities = new double[SPECTRA][];
+    queries = new double[LOOKUPS];
+    queryRanges = new Range[LOOKUPS];
+    final Random random = new Random(BenchmarkData.SEED);
+    for (int s = 0; s < SPECTRA; s++) {
+      final double[][] data = all.get(s * all.size() / SPECTRA);
+      mzs[s] = data[0];
+      intensities[s] = data[1];
+      for (int q = 0; q < QUERIES_PER_SPECTRUM; q++) {
+        final int i = s * QUERIES_PER_SPECTRUM + q;
+        // half of the queries hit a signal of the spectrum
+        queries[i] = random.nextBoolean() ? data[0][random.nextInt(data[0].length)]
+            : data[0][0] + random.nextDouble() * (data[0][data[0].length - 1] - data[0][0]);
+        queryRanges[i] = MZ_TOL.getToleranceRange(queries[i]);
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public void toleranceRange(Blackhole bh) {
+    for (int i = 0; i < LOOKUPS; i++) {
+      bh.consume(MZ_TOL.getToleranceRange(queries[i]));
+    }
+  }
+
+  /**
+   * Linear scan over the whole spectrum, one lookup per query
+   */
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public void checkWithinToleranceLinear(Blackhole bh) {
+    for (int i = 0; i < LOOKUPS; i++) {
+      final double[] spectrum = mzs[i / QUERIES_PER_SPECTRUM];
+      int matches = 0;
+      for (final double mz : spectrum) {
+        if (MZ_TOL.checkWithinTolerance(queries[i], mz)) {
+          matches++;
+        }
+      }
+      bh.consume(matches);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public void binarySearchIndexRange(Blackhole bh) {
+    for (int i = 0; i < LOOKUPS; i++) {
+      bh.consume(BinarySearch.indexRange(mzs[i / QUERIES_PER_SPECTRUM], queryRanges[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public void binarySearchClosest(Blackhole bh) {
+    for (int i = 0; i < LOOKUPS; i++) {
+      bh.consume(BinarySearch.binarySearch(mzs[i / QUERIES_PER_SPECTRUM], queries[i],
+          DefaultTo.CLOSEST_VALUE));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public void findClosestDatapoint(Blackhole bh) {
+    for (int i = 0; i < LOOKUPS; i++) {
+      bh.consume(ScanUtils.findClosestDatapoint(queries[i], mzs[i / QUERIES_PER_SPECTRUM],
+          MZ_TOL.getMzToleranceForMass(queries[i])));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public void findBasePeak(Blackhole bh) {
+    for (int i = 0; i < LOOKUPS; i++) {
+      final int s = i / QUERIES_PER_SPECTRUM;
+      bh.consume(ScanUtils.findBasePeak(mzs[s], intensities[s], queryRanges[i], mzs[s].length));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public void calculateTIC(Blackhole bh) {
+    for (int i = 0; i < LOOKUPS; i++) {
+      final int s = i / QUERIES_PER_SPECTRUM;
+      bh.consume(ScanUtils.calculateTIC(mzs[s], intensities[s], queryRanges[i], mzs[s].length));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SPECTRA)
+  public void findTopDataPoint(Blackhole bh) {
+    for (int s = 0; s < SPECTRA; s++) {
+      bh.consume(ScanUtils.findTopDataPoint(intensities[s]));
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.scans.similarity;
+
+import io.github.mzmine.datamodel.DataPoint;
+import io.github.mzmine.datamodel.impl.SimpleDataPoint;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.util.maths.similarity.Similarity;
+import io.github.mzmine.util.scans.ScanAlignment;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Modified cosine pairs per second: greedy alignment by {@link ScanAlignment} vs. the
+ * {@link CosineSimilarityKernel} on data points and on prepared spectra with the minimum cosine
+ * pre-check as used in molecular networking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ModifiedCosineBenchmark {
+
+  private static final int PAIRS = 1000;
+  private static final MZTolerance MZ_TOL = new MZTolerance(0.005, 10);
+  private static final double MIN_COSINE = 0.7;
+  private static final int MIN_MATCH = 4;
+
+  @Param({"20", "100", "500"})
+  public int signals;
+
+  private DataPoint[][] spectraA;
+  private DataPoint[][] spectraB;
+  private double[] precursorsA;
+  private double[] precursorsB;
+  private CosineSpectrum[] preparedA;
+  private CosineSpectrum[] preparedB;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random(42);
+    spectraA = new DataPoint[PAIRS][];
+    spectraB = new DataPoint[PAIRS][];
+    precursorsA = new double[PAIRS];
+    precursorsB = new double[PAIRS];
+    preparedA = new CosineSpectrum[PAIRS];
+    preparedB = new CosineSpectrum[PAIRS];
+    for (int i = 0; i < PAIRS; i++) {
+      precursorsA[i] = 200 + random.nextDouble() * 600;
+      // every tenth pair is related by a modification
+      final boolean related = i % 10 == 0;
+      precursorsB[i] = related ? precursorsA[i] + 14.01565 : 200 + random.nextDouble() * 600;
+      spectraA[i] = randomSpectrum(random, null, 0);
+      spectraB[i] = randomSpectrum(random, related ? spectraA[i] : null,
+          precursorsB[i] - precursorsA[i]);
+      preparedA[i] = CosineSpectrum.of(spectraA[i], Weights.SQRT);
+      preparedB[i] = CosineSpectrum.of(spectraB[i], Weights.SQRT);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIRS)
+  public void scanAlignment(Blackhole bh) {
+    for (int i = 0; i < PAIRS; i++) {
+      final List<DataPoint[]> aligned = ScanAlignment.alignOfSortedModAware(MZ_TOL, spectraB[i],
+          spectraA[i], precursorsB[i], precursorsA[i]);
+      final int overlap = (int) aligned.stream().filter(dp -> dp[0] != null && dp[1] != null)
+          .count();
+      if (overlap >= MIN_MATCH) {
+        bh.consume(Similarity.COSINE.calc(
+            ScanAlignment.toIntensityMatrixWeighted(aligned, Weights.SQRT.getIntensity(),
+                Weights.SQRT.getMz())));
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIRS)
+  public void kernelDataPoints(Blackhole bh) {
+    final CosineSimilarityKernel kernel = CosineSimilarityKernel.forCurrentThread();
+    for (int i = 0; i < PAIRS; i++) {
+      final CosineSpectrum x = kernel.loadX(spectraB[i], Weights.SQRT, false);
+      final CosineSpectrum y = kernel.loadY(spectraA[i], Weights.SQRT, false);
+      bh.consume(kernel.match(x, y, MZ_TOL, precursorsA[i] - precursorsB[i], MIN_MATCH,
+          Double.NEGATIVE_INFINITY, true, true));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIRS)
+  public void kernelPreparedWithMinCosine(Blackhole bh) {
+    final CosineSimilarityKernel kernel = CosineSimilarityKernel.forCurrentThread();
+    for (int i = 0; i < PAIRS; i++) {
+      bh.consume(kernel.match(preparedB[i], preparedA[i], MZ_TOL, precursorsA[i] - precursorsB[i],
+          MIN_MATCH, MIN_COSINE, true, true));
+    }
+  }
+
+  /**
+   * @param template half of the signals are copied from template with m/z noise and partially
+   *                 shifted by delta if not null
+   */
+  private DataPoint[] randomSpectrum(Random random, DataPoint[] template, double delta) {
+    final DataPoint[] dps = new DataPoint[signals];
+    for (int i = 0; i < dps.length; i++) {
+      double mz;
+      if (template != null && random.nextBoolean()) {
+        mz = template[random.nextInt(template.length)].getMZ()
+             + (random.nextDouble() - 0.5) * 0.004 + (random.nextBoolean() ? delta : 0);
+      } else {
+        mz = 50 + random.nextDouble() * 750;
+      }
+      dps[i] = new SimpleDataPoint(mz, Math.exp(random.nextDouble() * 10));
+    }
+    Arrays.sort(dps, ScanAlignment.sorter);
+    return dps;
+  }
+}
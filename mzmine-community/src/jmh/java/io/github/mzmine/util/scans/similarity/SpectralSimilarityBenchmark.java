@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.scans.similarity;
+
+import benchmarkutils.BenchmarkData;
+import benchmarkutils.BenchmarkSource;
+import io.github.mzmine.datamodel.DataPoint;
+import io.github.mzmine.datamodel.impl.SimpleDataPoint;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.util.maths.similarity.Similarity;
+import io.github.mzmine.util.scans.ScanAlignment;
+import io.github.mzmine.util.scans.similarity.impl.cosine.WeightedCosineSpectralSimilarity;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Weighted cosine pairs per second without precursor shift: greedy alignment by
+ * {@link ScanAlignment}, the {@link WeightedCosineSpectralSimilarity} function and the
+ * {@link CosineSimilarityKernel} on data points and on prepared spectra. Synthetic pairs share half
+ * of their signals, test resource pairs are consecutive scans of the same file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SpectralSimilarityBenchmark {
+
+  private static final int PAIRS = 200;
+  private static final int SYNTHETIC_SIGNALS = 200;
+  private static final MZTolerance MZ_TOL = new MZTolerance(0.005, 10);
+  private static final double MIN_COSINE = 0.7;
+  private static final int MIN_MATCH = 4;
+
+  @Param({"SYNTHETIC", "TEST_RESOURCE"})
+  public BenchmarkSource source;
+
+  private DataPoint[][] spectraA;
+  private DataPoint[][] spectraB;
+  private CosineSpectrum[] preparedA;
+  private CosineSpectrum[] preparedB;
+  private WeightedCosineSpectralSimilarity weightedCosine;
+
+  @Setup
+  public void setup() {
+    spectraA = new DataPoint[PAIRS][];
+    spectraB = new DataPoint[PAIRS][];
+    preparedA = new CosineSpectrum[PAIRS];
+    preparedB = new CosineSpectrum[PAIRS];
+    if (source == BenchmarkSource.SYNTHETIC) {
+      final Random random = new Random(BenchmarkData.SEED);
+      for (int i = 0; i < PAIRS; i++) {
+        final double[][] a = BenchmarkData.centroidSpectrum(random, SYNTHETIC_SIGNALS);
+        final double[][] b = BenchmarkData.centroidSpectrum(random, SYNTHETIC_SIGNALS);
+        // share every second signal with a small m/z error
+        for (int s = 0; s < SYNTHETIC_SIGNALS; s += 2) {
+          b[0][s] = a[0][s] + (random.nextDouble() - 0.5) * 0.004;
+          b[1][s] = a[1][s] * (0.5 + random.nextDouble());
+        }
+        spectraA[i] = toDataPoints(a);
+        spectraB[i] = toDataPoints(b);
+      }
+    } else {
+      final List<double[][]> all = BenchmarkData.spectra(BenchmarkData.testResourceFile())
+          .stream().filter(data -> data[0].length >= MIN_MATCH).toList();
+      for (int i = 0; i < PAIRS; i++) {
+        // consecutive scans evenly spaced over the whole run
+        final int index = i * (all.size() - 1) / PAIRS;
+        spectraA[i] = toDataPoints(all.get(index));
+        spectraB[i] = toDataPoints(all.get(index + 1));
+      }
+    }
+    for (int i = 0; i < PAIRS; i++) {
+      preparedA[i] = CosineSpectrum.of(spectraA[i], Weights.SQRT);
+      preparedB[i] = CosineSpectrum.of(spectraB[i], Weights.SQRT);
+    }
+    weightedCosine = new WeightedCosineSpectralSimilarity();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIRS)
+  public void scanAlignment(Blackhole bh) {
+    for (int i = 0; i < PAIRS; i++) {
+      final List<DataPoint[]> aligned = ScanAlignment.alignOfSorted(MZ_TOL, spectraB[i],
+          spectraA[i]);
+      final int overlap = (int) aligned.stream().filter(dp -> dp[0] != null && dp[1] != null)
+          .count();
+      if (overlap >= MIN_MATCH) {
+        bh.consume(Similarity.COSINE.calc(
+            ScanAlignment.toIntensityMatrixWeighted(aligned, Weights.SQRT.getIntensity(),
+                Weights.SQRT.getMz())));
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIRS)
+  public void weightedCosineFunction(Blackhole bh) {
+    for (int i = 0; i < PAIRS; i++) {
+      bh.consume(weightedCosine.getSimilarity(MZ_TOL, MIN_MATCH, spectraA[i], spectraB[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIRS)
+  public void kernelDataPoints(Blackhole bh) {
+    final CosineSimilarityKernel kernel = CosineSimilarityKernel.forCurrentThread();
+    for (int i = 0; i < PAIRS; i++) {
+      final CosineSpectrum x = kernel.loadX(spectraB[i], Weights.SQRT, false);
+      final CosineSpectrum y = kernel.loadY(spectraA[i], Weights.SQRT, false);
+      bh.consume(kernel.match(x, y, MZ_TOL, Double.NaN, MIN_MATCH, Double.NEGATIVE_INFINITY,
+          true, true));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIRS)
+  public void kernelPrepared(Blackhole bh) {
+    final CosineSimilarityKernel kernel = CosineSimilarityKernel.forCurrentThread();
+    for (int i = 0; i < PAIRS; i++) {
+      bh.consume(kernel.match(preparedB[i], preparedA[i], MZ_TOL, Double.NaN, MIN_MATCH,
+          Double.NEGATIVE_INFINITY, true, true));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PAIRS)
+  public void kernelPreparedWithMinCosine(Blackhole bh) {
+    final CosineSimilarityKernel kernel = CosineSimilarityKernel.forCurrentThread();
+    for (int i = 0; i < PAIRS; i++) {
+      bh.consume(kernel.match(preparedB[i], preparedA[i], MZ_TOL, Double.NaN, MIN_MATCH,
+          MIN_COSINE, true, true));
+    }
+  }
+
+  /**
+   * @return data points sorted by {@link ScanAlignment#sorter}
+   */
+  private static DataPoint[] toDataPoints(double[][] data) {
+    final DataPoint[] dps = new DataPoint[data[0].length];
+    for (int i = 0; i < dps.length; i++) {
+      dps[i] = new SimpleDataPoint(data[0][i], data[1][i]);
+    }
+    Arrays.sort(dps, ScanAlignment.sorter);
+    return dps;
+  }
+}
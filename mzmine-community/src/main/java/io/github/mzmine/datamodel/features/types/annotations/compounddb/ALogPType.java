@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2022 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -26,13 +26,14 @@
 package io.github.mzmine.datamodel.features.types.annotations.compounddb;
 
 import io.github.mzmine.datamodel.features.types.numbers.abstr.FloatType;
+import io.github.mzmine.util.ThreadLocalNumberFormat;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import org.jetbrains.annotations.NotNull;
 
 public class ALogPType extends FloatType {
 
-  public static final NumberFormat format = new DecimalFormat("0.00");
+  public static final NumberFormat format = ThreadLocalNumberFormat.of(new DecimalFormat("0.00"));
 
   public ALogPType() {
     super(format);
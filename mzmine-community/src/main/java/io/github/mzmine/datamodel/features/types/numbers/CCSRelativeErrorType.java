@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2022 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -28,13 +28,15 @@ package io.github.mzmine.datamodel.features.types.numbers;
 import io.github.mzmine.datamodel.features.types.numbers.abstr.FloatType;
 import io.github.mzmine.gui.preferences.UnitFormat;
 import io.github.mzmine.main.MZmineCore;
+import io.github.mzmine.util.ThreadLocalNumberFormat;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import org.jetbrains.annotations.NotNull;
 
 public class CCSRelativeErrorType extends FloatType {
 
-  private static final NumberFormat defaultFormat = new DecimalFormat("0.00 %");
+  private static final NumberFormat defaultFormat = ThreadLocalNumberFormat.of(
+      new DecimalFormat("0.00 %"));
   private static final String headerString = UnitFormat.DIVIDE.format("\u0394 CCS", "%");
 
   public CCSRelativeErrorType() {
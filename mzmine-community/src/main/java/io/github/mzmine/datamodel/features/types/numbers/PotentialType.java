@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2022 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -31,6 +31,7 @@ import io.github.mzmine.datamodel.features.ModularFeature;
 import io.github.mzmine.datamodel.features.ModularFeatureList;
 import io.github.mzmine.datamodel.features.ModularFeatureListRow;
 import io.github.mzmine.datamodel.features.types.numbers.abstr.IntegerType;
+import io.github.mzmine.util.ThreadLocalNumberFormat;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import javax.xml.stream.XMLStreamException;
@@ -40,7 +41,7 @@ import org.jetbrains.annotations.Nullable;
 
 public class PotentialType extends IntegerType {
 
-  private static final DecimalFormat format = new DecimalFormat("0");
+  private static final NumberFormat format = ThreadLocalNumberFormat.of(new DecimalFormat("0"));
 
   public PotentialType() {
     super();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2022 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -31,6 +31,7 @@ import io.github.mzmine.datamodel.features.types.DataType;
 import io.github.mzmine.datamodel.features.types.modifiers.SubColumnsFactory;
 import io.github.mzmine.javafx.components.factories.TableColumns;
 import io.github.mzmine.javafx.components.util.TextLabelMeasurementUtil;
+import io.github.mzmine.util.ThreadLocalNumberFormat;
 import java.text.NumberFormat;
 import javafx.scene.control.TreeTableColumn;
 import org.jetbrains.annotations.NotNull;
@@ -47,7 +48,8 @@ public abstract class NumberFormatType<T> extends DataType<T> {
   protected final NumberFormat DEFAULT_FORMAT;
 
   protected NumberFormatType(NumberFormat defaultFormat) {
-    DEFAULT_FORMAT = defaultFormat;
+    // types are shared singletons and may be formatted by parallel tasks
+    DEFAULT_FORMAT = ThreadLocalNumberFormat.of(defaultFormat);
   }
 
   public abstract NumberFormat getFormat();
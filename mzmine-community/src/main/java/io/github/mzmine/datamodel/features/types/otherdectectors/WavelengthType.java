@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -26,13 +26,14 @@
 package io.github.mzmine.datamodel.features.types.otherdectectors;
 
 import io.github.mzmine.datamodel.features.types.numbers.abstr.DoubleType;
+import io.github.mzmine.util.ThreadLocalNumberFormat;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import org.jetbrains.annotations.NotNull;
 
 public class WavelengthType extends DoubleType {
 
-  private static NumberFormat DEFAULT_FORMAT = new DecimalFormat("0.0");
+  private static NumberFormat DEFAULT_FORMAT = ThreadLocalNumberFormat.of(new DecimalFormat("0.0"));
 
   public WavelengthType() {
     super(DEFAULT_FORMAT);
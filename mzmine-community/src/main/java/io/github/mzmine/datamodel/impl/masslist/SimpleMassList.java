@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2022 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -64,6 +64,15 @@ public class SimpleMassList extends AbstractStorableSpectrum implements MassList
     super(mzValues, intensityValues);
   }
 
+  /**
+   * Uses already stored values without copying, e.g., memory mapped from a project. The values must
+   * be sorted by mz.
+   */
+  public static SimpleMassList ofStoredValues(@NotNull MemorySegment mzValues,
+      @NotNull MemorySegment intensityValues) {
+    return new SimpleMassList(mzValues, intensityValues);
+  }
+
   /**
    * Use mzValues and intensityValues constructor
    *
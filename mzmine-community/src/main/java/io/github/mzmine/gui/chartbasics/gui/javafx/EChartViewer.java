@@ -463,6 +463,10 @@ public class EChartViewer extends ChartViewer implements DatasetChangeListener {
       if (data == null) {
         continue;
       }
+      if (data instanceof ColoredXYDataset cxy) {
+        // export all items, the next rendering decimates large datasets again
+        cxy.clearLevelOfDetail();
+      }
 
       if (data instanceof XYZDataset xyz) {
         final int series = data.getSeriesCount();
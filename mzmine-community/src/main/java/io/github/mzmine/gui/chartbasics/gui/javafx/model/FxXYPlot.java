@@ -54,12 +54,17 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jfree.chart.ChartRenderingInfo;
 import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.CrosshairState;
 import org.jfree.chart.plot.Marker;
 import org.jfree.chart.plot.Plot;
 import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.PlotState;
 import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.SamplingXYLineRenderer;
+import org.jfree.chart.renderer.xy.XYAreaRenderer;
+import org.jfree.chart.renderer.xy.XYBarRenderer;
 import org.jfree.chart.renderer.xy.XYItemRenderer;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.chart.ui.Layer;
 import org.jfree.data.general.DatasetChangeEvent;
 import org.jfree.data.general.DatasetChangeListener;
@@ -290,6 +295,37 @@ public class FxXYPlot extends XYPlot implements FxBaseChartModel {
     }
   }
 
+  /**
+   * Applies the level of detail of large {@link ColoredXYDataset}s for the current domain range
+   * and data area width before rendering, so only the items visible at this resolution are drawn.
+   */
+  @Override
+  public boolean render(Graphics2D g2, Rectangle2D dataArea, int index, PlotRenderingInfo info,
+      CrosshairState crosshairState) {
+    if (getDataset(index) instanceof ColoredXYDataset dataset) {
+      final ValueAxis domainAxis = getDomainAxisForDataset(index);
+      if (domainAxis != null && drawsEnvelope(getRendererForDataset(dataset))) {
+        dataset.updateLevelOfDetail(domainAxis.getLowerBound(), domainAxis.getUpperBound(),
+            (int) Math.ceil(dataArea.getWidth()));
+      } else {
+        dataset.clearLevelOfDetail();
+      }
+    }
+    return super.render(g2, dataArea, index, info, crosshairState);
+  }
+
+  /**
+   * Lines, areas, and bars look the same when drawn through the min/max envelope of each pixel
+   * column. Shape only renderers need all items.
+   */
+  private static boolean drawsEnvelope(@Nullable XYItemRenderer renderer) {
+    return switch (renderer) {
+      case XYLineAndShapeRenderer r -> r.getDefaultLinesVisible();
+      case XYAreaRenderer _, XYBarRenderer _, SamplingXYLineRenderer _ -> true;
+      case null, default -> false;
+    };
+  }
+
   /**
    * Each individual dataset change event like when a {@link XYValueProvider} was calculated in
    * {@link ColoredXYDataset} or when a dataset was set to the plot
@@ -95,7 +95,8 @@ public class PlotCursorUtils {
           final double newDist = MathUtils.getDistance(searchX, searchY, screenX, screenY);
           if (newDist < dist) {
             dist = newDist;
-            itemIndex = i;
+            // cursor positions refer to the value provider items of decimated datasets
+            itemIndex = dataset instanceof ColoredXYDataset colored ? colored.getSourceItem(i) : i;
             bestDataset = dataset;
             bestX = itemX;
             bestY = itemY;
@@ -231,9 +232,9 @@ public class PlotCursorUtils {
       return null;
     }
     for (int series = 0; series < dataset.getSeriesCount(); series++) {
-      for (int i = 0; i < dataset.getItemCount(series); i++) {
-        final double x = dataset.getXValue(series, i);
-        final double y = dataset.getYValue(series, i);
+      for (int i = 0; i < sourceItemCount(dataset, series); i++) {
+        final double x = sourceXValue(dataset, series, i);
+        final double y = sourceYValue(dataset, series, i);
         if (Double.compare(x, domain) == 0 && Double.compare(y, range) == 0) {
           return new PlotCursorPosition(x, y, i, dataset);
         }
@@ -249,9 +250,9 @@ public class PlotCursorUtils {
       return null;
     }
     for (int series = 0; series < dataset.getSeriesCount(); series++) {
-      for (int i = 0; i < dataset.getItemCount(series); i++) {
-        final double x = dataset.getXValue(series, i);
-        final double y = dataset.getYValue(series, i);
+      for (int i = 0; i < sourceItemCount(dataset, series); i++) {
+        final double x = sourceXValue(dataset, series, i);
+        final double y = sourceYValue(dataset, series, i);
         if (Double.compare(x, domain) == 0) {
           return new PlotCursorPosition(x, y, i, dataset);
         }
@@ -267,9 +268,9 @@ public class PlotCursorUtils {
       return null;
     }
     for (int series = 0; series < dataset.getSeriesCount(); series++) {
-      for (int i = 0; i < dataset.getItemCount(series); i++) {
-        final double x = dataset.getXValue(series, i);
-        final double y = dataset.getYValue(series, i);
+      for (int i = 0; i < sourceItemCount(dataset, series); i++) {
+        final double x = sourceXValue(dataset, series, i);
+        final double y = sourceYValue(dataset, series, i);
         if (Double.compare(y, range) == 0) {
           return new PlotCursorPosition(x, y, i, dataset);
         }
@@ -282,4 +283,25 @@ public class PlotCursorUtils {
     return !(dataset instanceof ColoredXYDataset coloredDataset)
         || coloredDataset.isCursorSelectable();
   }
+
+  /**
+   * {@link ColoredXYDataset}s may only serve a decimated subset of their items while a level of
+   * detail is applied. Searching by values needs to include all items of the value provider.
+   */
+  private static int sourceItemCount(final @NotNull XYDataset dataset, final int series) {
+    return dataset instanceof ColoredXYDataset colored ? colored.getSourceItemCount()
+        : dataset.getItemCount(series);
+  }
+
+  private static double sourceXValue(final @NotNull XYDataset dataset, final int series,
+      final int item) {
+    return dataset instanceof ColoredXYDataset colored ? colored.getValueProvider()
+        .getDomainValue(item) : dataset.getXValue(series, item);
+  }
+
+  private static double sourceYValue(final @NotNull XYDataset dataset, final int series,
+      final int item) {
+    return dataset instanceof ColoredXYDataset colored ? colored.getValueProvider()
+        .getRangeValue(item) : dataset.getYValue(series, item);
+  }
 }
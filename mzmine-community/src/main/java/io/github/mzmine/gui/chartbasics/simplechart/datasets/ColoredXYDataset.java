@@ -67,6 +67,12 @@ public class ColoredXYDataset extends AbstractTaskXYDataset implements IntervalX
     SeriesKeyProvider, LabelTextProvider, ToolTipTextProvider, ColorPropertyProvider {
 
   private static final Logger logger = Logger.getLogger(ColoredXYDataset.class.getName());
+  /**
+   * Datasets with at least this number of items and ascending domain values build a
+   * {@link MinMaxDecimationPyramid} and only serve the items needed to draw the visible domain
+   * range, see {@link #updateLevelOfDetail(double, double, int)}.
+   */
+  public static final int LEVEL_OF_DETAIL_MIN_ITEMS = 20_000;
   protected final XYValueProvider xyValueProvider;
   protected final SeriesKeyProvider<Comparable<?>> seriesKeyProvider;
   protected final LabelTextProvider labelTextProvider;
@@ -88,6 +94,14 @@ public class ColoredXYDataset extends AbstractTaskXYDataset implements IntervalX
   protected Range<Double> domainRange;
   protected Range<Double> rangeRange;
 
+  // level of detail, only set for large datasets with ascending domain values
+  protected volatile @Nullable MinMaxDecimationPyramid decimationPyramid;
+  // indices of the served items in the value provider, null to serve all items
+  private int @Nullable [] levelOfDetailItems;
+  private double levelOfDetailLower = Double.NaN;
+  private double levelOfDetailUpper = Double.NaN;
+  private int levelOfDetailWidth = -1;
+
   private ColoredXYDataset(XYValueProvider xyValueProvider,
       SeriesKeyProvider<Comparable<?>> seriesKeyProvider, LabelTextProvider labelTextProvider,
       ToolTipTextProvider toolTipTextProvider, ColorProvider colorProvider,
@@ -221,15 +235,35 @@ public class ColoredXYDataset extends AbstractTaskXYDataset implements IntervalX
 
   @Override
   public int getItemCount(int series) {
+    final int[] items = levelOfDetailItems;
+    return items != null ? items.length : computedItemCount;
+  }
+
+  /**
+   * @return the number of items of the value provider, independent of the level of detail.
+   */
+  public int getSourceItemCount() {
     return computedItemCount;
   }
 
+  /**
+   * Items of this dataset are a subset of the value provider items while a level of detail is
+   * applied.
+   *
+   * @param item the item index of this dataset
+   * @return the item index of the value provider
+   */
+  public int getSourceItem(int item) {
+    final int[] items = levelOfDetailItems;
+    return items != null && item >= 0 && item < items.length ? items[item] : item;
+  }
+
   @Override
   public Number getX(int series, int item) {
     if (!valuesComputed) {
       return 0.d;
     }
-    return xyValueProvider.getDomainValue(item);
+    return xyValueProvider.getDomainValue(getSourceItem(item));
   }
 
   @Override
@@ -237,7 +271,7 @@ public class ColoredXYDataset extends AbstractTaskXYDataset implements IntervalX
     if (!valuesComputed) {
       return 0.d;
     }
-    return xyValueProvider.getRangeValue(item);
+    return xyValueProvider.getRangeValue(getSourceItem(item));
   }
 
   @Override
@@ -245,7 +279,7 @@ public class ColoredXYDataset extends AbstractTaskXYDataset implements IntervalX
     if (!valuesComputed) {
       return 0.0d;
     }
-    return xyValueProvider.getDomainValue(item);
+    return xyValueProvider.getDomainValue(getSourceItem(item));
   }
 
   @Override
@@ -253,20 +287,72 @@ public class ColoredXYDataset extends AbstractTaskXYDataset implements IntervalX
     if (!valuesComputed) {
       return 0.0d;
     }
-    return xyValueProvider.getRangeValue(item);
+    return xyValueProvider.getRangeValue(getSourceItem(item));
   }
 
+  /**
+   * @return the index of the value provider item with these values or -1.
+   */
   public int getValueIndex(final double domainValue, final double rangeValue) {
+    if (!valuesComputed) {
+      return -1;
+    }
     // todo binary search somehow here
     for (int i = 0; i < computedItemCount; i++) {
-      if (Double.compare(domainValue, getXValue(0, i)) == 0
-          && Double.compare(rangeValue, getYValue(0, i)) == 0) {
+      if (Double.compare(domainValue, xyValueProvider.getDomainValue(i)) == 0
+          && Double.compare(rangeValue, xyValueProvider.getRangeValue(i)) == 0) {
         return i;
       }
     }
     return -1;
   }
 
+  /**
+   * Selects the items to serve for the visible domain range and the number of pixel columns it is
+   * drawn on. Only applies to datasets with a {@link MinMaxDecimationPyramid}, all other datasets
+   * serve all items. Called by the plot before rendering, so zoomed ranges are decimated on
+   * demand. Does not fire a dataset change.
+   *
+   * @param lower      lower bound of the visible domain range
+   * @param upper      upper bound of the visible domain range
+   * @param pixelWidth number of pixel columns, <= 0 to serve all items
+   * @return true if the served items changed
+   */
+  public boolean updateLevelOfDetail(double lower, double upper, int pixelWidth) {
+    final MinMaxDecimationPyramid pyramid = decimationPyramid;
+    if (pyramid == null || pixelWidth <= 0 || !(upper > lower)) {
+      return clearLevelOfDetail();
+    }
+    if (levelOfDetailItems != null && levelOfDetailWidth == pixelWidth
+        && Double.compare(levelOfDetailLower, lower) == 0
+        && Double.compare(levelOfDetailUpper, upper) == 0) {
+      return false;
+    }
+    final int[] items = pyramid.decimate(lower, upper, pixelWidth);
+    if (items.length >= pyramid.getNumItems()) {
+      return clearLevelOfDetail();
+    }
+    levelOfDetailItems = items;
+    levelOfDetailLower = lower;
+    levelOfDetailUpper = upper;
+    levelOfDetailWidth = pixelWidth;
+    return true;
+  }
+
+  /**
+   * Serves all items again.
+   *
+   * @return true if the served items changed
+   */
+  public boolean clearLevelOfDetail() {
+    if (levelOfDetailItems == null) {
+      return false;
+    }
+    levelOfDetailItems = null;
+    levelOfDetailWidth = -1;
+    return true;
+  }
+
   public XYValueProvider getValueProvider() {
     return xyValueProvider;
   }
@@ -287,7 +373,7 @@ public class ColoredXYDataset extends AbstractTaskXYDataset implements IntervalX
       return null;
     }
     if (labelTextProvider != null) {
-      return labelTextProvider.getLabel(itemIndex);
+      return labelTextProvider.getLabel(getSourceItem(itemIndex));
     }
     return String.valueOf(getYValue(1, itemIndex));
   }
@@ -298,7 +384,7 @@ public class ColoredXYDataset extends AbstractTaskXYDataset implements IntervalX
     if (itemIndex > getItemCount(1) || toolTipTextProvider == null) {
       return null;
     }
-    return toolTipTextProvider.getToolTipText(itemIndex);
+    return toolTipTextProvider.getToolTipText(getSourceItem(itemIndex));
   }
 
   public Double getMinimumRangeValue() {
@@ -346,6 +432,11 @@ public class ColoredXYDataset extends AbstractTaskXYDataset implements IntervalX
     domainRange = computedItemCount > 0 ? Range.closed(minDomain, maxDomain) : Range.closed(0d, 1d);
     rangeRange = computedItemCount > 0 ? Range.closed(minRange, maxRange) : Range.closed(0d, 1d);
 
+    if (computedItemCount >= LEVEL_OF_DETAIL_MIN_ITEMS) {
+      decimationPyramid = MinMaxDecimationPyramid.build(computedItemCount,
+          xyValueProvider::getDomainValue, xyValueProvider::getRangeValue, this::isCanceled);
+    }
+
 //    if (setToFinished) {
     onCalculationsFinished();
 //    }
@@ -434,7 +525,7 @@ public class ColoredXYDataset extends AbstractTaskXYDataset implements IntervalX
     if (item > getItemCount(0)) {
       return false;
     }
-    return isLocalMaximum[item];
+    return isLocalMaximum[getSourceItem(item)];
   }
 
   /**
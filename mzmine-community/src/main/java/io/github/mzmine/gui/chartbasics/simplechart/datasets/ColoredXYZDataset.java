@@ -124,7 +124,7 @@ public class ColoredXYZDataset extends ColoredXYDataset implements XYZDataset, P
     if (!valuesComputed) {
       return 0.0;
     }
-    return xyzValueProvider.getZValue(item);
+    return xyzValueProvider.getZValue(getSourceItem(item));
   }
 
   public Range<Double> getZValueRange() {
@@ -160,7 +160,8 @@ public class ColoredXYZDataset extends ColoredXYDataset implements XYZDataset, P
 
   @Override
   public int getValueIndex(final double domainValue, final double rangeValue) {
-    for (int i = 0; i < computedItemCount; i++) {
+    final int itemCount = getItemCount(0);
+    for (int i = 0; i < itemCount; i++) {
       if (Double.compare(domainValue, getX(0, i).doubleValue()) == 0
           && Double.compare(rangeValue, getY(0, i).doubleValue()) == 0) {
         return i;
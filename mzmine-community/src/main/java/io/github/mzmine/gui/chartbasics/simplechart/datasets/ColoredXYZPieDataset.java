@@ -75,19 +75,19 @@ public class ColoredXYZPieDataset<T> extends ColoredXYDataset implements XYZData
     if (!valuesComputed) {
       return 0.0;
     }
-    return pieDataProvider.getZValue(item);
+    return pieDataProvider.getZValue(getSourceItem(item));
   }
 
   public double getZValue(int item) {
     if (!valuesComputed) {
       return 0.0;
     }
-    return pieDataProvider.getZValue(item);
+    return pieDataProvider.getZValue(getSourceItem(item));
   }
 
   @Override
   public double getZValue(int series, int item) {
-    return pieDataProvider.getZValue(series, item);
+    return pieDataProvider.getZValue(series, getSourceItem(item));
   }
 
   @Override
@@ -106,12 +106,13 @@ public class ColoredXYZPieDataset<T> extends ColoredXYDataset implements XYZData
   }
 
   public double getPieDiameter(int index) {
-    return pieDataProvider.getPieDiameter(index);
+    return pieDataProvider.getPieDiameter(getSourceItem(index));
   }
 
   @Override
   public int getValueIndex(final double domainValue, final double rangeValue) {
-    for (int i = 0; i < computedItemCount; i++) {
+    final int itemCount = getItemCount(0);
+    for (int i = 0; i < itemCount; i++) {
       if (Double.compare(domainValue, getX(0, i).doubleValue()) == 0
           && Double.compare(rangeValue, getY(0, i).doubleValue()) == 0) {
         return i;
@@ -158,7 +159,7 @@ public class ColoredXYZPieDataset<T> extends ColoredXYDataset implements XYZData
       maxZ = Math.max(zValue, maxZ);
 
       for (int j = 0; j < sliceIdentifiers.length; j++) {
-        summedZValues[i] += getZValue(j, i);
+        summedZValues[i] += pieDataProvider.getZValue(j, i);
       }
     }
 
@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.gui.chartbasics.simplechart.datasets;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntToDoubleFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Level-of-detail pyramid of min/max envelopes over the items of a dataset with ascending domain
+ * values, e.g., a chromatogram or a profile spectrum. Level {@code l} stores the index of the
+ * lowest and highest range value for each block of {@code BASE_BLOCK_SIZE << l} consecutive items,
+ * so the envelope of any item range is found in logarithmic time.
+ * <p>
+ * {@link #decimate(double, double, int)} selects the first, last, lowest and highest item of each
+ * pixel column in the visible domain range. Lines drawn through these items cover the same pixels
+ * as lines drawn through all items, so only a few thousand items are rendered independent of the
+ * dataset size.
+ */
+public final class MinMaxDecimationPyramid {
+
+  static final int BASE_BLOCK_SHIFT = 4;
+  static final int BASE_BLOCK_SIZE = 1 << BASE_BLOCK_SHIFT;
+  /**
+   * Number of buckets for the items left and right of the visible domain range. These items are
+   * not visible, but keep the line connected to the plot border and keep the domain and range
+   * bounds of the dataset for auto ranging.
+   */
+  static final int OUTSIDE_BUCKETS = 64;
+
+  private final int numItems;
+  private final @NotNull IntToDoubleFunction domainValues;
+  private final @NotNull IntToDoubleFunction rangeValues;
+  // [level][block] item indices of the block minimum and maximum
+  private final int[][] minItems;
+  private final int[][] maxItems;
+
+  private MinMaxDecimationPyramid(int numItems, @NotNull IntToDoubleFunction domainValues,
+      @NotNull IntToDoubleFunction rangeValues, int[][] minItems, int[][] maxItems) {
+    this.numItems = numItems;
+    this.domainValues = domainValues;
+    this.rangeValues = rangeValues;
+    this.minItems = minItems;
+    this.maxItems = maxItems;
+  }
+
+  /**
+   * Builds the pyramid. The value functions are kept and read again on decimation, so they need to
+   * stay valid for the lifetime of the pyramid.
+   *
+   * @param numItems     number of items
+   * @param domainValues domain value by item index, needs to be ascending
+   * @param rangeValues  range value by item index
+   * @param canceled     checked while building
+   * @return the pyramid or null if canceled or if the domain values are not ascending
+   */
+  public static @Nullable MinMaxDecimationPyramid build(int numItems,
+      @NotNull IntToDoubleFunction domainValues, @NotNull IntToDoubleFunction rangeValues,
+      @NotNull BooleanSupplier canceled) {
+    double lastDomain = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < numItems; i++) {
+      final double domain = domainValues.applyAsDouble(i);
+      // also false for NaN
+      if (!(domain >= lastDomain)) {
+        return null;
+      }
+      lastDomain = domain;
+    }
+
+    int numLevels = 0;
+    while (numItems >> (BASE_BLOCK_SHIFT + numLevels) > 0) {
+      numLevels++;
+    }
+    final int[][] minItems = new int[numLevels][];
+    final int[][] maxItems = new int[numLevels][];
+
+    for (int level = 0; level < numLevels; level++) {
+      if (canceled.getAsBoolean()) {
+        return null;
+      }
+      final int numBlocks = numItems >> (BASE_BLOCK_SHIFT + level);
+      final int[] levelMin = new int[numBlocks];
+      final int[] levelMax = new int[numBlocks];
+      for (int block = 0; block < numBlocks; block++) {
+        int min;
+        int max;
+        if (level == 0) {
+          final int start = block << BASE_BLOCK_SHIFT;
+          min = start;
+          max = start;
+          double minValue = rangeValues.applyAsDouble(start);
+          double maxValue = minValue;
+          for (int i = start + 1; i < start + BASE_BLOCK_SIZE; i++) {
+            final double value = rangeValues.applyAsDouble(i);
+            if (isBelow(value, minValue)) {
+              min = i;
+              minValue = value;
+            }
+            if (isAbove(value, maxValue)) {
+              max = i;
+              maxValue = value;
+            }
+          }
+        } else {
+          // merge the two child blocks of the level below
+          final int[] lowerMin = minItems[level - 1];
+          final int[] lowerMax = maxItems[level - 1];
+          final int left = block << 1;
+          min = lowerMin[left];
+          max = lowerMax[left];
+          if (isBelow(rangeValues.applyAsDouble(lowerMin[left + 1]),
+              rangeValues.applyAsDouble(min))) {
+            min = lowerMin[left + 1];
+          }
+          if (isAbove(rangeValues.applyAsDouble(lowerMax[left + 1]),
+              rangeValues.applyAsDouble(max))) {
+            max = lowerMax[left + 1];
+          }
+        }
+        levelMin[block] = min;
+        levelMax[block] = max;
+      }
+      minItems[level] = levelMin;
+      maxItems[level] = levelMax;
+    }
+    return new MinMaxDecimationPyramid(numItems, domainValues, rangeValues, minItems, maxItems);
+  }
+
+  /**
+   * NaN values are never selected over defined values
+   */
+  private static boolean isBelow(double value, double current) {
+    return value < current || (Double.isNaN(current) && !Double.isNaN(value));
+  }
+
+  private static boolean isAbove(double value, double current) {
+    return value > current || (Double.isNaN(current) && !Double.isNaN(value));
+  }
+
+  public int getNumItems() {
+    return numItems;
+  }
+
+  public int getNumLevels() {
+    return minItems.length;
+  }
+
+  /**
+   * Selects the items to render for a domain range drawn on a number of pixel columns. The first,
+   * last, lowest and highest item of each pixel column are selected. Items outside of the domain
+   * range are reduced to a few coarse buckets.
+   *
+   * @param lower      lower bound of the visible domain range
+   * @param upper      upper bound of the visible domain range
+   * @param pixelWidth number of pixel columns the domain range is drawn on
+   * @return the ascending item indices to render
+   */
+  public int @NotNull [] decimate(double lower, double upper, int pixelWidth) {
+    if (numItems == 0) {
+      return new int[0];
+    }
+    final int from = firstItemAtOrAbove(lower, 0, numItems);
+    final int to = Math.max(from, firstItemAbove(upper, from, numItems));
+
+    final int columns = Math.max(pixelWidth, 1);
+    final IntArrayList items = new IntArrayList(
+        Math.min(numItems, 4 * (columns + 2 * OUTSIDE_BUCKETS)));
+    final int[] envelope = new int[2];
+    addBuckets(items, 0, from, OUTSIDE_BUCKETS, envelope);
+
+    int start = from;
+    for (int column = 1; column <= columns && start < to; column++) {
+      final int end = column == columns ? to : firstItemAtOrAbove(
+          lower + (upper - lower) * column / columns, start, to);
+      addEnvelope(items, start, end, envelope);
+      start = end;
+    }
+
+    addBuckets(items, to, numItems, OUTSIDE_BUCKETS, envelope);
+    return items.toIntArray();
+  }
+
+  /**
+   * Splits the item range into buckets of equal item count and adds their envelopes
+   */
+  private void addBuckets(@NotNull IntArrayList items, int from, int to, int buckets,
+      int[] envelope) {
+    int start = from;
+    for (int bucket = 1; bucket <= buckets && start < to; bucket++) {
+      final int end = from + (int) ((long) (to - from) * bucket / buckets);
+      addEnvelope(items, start, end, envelope);
+      start = end;
+    }
+  }
+
+  /**
+   * Adds the first, lowest, highest, and last item of the range in ascending order
+   */
+  private void addEnvelope(@NotNull IntArrayList items, int from, int to, int[] envelope) {
+    if (to - from <= 4) {
+      for (int i = from; i < to; i++) {
+        items.add(i);
+      }
+      return;
+    }
+    findEnvelope(from, to, envelope);
+    final int low = Math.min(envelope[0], envelope[1]);
+    final int high = Math.max(envelope[0], envelope[1]);
+    items.add(from);
+    if (low != from && low != to - 1) {
+      items.add(low);
+    }
+    if (high != low && high != from && high != to - 1) {
+      items.add(high);
+    }
+    items.add(to - 1);
+  }
+
+  /**
+   * Finds the items with the lowest and highest range value in an item range. Aligned blocks are
+   * taken from the highest possible pyramid level, the rest is scanned.
+   *
+   * @param from     first item, inclusive
+   * @param to       last item, exclusive
+   * @param envelope receives the index of the lowest item at 0 and of the highest item at 1
+   */
+  void findEnvelope(int from, int to, int[] envelope) {
+    int min = from;
+    int max = from;
+    double minValue = rangeValues.applyAsDouble(from);
+    double maxValue = minValue;
+
+    int pos = from + 1;
+    while (pos < to) {
+      int candidateMin = pos;
+      int candidateMax = pos;
+      int step = 1;
+      if ((pos & (BASE_BLOCK_SIZE - 1)) == 0 && pos + BASE_BLOCK_SIZE <= to) {
+        int level = 0;
+        while (level + 1 < minItems.length) {
+          final int size = BASE_BLOCK_SIZE << (level + 1);
+          if ((pos & (size - 1)) != 0 || pos + size > to) {
+            break;
+          }
+          level++;
+        }
+        final int block = pos >> (BASE_BLOCK_SHIFT + level);
+        candidateMin = minItems[level][block];
+        candidateMax = maxItems[level][block];
+        step = BASE_BLOCK_SIZE << level;
+      }
+
+      final double candidateMinValue = rangeValues.applyAsDouble(candidateMin);
+      if (isBelow(candidateMinValue, minValue)) {
+        min = candidateMin;
+        minValue = candidateMinValue;
+      }
+      final double candidateMaxValue = candidateMax == candidateMin ? candidateMinValue
+          : rangeValues.applyAsDouble(candidateMax);
+      if (isAbove(candidateMaxValue, maxValue)) {
+        max = candidateMax;
+        maxValue = candidateMaxValue;
+      }
+      pos += step;
+    }
+    envelope[0] = min;
+    envelope[1] = max;
+  }
+
+  /**
+   * @return the first item in [from, to) with a domain value >= value or to
+   */
+  private int firstItemAtOrAbove(double value, int from, int to) {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (domainValues.applyAsDouble(mid) < value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * @return the first item in [from, to) with a domain value > value or to
+   */
+  private int firstItemAbove(double value, int from, int to) {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (domainValues.applyAsDouble(mid) <= value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -35,8 +35,10 @@ import io.github.mzmine.javafx.dialogs.DialogLoggerUtil;
 import io.github.mzmine.main.ConfigService;
 import io.github.mzmine.main.KeepInMemory;
 import io.github.mzmine.main.MZmineCore;
+import io.github.mzmine.modules.batchmode.BatchExecutionMode;
 import io.github.mzmine.modules.io.download.AssetGroup;
 import io.github.mzmine.modules.io.import_rawdata_bruker_tdf.datamodel.TdfPressureCompensation;
+import io.github.mzmine.modules.io.import_rawdata_mzml.MzMLImportMode;
 import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.UserParameter;
 import io.github.mzmine.parameters.dialogs.GroupedParameterSetupDialog;
@@ -65,6 +67,7 @@ import io.github.mzmine.util.StringUtils;
 import io.github.mzmine.util.color.ColorUtils;
 import io.github.mzmine.util.color.SimpleColorPalette;
 import io.github.mzmine.util.files.FileAndPathUtil;
+import io.github.mzmine.util.scans.SpectraMergingEngine;
 import io.github.mzmine.util.web.ProxyDefinition;
 import io.github.mzmine.util.web.ProxyType;
 import io.github.mzmine.util.web.ProxyUtils;
@@ -202,6 +205,33 @@ public class MZminePreferences extends SimpleParameterSet {
       Speed: References to the individual mobilograms of IMS features will be stored in RAM.
       Memory efficiency: References to the individual mobilograms of IMS features will be stored in a temporary file.""",
       ImsOptimization.values(), ImsOptimization.MEMORY_EFFICIENCY);
+  public static final ComboParameter<MzMLImportMode> mzmlImportMode = new ComboParameter<>(
+      "mzML import mode", """
+      Sequential: Parses mzML files as one stream.
+      Indexed parallel: Uses the index of indexed mzML files to parse spectra on multiple threads.
+      Files without a valid index are parsed sequentially.""", MzMLImportMode.values(),
+      MzMLImportMode.SEQUENTIAL);
+  public static final ComboParameter<BatchExecutionMode> batchExecutionMode = new ComboParameter<>(
+      "Batch execution mode", """
+      Step by step: Each batch step is finished for all files before the next step starts.
+      Per file pipeline: Consecutive steps that process each file independently (e.g., mass detection, \
+      chromatogram building, smoothing, resolving) run as one chain per file. The number of files \
+      in flight is limited by the number of threads. Steps that combine files, like alignment, \
+      wait for all files.""", BatchExecutionMode.values(), BatchExecutionMode.STEP_BY_STEP);
+  public static final BooleanParameter spectralLibraryCache = new BooleanParameter(
+      "Cache spectral libraries", """
+      Stores imported spectral libraries in a binary cache in the mzmine user directory. \
+      The next import of an unchanged library file maps the cache instead of parsing the file \
+      again. The cache is identified by the file content, changed files are parsed and cached \
+      again.""",
+      false);
+  public static final ComboParameter<SpectraMergingEngine> spectraMergingEngine =
+      new ComboParameter<>("Spectra merging engine", """
+      Range map: Groups the data points of merged spectra with one object per data point.
+      Primitive sorted merge: Merges the m/z sorted spectra into primitive arrays and groups the \
+      data points in one sweep. Faster and creates less garbage, especially for ion mobility \
+      data.""",
+      SpectraMergingEngine.values(), SpectraMergingEngine.RANGE_MAP);
   public static final BooleanParameter showPrecursorWindow = new BooleanParameter(
       "Show precursor windows", "Show the isolation window instead of just the precursor m/z.",
       true);
@@ -282,7 +312,8 @@ public class MZminePreferences extends SimpleParameterSet {
 
   public MZminePreferences() {
     super(// start with performance
-        new Parameter[]{numOfThreads, memoryOption, imsOptimization, tempDirectory,
+        new Parameter[]{numOfThreads, memoryOption, imsOptimization, mzmlImportMode,
+            batchExecutionMode, spectralLibraryCache, spectraMergingEngine, tempDirectory,
             runGCafterBatchStep, deleteTempFiles, proxyConfig,
             /*applyTimsPressureCompensation,*/
             // visuals
@@ -326,8 +357,9 @@ public class MZminePreferences extends SimpleParameterSet {
     final List<UserParameter<?, ? extends Region>> fixed = List.of();
 
     final List<ParameterGroup> groups = List.of( //
-        new ParameterGroup("General", numOfThreads, memoryOption, imsOptimization, tempDirectory,
-            runGCafterBatchStep, deleteTempFiles, proxyConfig
+        new ParameterGroup("General", numOfThreads, memoryOption, imsOptimization,
+            mzmlImportMode, batchExecutionMode, spectralLibraryCache, spectraMergingEngine,
+            tempDirectory, runGCafterBatchStep, deleteTempFiles, proxyConfig
             /*, applyTimsPressureCompensation*/), //
         new ParameterGroup("Formats", mzFormat, rtFormat, mobilityFormat, ccsFormat,
             intensityFormat, ppmFormat, scoreFormat, percentFormat, unitFormat), //
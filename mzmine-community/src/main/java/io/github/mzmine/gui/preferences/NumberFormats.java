@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -26,6 +26,7 @@
 package io.github.mzmine.gui.preferences;
 
 import com.google.common.collect.Range;
+import io.github.mzmine.util.ThreadLocalNumberFormat;
 import java.text.NumberFormat;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -40,6 +41,21 @@ public record NumberFormats(NumberFormat mzFormat, NumberFormat rtFormat,
   private static final Logger logger = Logger.getLogger(NumberFormats.class.getName());
   private static final String empty = "";
 
+  /**
+   * Wraps all formats so that the same instance can be used by parallel tasks, e.g., the parallel
+   * CSV export
+   */
+  public NumberFormats {
+    mzFormat = ThreadLocalNumberFormat.of(mzFormat);
+    rtFormat = ThreadLocalNumberFormat.of(rtFormat);
+    mobilityFormat = ThreadLocalNumberFormat.of(mobilityFormat);
+    ccsFormat = ThreadLocalNumberFormat.of(ccsFormat);
+    intensityFormat = ThreadLocalNumberFormat.of(intensityFormat);
+    ppmFormat = ThreadLocalNumberFormat.of(ppmFormat);
+    percentFormat = ThreadLocalNumberFormat.of(percentFormat);
+    scoreFormat = ThreadLocalNumberFormat.of(scoreFormat);
+  }
+
   private static String range(Range<? extends Number> range, NumberFormat format) {
     return range != null ? format.format(range.lowerEndpoint()) + " - " + format.format(
         range.upperEndpoint()) : null;
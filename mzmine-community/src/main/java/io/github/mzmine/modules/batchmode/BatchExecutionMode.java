@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.batchmode;
+
+import io.github.mzmine.datamodel.utils.UniqueIdSupplier;
+import io.github.mzmine.modules.PerFileProcessingModule;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Defines how the steps of a batch are scheduled.
+ */
+public enum BatchExecutionMode implements UniqueIdSupplier {
+
+  /**
+   * Each step is finished for all files before the next step starts.
+   */
+  STEP_BY_STEP("Step by step"),
+  /**
+   * Consecutive {@link PerFileProcessingModule} steps run as one chain per raw data file. Steps
+   * that combine files, e.g., alignment, still wait for all chains to finish.
+   */
+  PER_FILE_PIPELINE("Per file pipeline");
+
+  private final String label;
+
+  BatchExecutionMode(final String label) {
+    this.label = label;
+  }
+
+  @Override
+  public String toString() {
+    return label;
+  }
+
+  @Override
+  public @NotNull String getUniqueID() {
+    return switch (this) {
+      case STEP_BY_STEP -> "step_by_step";
+      case PER_FILE_PIPELINE -> "per_file_pipeline";
+    };
+  }
+}
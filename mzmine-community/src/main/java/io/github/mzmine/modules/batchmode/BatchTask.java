@@ -45,6 +45,7 @@ import io.github.mzmine.modules.batchmode.timing.StepTimeMeasurement;
 import io.github.mzmine.modules.io.import_rawdata_all.AllSpectralDataImportParameters;
 import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.ParameterSet;
+import io.github.mzmine.parameters.ParameterUtils;
 import io.github.mzmine.parameters.parametertypes.EmbeddedParameterSet;
 import io.github.mzmine.parameters.parametertypes.selectors.FeatureListsParameter;
 import io.github.mzmine.parameters.parametertypes.selectors.FeatureListsSelection;
@@ -78,6 +79,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import javafx.scene.control.Alert.AlertType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -102,6 +104,7 @@ public class BatchTask extends AbstractTask {
   // collected in parallel to stepTimes - temp file (MemoryMapStorage) statistics per step
   private final List<StepStorageMeasurement> stepStorageStats = new ArrayList<>();
   private final boolean runGCafterBatchStep;
+  private final BatchExecutionMode executionMode;
   private int processedSteps;
   private @Nullable List<File> subDirectories;
   private List<RawDataFile> createdDataFiles;
@@ -124,6 +127,8 @@ public class BatchTask extends AbstractTask {
     super(null, moduleCallDate);
     this.runGCafterBatchStep = requireNonNullElse(
         getPreference(MZminePreferences.runGCafterBatchStep), false);
+    this.executionMode = requireNonNullElse(
+        getPreference(MZminePreferences.batchExecutionMode), BatchExecutionMode.STEP_BY_STEP);
 
     setName("Batch task");
     this.queue = parameters.getParameter(BatchModeParameters.batchQueue).getValue();
@@ -165,8 +170,20 @@ public class BatchTask extends AbstractTask {
    */
   private TaskStatus runInTaskPool(final MZmineProcessingModule method,
       final List<Task> tasksToRun) {
+    return runInTaskPool("%s on %d items".formatted(method.getName(), tasksToRun.size()),
+        tasksToRun);
+  }
+
+  /**
+   * Runs all tasks in a single {@link ThreadPoolTask} on the {@link TaskController#getExecutor()}
+   * default executor
+   *
+   * @param description description of the thread pool task
+   * @param tasksToRun  list will be cleared after scheduling
+   * @return the {@link TaskStatus} of the carrier task reflecting the worst case of the sub tasks
+   */
+  private TaskStatus runInTaskPool(final String description, final List<Task> tasksToRun) {
     TaskController taskController = MZmineCore.getTaskController();
-    var description = "%s on %d items".formatted(method.getName(), tasksToRun.size());
     var threadPoolTask = ThreadPoolTask.createDefaultTaskManagerPool(description, tasksToRun);
     // clear tasks to not leak the long running tasks by keeping them alive
     tasksToRun.clear();
@@ -296,24 +313,32 @@ public class BatchTask extends AbstractTask {
 
       // run step
       final int stepNumber = i % stepsPerDataset;
+      // per file steps may be combined into one pipeline that is measured as one step
+      final int pipelineEnd = executionMode == BatchExecutionMode.PER_FILE_PIPELINE
+          ? PerFilePipelineTask.findPipelineEnd(queue, stepNumber) : stepNumber;
+      final int stepsInRun = Math.max(1, pipelineEnd - stepNumber);
       Instant start = Instant.now();
       final MemoryMapSnapshot storageBefore = MemoryMapStorageStats.snapshot();
 
       // the heavy lifting
-      processQueueStep(stepNumber);
-      processedSteps++;
+      if (pipelineEnd > stepNumber) {
+        processPerFilePipeline(stepNumber, pipelineEnd);
+      } else {
+        processQueueStep(stepNumber);
+      }
+      processedSteps += stepsInRun;
+      i += stepsInRun - 1;
 
       Duration duration = Duration.between(start, Instant.now());
       if (runGCafterBatchStep) {
         System.gc();
       }
       final MemoryMapSnapshot storageAfter = MemoryMapStorageStats.snapshot();
-      stepTimes.add(
-          new StepTimeMeasurement(stepNumber + 1, queue.get(stepNumber).getModule().getName(),
-              duration, runGCafterBatchStep));
+      final String stepName = getStepName(stepNumber, stepNumber + stepsInRun);
+      stepTimes.add(new StepTimeMeasurement(stepNumber + 1, stepName, duration,
+          runGCafterBatchStep));
       stepStorageStats.add(
-          new StepStorageMeasurement(stepNumber + 1, queue.get(stepNumber).getModule().getName(),
-              storageBefore, storageAfter));
+          new StepStorageMeasurement(stepNumber + 1, stepName, storageBefore, storageAfter));
 
       // If we are canceled or ran into error, stop here
       if (getStatus() == TaskStatus.ERROR) {
@@ -446,22 +471,9 @@ public class BatchTask extends AbstractTask {
       createdFeatureLists = previousCreatedFeatureLists;
     }
 
-    // Update the RawDataFilesParameter parameters to reflect the current
-    // state of the batch
-    for (Parameter<?> p : batchStepParameters.getParameters()) {
-      if (p instanceof RawDataFilesParameter rdp) {
-        RawDataFile[] createdFiles = createdDataFiles.toArray(new RawDataFile[0]);
-        final RawDataFilesSelection selectedFiles = rdp.getValue();
-        if (selectedFiles == null) {
-          setStatus(TaskStatus.ERROR);
-          setErrorMessage("Invalid parameter settings for module " + method.getName() + ": "
-              + "Missing parameter value for " + p.getName());
-          return;
-        }
-        selectedFiles.setBatchLastFiles(createdFiles);
-      }
+    if (!setBatchLastDataFilesToParamSet(method, batchStepParameters)) {
+      return;
     }
-
     if (!setBatchlastFeatureListsToParamSet(method, batchStepParameters)) {
       return;
     }
@@ -541,6 +553,82 @@ public class BatchTask extends AbstractTask {
     }
   }
 
+  /**
+   * Runs the steps from firstStep to endStep as one {@link PerFilePipelineTask} per raw data file.
+   * The raw data files are selected by the first step, all chains run in a thread pool so that the
+   * number of files in flight is limited by the number of threads. Afterwards, the batch last
+   * selection is set to the results of all chains.
+   *
+   * @param firstStep first step of the pipeline (inclusive)
+   * @param endStep   end of the pipeline (exclusive)
+   */
+  private void processPerFilePipeline(final int firstStep, final int endStep) {
+    logger.info("Starting steps # %d-%d as per file pipeline".formatted(firstStep + 1, endStep));
+
+    if (createdDataFiles.isEmpty()) {
+      createdDataFiles = previousCreatedDataFiles;
+    }
+    if (createdFeatureLists.isEmpty()) {
+      createdFeatureLists = previousCreatedFeatureLists;
+    }
+
+    // the files of the first step define the chains
+    final MZmineProcessingStep<?> firstProcessingStep = queue.get(firstStep);
+    final MZmineProcessingModule method = (MZmineProcessingModule) firstProcessingStep.getModule();
+    final ParameterSet firstStepParameters = firstProcessingStep.getParameterSet();
+    if (!setBatchLastDataFilesToParamSet(method, firstStepParameters)) {
+      return;
+    }
+    final RawDataFile[] files;
+    try {
+      files = ParameterUtils.getMatchingRawDataFilesFromParameter(firstStepParameters);
+    } catch (IllegalStateException ex) {
+      error("Invalid parameter settings for module " + method.getName() + ": " + ex.getMessage());
+      return;
+    }
+    if (files.length == 0) {
+      logger.info("No raw data files selected for the per file pipeline, skipping steps.");
+      return;
+    }
+
+    final Instant moduleCallDate = Instant.now();
+    final List<PerFilePipelineTask> chains = new ArrayList<>(files.length);
+    for (final RawDataFile file : files) {
+      chains.add(new PerFilePipelineTask(queue, firstStep, endStep, file, createdFeatureLists,
+          moduleCallDate));
+    }
+
+    final TaskStatus status = runInTaskPool(
+        "Batch steps %d-%d on %d files".formatted(firstStep + 1, endStep, files.length),
+        new ArrayList<Task>(chains));
+    if (status != TaskStatus.FINISHED) {
+      return;
+    }
+
+    createdDataFiles = chains.stream().flatMap(chain -> chain.getLastDataFiles().stream())
+        .distinct().collect(Collectors.toCollection(ArrayList::new));
+    createdFeatureLists = chains.stream().flatMap(chain -> chain.getLastFeatureLists().stream())
+        .distinct().collect(Collectors.toCollection(ArrayList::new));
+
+    if (!createdDataFiles.isEmpty()) {
+      previousCreatedDataFiles = createdDataFiles;
+    }
+    if (!createdFeatureLists.isEmpty()) {
+      previousCreatedFeatureLists = createdFeatureLists;
+    }
+  }
+
+  /**
+   * @return the module name of a single step or the joined names of a per file pipeline
+   */
+  private String getStepName(final int firstStep, final int endStep) {
+    if (endStep - firstStep == 1) {
+      return queue.get(firstStep).getModule().getName();
+    }
+    return queue.subList(firstStep, endStep).stream().map(step -> step.getModule().getName())
+        .collect(Collectors.joining(" + ", "Per file pipeline: ", ""));
+  }
+
   /**
    * Runs all tasks in the {@link TaskController}
    *
@@ -596,6 +684,31 @@ public class BatchTask extends AbstractTask {
     }
   }
 
+  /**
+   * Sets the last raw data files to the {@link RawDataFilesParameter}s of the parameter set.
+   *
+   * @return false on error
+   */
+  private boolean setBatchLastDataFilesToParamSet(MZmineProcessingModule method,
+      ParameterSet batchStepParameters) {
+    // Update the RawDataFilesParameter parameters to reflect the current
+    // state of the batch
+    for (Parameter<?> p : batchStepParameters.getParameters()) {
+      if (p instanceof RawDataFilesParameter rdp) {
+        RawDataFile[] createdFiles = createdDataFiles.toArray(new RawDataFile[0]);
+        final RawDataFilesSelection selectedFiles = rdp.getValue();
+        if (selectedFiles == null) {
+          setStatus(TaskStatus.ERROR);
+          setErrorMessage("Invalid parameter settings for module " + method.getName() + ": "
+              + "Missing parameter value for " + p.getName());
+          return false;
+        }
+        selectedFiles.setBatchLastFiles(createdFiles);
+      }
+    }
+    return true;
+  }
+
   /**
    * Recursively sets the last feature lists to the parameters since there might be embedded
    * parameters.
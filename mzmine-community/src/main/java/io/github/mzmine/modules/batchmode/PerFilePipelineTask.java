@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.batchmode;
+
+import io.github.mzmine.datamodel.MZmineProject;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.features.FeatureList;
+import io.github.mzmine.modules.MZmineProcessingModule;
+import io.github.mzmine.modules.MZmineProcessingStep;
+import io.github.mzmine.modules.PerFileProcessingModule;
+import io.github.mzmine.parameters.Parameter;
+import io.github.mzmine.parameters.ParameterSet;
+import io.github.mzmine.parameters.parametertypes.EmbeddedParameterSet;
+import io.github.mzmine.parameters.parametertypes.selectors.FeatureListsParameter;
+import io.github.mzmine.parameters.parametertypes.selectors.FeatureListsSelectionType;
+import io.github.mzmine.parameters.parametertypes.selectors.RawDataFilesParameter;
+import io.github.mzmine.parameters.parametertypes.selectors.RawDataFilesSelection;
+import io.github.mzmine.parameters.parametertypes.selectors.RawDataFilesSelectionType;
+import io.github.mzmine.project.ProjectService;
+import io.github.mzmine.project.impl.ProjectChangeEvent;
+import io.github.mzmine.project.impl.ProjectChangeEvent.Type;
+import io.github.mzmine.project.impl.ProjectChangeListener;
+import io.github.mzmine.taskcontrol.AbstractTask;
+import io.github.mzmine.taskcontrol.Task;
+import io.github.mzmine.taskcontrol.TaskStatus;
+import io.github.mzmine.util.ExitCode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Runs a range of batch steps for a single raw data file. All steps in the range are
+ * {@link PerFileProcessingModule}s, so the chain of one file never depends on other files. The
+ * first step of the range receives the raw data file, all following steps receive the raw data
+ * files and feature lists created by the previous step of this chain, just like the batch last
+ * selection of the {@link BatchTask}.
+ * <p>
+ * The tasks of each step run directly on the thread of this task. Multiple chains are run in a
+ * thread pool by the {@link BatchTask}, which limits the number of files in flight.
+ */
+class PerFilePipelineTask extends AbstractTask {
+
+  private static final Logger logger = Logger.getLogger(PerFilePipelineTask.class.getName());
+
+  private final BatchQueue queue;
+  private final int firstStep;
+  private final int endStep;
+  private final RawDataFile file;
+  private List<RawDataFile> lastDataFiles;
+  private List<FeatureList> lastFeatureLists;
+  private int processedSteps;
+
+  /**
+   * @param queue            the batch queue
+   * @param firstStep        first step of the range (inclusive)
+   * @param endStep          end of the range (exclusive)
+   * @param file             the raw data file processed by this chain
+   * @param lastFeatureLists feature lists of the previous batch steps, only those of this file are
+   *                         used if the first steps do not create any feature lists
+   */
+  PerFilePipelineTask(final @NotNull BatchQueue queue, final int firstStep, final int endStep,
+      final @NotNull RawDataFile file, final @NotNull List<FeatureList> lastFeatureLists,
+      final @NotNull Instant moduleCallDate) {
+    super(moduleCallDate, "Batch steps %d-%d on %s".formatted(firstStep + 1, endStep,
+        file.getName()));
+    this.queue = queue;
+    this.firstStep = firstStep;
+    this.endStep = endStep;
+    this.file = file;
+    lastDataFiles = List.of(file);
+    this.lastFeatureLists = lastFeatureLists.stream()
+        .filter(flist -> flist.getRawDataFiles().equals(List.of(file))).toList();
+  }
+
+  /**
+   * Finds the contiguous range of steps starting at firstStep that can run as one chain per raw
+   * data file. The first step needs to be a {@link PerFileProcessingModule} that selects raw data
+   * files and no feature lists. All following steps need to be {@link PerFileProcessingModule}s
+   * that only use the batch last selection for raw data files and feature lists, so that they only
+   * depend on the output of the previous step.
+   *
+   * @param queue     the batch queue
+   * @param firstStep the first step of the range
+   * @return the end of the range (exclusive) or firstStep if the range would contain less than two
+   * steps
+   */
+  static int findPipelineEnd(final @NotNull BatchQueue queue, final int firstStep) {
+    if (firstStep >= queue.size() || !isPipelineStart(queue.get(firstStep))) {
+      return firstStep;
+    }
+    int end = firstStep + 1;
+    while (end < queue.size() && isPipelineContinuation(queue.get(end))) {
+      end++;
+    }
+    return end - firstStep >= 2 ? end : firstStep;
+  }
+
+  private static boolean isPipelineStart(final @NotNull MZmineProcessingStep<?> step) {
+    if (!(step.getModule() instanceof PerFileProcessingModule)) {
+      return false;
+    }
+    final ParameterSet parameters = step.getParameterSet();
+    return Arrays.stream(parameters.getParameters())
+        .anyMatch(p -> p instanceof RawDataFilesParameter rdp && rdp.getValue() != null)
+        && !containsFeatureListsParameter(parameters);
+  }
+
+  private static boolean containsFeatureListsParameter(final @NotNull ParameterSet parameters) {
+    for (Parameter<?> p : parameters.getParameters()) {
+      if (p instanceof FeatureListsParameter || (p instanceof EmbeddedParameterSet<?, ?> embedded
+          && containsFeatureListsParameter(embedded.getEmbeddedParameters()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isPipelineContinuation(final @NotNull MZmineProcessingStep<?> step) {
+    return step.getModule() instanceof PerFileProcessingModule && usesOnlyBatchLastSelection(
+        step.getParameterSet());
+  }
+
+  /**
+   * @return true if all raw data file and feature list selections (also in embedded parameters)
+   * are set to the batch last selection
+   */
+  private static boolean usesOnlyBatchLastSelection(final @NotNull ParameterSet parameters) {
+    for (Parameter<?> p : parameters.getParameters()) {
+      switch (p) {
+        case RawDataFilesParameter rdp -> {
+          if (rdp.getValue() == null || rdp.getValue().getSelectionType()
+              != RawDataFilesSelectionType.BATCH_LAST_FILES) {
+            return false;
+          }
+        }
+        case FeatureListsParameter flp -> {
+          if (flp.getValue() == null || flp.getValue().getSelectionType()
+              != FeatureListsSelectionType.BATCH_LAST_FEATURELISTS) {
+            return false;
+          }
+        }
+        case EmbeddedParameterSet<?, ?> embedded -> {
+          if (!usesOnlyBatchLastSelection(embedded.getEmbeddedParameters())) {
+            return false;
+          }
+        }
+        default -> {
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void run() {
+    setStatus(TaskStatus.PROCESSING);
+
+    for (int i = firstStep; i < endStep; i++) {
+      if (isCanceled()) {
+        return;
+      }
+      if (!processStep(i)) {
+        return;
+      }
+      processedSteps++;
+    }
+
+    setStatus(TaskStatus.FINISHED);
+  }
+
+  /**
+   * @return false on error or cancel
+   */
+  private boolean processStep(final int stepNumber) {
+    final MZmineProcessingStep<?> step = queue.get(stepNumber);
+    final MZmineProcessingModule method = (MZmineProcessingModule) step.getModule();
+    logger.finest(() -> "Starting step # %d (%s) for file %s".formatted(stepNumber + 1,
+        method.getName(), file.getName()));
+
+    // every chain works on its own copy of the parameters
+    final ParameterSet parameters = step.getParameterSet().cloneParameterSet();
+    setChainSelection(parameters, stepNumber == firstStep);
+
+    final List<String> messages = new ArrayList<>();
+    if (!parameters.checkParameterValues(messages)) {
+      error("Invalid parameter settings for module %s: %s".formatted(method.getName(), messages));
+      return false;
+    }
+
+    final MZmineProject project = ProjectService.getProject();
+    final Set<FeatureList> beforeFeatureLists = new HashSet<>(project.getCurrentFeatureLists());
+    final Set<RawDataFile> beforeDataFiles = new HashSet<>(project.getCurrentRawDataFiles());
+
+    final List<Task> tasks = new ArrayList<>();
+    final ExitCode exitCode = method.runModule(project, parameters, tasks, Instant.now());
+    if (exitCode != ExitCode.OK) {
+      error("Could not start batch step " + method.getName());
+      return false;
+    }
+
+    // other chains add their results concurrently - the tasks of this chain run on this thread and
+    // the project notifies listeners on the thread that adds the data
+    final ChainResultListener results = new ChainResultListener(Thread.currentThread());
+    project.addProjectListener(results);
+    try {
+      for (final Task task : tasks) {
+        if (isCanceled()) {
+          return false;
+        }
+        task.run();
+        if (task.getStatus() == TaskStatus.ERROR) {
+          error("Error in batch step %s for file %s: %s".formatted(method.getName(),
+              file.getName(), task.getErrorMessage()));
+          return false;
+        }
+        if (task.isCanceled()) {
+          cancel();
+          return false;
+        }
+      }
+    } finally {
+      project.removeProjectListener(results);
+    }
+    tasks.clear();
+
+    // only keep results that were added by this step and are still in the project
+    final List<RawDataFile> createdDataFiles = project.getCurrentRawDataFiles().stream()
+        .filter(raw -> !beforeDataFiles.contains(raw) && results.dataFiles.contains(raw)).toList();
+    final List<FeatureList> createdFeatureLists = project.getCurrentFeatureLists().stream()
+        .filter(flist -> !beforeFeatureLists.contains(flist))
+        .filter(results.featureLists::contains)
+        .filter(flist -> !flist.isExcludedFromBatchLastSelection()).toList();
+
+    // keep the previous results if this step did not create new data
+    if (!createdDataFiles.isEmpty()) {
+      lastDataFiles = createdDataFiles;
+    }
+    if (!createdFeatureLists.isEmpty()) {
+      lastFeatureLists = createdFeatureLists;
+    }
+    return true;
+  }
+
+  /**
+   * Restricts the raw data file and feature list selections to the results of this chain. Like in
+   * the {@link BatchTask}, raw data file selections are only set on the top level and feature list
+   * selections also in embedded parameters.
+   *
+   * @param firstStepOfChain the selection of the first step is replaced by the file of this chain
+   */
+  private void setChainSelection(final @NotNull ParameterSet parameters,
+      final boolean firstStepOfChain) {
+    final RawDataFile[] files = lastDataFiles.toArray(new RawDataFile[0]);
+    for (Parameter<?> p : parameters.getParameters()) {
+      if (p instanceof RawDataFilesParameter rdp) {
+        if (firstStepOfChain) {
+          rdp.setValue(new RawDataFilesSelection(RawDataFilesSelectionType.BATCH_LAST_FILES));
+        }
+        rdp.getValue().setBatchLastFiles(files);
+      }
+    }
+    setChainFeatureLists(parameters, lastFeatureLists.toArray(new FeatureList[0]));
+  }
+
+  private static void setChainFeatureLists(final @NotNull ParameterSet parameters,
+      final @NotNull FeatureList[] flists) {
+    for (Parameter<?> p : parameters.getParameters()) {
+      if (p instanceof FeatureListsParameter flp) {
+        flp.getValue().setBatchLastFeatureLists(flists);
+      } else if (p instanceof EmbeddedParameterSet<?, ?> embedded) {
+        setChainFeatureLists(embedded.getEmbeddedParameters(), flists);
+      }
+    }
+  }
+
+  /**
+   * @return the raw data files created by the last step of this chain that created files, or the
+   * file of this chain
+   */
+  @NotNull List<RawDataFile> getLastDataFiles() {
+    return lastDataFiles;
+  }
+
+  /**
+   * @return the feature lists created by the last step of this chain that created feature lists
+   */
+  @NotNull List<FeatureList> getLastFeatureLists() {
+    return lastFeatureLists;
+  }
+
+  @Override
+  public String getTaskDescription() {
+    return "Batch step %d/%d of the per file pipeline on %s".formatted(
+        Math.min(firstStep + processedSteps + 1, endStep), endStep, file.getName());
+  }
+
+  @Override
+  public double getFinishedPercentage() {
+    return (double) processedSteps / (endStep - firstStep);
+  }
+
+  /**
+   * Collects the raw data files and feature lists that are added to the project by the thread of
+   * this chain.
+   */
+  private static final class ChainResultListener extends ProjectChangeListener {
+
+    private final Thread chainThread;
+    private final Set<RawDataFile> dataFiles = ConcurrentHashMap.newKeySet();
+    private final Set<FeatureList> featureLists = ConcurrentHashMap.newKeySet();
+
+    private ChainResultListener(final @NotNull Thread chainThread) {
+      this.chainThread = chainThread;
+    }
+
+    @Override
+    public void dataFilesChanged(final ProjectChangeEvent<RawDataFile> event) {
+      if (event.change() == Type.ADDED && Thread.currentThread() == chainThread) {
+        dataFiles.addAll(event.changedLists());
+      }
+    }
+
+    @Override
+    public void featureListsChanged(final ProjectChangeEvent<FeatureList> event) {
+      if (event.change() == Type.ADDED && Thread.currentThread() == chainThread) {
+        featureLists.addAll(event.changedLists());
+      }
+    }
+  }
+}
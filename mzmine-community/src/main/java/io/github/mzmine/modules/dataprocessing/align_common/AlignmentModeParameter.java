@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.align_common;
+
+import io.github.mzmine.parameters.parametertypes.ComboParameter;
+import java.util.List;
+
+/**
+ * Selects the {@link AlignmentMode} of aligners based on {@link BaseFeatureListAligner}
+ */
+public class AlignmentModeParameter extends ComboParameter<AlignmentMode> {
+
+  public static final String NAME = "Alignment mode";
+  public static final String DESCRIPTION = """
+      Sequential: all candidate matches are applied one after another in a single thread.
+      Sharded parallel: rows that compete for the same matches are grouped into shards that are aligned in parallel. \
+      Results do not depend on the number of threads. Recommended for many samples.""";
+
+  public AlignmentModeParameter() {
+    this(AlignmentMode.SEQUENTIAL);
+  }
+
+  public AlignmentModeParameter(AlignmentMode defaultValue) {
+    this(NAME, DESCRIPTION, List.of(AlignmentMode.values()), defaultValue);
+  }
+
+  public AlignmentModeParameter(String name, String description, List<AlignmentMode> choices,
+      AlignmentMode defaultValue) {
+    super(name, description, choices, defaultValue);
+  }
+
+  @Override
+  public AlignmentModeParameter cloneParameter() {
+    return new AlignmentModeParameter(getName(), getDescription(), getChoices(), value);
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2025 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -44,15 +44,16 @@ import io.github.mzmine.util.FeatureListRowSorter;
 import io.github.mzmine.util.FeatureListUtils;
 import io.github.mzmine.util.MathUtils;
 import io.github.mzmine.util.MemoryMapStorage;
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
 import io.mzio.links.MzioMZmineLinks;
 import it.unimi.dsi.fastutil.objects.Object2BooleanOpenHashMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -71,6 +72,7 @@ public class BaseFeatureListAligner {
   private final FeatureAlignmentPostProcessor postProcessor;
   private final FeatureCloner featureCloner;
   private final FeatureListRowSorter baseRowSorter;
+  private final AlignmentMode alignmentMode;
   private final TotalFinishedItemsProgress progress = new TotalFinishedItemsProgress();
   private int iteration = 1;
 
@@ -79,6 +81,16 @@ public class BaseFeatureListAligner {
       final FeatureRowAlignScorer rowAligner, final FeatureCloner featureCloner,
       final FeatureListRowSorter baseRowSorter,
       final @Nullable FeatureAlignmentPostProcessor postProcessor) {
+    this(parentTask, featureLists, featureListName, storage, rowAligner, featureCloner,
+        baseRowSorter, postProcessor, AlignmentMode.SEQUENTIAL);
+  }
+
+  public BaseFeatureListAligner(final Task parentTask, final List<FeatureList> featureLists,
+      final String featureListName, final @Nullable MemoryMapStorage storage,
+      final FeatureRowAlignScorer rowAligner, final FeatureCloner featureCloner,
+      final FeatureListRowSorter baseRowSorter,
+      final @Nullable FeatureAlignmentPostProcessor postProcessor,
+      final @NotNull AlignmentMode alignmentMode) {
 
     this.parentTask = parentTask;
     this.featureLists = featureLists;
@@ -88,6 +100,7 @@ public class BaseFeatureListAligner {
     this.featureCloner = featureCloner;
     this.baseRowSorter = baseRowSorter;
     this.postProcessor = postProcessor;
+    this.alignmentMode = alignmentMode;
   }
 
   /**
@@ -146,7 +159,62 @@ public class BaseFeatureListAligner {
     final Object2BooleanOpenHashMap<FeatureListRow> alignedRowsMap = new Object2BooleanOpenHashMap<>(
         scores.length);
 
-    for (RowVsRowScore score : scores) {
+    addFeaturesBasedOnSortedScores(scores, 0, scores.length, alignedFeatureList, featureCloner,
+        alignedRows, alignedRowsMap);
+    return alignedRowsMap;
+  }
+
+  /**
+   * Same result as {@link #addFeaturesBasedOnScores(Collection, ModularFeatureList, FeatureCloner,
+   * AtomicLong)} but the scores are split into {@link ScoreShards}. Each shard is sorted and
+   * applied in parallel. Scores with equal values are applied in a fixed order, so that the result
+   * is reproducible independent of the number of threads.
+   *
+   * @param baseRowsSorted the base rows of this iteration
+   * @param unalignedRows  all rows that were scored against the base rows
+   */
+  @NotNull
+  public static Object2BooleanOpenHashMap<FeatureListRow> addFeaturesBasedOnScoresSharded(
+      Collection<RowVsRowScore> scoresList, final List<FeatureListRow> baseRowsSorted,
+      final List<List<FeatureListRow>> unalignedRows, final ModularFeatureList alignedFeatureList,
+      final FeatureCloner featureCloner, final AtomicLong alignedRows) {
+    // the parallel sort of the scores and the shards run in a pool sized from the preferences
+    final List<FeatureListRow> aligned = ThreadPoolUtils.callParallel("Feature aligner", () -> {
+      final ScoreShards shards = ScoreShards.create(scoresList, baseRowsSorted, unalignedRows);
+      final RowVsRowScore[] scores = shards.scores();
+
+      // shards never share a row to add or a base row, so they can be applied independently
+      return IntStream.range(0, shards.numShards()).parallel().mapToObj(shard -> {
+        final var shardAligned = new Object2BooleanOpenHashMap<FeatureListRow>();
+        addFeaturesBasedOnSortedScores(scores, shards.start(shard), shards.end(shard),
+            alignedFeatureList, featureCloner, alignedRows, shardAligned);
+        return shardAligned.keySet();
+      }).flatMap(Collection::stream).toList();
+    });
+
+    final Object2BooleanOpenHashMap<FeatureListRow> alignedRowsMap = new Object2BooleanOpenHashMap<>(
+        aligned.size());
+    for (final FeatureListRow row : aligned) {
+      alignedRowsMap.put(row, true);
+    }
+    return alignedRowsMap;
+  }
+
+  /**
+   * Applies the scores in their order to the aligned rows. Each row to add is only aligned to one
+   * base row.
+   *
+   * @param scores         sorted by descending score
+   * @param from           first index inclusive
+   * @param to             last index exclusive
+   * @param alignedRowsMap tracks all aligned rows
+   */
+  private static void addFeaturesBasedOnSortedScores(final RowVsRowScore[] scores, final int from,
+      final int to, final ModularFeatureList alignedFeatureList, final FeatureCloner featureCloner,
+      final AtomicLong alignedRows,
+      final Object2BooleanOpenHashMap<FeatureListRow> alignedRowsMap) {
+    for (int i = from; i < to; i++) {
+      final RowVsRowScore score = scores[i];
       final FeatureListRow alignedRow = score.getAlignedBaseRow();
       final FeatureListRow row = score.getRowToAdd();
       if (!alignedRowsMap.getOrDefault(row, false)) {
@@ -166,8 +234,6 @@ public class BaseFeatureListAligner {
         }
       }
     }
-
-    return alignedRowsMap;
   }
 
   /**
@@ -181,23 +247,17 @@ public class BaseFeatureListAligner {
       Object2BooleanOpenHashMap<FeatureListRow> alignedRowsMap) {
     AtomicInteger alignedCounter = new AtomicInteger(0);
     AtomicInteger remainingCounter = new AtomicInteger(0);
-    final ListIterator<List<FeatureListRow>> iterator = allRows.listIterator();
-    while (iterator.hasNext()) {
-      // remove aligned rows
-      final List<FeatureListRow> featureList = iterator.next();
-      featureList.removeIf(row -> {
-        if (alignedRowsMap.getOrDefault(row, false)) {
-          alignedCounter.incrementAndGet();
-          return true;
-        }
-        remainingCounter.incrementAndGet();
-        return false;
-      });
-      // remove empty lists
-      if (featureList.isEmpty()) {
-        iterator.remove();
-      }
-    }
+    // feature lists are independent and the map is only read
+    ThreadPoolUtils.runParallel("Feature aligner",
+        () -> allRows.parallelStream().forEach(featureList -> {
+          // remove aligned rows
+          final int before = featureList.size();
+          featureList.removeIf(row -> alignedRowsMap.getOrDefault(row, false));
+          alignedCounter.addAndGet(before - featureList.size());
+          remainingCounter.addAndGet(featureList.size());
+        }));
+    // remove empty lists
+    allRows.removeIf(List::isEmpty);
     return new AlignedRemainingRows(alignedCounter.get(), remainingCounter.get());
   }
 
@@ -329,8 +389,13 @@ public class BaseFeatureListAligner {
       // after an iteration, rows of all other featureLists have been given a mapping
       // now we have to find the best match
       // track all aligned rows - only align to highest scoring row
-      final var alignedRowsMap = addFeaturesBasedOnScores(scoresList, alignedFeatureList,
-          featureCloner, progress.getFinished());
+      final var alignedRowsMap = switch (alignmentMode) {
+        case SEQUENTIAL -> addFeaturesBasedOnScores(scoresList, alignedFeatureList, featureCloner,
+            progress.getFinished());
+        case SHARDED ->
+            addFeaturesBasedOnScoresSharded(scoresList, nextBaseRows, allRows, alignedFeatureList,
+                featureCloner, progress.getFinished());
+      };
 
       // keep track of unaligned rows for the next interation.
       AlignedRemainingRows result = removeAlignedRows(allRows, alignedRowsMap);
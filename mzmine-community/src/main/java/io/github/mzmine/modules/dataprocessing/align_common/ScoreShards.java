@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.align_common;
+
+import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.modules.dataprocessing.align_join.RowVsRowScore;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Splits the scores of one alignment iteration into shards that can be applied independently. Base
+ * rows are connected if they share a row to add, so all scores that compete for the same row to
+ * add or for the same base row end up in the same shard. Base rows are sorted by m/z (join aligner)
+ * or RT (GC aligner) and a shard usually covers a narrow window of overlapping tolerance ranges.
+ * <p>
+ * Shards are ordered by their first base row. Within a shard, scores are sorted by descending score,
+ * then by base row index and index of the row to add. This fully defines the order of equal
+ * scores.
+ *
+ * @param scores      all scores, sorted by shard and then by score
+ * @param shardStarts start index of each shard in scores and the total number of scores as last
+ *                    element
+ */
+record ScoreShards(@NotNull RowVsRowScore[] scores, int @NotNull [] shardStarts) {
+
+  /**
+   * @param scoresList     all scores of this iteration in any order
+   * @param baseRowsSorted the base rows in their defined order
+   * @param unalignedRows  all scored rows in their defined order
+   */
+  static @NotNull ScoreShards create(@NotNull Collection<RowVsRowScore> scoresList,
+      @NotNull List<FeatureListRow> baseRowsSorted,
+      @NotNull List<List<FeatureListRow>> unalignedRows) {
+    final Object2IntOpenHashMap<FeatureListRow> baseIndexMap = new Object2IntOpenHashMap<>(
+        baseRowsSorted.size());
+    baseIndexMap.defaultReturnValue(-1);
+    for (int i = 0; i < baseRowsSorted.size(); i++) {
+      baseIndexMap.put(baseRowsSorted.get(i), i);
+    }
+
+    final Object2IntOpenHashMap<FeatureListRow> rowIndexMap = new Object2IntOpenHashMap<>();
+    rowIndexMap.defaultReturnValue(-1);
+    for (final List<FeatureListRow> rows : unalignedRows) {
+      for (final FeatureListRow row : rows) {
+        rowIndexMap.put(row, rowIndexMap.size());
+      }
+    }
+
+    final RowVsRowScore[] unsorted = scoresList.toArray(RowVsRowScore[]::new);
+    final int numScores = unsorted.length;
+    final double[] values = new double[numScores];
+    final int[] baseIndex = new int[numScores];
+    final int[] rowIndex = new int[numScores];
+
+    // union find: base rows are connected by a common row to add
+    final int[] parent = new int[baseRowsSorted.size()];
+    Arrays.setAll(parent, i -> i);
+    final int[] firstBaseOfRow = new int[rowIndexMap.size()];
+    Arrays.fill(firstBaseOfRow, -1);
+
+    for (int i = 0; i < numScores; i++) {
+      final RowVsRowScore score = unsorted[i];
+      final int base = baseIndexMap.getInt(score.getAlignedBaseRow());
+      final int row = rowIndexMap.getInt(score.getRowToAdd());
+      if (base == -1 || row == -1) {
+        throw new IllegalStateException(
+            "Alignment score references a row that is not part of this alignment iteration");
+      }
+      values[i] = score.getScore();
+      baseIndex[i] = base;
+      rowIndex[i] = row;
+
+      if (firstBaseOfRow[row] == -1) {
+        firstBaseOfRow[row] = base;
+      } else {
+        union(parent, firstBaseOfRow[row], base);
+      }
+    }
+
+    // shard id is the first base row in the sorted base rows
+    final int[] shardOfRoot = new int[parent.length];
+    Arrays.fill(shardOfRoot, -1);
+    final int[] shard = new int[numScores];
+    for (int base = 0; base < parent.length; base++) {
+      final int root = find(parent, base);
+      if (shardOfRoot[root] == -1) {
+        shardOfRoot[root] = base;
+      }
+    }
+    for (int i = 0; i < numScores; i++) {
+      shard[i] = shardOfRoot[find(parent, baseIndex[i])];
+    }
+
+    final int[] order = new int[numScores];
+    Arrays.setAll(order, i -> i);
+    IntArrays.parallelQuickSort(order, (a, b) -> {
+      int compare = Integer.compare(shard[a], shard[b]);
+      if (compare != 0) {
+        return compare;
+      }
+      // highest score first
+      compare = Double.compare(values[b], values[a]);
+      if (compare != 0) {
+        return compare;
+      }
+      compare = Integer.compare(baseIndex[a], baseIndex[b]);
+      if (compare != 0) {
+        return compare;
+      }
+      return Integer.compare(rowIndex[a], rowIndex[b]);
+    });
+
+    final RowVsRowScore[] sorted = new RowVsRowScore[numScores];
+    final IntArrayList starts = new IntArrayList();
+    for (int i = 0; i < numScores; i++) {
+      sorted[i] = unsorted[order[i]];
+      if (i == 0 || shard[order[i]] != shard[order[i - 1]]) {
+        starts.add(i);
+      }
+    }
+    starts.add(numScores);
+    return new ScoreShards(sorted, starts.toIntArray());
+  }
+
+  int numShards() {
+    return shardStarts.length - 1;
+  }
+
+  /**
+   * @return first score index of the shard
+   */
+  int start(int shard) {
+    return shardStarts[shard];
+  }
+
+  /**
+   * @return end score index (exclusive) of the shard
+   */
+  int end(int shard) {
+    return shardStarts[shard + 1];
+  }
+
+  private static int find(final int[] parent, int i) {
+    while (parent[i] != i) {
+      // path halving
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  private static void union(final int[] parent, final int a, final int b) {
+    final int rootA = find(parent, a);
+    final int rootB = find(parent, b);
+    if (rootA != rootB) {
+      // keep the lower index as root
+      parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+    }
+  }
+}
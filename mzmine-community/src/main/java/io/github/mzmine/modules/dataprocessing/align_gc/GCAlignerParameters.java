@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -26,6 +26,7 @@
 package io.github.mzmine.modules.dataprocessing.align_gc;
 
 import io.github.mzmine.main.MZmineCore;
+import io.github.mzmine.modules.dataprocessing.align_common.AlignmentModeParameter;
 import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.impl.SimpleParameterSet;
 import io.github.mzmine.parameters.parametertypes.DoubleParameter;
@@ -61,12 +62,14 @@ public class GCAlignerParameters extends SimpleParameterSet {
       "Feature list name", "Aligned feature list");
 
 
+  public static final AlignmentModeParameter alignmentMode = new AlignmentModeParameter();
+
   public static final OriginalFeatureListHandlingParameter handleOriginal = new OriginalFeatureListHandlingParameter(
       false);
 
   public GCAlignerParameters() {
     super(new Parameter[]{FEATURE_LISTS, MZ_TOLERANCE, RT_TOLERANCE, RT_WEIGHT, SIMILARITY_FUNCTION,
-            FEATURE_LIST_NAME, handleOriginal},
+            FEATURE_LIST_NAME, alignmentMode, handleOriginal},
         "https://mzmine.github.io/mzmine_documentation/module_docs/align_gcei/align_gc_ei.html");
   }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -26,6 +26,7 @@
 package io.github.mzmine.modules.dataprocessing.align_join;
 
 import io.github.mzmine.main.MZmineCore;
+import io.github.mzmine.modules.dataprocessing.align_common.AlignmentModeParameter;
 import io.github.mzmine.modules.tools.isotopepatternscore.IsotopePatternScoreParameters;
 import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.ParameterSet;
@@ -100,6 +101,8 @@ public class JoinAlignerParameters extends SimpleParameterSet {
       new JoinAlignerSpectraSimilarityScoreParameters(), false);
 
 
+  public static final AlignmentModeParameter alignmentMode = new AlignmentModeParameter();
+
   public static final OriginalFeatureListHandlingParameter handleOriginal = new OriginalFeatureListHandlingParameter(
       "Original feature list",
       "Defines the processing.\nKEEP is to keep the original feature list and create a new"
@@ -108,7 +111,7 @@ public class JoinAlignerParameters extends SimpleParameterSet {
   public JoinAlignerParameters() {
     super(new Parameter[]{peakLists, peakListName, MZTolerance, MZWeight, RTTolerance, RTWeight,
             mobilityTolerance, mobilityWeight, SameChargeRequired, SameIDRequired,
-            compareIsotopePattern, compareSpectraSimilarity, handleOriginal},
+            compareIsotopePattern, compareSpectraSimilarity, alignmentMode, handleOriginal},
         "https://mzmine.github.io/mzmine_documentation/module_docs/align_join_aligner/join_aligner.html");
   }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2025 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -26,11 +26,13 @@
 package io.github.mzmine.modules.dataprocessing.align_join;
 
 import static io.github.mzmine.util.FeatureListRowSorter.MZ_ASCENDING;
+import static java.util.Objects.requireNonNullElse;
 
 import io.github.mzmine.datamodel.MZmineProject;
 import io.github.mzmine.datamodel.features.FeatureList;
 import io.github.mzmine.datamodel.features.ModularFeatureList;
 import io.github.mzmine.modules.MZmineModule;
+import io.github.mzmine.modules.dataprocessing.align_common.AlignmentMode;
 import io.github.mzmine.modules.dataprocessing.align_common.BaseFeatureListAligner;
 import io.github.mzmine.modules.dataprocessing.align_common.FeatureCloner;
 import io.github.mzmine.modules.dataprocessing.align_common.FeatureCloner.SimpleFeatureCloner;
@@ -119,7 +121,9 @@ public class JoinAlignerTask extends AbstractFeatureListTask {
     // create the row aligner that handles the scoring
     var rowAligner = new JoinRowAlignScorer(parameters);
     return new BaseFeatureListAligner(parentTask, featureLists, featureListName, storage,
-        rowAligner, featureCloner, MZ_ASCENDING, null);
+        rowAligner, featureCloner, MZ_ASCENDING, null,
+        requireNonNullElse(parameters.getValue(JoinAlignerParameters.alignmentMode),
+            AlignmentMode.SEQUENTIAL));
   }
 
   @Override
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_adapchromatogrambuilder;
+
+import io.github.mzmine.datamodel.utils.UniqueIdSupplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Implementation used by {@link ModularADAPChromatogramBuilderTask} to build the chromatograms.
+ * Both engines produce the same feature lists.
+ */
+public enum ADAPChromatogramBuilderEngine implements UniqueIdSupplier {
+
+  /**
+   * One object per data point, sorted and grouped by a {@link com.google.common.collect.RangeMap}
+   */
+  RANGE_MAP("Range map"),
+  /**
+   * Data points are kept in primitive arrays and grouped in {@link MzRangeIndex}. Uses less memory
+   * and creates less garbage for large files.
+   */
+  PRIMITIVE("Primitive arrays");
+
+  private final String label;
+
+  ADAPChromatogramBuilderEngine(final String label) {
+    this.label = label;
+  }
+
+  @Override
+  public String toString() {
+    return label;
+  }
+
+  @Override
+  public @NotNull String getUniqueID() {
+    return switch (this) {
+      case RANGE_MAP -> "range_map";
+      case PRIMITIVE -> "primitive";
+    };
+  }
+}
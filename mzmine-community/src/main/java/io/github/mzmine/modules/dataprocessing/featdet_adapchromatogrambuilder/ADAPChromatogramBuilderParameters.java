@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -37,6 +37,7 @@ import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.dialogs.ParameterSetupDialog;
 import io.github.mzmine.parameters.impl.IonMobilitySupport;
 import io.github.mzmine.parameters.impl.SimpleParameterSet;
+import io.github.mzmine.parameters.parametertypes.ComboParameter;
 import io.github.mzmine.parameters.parametertypes.DoubleParameter;
 import io.github.mzmine.parameters.parametertypes.HiddenParameter;
 import io.github.mzmine.parameters.parametertypes.IntegerParameter;
@@ -92,6 +93,12 @@ public class ADAPChromatogramBuilderParameters extends SimpleParameterSet {
       "Points below this intensity will not be considered in starting a new chromatogram",
       MZmineCore.getConfiguration().getIntensityFormat());
 
+  public static final ComboParameter<ADAPChromatogramBuilderEngine> builderEngine = new ComboParameter<>(
+      "Builder engine", """
+      Implementation used to build the chromatograms. Both engines produce the same results.
+      The primitive arrays engine uses less memory and is faster for large files with many data points.""",
+      ADAPChromatogramBuilderEngine.values(), ADAPChromatogramBuilderEngine.RANGE_MAP);
+
   public static final HiddenParameter<Map<String, Boolean>> allowSingleScans = new HiddenParameter<>(
       new OptOutParameter("Allow single scan chromatograms",
           "Allows selection of single scans as chromatograms. This is useful for "
@@ -99,7 +106,7 @@ public class ADAPChromatogramBuilderParameters extends SimpleParameterSet {
 
   public ADAPChromatogramBuilderParameters() {
     super(new Parameter[]{dataFiles, scanSelection, minimumConsecutiveScans, minGroupIntensity,
-            minHighestPoint, mzTolerance, suffix, allowSingleScans},
+            minHighestPoint, mzTolerance, suffix, builderEngine, allowSingleScans},
         "https://mzmine.github.io/mzmine_documentation/module_docs/lc-ms_featdet/featdet_adap_chromatogram_builder/adap-chromatogram-builder.html");
   }
 
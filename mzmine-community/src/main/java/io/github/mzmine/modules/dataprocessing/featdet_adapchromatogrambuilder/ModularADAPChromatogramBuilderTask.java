@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -62,7 +62,8 @@ import io.github.mzmine.util.SortingProperty;
 import io.github.mzmine.util.exceptions.MissingMassListException;
 import java.time.Instant;
 import java.util.Arrays;
-import java.util.Map;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map.Entry;
 import static java.util.Objects.requireNonNullElse;
 import java.util.logging.Logger;
@@ -91,7 +92,9 @@ public class ModularADAPChromatogramBuilderTask extends AbstractTask {
   private final ParameterSet parameters;
   private final Class<? extends MZmineModule> callingModule;
   private final boolean isImaging;
+  private final ADAPChromatogramBuilderEngine engine;
   private double progress = 0.0;
+  private volatile @Nullable PrimitiveADAPChromatogramBuilder primitiveBuilder;
   private ModularFeatureList newFeatureList;
 
   /**
@@ -126,6 +129,9 @@ public class ModularADAPChromatogramBuilderTask extends AbstractTask {
     this.minimumTotalScans = requireNonNullElse(minimumTotalScans, minimumConsecutiveScans);
 
     isImaging = callingModule.equals(ImageBuilderModule.class);
+    engine = requireNonNullElse(
+        parameters.getValue(ADAPChromatogramBuilderParameters.builderEngine),
+        ADAPChromatogramBuilderEngine.RANGE_MAP);
   }
 
   public static ModularADAPChromatogramBuilderTask forImaging(MZmineProject project,
@@ -152,6 +158,11 @@ public class ModularADAPChromatogramBuilderTask extends AbstractTask {
 
   @Override
   public double getFinishedPercentage() {
+    // set to null by the processing thread
+    final PrimitiveADAPChromatogramBuilder builder = primitiveBuilder;
+    if (builder != null && progress < 0.55) {
+      return builder.getFinishedPercentage();
+    }
     return progress;
   }
 
@@ -228,16 +239,6 @@ public class ModularADAPChromatogramBuilderTask extends AbstractTask {
       }
     }
 
-    // make a list of all the data points
-    // sort data points by intensity
-    // loop through list
-    // add data point to chromatogrm or make new one
-    // update mz avg and other stuff
-    //
-
-    // map the mz tolerance to chromatograms
-    RangeMap<Double, ADAPChromatogram> rangeToChromMap = TreeRangeMap.create();
-
     // make a list of all the data points
     final int totalDps = Arrays.stream(scans).map(s -> {
       if (s.getMassList() != null) {
@@ -247,6 +248,89 @@ public class ModularADAPChromatogramBuilderTask extends AbstractTask {
       DesktopService.getDesktop().displayErrorMessage(ex.getMessage());
       throw ex;
     }).mapToInt(MassSpectrum::getNumberOfDataPoints).sum();
+
+    // chromatograms sorted by m/z
+    final Collection<ADAPChromatogram> chromatograms = switch (engine) {
+      case RANGE_MAP -> buildChromatogramsRangeMap(totalDps);
+      case PRIMITIVE -> buildChromatogramsPrimitive(scans, totalDps);
+    };
+    // the primitive engine already applied all filters
+    final boolean filtered = engine == ADAPChromatogramBuilderEngine.PRIMITIVE;
+    if (chromatograms == null || isCanceled()) {
+      return;
+    }
+
+    progress = 0.55;
+    int numChromatograms = chromatograms.size();
+    double progressStep = numChromatograms > 0 ? 0.45 / numChromatograms : 0.0;
+
+    // Create new feature list
+    newFeatureList = new ModularFeatureList(dataFile + " " + suffix, getMemoryMapStorage(),
+        dataFile);
+    // ensure that the default columns are available
+    DataTypeUtils.addDefaultChromatographicTypeColumns(newFeatureList);
+
+    int newFeatureID = 1;
+    // add chromatograms that match criteria
+    for (ADAPChromatogram chromatogram : chromatograms) {
+      if (isCanceled()) {
+        return;
+      }
+
+      progress += progressStep;
+
+      // And remove chromatograms who dont have a certain number of continous points above the
+      // IntensityThresh2 level.
+      var dps = chromatogram.getNumberOfDataPoints();
+      if (filtered || (dps >= minimumTotalScans && chromatogram.matchesMinContinuousDataPoints(
+          scans, minGroupIntensity, minimumConsecutiveScans, minHighestPoint))) {
+        // add zeros to edges
+        if (!isImaging) {
+          chromatogram.addNZeros(scans, 1, 1);
+        }
+
+        // add to list
+        ModularFeature modular = FeatureConvertors.ADAPChromatogramToModularFeature(newFeatureList,
+            dataFile, chromatogram, mzTolerance);
+        ModularFeatureListRow newRow = new ModularFeatureListRow(newFeatureList, newFeatureID,
+            modular);
+        newFeatureList.addRow(newRow);
+        // activate shape for this row
+        if (!isImaging) {
+          newRow.set(FeatureShapeType.class, true);
+        }
+        newFeatureID++;
+      }
+    }
+
+    // sort and reset IDs here to have the same sorting for every feature list
+    FeatureListUtils.sortByDefault(newFeatureList, true);
+
+    newFeatureList.setSelectedScans(dataFile, Arrays.asList(scans));
+
+    dataFile.getAppliedMethods().forEach(m -> newFeatureList.getAppliedMethods().add(m));
+    // Add new feature list to the project
+    newFeatureList.getAppliedMethods()
+        .add(new SimpleFeatureListAppliedMethod(callingModule, parameters, getModuleCallDate()));
+    project.addFeatureList(newFeatureList);
+
+    progress = 1.0;
+
+    setStatus(TaskStatus.FINISHED);
+
+    logger.info(() -> "Finished chromatogram builder on " + dataFile);
+  }
+
+  /**
+   * Sorts all data points as objects by intensity and groups them by a {@link RangeMap}
+   *
+   * @return all chromatograms sorted by m/z (not filtered) or null on error or cancel
+   */
+  @SuppressWarnings("UnstableApiUsage")
+  private @Nullable Collection<ADAPChromatogram> buildChromatogramsRangeMap(int totalDps) {
+    // map the mz tolerance to chromatograms
+    RangeMap<Double, ADAPChromatogram> rangeToChromMap = TreeRangeMap.create();
+
     int dpCounter = 0;
 
     ExpandedDataPoint[] allMzValues = new ExpandedDataPoint[totalDps];
@@ -258,7 +342,7 @@ public class ModularADAPChromatogramBuilderTask extends AbstractTask {
     double progressStep = 0.1 / scanData.getNumberOfScans();
     while (scanData.hasNextScan()) {
       if (isCanceled()) {
-        return;
+        return null;
       }
 
       Scan scan;
@@ -277,7 +361,7 @@ public class ModularADAPChromatogramBuilderTask extends AbstractTask {
         }
         setErrorMessage(b.toString());
         e.printStackTrace();
-        return;
+        return null;
       }
 
       int dps = scanData.getNumberOfDataPoints();
@@ -303,7 +387,7 @@ public class ModularADAPChromatogramBuilderTask extends AbstractTask {
       progress += progressStep;
 
       if (isCanceled()) {
-        return;
+        return null;
       }
 
       if (mzFeature == null || Double.isNaN(mzFeature.getMZ()) || Double.isNaN(
@@ -327,66 +411,29 @@ public class ModularADAPChromatogramBuilderTask extends AbstractTask {
     }
 
     // finish chromatograms sorted by m/z
-    final Map<Range<Double>, ADAPChromatogram> finalRangeMap = rangeToChromMap.asMapOfRanges();
-
-    int numChromatograms = finalRangeMap.size();
-    progressStep = numChromatograms > 0 ? 0.45 / numChromatograms : 0.0;
-
-    // Create new feature list
-    newFeatureList = new ModularFeatureList(dataFile + " " + suffix, getMemoryMapStorage(),
-        dataFile);
-    // ensure that the default columns are available
-    DataTypeUtils.addDefaultChromatographicTypeColumns(newFeatureList);
-
-    int newFeatureID = 1;
-    // add chromatograms that match criteria
-    for (ADAPChromatogram chromatogram : finalRangeMap.values()) {
-      if (isCanceled()) {
-        return;
-      }
-
-      progress += progressStep;
-
-      // And remove chromatograms who dont have a certain number of continous points above the
-      // IntensityThresh2 level.
-      var dps = chromatogram.getNumberOfDataPoints();
-      if (dps >= minimumTotalScans && chromatogram.matchesMinContinuousDataPoints(scans,
-          minGroupIntensity, minimumConsecutiveScans, minHighestPoint)) {
-        // add zeros to edges
-        if (!isImaging) {
-          chromatogram.addNZeros(scans, 1, 1);
-        }
+    return rangeToChromMap.asMapOfRanges().values();
+  }
 
-        // add to list
-        ModularFeature modular = FeatureConvertors.ADAPChromatogramToModularFeature(newFeatureList,
-            dataFile, chromatogram, mzTolerance);
-        ModularFeatureListRow newRow = new ModularFeatureListRow(newFeatureList, newFeatureID,
-            modular);
-        newFeatureList.addRow(newRow);
-        // activate shape for this row
-        if (!isImaging) {
-          newRow.set(FeatureShapeType.class, true);
-        }
-        newFeatureID++;
-      }
+  /**
+   * Uses {@link PrimitiveADAPChromatogramBuilder} to build the chromatograms from primitive arrays
+   *
+   * @return chromatograms sorted by m/z that already passed all filters or null on error or cancel
+   */
+  private @Nullable Collection<ADAPChromatogram> buildChromatogramsPrimitive(Scan[] scans,
+      int totalDps) {
+    primitiveBuilder = new PrimitiveADAPChromatogramBuilder(dataFile, scans, totalDps,
+        mzTolerance, minHighestPoint, minGroupIntensity, minimumTotalScans,
+        minimumConsecutiveScans, this);
+    try {
+      final List<ADAPChromatogram> chromatograms = primitiveBuilder.get();
+      return isCanceled() ? null : chromatograms;
+    } catch (MissingMassListException e) {
+      error(e.getMessage(), e);
+      return null;
+    } finally {
+      primitiveBuilder = null;
+      progress = 0.55;
     }
-
-    // sort and reset IDs here to have the same sorting for every feature list
-    FeatureListUtils.sortByDefault(newFeatureList, true);
-
-    newFeatureList.setSelectedScans(dataFile, Arrays.asList(scans));
-
-    dataFile.getAppliedMethods().forEach(m -> newFeatureList.getAppliedMethods().add(m));
-    // Add new feature list to the project
-    newFeatureList.getAppliedMethods()
-        .add(new SimpleFeatureListAppliedMethod(callingModule, parameters, getModuleCallDate()));
-    project.addFeatureList(newFeatureList);
-
-    progress = 1.0;
-
-    setStatus(TaskStatus.FINISHED);
-
-    logger.info(() -> "Finished chromatogram builder on " + dataFile);
   }
 
   /**
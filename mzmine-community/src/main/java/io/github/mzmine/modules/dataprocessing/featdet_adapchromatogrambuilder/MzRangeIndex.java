@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_adapchromatogrambuilder;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Primitive replacement for a {@link com.google.common.collect.TreeRangeMap} of non-overlapping
+ * closed-open m/z ranges that map to an int value (chromatogram index). Ranges are stored in an
+ * array based treap sorted by their lower bound, so lookups and inserts are O(log n) without boxing
+ * or node objects.
+ * <p>
+ * Only supports the operations needed by {@link PrimitiveADAPChromatogramBuilder}.
+ */
+final class MzRangeIndex {
+
+  private static final int NONE = -1;
+
+  // fixed seed to keep the tree shape reproducible
+  private final SplittableRandom random = new SplittableRandom(4242L);
+
+  private double[] lower;
+  private double[] upper;
+  private int[] values;
+  private int[] left;
+  private int[] right;
+  private int[] priority;
+  private int nodes = 0;
+  private int size = 0;
+  private int root = NONE;
+
+  MzRangeIndex(int initialCapacity) {
+    initialCapacity = Math.max(16, initialCapacity);
+    lower = new double[initialCapacity];
+    upper = new double[initialCapacity];
+    values = new int[initialCapacity];
+    left = new int[initialCapacity];
+    right = new int[initialCapacity];
+    priority = new int[initialCapacity];
+  }
+
+  /**
+   * @return number of ranges in this index
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return the node that contains mz in its range [lower, upper) or -1 if no range contains mz
+   */
+  int findNode(double mz) {
+    final int floor = floorNode(mz);
+    return floor != NONE && mz < upper[floor] ? floor : NONE;
+  }
+
+  double getLower(int node) {
+    return lower[node];
+  }
+
+  double getUpper(int node) {
+    return upper[node];
+  }
+
+  int getValue(int node) {
+    return values[node];
+  }
+
+  /**
+   * Adds a new closed-open range [lowerBound, upperBound). Same as
+   * {@link com.google.common.collect.RangeMap#put(com.google.common.collect.Range, Object)} all
+   * ranges that are enclosed by the new range are removed. Ranges that only partially overlap are
+   * not supported and need to be avoided by the caller.
+   */
+  void put(double lowerBound, double upperBound, int value) {
+    removeEnclosed(lowerBound, upperBound);
+
+    final int node = nodes++;
+    ensureCapacity(nodes);
+    lower[node] = lowerBound;
+    upper[node] = upperBound;
+    values[node] = value;
+    left[node] = NONE;
+    right[node] = NONE;
+    priority[node] = random.nextInt();
+    root = insert(root, node);
+    size++;
+  }
+
+  /**
+   * @return all values sorted by the lower bound of their ranges (ascending)
+   */
+  int[] valuesInRangeOrder() {
+    final int[] result = new int[size];
+    // in-order traversal, the stack grows with the depth of the tree
+    int[] stack = new int[64];
+    int stackSize = 0;
+    int current = root;
+    int index = 0;
+    while (current != NONE || stackSize > 0) {
+      while (current != NONE) {
+        if (stackSize == stack.length) {
+          stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[stackSize++] = current;
+        current = left[current];
+      }
+      current = stack[--stackSize];
+      result[index++] = values[current];
+      current = right[current];
+    }
+    return result;
+  }
+
+  /**
+   * @return node with the largest lower bound that is <= mz or -1
+   */
+  private int floorNode(double mz) {
+    int node = root;
+    int floor = NONE;
+    while (node != NONE) {
+      if (lower[node] <= mz) {
+        floor = node;
+        node = right[node];
+      } else {
+        node = left[node];
+      }
+    }
+    return floor;
+  }
+
+  /**
+   * @return node with the smallest lower bound that is >= mz or -1
+   */
+  private int ceilingNode(double mz) {
+    int node = root;
+    int ceiling = NONE;
+    while (node != NONE) {
+      if (lower[node] >= mz) {
+        ceiling = node;
+        node = left[node];
+      } else {
+        node = right[node];
+      }
+    }
+    return ceiling;
+  }
+
+  private void removeEnclosed(double lowerBound, double upperBound) {
+    int node;
+    while ((node = ceilingNode(lowerBound)) != NONE && lower[node] < upperBound) {
+      root = remove(root, lower[node]);
+      size--;
+    }
+  }
+
+  private int insert(int node, int newNode) {
+    if (node == NONE) {
+      return newNode;
+    }
+    if (lower[newNode] < lower[node]) {
+      left[node] = insert(left[node], newNode);
+      if (priority[left[node]] > priority[node]) {
+        return rotateRight(node);
+      }
+    } else {
+      right[node] = insert(right[node], newNode);
+      if (priority[right[node]] > priority[node]) {
+        return rotateLeft(node);
+      }
+    }
+    return node;
+  }
+
+  private int remove(int node, double key) {
+    if (node == NONE) {
+      return NONE;
+    }
+    if (key < lower[node]) {
+      left[node] = remove(left[node], key);
+      return node;
+    } else if (key > lower[node]) {
+      right[node] = remove(right[node], key);
+      return node;
+    }
+    return merge(left[node], right[node]);
+  }
+
+  private int merge(int a, int b) {
+    if (a == NONE) {
+      return b;
+    }
+    if (b == NONE) {
+      return a;
+    }
+    if (priority[a] > priority[b]) {
+      right[a] = merge(right[a], b);
+      return a;
+    }
+    left[b] = merge(a, left[b]);
+    return b;
+  }
+
+  private int rotateRight(int node) {
+    final int newRoot = left[node];
+    left[node] = right[newRoot];
+    right[newRoot] = node;
+    return newRoot;
+  }
+
+  private int rotateLeft(int node) {
+    final int newRoot = right[node];
+    right[node] = left[newRoot];
+    left[newRoot] = node;
+    return newRoot;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= lower.length) {
+      return;
+    }
+    final int newCapacity = Math.max(capacity, lower.length * 2);
+    lower = Arrays.copyOf(lower, newCapacity);
+    upper = Arrays.copyOf(upper, newCapacity);
+    values = Arrays.copyOf(values, newCapacity);
+    left = Arrays.copyOf(left, newCapacity);
+    right = Arrays.copyOf(right, newCapacity);
+    priority = Arrays.copyOf(priority, newCapacity);
+  }
+}
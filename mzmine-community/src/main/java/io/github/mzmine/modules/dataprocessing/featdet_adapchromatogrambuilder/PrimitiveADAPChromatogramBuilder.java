@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_adapchromatogrambuilder;
+
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.datamodel.data_access.EfficientDataAccess;
+import io.github.mzmine.datamodel.data_access.EfficientDataAccess.ScanDataType;
+import io.github.mzmine.datamodel.data_access.ScanDataAccess;
+import io.github.mzmine.datamodel.impl.SimpleDataPoint;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.taskcontrol.Task;
+import io.github.mzmine.taskcontrol.operations.AbstractTaskSubSupplier;
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
+import io.github.mzmine.util.exceptions.MissingMassListException;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Builds the same chromatograms as the {@link com.google.common.collect.RangeMap} based
+ * implementation in {@link ModularADAPChromatogramBuilderTask} but keeps all data points in
+ * primitive arrays (m/z, intensity, scan index). Data points are sorted by an index sort and
+ * grouped by the {@link MzRangeIndex}. {@link ADAPChromatogram} objects are only created for
+ * chromatograms that pass the minimum scans and consecutive scans filters.
+ */
+public class PrimitiveADAPChromatogramBuilder extends
+    AbstractTaskSubSupplier<List<ADAPChromatogram>> {
+
+  private static final int UNASSIGNED = -1;
+
+  private final RawDataFile dataFile;
+  private final Scan[] scans;
+  private final int totalDataPoints;
+  private final MZTolerance mzTolerance;
+  private final double minHighestPoint;
+  private final double minGroupIntensity;
+  private final int minimumTotalScans;
+  private final int minimumConsecutiveScans;
+  private double progress = 0d;
+
+  /**
+   * @param scans           all scans, sorted by retention time. The same scans are used to check
+   *                        consecutive data points
+   * @param totalDataPoints total number of mass list data points in all scans
+   */
+  public PrimitiveADAPChromatogramBuilder(@NotNull RawDataFile dataFile, @NotNull Scan[] scans,
+      int totalDataPoints, @NotNull MZTolerance mzTolerance, double minHighestPoint,
+      double minGroupIntensity, int minimumTotalScans, int minimumConsecutiveScans,
+      @Nullable Task parentTask) {
+    super(parentTask);
+    this.dataFile = dataFile;
+    this.scans = scans;
+    this.totalDataPoints = totalDataPoints;
+    this.mzTolerance = mzTolerance;
+    this.minHighestPoint = minHighestPoint;
+    this.minGroupIntensity = minGroupIntensity;
+    this.minimumTotalScans = minimumTotalScans;
+    this.minimumConsecutiveScans = minimumConsecutiveScans;
+  }
+
+  @Override
+  public @NotNull String getTaskDescription() {
+    return "Detecting chromatograms in " + dataFile.getName();
+  }
+
+  @Override
+  public double getFinishedPercentage() {
+    return progress;
+  }
+
+  /**
+   * @return chromatograms sorted by their m/z range that passed all filters or an empty list if
+   * the parent task was canceled
+   * @throws MissingMassListException if a scan has no mass list
+   */
+  @Override
+  public @NotNull List<ADAPChromatogram> get() throws MissingMassListException {
+    // struct of arrays for all data points in all scans
+    final double[] mzs = new double[totalDataPoints];
+    final double[] intensities = new double[totalDataPoints];
+    // index in scans array
+    final int[] scanIndices = new int[totalDataPoints];
+
+    final ScanDataAccess scanData = EfficientDataAccess.of(dataFile, ScanDataType.MASS_LIST,
+        Arrays.asList(scans));
+    double progressStep = 0.1 / Math.max(1, scanData.getNumberOfScans());
+    int numDataPoints = 0;
+    int scanIndex = 0;
+    while (scanData.hasNextScan()) {
+      if (isCanceled()) {
+        return List.of();
+      }
+      scanData.nextScan();
+      final int dps = scanData.getNumberOfDataPoints();
+      for (int i = 0; i < dps; i++) {
+        mzs[numDataPoints] = scanData.getMzValue(i);
+        intensities[numDataPoints] = scanData.getIntensityValue(i);
+        scanIndices[numDataPoints] = scanIndex;
+        numDataPoints++;
+      }
+      scanIndex++;
+      progress += progressStep;
+    }
+
+    // sort by intensity descending, then m/z descending. The original index keeps the order
+    // of the stable object sort for equal data points
+    final int[] order = new int[numDataPoints];
+    for (int i = 0; i < numDataPoints; i++) {
+      order[i] = i;
+    }
+    ThreadPoolUtils.runParallel("ADAP chromatogram builder",
+        () -> IntArrays.parallelQuickSort(order, (a, b) -> {
+          int result = Double.compare(intensities[b], intensities[a]);
+          if (result == 0) {
+            result = Double.compare(mzs[b], mzs[a]);
+          }
+          return result != 0 ? result : Integer.compare(a, b);
+        }));
+
+    progress = 0.1;
+    progressStep = numDataPoints > 0 ? 0.45 / numDataPoints : 0d;
+
+    // chromatogram of each data point in processing order
+    final int[] chromatogramOfSorted = new int[numDataPoints];
+    final MzRangeIndex rangeIndex = new MzRangeIndex(1024);
+    int numChromatograms = 0;
+
+    for (int k = 0; k < numDataPoints; k++) {
+      progress += progressStep;
+      if (isCanceled()) {
+        return List.of();
+      }
+
+      chromatogramOfSorted[k] = UNASSIGNED;
+      final int dp = order[k];
+      final double mz = mzs[dp];
+      final double intensity = intensities[dp];
+      if (Double.isNaN(mz) || Double.isNaN(intensity)) {
+        continue;
+      }
+
+      final int existing = rangeIndex.findNode(mz);
+      if (existing != -1) {
+        chromatogramOfSorted[k] = rangeIndex.getValue(existing);
+      } else if (intensity >= minHighestPoint) {
+        final int chromatogram = startNewChromatogramLimitMzRanges(rangeIndex, mz,
+            numChromatograms);
+        if (chromatogram == numChromatograms) {
+          numChromatograms++;
+        }
+        chromatogramOfSorted[k] = chromatogram;
+      }
+    }
+
+    return finishChromatograms(rangeIndex, numChromatograms, order, chromatogramOfSorted, mzs,
+        intensities, scanIndices);
+  }
+
+  /**
+   * Same logic as in the range map based implementation: the new range spans the m/z tolerance
+   * but is limited by neighboring ranges to avoid overlaps.
+   *
+   * @return the chromatogram index the data point was added to. Equals newChromatogram if a new
+   * chromatogram was started
+   */
+  private int startNewChromatogramLimitMzRanges(@NotNull MzRangeIndex rangeIndex, double mz,
+      int newChromatogram) {
+    final double tolerance = mzTolerance.getMzToleranceForMass(mz);
+    final double toleranceLower = mz - tolerance;
+    final double toleranceUpper = mz + tolerance;
+
+    final int minusRange = rangeIndex.findNode(toleranceLower);
+    final int plusRange = rangeIndex.findNode(toleranceUpper);
+
+    final double toBeLowerBound =
+        minusRange == -1 ? toleranceLower : rangeIndex.getUpper(minusRange);
+    final double toBeUpperBound =
+        plusRange == -1 ? toleranceUpper : rangeIndex.getLower(plusRange);
+
+    if (toBeLowerBound < toBeUpperBound) {
+      rangeIndex.put(toBeLowerBound, toBeUpperBound, newChromatogram);
+      return newChromatogram;
+    } else if (Double.compare(toBeLowerBound, toBeUpperBound) == 0 && plusRange != -1) {
+      return rangeIndex.getValue(plusRange);
+    }
+    throw new IllegalStateException(
+        String.format("Incorrect range [%f, %f] for m/z %f", toBeLowerBound, toBeUpperBound, mz));
+  }
+
+  /**
+   * Groups the data points by chromatogram, removes duplicate scans (the first = most intense data
+   * point is kept), and applies the filters. Only chromatograms that remained in the range index
+   * are used, others were replaced by overlapping ranges.
+   */
+  private @NotNull List<ADAPChromatogram> finishChromatograms(@NotNull MzRangeIndex rangeIndex,
+      int numChromatograms, int[] order, int[] chromatogramOfSorted, double[] mzs,
+      double[] intensities, int[] scanIndices) {
+    // counting sort of data points by chromatogram, keeps processing order within each group
+    final int[] groupStart = new int[numChromatograms + 1];
+    for (final int chromatogram : chromatogramOfSorted) {
+      if (chromatogram != UNASSIGNED) {
+        groupStart[chromatogram + 1]++;
+      }
+    }
+    for (int c = 0; c < numChromatograms; c++) {
+      groupStart[c + 1] += groupStart[c];
+    }
+    final int[] grouped = new int[groupStart[numChromatograms]];
+    final int[] insertAt = Arrays.copyOf(groupStart, numChromatograms);
+    for (int k = 0; k < chromatogramOfSorted.length; k++) {
+      final int chromatogram = chromatogramOfSorted[k];
+      if (chromatogram != UNASSIGNED) {
+        grouped[insertAt[chromatogram]++] = order[k];
+      }
+    }
+
+    // scratch buffers, one data point per scan at most
+    final int[] lastChromatogramInScan = new int[scans.length];
+    Arrays.fill(lastChromatogramInScan, UNASSIGNED);
+    final int[] keptDataPoints = new int[scans.length];
+    final long[] scanSortedDataPoints = new long[scans.length];
+
+    final int[] chromatogramsByMz = rangeIndex.valuesInRangeOrder();
+    final List<ADAPChromatogram> result = new ArrayList<>();
+    final double progressStep =
+        chromatogramsByMz.length > 0 ? 0.45 / chromatogramsByMz.length : 0d;
+
+    for (final int chromatogram : chromatogramsByMz) {
+      progress += progressStep;
+      if (isCanceled()) {
+        return List.of();
+      }
+
+      // remove duplicate scans, keep first data point (highest intensity)
+      int kept = 0;
+      for (int g = groupStart[chromatogram]; g < groupStart[chromatogram + 1]; g++) {
+        final int dp = grouped[g];
+        final int scan = scanIndices[dp];
+        if (lastChromatogramInScan[scan] == chromatogram) {
+          continue;
+        }
+        lastChromatogramInScan[scan] = chromatogram;
+        keptDataPoints[kept] = dp;
+        scanSortedDataPoints[kept] = ((long) scan << 32) | dp;
+        kept++;
+      }
+
+      if (kept == 0 || kept < minimumTotalScans) {
+        continue;
+      }
+      Arrays.sort(scanSortedDataPoints, 0, kept);
+      if (!matchesMinContinuousDataPoints(scanSortedDataPoints, kept, intensities)) {
+        continue;
+      }
+
+      // add in processing order to keep the same average m/z
+      final ADAPChromatogram chrom = new ADAPChromatogram();
+      for (int i = 0; i < kept; i++) {
+        final int dp = keptDataPoints[i];
+        chrom.addMzFeature(scans[scanIndices[dp]], new SimpleDataPoint(mzs[dp], intensities[dp]));
+      }
+      result.add(chrom);
+    }
+    return result;
+  }
+
+  /**
+   * Primitive version of {@link ADAPChromatogram#matchesMinContinuousDataPoints(Scan[], double,
+   * int, double)}
+   *
+   * @param scanSortedDataPoints scan index (upper 32 bits) and data point index (lower 32 bits),
+   *                             sorted by scan
+   */
+  private boolean matchesMinContinuousDataPoints(long[] scanSortedDataPoints, int length,
+      double[] intensities) {
+    if (minimumConsecutiveScans <= 1) {
+      return true;
+    }
+
+    int connectedScans = 0;
+    double maxCurrentHeight = 0d;
+    int previousScan = -2;
+    for (int i = 0; i < length; i++) {
+      final int scan = (int) (scanSortedDataPoints[i] >>> 32);
+      final double intensity = intensities[(int) scanSortedDataPoints[i]];
+      // scans without data point break the connection
+      if (scan != previousScan + 1) {
+        connectedScans = 0;
+      }
+      previousScan = scan;
+
+      if (intensity >= minGroupIntensity) {
+        connectedScans++;
+        if (maxCurrentHeight < intensity) {
+          maxCurrentHeight = intensity;
+        }
+        if (connectedScans >= minimumConsecutiveScans && maxCurrentHeight >= minHighestPoint) {
+          return true;
+        }
+      } else {
+        connectedScans = 0;
+      }
+    }
+    return false;
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -29,6 +29,7 @@ import static io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconv
 import static io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution.minimumsearch.MinimumSearchFeatureResolverParameters.MIN_NUMBER_OF_DATAPOINTS;
 import static io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution.minimumsearch.MinimumSearchFeatureResolverParameters.MIN_RATIO;
 import static io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution.minimumsearch.MinimumSearchFeatureResolverParameters.MIN_RELATIVE_HEIGHT;
+import static io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution.minimumsearch.MinimumSearchFeatureResolverParameters.MINIMUM_SEARCH_ENGINE;
 import static io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution.minimumsearch.MinimumSearchFeatureResolverParameters.PEAK_DURATION;
 import static io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution.minimumsearch.MinimumSearchFeatureResolverParameters.SEARCH_RT_RANGE;
 
@@ -41,9 +42,13 @@ import io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution
 import io.github.mzmine.parameters.ParameterSet;
 import io.github.mzmine.parameters.parametertypes.selectors.FeatureListsSelection;
 import io.github.mzmine.util.MathUtils;
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * This peak recognition method searches for local minima in the chromatogram. If a local minimum is
@@ -60,6 +65,10 @@ public class MinimumSearchFeatureResolver extends AbstractResolver {
   private final int minDataPoints;
   private final double minAbsoluteHeight;
   private final double minRelativeHeight;
+  private final MinimumSearchEngine engine;
+  // only used by the range queries engine, reused for all traces
+  @Nullable
+  private SearchRangeMinimumIndex minimumIndex;
   double[] xBuffer;
   double[] yBuffer;
 
@@ -73,6 +82,9 @@ public class MinimumSearchFeatureResolver extends AbstractResolver {
     minRatio = parameters.getParameter(MIN_RATIO).getValue();
     minAbsoluteHeight = parameters.getParameter(MIN_ABSOLUTE_HEIGHT).getValue();
     minRelativeHeight = parameters.getParameter(MIN_RELATIVE_HEIGHT).getValue();
+    // not part of the integrated parameters used by other modules
+    engine = parameters.hasParameter(MINIMUM_SEARCH_ENGINE) ? parameters.getValue(
+        MINIMUM_SEARCH_ENGINE) : MinimumSearchEngine.NESTED_LOOPS;
   }
 
   /**
@@ -145,6 +157,14 @@ public class MinimumSearchFeatureResolver extends AbstractResolver {
 
     final double minHeight = Math.max(minAbsoluteHeight, minRelativeHeight * maxY);
 
+    if (engine == MinimumSearchEngine.RANGE_QUERIES) {
+      // precompute once per trace instead of scanning the search range for every candidate
+      if (minimumIndex == null) {
+        minimumIndex = new SearchRangeMinimumIndex();
+      }
+      minimumIndex.build(x, y, valueCount);
+    }
+
     // Current region is a region between two minima, representing a
     // candidate for a resolved peak.
     startSearch:
@@ -180,35 +200,13 @@ public class MinimumSearchFeatureResolver extends AbstractResolver {
         // Minimum duration of peak must be at least searchXRange.
         if (x[currentRegionEnd] - x[currentRegionStart] >= searchXWidth) {
 
-          // Set the RT range to check
-          final Range<Double> checkRange = Range.closed(x[currentRegionEnd] - searchXWidth,
-              x[currentRegionEnd] + searchXWidth);
-
-          // Search if there is lower data point on the left from
-          // current peak i.
-          for (int i = currentRegionEnd - 1; i > 0; i--) {
-
-            if (!checkRange.contains(x[i])) {
-              break;
-            }
-
-            if (y[i] < y[currentRegionEnd]) {
-
-              continue endSearch;
-            }
-          }
-
-          // Search on the right from current peak i.
-          for (int i = currentRegionEnd + 1; i < valueCount; i++) {
-
-            if (!checkRange.contains(x[i])) {
-              break;
-            }
-
-            if (y[i] < y[currentRegionEnd]) {
-
-              continue endSearch;
-            }
+          final double lower = x[currentRegionEnd] - searchXWidth;
+          final double upper = x[currentRegionEnd] + searchXWidth;
+          final boolean isMinimum = engine == MinimumSearchEngine.RANGE_QUERIES
+              ? minimumIndex.isMinimumInRange(currentRegionEnd, lower, upper)
+              : isMinimumInSearchRange(x, y, currentRegionEnd, lower, upper);
+          if (!isMinimum) {
+            continue endSearch;
           }
 
           // Find the intensity at the sides (lowest data points).
@@ -229,6 +227,79 @@ public class MinimumSearchFeatureResolver extends AbstractResolver {
     return resolved;
   }
 
+  /**
+   * Scans to the left and right of the index as long as the x values are within the search range.
+   *
+   * @return true if there is no lower data point within the search range
+   */
+  private static boolean isMinimumInSearchRange(double[] x, double[] y, int index, double lower,
+      double upper) {
+    // Set the RT range to check
+    final Range<Double> checkRange = Range.closed(lower, upper);
+
+    // Search if there is lower data point on the left from
+    // current peak i.
+    for (int i = index - 1; i > 0; i--) {
+
+      if (!checkRange.contains(x[i])) {
+        break;
+      }
+
+      if (y[i] < y[index]) {
+        return false;
+      }
+    }
+
+    // Search on the right from current peak i.
+    for (int i = index + 1; i < x.length; i++) {
+
+      if (!checkRange.contains(x[i])) {
+        break;
+      }
+
+      if (y[i] < y[index]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Resolves many traces of one feature list in parallel. The traces are split into one chunk per
+   * thread and each chunk is resolved by its own resolver, which reuses its scratch arrays for all
+   * traces of the chunk. The chunks run in a pool limited to the number of threads in the
+   * preferences. The y values are modified the same way as in {@link #resolve}.
+   *
+   * @param xValues    domain values of each trace
+   * @param yValues    intensities of each trace
+   * @param numThreads number of chunks resolved in parallel
+   * @return the resolved ranges of each trace in the order of the input
+   */
+  @NotNull
+  List<List<Range<Double>>> resolveAll(@NotNull final List<double[]> xValues,
+      @NotNull final List<double[]> yValues, final int numThreads) {
+    if (xValues.size() != yValues.size()) {
+      throw new IllegalArgumentException("Number of x and y arrays does not match.");
+    }
+    final int numTraces = xValues.size();
+    final int numChunks = Math.max(1, Math.min(numThreads, numTraces));
+    final int chunkSize = (numTraces + numChunks - 1) / numChunks;
+
+    // only set at distinct indices, results are visible after the parallel stream completed
+    final List<List<Range<Double>>> resolved = new ArrayList<>(
+        Collections.nCopies(numTraces, null));
+    ThreadPoolUtils.runParallel("Minimum search resolver",
+        () -> IntStream.range(0, numChunks).parallel().forEach(chunk -> {
+          final MinimumSearchFeatureResolver resolver = new MinimumSearchFeatureResolver(
+              parameters, flist);
+          final int end = Math.min(numTraces, (chunk + 1) * chunkSize);
+          for (int trace = chunk * chunkSize; trace < end; trace++) {
+            resolved.set(trace, resolver.resolve(xValues.get(trace), yValues.get(trace)));
+          }
+        }));
+    return resolved;
+  }
+
   /**
    * @return The index at which to start to search for the next peak
    */
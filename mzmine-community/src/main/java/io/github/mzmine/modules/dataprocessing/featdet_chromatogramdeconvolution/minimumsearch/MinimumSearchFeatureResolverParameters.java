@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2025 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -37,6 +37,7 @@ import io.github.mzmine.modules.presets.ModulePreset;
 import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.ParameterSet;
 import io.github.mzmine.parameters.impl.IonMobilitySupport;
+import io.github.mzmine.parameters.parametertypes.ComboParameter;
 import io.github.mzmine.parameters.parametertypes.DoubleParameter;
 import io.github.mzmine.parameters.parametertypes.OriginalFeatureListHandlingParameter.OriginalFeatureListOption;
 import io.github.mzmine.parameters.parametertypes.PercentParameter;
@@ -79,6 +80,12 @@ public class MinimumSearchFeatureResolverParameters extends GeneralResolverParam
       "Peak duration range (min/mobility)", "Range of acceptable peak lengths",
       MZmineCore.getConfiguration().getRTFormat(), Range.closed(0.0, 10.0));
 
+  public static final ComboParameter<MinimumSearchEngine> MINIMUM_SEARCH_ENGINE =
+      new ComboParameter<>("Minimum search engine", """
+      Implementation used to find the local minima. Both engines resolve the same features.
+      Range queries precomputes the minima once per trace and is faster for long chromatograms and \
+      wide search ranges.""", MinimumSearchEngine.values(), MinimumSearchEngine.NESTED_LOOPS);
+
   public MinimumSearchFeatureResolverParameters() {
     super(createParams(Setup.FULL),
         "https://mzmine.github.io/mzmine_documentation/module_docs/featdet_resolver_local_minimum/local-minimum-resolver.html");
@@ -94,7 +101,8 @@ public class MinimumSearchFeatureResolverParameters extends GeneralResolverParam
       case FULL ->
           new Parameter[]{PEAK_LISTS, SUFFIX, handleOriginal, groupMS2Parameters, dimension,
               CHROMATOGRAPHIC_THRESHOLD_LEVEL, SEARCH_RT_RANGE, MIN_RELATIVE_HEIGHT,
-              MIN_ABSOLUTE_HEIGHT, MIN_RATIO, PEAK_DURATION, MIN_NUMBER_OF_DATAPOINTS};
+              MIN_ABSOLUTE_HEIGHT, MIN_RATIO, PEAK_DURATION, MIN_NUMBER_OF_DATAPOINTS,
+              MINIMUM_SEARCH_ENGINE};
       case INTEGRATED ->
           new Parameter[]{CHROMATOGRAPHIC_THRESHOLD_LEVEL, SEARCH_RT_RANGE, MIN_RELATIVE_HEIGHT,
               MIN_ABSOLUTE_HEIGHT, MIN_RATIO, PEAK_DURATION, MIN_NUMBER_OF_DATAPOINTS};
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution.minimumsearch;
+
+import java.util.Arrays;
+
+/**
+ * Answers if a data point of a trace is a minimum within a search range in constant time. The
+ * nearest lower data point on each side is precomputed with a monotonic stack. A data point is not
+ * a minimum if the nearest lower data point is reached before leaving the search range, which is
+ * the case if all x values up to it are within the range. This is checked with sparse table range
+ * min/max queries on the x values. The results are the same as scanning the search range, also for
+ * x values that are not sorted.
+ * <p>
+ * Not thread safe, the scratch arrays are reused for the next trace.
+ */
+final class SearchRangeMinimumIndex {
+
+  private static final int NONE = -1;
+
+  private int[] previousLower = new int[0];
+  private int[] nextLower = new int[0];
+  private int[] stack = new int[0];
+  // level k contains the min/max of 2^k values starting at each index. Level 0 is x itself
+  private double[][] minTable = new double[0][];
+  private double[][] maxTable = new double[0][];
+  private double[] x;
+
+  /**
+   * Prepares the index for a trace. The values must not change until the next call.
+   *
+   * @param x          domain values
+   * @param y          intensities
+   * @param valueCount number of values to use
+   */
+  void build(final double[] x, final double[] y, final int valueCount) {
+    this.x = x;
+    ensureCapacity(valueCount);
+    buildNearestLower(y, valueCount);
+    buildSparseTables(x, valueCount);
+  }
+
+  /**
+   * Same as scanning to the left (excluding the first data point) and to the right of index while
+   * the x values are within [lower, upper] and checking for a lower intensity.
+   *
+   * @return true if no data point within the search range has a lower intensity
+   */
+  boolean isMinimumInRange(final int index, final double lower, final double upper) {
+    final int left = previousLower[index];
+    if (left > 0 && isWithin(left, index - 1, lower, upper)) {
+      return false;
+    }
+    final int right = nextLower[index];
+    return right == NONE || !isWithin(index + 1, right, lower, upper);
+  }
+
+  /**
+   * Same comparison as {@link com.google.common.collect.Range#contains(Comparable)}. Math.min/max
+   * propagate NaN values, which are never within the range.
+   *
+   * @return true if all x values from start to end (inclusive) are within [lower, upper]
+   */
+  private boolean isWithin(final int start, final int end, final double lower,
+      final double upper) {
+    final int level = 31 - Integer.numberOfLeadingZeros(end - start + 1);
+    final int secondStart = end - (1 << level) + 1;
+    final double[] min = level == 0 ? x : minTable[level];
+    final double[] max = level == 0 ? x : maxTable[level];
+    return Double.compare(Math.min(min[start], min[secondStart]), lower) >= 0
+        && Double.compare(Math.max(max[start], max[secondStart]), upper) <= 0;
+  }
+
+  /**
+   * Nearest data point with a strictly lower intensity on each side. NaN intensities are never
+   * lower and have no lower data point, same as the comparison in a scan.
+   */
+  private void buildNearestLower(final double[] y, final int valueCount) {
+    int stackSize = 0;
+    for (int i = 0; i < valueCount; i++) {
+      if (Double.isNaN(y[i])) {
+        previousLower[i] = NONE;
+        continue;
+      }
+      while (stackSize > 0 && !(y[stack[stackSize - 1]] < y[i])) {
+        stackSize--;
+      }
+      previousLower[i] = stackSize > 0 ? stack[stackSize - 1] : NONE;
+      stack[stackSize++] = i;
+    }
+
+    stackSize = 0;
+    for (int i = valueCount - 1; i >= 0; i--) {
+      if (Double.isNaN(y[i])) {
+        nextLower[i] = NONE;
+        continue;
+      }
+      while (stackSize > 0 && !(y[stack[stackSize - 1]] < y[i])) {
+        stackSize--;
+      }
+      nextLower[i] = stackSize > 0 ? stack[stackSize - 1] : NONE;
+      stack[stackSize++] = i;
+    }
+  }
+
+  private void buildSparseTables(final double[] x, final int valueCount) {
+    final int levels = valueCount == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(valueCount);
+    if (minTable.length < levels) {
+      minTable = Arrays.copyOf(minTable, levels);
+      maxTable = Arrays.copyOf(maxTable, levels);
+    }
+    for (int level = 1; level < levels; level++) {
+      final int half = 1 << (level - 1);
+      final int length = valueCount - (1 << level) + 1;
+      if (minTable[level] == null || minTable[level].length < length) {
+        minTable[level] = new double[length];
+        maxTable[level] = new double[length];
+      }
+      final double[] previousMin = level == 1 ? x : minTable[level - 1];
+      final double[] previousMax = level == 1 ? x : maxTable[level - 1];
+      final double[] min = minTable[level];
+      final double[] max = maxTable[level];
+      for (int i = 0; i < length; i++) {
+        min[i] = Math.min(previousMin[i], previousMin[i + half]);
+        max[i] = Math.max(previousMax[i], previousMax[i + half]);
+      }
+    }
+  }
+
+  private void ensureCapacity(final int valueCount) {
+    if (previousLower.length < valueCount) {
+      previousLower = new int[valueCount];
+      nextLower = new int[valueCount];
+      stack = new int[valueCount];
+    }
+  }
+}
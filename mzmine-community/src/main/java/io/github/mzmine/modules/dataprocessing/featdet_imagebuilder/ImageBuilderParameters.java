@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2022 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -68,7 +68,8 @@ public class ImageBuilderParameters extends SimpleParameterSet {
         ADAPChromatogramBuilderParameters.minHighestPoint,
         minTotalSignals,
         minimumConsecutiveScans,
-        suffix);
+        suffix,
+        ADAPChromatogramBuilderParameters.builderEngine);
   }
 
   @Override
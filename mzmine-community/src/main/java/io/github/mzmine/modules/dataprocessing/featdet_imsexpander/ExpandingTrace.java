@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2022 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -87,18 +87,29 @@ public class ExpandingTrace {
    * @return true if the data points is added to this trace.
    */
   public boolean offerDataPoint(@NotNull MobilityScanDataAccess access, int index) {
-    final float rt = access.getRetentionTime();
-    final double mz = access.getMzValue(index);
+    return offerDataPoint(access.getCurrentMobilityScan(), access.getRetentionTime(),
+        access.getMzValue(index), access.getIntensityValue(index));
+  }
 
+  /**
+   * Offers a data point to this trace.
+   *
+   * @param scan      the mobility scan of the data point
+   * @param rt        the retention time of the frame
+   * @param mz        the m/z of the data point
+   * @param intensity the intensity of the data point
+   * @return true if the data points is added to this trace.
+   */
+  public boolean offerDataPoint(@NotNull MobilityScan scan, float rt, double mz,
+      double intensity) {
     if (!rtRange.contains(rt) || !mzRange.contains(mz)) {
       return false;
     }
 
-    final DataPoint dp = new SimpleDataPoint(mz,
-        access.getIntensityValue(index));
+    final DataPoint dp = new SimpleDataPoint(mz, intensity);
 
     // keep the data point that has the lowest deviation to the mz of this row
-    return dataPoints.merge(access.getCurrentMobilityScan(), dp, (oldDp, newDp) -> {
+    return dataPoints.merge(scan, dp, (oldDp, newDp) -> {
       if (Math.abs(centerMz - oldDp.getMZ()) > Math.abs(centerMz - newDp.getMZ())) {
         return newDp;
       }
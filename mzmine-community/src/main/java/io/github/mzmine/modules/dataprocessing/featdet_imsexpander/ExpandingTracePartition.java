@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_imsexpander;
+
+import io.github.mzmine.datamodel.IMSRawDataFile;
+import io.github.mzmine.datamodel.MobilityScan;
+import io.github.mzmine.datamodel.data_access.BinningMobilogramDataAccess;
+import io.github.mzmine.datamodel.featuredata.IonMobilogramTimeSeries;
+import io.github.mzmine.util.MemoryMapStorage;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A group of {@link ExpandingTrace}s that consumes the frames streamed by the
+ * {@link SharedFrameReader}. Equivalent to the trace handling of {@link ImsExpanderSubTask}, but
+ * the data is read from a shared {@link FrameBuffer}. A partition is only accessed by one thread
+ * at a time.
+ */
+final class ExpandingTracePartition {
+
+  private final List<ExpandingTrace> traces;
+  private final int firstFrameIndex;
+  private final int lastFrameIndex;
+  private final double lowestMz;
+  private final double highestMz;
+
+  /**
+   * @param traces          the traces sorted by the lower bound of their m/z range
+   * @param firstFrameIndex the index of the first frame that may contain data for the traces
+   * @param lastFrameIndex  the index of the last frame that may contain data for the traces
+   */
+  ExpandingTracePartition(@NotNull final List<ExpandingTrace> traces, final int firstFrameIndex,
+      final int lastFrameIndex) {
+    this.traces = traces;
+    this.firstFrameIndex = firstFrameIndex;
+    this.lastFrameIndex = lastFrameIndex;
+    lowestMz = traces.isEmpty() ? 0d : traces.getFirst().getMzRange().lowerEndpoint();
+    highestMz = traces.stream().mapToDouble(t -> t.getMzRange().upperEndpoint()).max()
+        .orElse(0d);
+  }
+
+  /**
+   * Offers all data points of the buffered frame to the traces of this partition. Each mobility
+   * scan is only scanned within the m/z window of this partition.
+   */
+  void consume(@NotNull final FrameBuffer buffer) {
+    final int frameIndex = buffer.getFrameIndex();
+    if (traces.isEmpty() || frameIndex < firstFrameIndex || frameIndex > lastFrameIndex) {
+      return;
+    }
+
+    final float rt = buffer.getRetentionTime();
+    final int numTraces = traces.size();
+    for (int scanIndex = 0; scanIndex < buffer.getNumberOfScans(); scanIndex++) {
+      final int end = buffer.getScanEnd(scanIndex);
+      final MobilityScan scan = buffer.getScan(scanIndex);
+
+      // memorise the first trace that had an mz range that fit the last mz
+      int firstTraceIndex = 0;
+      for (int dpIndex = buffer.firstIndexAtLeast(scanIndex, lowestMz);
+          dpIndex < end && firstTraceIndex < numTraces; dpIndex++) {
+        final double mz = buffer.getMz(dpIndex);
+        if (mz > highestMz) {
+          break;
+        }
+        final double intensity = buffer.getIntensity(dpIndex);
+
+        for (int traceIndex = firstTraceIndex; traceIndex < numTraces; traceIndex++) {
+          final ExpandingTrace trace = traces.get(traceIndex);
+          if (trace.getMzRange().lowerEndpoint() > mz) {
+            // all further traces have an even higher start-mz
+            break;
+          }
+
+          if (trace.getMzRange().upperEndpoint() < mz && traceIndex == firstTraceIndex) {
+            firstTraceIndex++;
+            continue;
+          }
+
+          trace.offerDataPoint(scan, rt, mz, intensity);
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates the mobilogram time series of all traces with more than one data point.
+   */
+  @NotNull List<ExpandedTrace> toExpandedTraces(@Nullable final MemoryMapStorage storage,
+      @NotNull final BinningMobilogramDataAccess mobilogramDataAccess,
+      @NotNull final IMSRawDataFile imsFile) {
+    final List<ExpandedTrace> expandedTraces = new ArrayList<>();
+    for (final ExpandingTrace trace : traces) {
+      if (trace.getNumberOfMobilityScans() > 1) {
+        final IonMobilogramTimeSeries series = trace.toIonMobilogramTimeSeries(storage,
+            mobilogramDataAccess);
+        expandedTraces.add(
+            new ExpandedTrace(series, trace.getRow(), trace.getRow().getFeature(imsFile)));
+      }
+    }
+    return expandedTraces;
+  }
+
+  int getFirstFrameIndex() {
+    return firstFrameIndex;
+  }
+
+  int getLastFrameIndex() {
+    return lastFrameIndex;
+  }
+}
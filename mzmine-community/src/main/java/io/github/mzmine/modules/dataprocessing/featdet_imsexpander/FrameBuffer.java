@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_imsexpander;
+
+import io.github.mzmine.datamodel.Frame;
+import io.github.mzmine.datamodel.MobilityScan;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reusable buffer holding the decoded mobility scans of a single frame. The m/z and intensity
+ * values of all mobility scans are stored consecutively, the values of a scan are sorted by m/z.
+ * Buffers are recycled by the {@link SharedFrameReader}, so the arrays only grow and are never
+ * reallocated for every frame.
+ */
+final class FrameBuffer {
+
+  private @Nullable Frame frame;
+  private int frameIndex = -1;
+  private float rt;
+
+  private int numScans;
+  private MobilityScan[] scans;
+  /**
+   * Start index of each scan in the value arrays. scanStarts[numScans] is the end of the last scan.
+   */
+  private int[] scanStarts;
+
+  private int numValues;
+  private double[] mzs;
+  private double[] intensities;
+
+  FrameBuffer(final int initialScans, final int initialValues) {
+    scans = new MobilityScan[Math.max(1, initialScans)];
+    scanStarts = new int[scans.length + 1];
+    mzs = new double[Math.max(1, initialValues)];
+    intensities = new double[mzs.length];
+  }
+
+  /**
+   * Clears this buffer, the arrays are kept for the next frame.
+   *
+   * @param frame      the next frame
+   * @param frameIndex the index of the frame in the frame list of the reader
+   */
+  void reset(@Nullable final Frame frame, final int frameIndex) {
+    this.frame = frame;
+    this.frameIndex = frameIndex;
+    rt = frame != null ? frame.getRetentionTime() : 0f;
+    numScans = 0;
+    numValues = 0;
+    scanStarts[0] = 0;
+  }
+
+  /**
+   * Starts a new mobility scan. All data points added afterward belong to this scan.
+   */
+  void addScan(@NotNull final MobilityScan scan) {
+    if (numScans + 1 >= scanStarts.length) {
+      scans = Arrays.copyOf(scans, scans.length * 2);
+      scanStarts = Arrays.copyOf(scanStarts, scans.length + 1);
+    }
+    scans[numScans] = scan;
+    scanStarts[numScans] = numValues;
+    numScans++;
+    scanStarts[numScans] = numValues;
+  }
+
+  /**
+   * Adds a data point to the last scan. Data points have to be added in ascending m/z order.
+   */
+  void addDataPoint(final double mz, final double intensity) {
+    if (numValues >= mzs.length) {
+      mzs = Arrays.copyOf(mzs, mzs.length * 2);
+      intensities = Arrays.copyOf(intensities, mzs.length);
+    }
+    mzs[numValues] = mz;
+    intensities[numValues] = intensity;
+    numValues++;
+    scanStarts[numScans] = numValues;
+  }
+
+  /**
+   * @return the index of the first value in the scan with an m/z &ge; the given m/z. The end index
+   * of the scan if all values are lower.
+   */
+  int firstIndexAtLeast(final int scanIndex, final double mz) {
+    int low = scanStarts[scanIndex];
+    int high = scanStarts[scanIndex + 1];
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (mzs[mid] < mz) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  @Nullable Frame getFrame() {
+    return frame;
+  }
+
+  int getFrameIndex() {
+    return frameIndex;
+  }
+
+  float getRetentionTime() {
+    return rt;
+  }
+
+  int getNumberOfScans() {
+    return numScans;
+  }
+
+  MobilityScan getScan(final int scanIndex) {
+    return scans[scanIndex];
+  }
+
+  int getScanStart(final int scanIndex) {
+    return scanStarts[scanIndex];
+  }
+
+  int getScanEnd(final int scanIndex) {
+    return scanStarts[scanIndex + 1];
+  }
+
+  double getMz(final int index) {
+    return mzs[index];
+  }
+
+  double getIntensity(final int index) {
+    return intensities[index];
+  }
+
+  int getNumberOfValues() {
+    return numValues;
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2025 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -32,6 +32,7 @@ import io.github.mzmine.main.MZmineCore;
 import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.impl.IonMobilitySupport;
 import io.github.mzmine.parameters.impl.SimpleParameterSet;
+import io.github.mzmine.parameters.parametertypes.ComboParameter;
 import io.github.mzmine.parameters.parametertypes.DoubleParameter;
 import io.github.mzmine.parameters.parametertypes.IntegerParameter;
 import io.github.mzmine.parameters.parametertypes.OptionalParameter;
@@ -78,9 +79,17 @@ public class ImsExpanderParameters extends SimpleParameterSet {
           However, it can be beneficial for imaging experiments to reduce the memory consumption during this step.""",
           2_000), false);
 
+  public static final ComboParameter<ImsExpanderReadMode> readMode = new ComboParameter<>(
+      "Frame reading", """
+          Reader per thread: every thread reads all frames of its features.
+          Shared frame reader: all frames are read once and processed by all threads
+          concurrently. Reduces the memory bandwidth on machines with many threads.
+          Both modes create the same features.""",
+      ImsExpanderReadMode.values(), ImsExpanderReadMode.PER_PARTITION);
+
   public ImsExpanderParameters() {
     super(new Parameter[]{featureLists, mzTolerance, useRawData, mobilogramBinWidth, maxNumTraces,
-            handleOriginal},
+            readMode, handleOriginal},
         "https://mzmine.github.io/mzmine_documentation/module_docs/lc-ims-ms_featdet/featdet_ims_expander/ims-expander.html");
   }
 
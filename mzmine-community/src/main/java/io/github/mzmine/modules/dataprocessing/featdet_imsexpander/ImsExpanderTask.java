@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2025 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -32,6 +32,7 @@ import io.github.mzmine.datamodel.MZmineProject;
 import io.github.mzmine.datamodel.Scan;
 import io.github.mzmine.datamodel.data_access.BinningMobilogramDataAccess;
 import io.github.mzmine.datamodel.data_access.EfficientDataAccess;
+import io.github.mzmine.datamodel.data_access.EfficientDataAccess.MobilityScanDataType;
 import io.github.mzmine.datamodel.featuredata.FeatureDataUtils;
 import io.github.mzmine.datamodel.featuredata.IonTimeSeries;
 import io.github.mzmine.datamodel.features.FeatureListRow;
@@ -52,11 +53,16 @@ import io.github.mzmine.taskcontrol.threadpools.ThreadPoolTask;
 import io.github.mzmine.util.DataTypeUtils;
 import io.github.mzmine.util.FeatureListUtils;
 import io.github.mzmine.util.MemoryMapStorage;
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
+import io.github.mzmine.util.exceptions.MissingMassListException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -78,6 +84,8 @@ public class ImsExpanderTask extends AbstractTask {
   private final int binWidth;
   private final int maxNumTraces;
   private final OriginalFeatureListOption handleOriginal;
+  private final ImsExpanderReadMode readMode;
+  private volatile @Nullable SharedFrameReader sharedReader;
   private String desc = "Mobility expanding.";
   private long totalRows = 1;
   private long createdRows = 0;
@@ -99,6 +107,7 @@ public class ImsExpanderTask extends AbstractTask {
         .getValue() : BinningMobilogramDataAccess.getRecommendedBinWidth(
         (IMSRawDataFile) flist.getRawDataFile(0));
     handleOriginal = this.parameters.getParameter(ImsExpanderParameters.handleOriginal).getValue();
+    readMode = parameters.getValue(ImsExpanderParameters.readMode);
   }
 
   @Override
@@ -108,6 +117,11 @@ public class ImsExpanderTask extends AbstractTask {
 
   @Override
   public double getFinishedPercentage() {
+    final SharedFrameReader reader = sharedReader;
+    if (reader != null) {
+      return 0.8 * reader.getProcessedFrames() / Math.max(1, reader.getTotalFrames())
+          + 0.2 * createdRows / (double) totalRows;
+    }
     // stream / iterator for loop may lead to concurrend mod exception, use classic for loop here
     double sum = 0.0;
     for (int i = 0; i < tasks.size(); i++) {
@@ -169,6 +183,7 @@ public class ImsExpanderTask extends AbstractTask {
         (a, b) -> Float.compare(a.getRtRange().lowerEndpoint(), b.getRtRange().lowerEndpoint()));
     final List<List<ExpandingTrace>> subLists = Lists.partition(expandingTraces, tracesPerList);
 
+    final List<ExpandingTracePartition> partitions = new ArrayList<>();
     for (final List<ExpandingTrace> subList : subLists) {
       final Frame firstFrame = (Frame) subList.getFirst().getRow().getBestFeature().getFeatureData()
           .getSpectrum(0);
@@ -179,12 +194,18 @@ public class ImsExpanderTask extends AbstractTask {
           .getFeatureData();
       final Frame lastFrame = (Frame) lastTraceData.getSpectrum(
           lastTraceData.getNumberOfValues() - 1);
-      final List<Frame> framesSubList = frames.subList(frames.indexOf(firstFrame),
-          frames.indexOf(lastFrame) + 1);
+      final int firstFrameIndex = frames.indexOf(firstFrame);
+      final int lastFrameIndex = frames.indexOf(lastFrame);
 
       final List<ExpandingTrace> traces = new ArrayList<>(subList);
       traces.sort(Comparator.comparingDouble(a -> a.getMzRange().lowerEndpoint()));
 
+      if (readMode == ImsExpanderReadMode.SHARED_READER) {
+        partitions.add(new ExpandingTracePartition(traces, firstFrameIndex, lastFrameIndex));
+        continue;
+      }
+
+      final List<Frame> framesSubList = frames.subList(firstFrameIndex, lastFrameIndex + 1);
       final BinningMobilogramDataAccess mobilogramDataAccess = EfficientDataAccess.of(imsFile,
           binWidth);
       tasks.add(
@@ -192,6 +213,42 @@ public class ImsExpanderTask extends AbstractTask {
               mobilogramDataAccess, imsFile));
     }
 
+    final List<ExpandedTrace> expandedTraces = switch (readMode) {
+      case PER_PARTITION -> expandPerPartition();
+      case SHARED_READER -> expandShared(imsFile, frames, partitions);
+    };
+    if (expandedTraces == null) {
+      return;
+    }
+
+    desc = "Creating new features for feature list " + flist.getName();
+    for (final ExpandedTrace expandedTrace : expandedTraces) {
+      final ModularFeatureListRow row = new ModularFeatureListRow(newFlist,
+          expandedTrace.oldRow(), false);
+      final ModularFeature f = new ModularFeature(newFlist, expandedTrace.oldFeature());
+      f.set(FeatureDataType.class, expandedTrace.series());
+      FeatureDataUtils.recalculateIonSeriesDependingTypes(f);
+      row.addFeature(imsFile, f);
+      newFlist.addRow(row);
+      createdRows++;
+    }
+
+    // explicitly don't renumber, IDs are kept from the old flist.
+    FeatureListUtils.sortByDefault(newFlist, false);
+
+    newFlist.getAppliedMethods().add(
+        new SimpleFeatureListAppliedMethod(ImsExpanderModule.class, parameters,
+            getModuleCallDate()));
+    handleOriginal.reflectNewFeatureListToProject(SUFFIX, project, newFlist, flist);
+    setStatus(TaskStatus.FINISHED);
+  }
+
+  /**
+   * Runs one {@link ImsExpanderSubTask} per trace partition, each reading its own frames.
+   *
+   * @return the expanded traces or null if the task was canceled or failed.
+   */
+  private @Nullable List<ExpandedTrace> expandPerPartition() {
     // might need a copy of task list -  we usually clear the tasks list to not hold on to memory
     ThreadPoolTask poolTask = ThreadPoolTask.createDefaultTaskManagerPool(getTaskDescription(),
         new ArrayList<>(tasks));
@@ -202,34 +259,72 @@ public class ImsExpanderTask extends AbstractTask {
           .filter(Objects::nonNull).distinct().collect(Collectors.joining(", "));
       setErrorMessage(errors);
       setStatus(poolTask.getStatus());
-      return;
+      return null;
     }
 
-    desc = "Creating new features for feature list " + flist.getName();
+    final List<ExpandedTrace> expandedTraces = new ArrayList<>();
     for (AbstractTask task : tasks) {
-      final ImsExpanderSubTask t = (ImsExpanderSubTask) task;
-      final List<ExpandedTrace> expandedTraces = t.getExpandedTraces();
-
-      for (final ExpandedTrace expandedTrace : expandedTraces) {
-        final ModularFeatureListRow row = new ModularFeatureListRow(newFlist,
-            expandedTrace.oldRow(), false);
-        final ModularFeature f = new ModularFeature(newFlist, expandedTrace.oldFeature());
-        f.set(FeatureDataType.class, expandedTrace.series());
-        FeatureDataUtils.recalculateIonSeriesDependingTypes(f);
-        row.addFeature(imsFile, f);
-        newFlist.addRow(row);
-        createdRows++;
-      }
+      expandedTraces.addAll(((ImsExpanderSubTask) task).getExpandedTraces());
     }
+    return expandedTraces;
+  }
 
-    // explicitly don't renumber, IDs are kept from the old flist.
-    FeatureListUtils.sortByDefault(newFlist, false);
+  /**
+   * Reads all frames once with a {@link SharedFrameReader} and lets all trace partitions consume
+   * every frame concurrently. Uses its own thread pool limited to the number of threads set in the
+   * preferences, as the reader and the partitions must run at the same time and may therefore not
+   * be queued behind other tasks of the task controller.
+   *
+   * @return the expanded traces or null if the task was canceled or failed.
+   */
+  private @Nullable List<ExpandedTrace> expandShared(@NotNull final IMSRawDataFile imsFile,
+      @NotNull final List<Frame> frames, @NotNull final List<ExpandingTracePartition> partitions) {
+    final boolean useRawData = parameters.getValue(ImsExpanderParameters.useRawData);
+    final double noiseLevel = useRawData ? parameters.getParameter(ImsExpanderParameters.useRawData)
+        .getEmbeddedParameter().getValue() : Double.NEGATIVE_INFINITY;
+    // only read the frames covered by at least one partition
+    final int firstFrameIndex = partitions.stream()
+        .mapToInt(ExpandingTracePartition::getFirstFrameIndex).min().orElse(0);
+    final int lastFrameIndex = partitions.stream()
+        .mapToInt(ExpandingTracePartition::getLastFrameIndex).max().orElse(-1);
+    final SharedFrameReader reader = new SharedFrameReader(imsFile,
+        frames.subList(firstFrameIndex, lastFrameIndex + 1), firstFrameIndex,
+        useRawData ? MobilityScanDataType.RAW : MobilityScanDataType.MASS_LIST, noiseLevel);
+    sharedReader = reader;
 
-    newFlist.getAppliedMethods().add(
-        new SimpleFeatureListAppliedMethod(ImsExpanderModule.class, parameters,
-            getModuleCallDate()));
-    handleOriginal.reflectNewFeatureListToProject(SUFFIX, project, newFlist, flist);
-    setStatus(TaskStatus.FINISHED);
+    // the reader takes one thread, so at least one more is needed for the partitions
+    final ExecutorService executor = ThreadPoolUtils.newFixedThreadPool(
+        "IMS expander " + imsFile.getName(), Math.max(2, NUM_THREADS));
+    final List<ExpandedTrace> expandedTraces = new ArrayList<>();
+    try {
+      if (!reader.stream(partitions, executor, this::isCanceled)) {
+        return null;
+      }
+
+      desc = "Creating mobilograms for feature list " + flist.getName();
+      final List<Callable<List<ExpandedTrace>>> mobilogramTasks = new ArrayList<>();
+      for (final ExpandingTracePartition partition : partitions) {
+        mobilogramTasks.add(() -> partition.toExpandedTraces(getMemoryMapStorage(),
+            EfficientDataAccess.of(imsFile, binWidth), imsFile));
+      }
+      for (final Future<List<ExpandedTrace>> traces : executor.invokeAll(mobilogramTasks)) {
+        expandedTraces.addAll(SharedFrameReader.getOrThrow(traces));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      error("Interrupted while expanding traces of feature list " + flist.getName(), e);
+      return null;
+    } catch (MissingMassListException e) {
+      error("Error in IMS expander", e);
+      return null;
+    } finally {
+      executor.shutdownNow();
+    }
+
+    if (isCanceled()) {
+      return null;
+    }
+    return expandedTraces;
   }
 
   @Override
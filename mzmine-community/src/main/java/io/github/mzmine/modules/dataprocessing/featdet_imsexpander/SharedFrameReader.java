@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_imsexpander;
+
+import io.github.mzmine.datamodel.Frame;
+import io.github.mzmine.datamodel.IMSRawDataFile;
+import io.github.mzmine.datamodel.MobilityScan;
+import io.github.mzmine.datamodel.data_access.EfficientDataAccess.MobilityScanDataType;
+import io.github.mzmine.datamodel.data_access.MobilityScanDataAccess;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decodes every frame exactly once and hands it to all {@link ExpandingTracePartition}s. A reader
+ * fills a bounded ring of reusable {@link FrameBuffer}s while the calling thread lets all
+ * partitions consume the current buffer in parallel. Thereby, the mobility scans are only read
+ * once from the (memory mapped) storage instead of once per partition.
+ * <p>
+ * The reader and the consumers run on an executor provided by the calling task, so the number of
+ * threads is limited by the task and not by this class. The reader occupies one thread of the
+ * executor for the whole stream.
+ */
+final class SharedFrameReader {
+
+  /**
+   * Number of buffers in the ring. The reader can decode this many frames ahead of the consumers.
+   */
+  static final int RING_SIZE = 4;
+
+  private static final Logger logger = Logger.getLogger(SharedFrameReader.class.getName());
+  /**
+   * Marks the end of the stream in the queue of filled buffers.
+   */
+  private static final FrameBuffer END = new FrameBuffer(1, 1);
+
+  private final IMSRawDataFile imsFile;
+  private final List<Frame> frames;
+  private final int firstFrameIndex;
+  private final MobilityScanDataType dataType;
+  private final double noiseLevel;
+
+  private final AtomicInteger processedFrames = new AtomicInteger(0);
+  private volatile @Nullable Throwable readerError;
+
+  /**
+   * @param frames          the frames to read
+   * @param firstFrameIndex the frame index of the first frame, as used by the partitions
+   * @param noiseLevel      data points below this intensity are not buffered
+   */
+  SharedFrameReader(@NotNull final IMSRawDataFile imsFile, @NotNull final List<Frame> frames,
+      final int firstFrameIndex, @NotNull final MobilityScanDataType dataType,
+      final double noiseLevel) {
+    this.imsFile = imsFile;
+    this.frames = frames;
+    this.firstFrameIndex = firstFrameIndex;
+    this.dataType = dataType;
+    this.noiseLevel = noiseLevel;
+  }
+
+  /**
+   * Streams all frames to the partitions and blocks until all frames were consumed, the stream was
+   * canceled or the reader failed.
+   *
+   * @param partitions the partitions consuming the frames
+   * @param executor   runs the reader and the consumers, needs at least two threads. Owned and
+   *                   shut down by the caller.
+   * @param canceled   checked after every frame
+   * @return false if the stream was canceled.
+   * @throws RuntimeException if the reader or a consumer failed, e.g., because of a missing mass
+   *                          list.
+   */
+  boolean stream(@NotNull final List<ExpandingTracePartition> partitions,
+      @NotNull final ExecutorService executor, @NotNull final BooleanSupplier canceled)
+      throws InterruptedException {
+    final BlockingQueue<FrameBuffer> free = new ArrayBlockingQueue<>(RING_SIZE);
+    // one more slot for the end marker so the reader never blocks on the filled queue
+    final BlockingQueue<FrameBuffer> filled = new ArrayBlockingQueue<>(RING_SIZE + 1);
+    final int maxScans = frames.stream().mapToInt(Frame::getNumberOfMobilityScans).max()
+        .orElse(1);
+    for (int i = 0; i < RING_SIZE; i++) {
+      free.add(new FrameBuffer(maxScans, maxScans * 16));
+    }
+
+    // the same consumers are invoked for every frame, they read the current buffer
+    final AtomicReference<FrameBuffer> current = new AtomicReference<>();
+    final List<Callable<Object>> consumers = partitions.stream()
+        .map(partition -> Executors.callable(() -> partition.consume(current.get()))).toList();
+
+    final Future<?> reader = executor.submit(() -> read(free, filled));
+
+    try {
+      while (true) {
+        final FrameBuffer buffer = filled.take();
+        if (buffer == END) {
+          break;
+        }
+        if (canceled.getAsBoolean()) {
+          return false;
+        }
+
+        current.set(buffer);
+        for (final Future<Object> consumer : executor.invokeAll(consumers)) {
+          getOrThrow(consumer);
+        }
+        processedFrames.getAndIncrement();
+        free.put(buffer);
+      }
+    } finally {
+      reader.cancel(true);
+    }
+
+    final Throwable error = readerError;
+    if (error instanceof RuntimeException e) {
+      throw e;
+    } else if (error != null) {
+      throw new RuntimeException(error);
+    }
+    return true;
+  }
+
+  /**
+   * @return the result of a finished future
+   * @throws RuntimeException if the computation failed
+   */
+  static <T> T getOrThrow(@NotNull final Future<T> future) throws InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  private void read(@NotNull final BlockingQueue<FrameBuffer> free,
+      @NotNull final BlockingQueue<FrameBuffer> filled) {
+    try {
+      logger.finest("Initialising data access for file " + imsFile.getName());
+      final MobilityScanDataAccess access = new MobilityScanDataAccess(imsFile, dataType,
+          frames);
+      for (int i = 0; i < access.getNumberOfScans(); i++) {
+        final FrameBuffer buffer = free.take();
+        final Frame frame = access.nextFrame();
+        buffer.reset(frame, firstFrameIndex + i);
+
+        while (access.hasNextMobilityScan()) {
+          final MobilityScan mobilityScan = access.nextMobilityScan();
+          final int numDataPoints = access.getNumberOfDataPoints();
+          if (numDataPoints == 0) {
+            continue;
+          }
+
+          buffer.addScan(mobilityScan);
+          for (int dpIndex = 0; dpIndex < numDataPoints; dpIndex++) {
+            final double intensity = access.getIntensityValue(dpIndex);
+            if (intensity < noiseLevel) {
+              continue;
+            }
+            buffer.addDataPoint(access.getMzValue(dpIndex), intensity);
+          }
+        }
+        filled.put(buffer);
+      }
+    } catch (InterruptedException e) {
+      // consumer stopped the stream
+      Thread.currentThread().interrupt();
+      return;
+    } catch (Throwable t) {
+      readerError = t;
+    }
+    // the filled queue always has a free slot for the end marker
+    filled.offer(END);
+  }
+
+  /**
+   * @return the number of frames consumed by all partitions.
+   */
+  int getProcessedFrames() {
+    return processedFrames.get();
+  }
+
+  int getTotalFrames() {
+    return frames.size();
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -27,16 +27,20 @@ package io.github.mzmine.modules.dataprocessing.featdet_massdetection.wavelet;
 
 import io.github.mzmine.datamodel.DataPoint;
 import io.github.mzmine.datamodel.MassSpectrum;
+import io.github.mzmine.datamodel.MassSpectrumType;
 import io.github.mzmine.datamodel.impl.SimpleDataPoint;
+import io.github.mzmine.datamodel.impl.SimpleMassSpectrum;
 import io.github.mzmine.modules.dataprocessing.featdet_massdetection.MassDetector;
 import io.github.mzmine.parameters.ParameterSet;
 import io.github.mzmine.util.DataPointSorter;
 import io.github.mzmine.util.SortingDirection;
 import io.github.mzmine.util.SortingProperty;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.TreeSet;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * This class implements the Continuous Wavelet Transform (CWT), Mexican Hat, over raw datapoints of
@@ -53,9 +57,21 @@ public class WaveletMassDetector implements MassDetector {
   private static final int WAVELET_ESL = -5;
   private static final int WAVELET_ESR = 5;
 
+  /**
+   * Reusable arrays of the {@link WaveletTransformEngine#PRECOMPUTED_KERNEL} engine, one set per
+   * thread
+   */
+  private static final ThreadLocal<WaveletBuffers> BUFFERS = ThreadLocal.withInitial(
+      WaveletBuffers::new);
+
   private final double noiseLevel;
   private final int scaleLevel;
   private final double waveletWindow;
+  /**
+   * Wavelet value for each offset from the center data point. Only set for the
+   * {@link WaveletTransformEngine#PRECOMPUTED_KERNEL} engine with a valid scale level.
+   */
+  private final double @Nullable [] kernel;
 
   /**
    * required to create a default instance via reflection
@@ -66,10 +82,18 @@ public class WaveletMassDetector implements MassDetector {
 
   public WaveletMassDetector(final double noiseLevel, final int scaleLevel,
       final double waveletWindow) {
+    this(noiseLevel, scaleLevel, waveletWindow, WaveletTransformEngine.POINT_BY_POINT);
+  }
+
+  public WaveletMassDetector(final double noiseLevel, final int scaleLevel,
+      final double waveletWindow, @NotNull final WaveletTransformEngine engine) {
 
     this.noiseLevel = noiseLevel;
     this.scaleLevel = scaleLevel;
     this.waveletWindow = waveletWindow;
+    // invalid scale levels fail in the point by point transform, same as before
+    kernel = engine == WaveletTransformEngine.PRECOMPUTED_KERNEL && scaleLevel > 0
+        ? createKernel(waveletWindow, scaleLevel) : null;
   }
 
   @Override
@@ -77,7 +101,8 @@ public class WaveletMassDetector implements MassDetector {
     double noiseLevel = params.getValue(WaveletMassDetectorParameters.noiseLevel);
     int scaleLevel = params.getValue(WaveletMassDetectorParameters.scaleLevel);
     double waveletWindow = params.getValue(WaveletMassDetectorParameters.waveletWindow);
-    return new WaveletMassDetector(noiseLevel, scaleLevel, waveletWindow);
+    final WaveletTransformEngine engine = params.getValue(WaveletMassDetectorParameters.engine);
+    return new WaveletMassDetector(noiseLevel, scaleLevel, waveletWindow, engine);
   }
 
   @Override
@@ -85,8 +110,25 @@ public class WaveletMassDetector implements MassDetector {
     return true; // profile to centroid always active
   }
 
+  @Override
+  public double[][] getMassValues(double[] mzs, double[] intensities,
+      final @NotNull MassSpectrumType type) {
+    assert mzs.length == intensities.length;
+    if (kernel != null) {
+      return getMassValuesPrecomputed(mzs, intensities, mzs.length);
+    }
+    return getMassValues(new SimpleMassSpectrum(mzs, intensities, type));
+  }
+
   @Override
   public double[][] getMassValues(MassSpectrum scan) {
+    if (kernel != null) {
+      final WaveletBuffers buffers = BUFFERS.get();
+      final int length = scan.getNumberOfDataPoints();
+      buffers.ensureCapacity(length);
+      return getMassValuesPrecomputed(scan.getMzValues(buffers.mzs),
+          scan.getIntensityValues(buffers.intensities), length);
+    }
 
     DataPoint waveletDataPoints[] = performCWT(scan, waveletWindow, scaleLevel);
 
@@ -170,7 +212,7 @@ public class WaveletMassDetector implements MassDetector {
    * @param a Window Width of the wavelet
    * @param b Offset from the center of the peak
    */
-  private double cwtMEXHATreal(double x, double a, double b) {
+  private static double cwtMEXHATreal(double x, double a, double b) {
     /* c = 2 / ( sqrt(3) * pi^(1/4) ) */
     double c = 0.8673250705840776;
     double TINY = 1E-200;
@@ -249,6 +291,135 @@ public class WaveletMassDetector implements MassDetector {
     return aproxIntensity;
   }
 
+  /**
+   * Samples the wavelet exactly like {@link #performCWT(MassSpectrum, double, int)} for each
+   * offset between -scaleLevel * 5 and scaleLevel * 5 data points.
+   */
+  private static double[] createKernel(double waveletWindow, int scaleLevel) {
+    double wstep = ((WAVELET_ESR - WAVELET_ESL) / NPOINTS);
+    double[] W = new double[(int) NPOINTS];
+
+    double waveletIndex = WAVELET_ESL;
+    for (int j = 0; j < NPOINTS; j++) {
+      W[j] = cwtMEXHATreal(waveletIndex, waveletWindow, 0.0);
+      waveletIndex += wstep;
+    }
+
+    int d = (int) NPOINTS / (WAVELET_ESR - WAVELET_ESL);
+    int a_esl = scaleLevel * WAVELET_ESL;
+    int a_esr = scaleLevel * WAVELET_ESR;
+    final double[] kernel = new double[a_esr - a_esl + 1];
+    for (int offset = a_esl; offset <= a_esr; offset++) {
+      int ind = (int) (NPOINTS / 2) - ((d * offset / scaleLevel) * (-1));
+      if (ind < 0) {
+        ind = 0;
+      }
+      if (ind >= NPOINTS) {
+        ind = (int) NPOINTS - 1;
+      }
+      kernel[offset - a_esl] = W[ind];
+    }
+    return kernel;
+  }
+
+  /**
+   * Same transform and peak search as {@link #performCWT(MassSpectrum, double, int)} and
+   * {@link #getMzPeaks(double, MassSpectrum, DataPoint[])} on primitive arrays. The sums are
+   * computed in the same order, so the detected masses are identical.
+   *
+   * @param length number of data points, the arrays may be longer
+   */
+  private double[][] getMassValuesPrecomputed(double[] mzs, double[] intensities, int length) {
+    final double[] kernel = this.kernel;
+    assert kernel != null;
+    final WaveletBuffers buffers = BUFFERS.get();
+    buffers.ensureCapacity(length);
+    final double[] cwt = buffers.cwt;
+
+    final int a_esl = scaleLevel * WAVELET_ESL;
+    final int a_esr = scaleLevel * WAVELET_ESR;
+    final double sqrtScaleLevel = Math.sqrt(scaleLevel);
+    for (int dx = 0; dx < length; dx++) {
+      final int t1 = Math.max(a_esl + dx, 0);
+      final int t2 = Math.min(a_esr + dx, length - 1);
+
+      double intensity = 0.0;
+      for (int i = t1, k = t1 - dx - a_esl; i <= t2; i++, k++) {
+        intensity += intensities[i] * kernel[k];
+      }
+      intensity /= sqrtScaleLevel;
+      // Eliminate the negative part of the wavelet map
+      cwt[dx] = intensity < 0 ? 0 : intensity;
+    }
+
+    final DoubleArrayList peakMzs = new DoubleArrayList();
+    final DoubleArrayList peakIntensities = new DoubleArrayList();
+    // the legacy peak search collects the peaks in a set sorted by m/z, then intensity
+    boolean sorted = true;
+    final int stopInd = length - 1;
+
+    for (int ind = 0; ind <= stopInd; ind++) {
+
+      while ((ind <= stopInd) && (cwt[ind] == 0)) {
+        ind++;
+      }
+      int peakMaxInd = ind;
+      if (ind >= stopInd) {
+        break;
+      }
+
+      // While peak is on, track the highest raw intensity
+      double aproxIntensity = 0;
+      while ((ind <= stopInd) && (cwt[ind] > 0)) {
+        if (cwt[ind] > cwt[peakMaxInd]) {
+          peakMaxInd = ind;
+        }
+        if (intensities[ind] > aproxIntensity) {
+          aproxIntensity = intensities[ind];
+        }
+        ind++;
+      }
+
+      if (ind >= stopInd) {
+        break;
+      }
+
+      if (intensities[ind] > aproxIntensity) {
+        aproxIntensity = intensities[ind];
+      }
+
+      if (intensities[peakMaxInd] > noiseLevel) {
+        final double mz = mzs[peakMaxInd];
+        if (!peakMzs.isEmpty()) {
+          final int last = peakMzs.size() - 1;
+          final int compare = Double.compare(peakMzs.getDouble(last), mz);
+          if (compare > 0 || (compare == 0
+              && Double.compare(peakIntensities.getDouble(last), aproxIntensity) >= 0)) {
+            sorted = false;
+          }
+        }
+        peakMzs.add(mz);
+        peakIntensities.add(aproxIntensity);
+      }
+    }
+
+    if (!sorted) {
+      // only for unsorted input spectra, sort and remove duplicates like the legacy set
+      final TreeSet<DataPoint> mzPeaks = new TreeSet<>(
+          new DataPointSorter(SortingProperty.MZ, SortingDirection.Ascending));
+      for (int i = 0; i < peakMzs.size(); i++) {
+        mzPeaks.add(new SimpleDataPoint(peakMzs.getDouble(i), peakIntensities.getDouble(i)));
+      }
+      peakMzs.clear();
+      peakIntensities.clear();
+      for (final DataPoint dp : mzPeaks) {
+        peakMzs.add(dp.getMZ());
+        peakIntensities.add(dp.getIntensity());
+      }
+    }
+    return new double[][]{peakMzs.toDoubleArray(), peakIntensities.toDoubleArray()};
+  }
+
   @Override
   public @NotNull String getName() {
     return "Wavelet transform";
@@ -259,4 +430,21 @@ public class WaveletMassDetector implements MassDetector {
     return WaveletMassDetectorParameters.class;
   }
 
+  /**
+   * Reusable arrays of one thread. Only grow.
+   */
+  private static final class WaveletBuffers {
+
+    private double[] mzs = new double[0];
+    private double[] intensities = new double[0];
+    private double[] cwt = new double[0];
+
+    private void ensureCapacity(int length) {
+      if (cwt.length < length) {
+        mzs = new double[length];
+        intensities = new double[length];
+        cwt = new double[length];
+      }
+    }
+  }
 }
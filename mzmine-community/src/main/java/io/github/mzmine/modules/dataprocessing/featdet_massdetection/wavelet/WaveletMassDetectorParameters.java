@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -28,6 +28,7 @@ package io.github.mzmine.modules.dataprocessing.featdet_massdetection.wavelet;
 import io.github.mzmine.main.MZmineCore;
 import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.impl.SimpleParameterSet;
+import io.github.mzmine.parameters.parametertypes.ComboParameter;
 import io.github.mzmine.parameters.parametertypes.DoubleParameter;
 import io.github.mzmine.parameters.parametertypes.IntegerParameter;
 import io.github.mzmine.parameters.parametertypes.PercentParameter;
@@ -44,8 +45,15 @@ public class WaveletMassDetectorParameters extends SimpleParameterSet {
   public static final PercentParameter waveletWindow = new PercentParameter(
       "Wavelet window size (%)", "Size in % of wavelet window to apply in m/z feature detection");
 
+  public static final ComboParameter<WaveletTransformEngine> engine = new ComboParameter<>(
+      "Engine", """
+          Point by point: computes the wavelet for every data point and kernel sample.
+          Precomputed kernel: computes the wavelet kernel once and convolves primitive arrays.
+          Both engines detect the same masses.""", WaveletTransformEngine.values(),
+      WaveletTransformEngine.POINT_BY_POINT);
+
   public WaveletMassDetectorParameters() {
-    super(new Parameter[]{noiseLevel, scaleLevel, waveletWindow},
+    super(new Parameter[]{noiseLevel, scaleLevel, waveletWindow, engine},
         "https://mzmine.github.io/mzmine_documentation/module_docs/featdet_mass_detection/mass-detection-algorithms.html#wavelet-transform");
   }
 
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_recursiveimsbuilder;
+
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Builds the mobilograms of a single frame on primitive arrays. Data points are grouped the same
+ * way as in {@link RecursiveIMSBuilderTask} with {@link TempMobilogram}: the most intense data
+ * points open non-overlapping m/z tolerance ranges, each mobility scan contributes the best fitting
+ * data point and all leftover data points are grouped again if there are enough of them.
+ * <p>
+ * Not thread safe, use one instance per thread and reuse it for all frames.
+ */
+final class FrameMobilogramBuilder {
+
+  private final @NotNull MZTolerance tolerance;
+  private final DoubleArrayList mzs = new DoubleArrayList();
+  private final DoubleArrayList intensities = new DoubleArrayList();
+  private final IntArrayList scans = new IntArrayList();
+
+  FrameMobilogramBuilder(@NotNull final MZTolerance tolerance) {
+    this.tolerance = tolerance;
+  }
+
+  /**
+   * @param scan index of the mobility scan in the frame, data points must be added in ascending
+   *             scan order
+   */
+  void addDataPoint(final int scan, final double mz, final double intensity) {
+    scans.add(scan);
+    mzs.add(mz);
+    intensities.add(intensity);
+  }
+
+  int getNumberOfDataPoints() {
+    return mzs.size();
+  }
+
+  double getMz(final int dataPoint) {
+    return mzs.getDouble(dataPoint);
+  }
+
+  double getIntensity(final int dataPoint) {
+    return intensities.getDouble(dataPoint);
+  }
+
+  int getScan(final int dataPoint) {
+    return scans.getInt(dataPoint);
+  }
+
+  /**
+   * Removes all data points to start the next frame
+   */
+  void clear() {
+    mzs.clear();
+    intensities.clear();
+    scans.clear();
+  }
+
+  /**
+   * @return the data points of each mobilogram in ascending scan order
+   */
+  @NotNull List<int[]> buildMobilograms() {
+    final int n = mzs.size();
+    final List<int[]> mobilograms = new ArrayList<>();
+    if (n == 0) {
+      return mobilograms;
+    }
+
+    final int[] byMz = identity(n);
+    IntArrays.quickSort(byMz, (a, b) -> Double.compare(mzs.getDouble(a), mzs.getDouble(b)));
+    final double[] sortedMzs = new double[n];
+    final int[] positions = new int[n];
+    for (int i = 0; i < n; i++) {
+      sortedMzs[i] = mzs.getDouble(byMz[i]);
+      positions[byMz[i]] = i;
+    }
+    final SortedMzRangeOwners index = new SortedMzRangeOwners(sortedMzs);
+
+    // most intense first, stable for equal intensities like the tree set in the task
+    IntArrayList dataPoints = IntArrayList.wrap(sortByIntensity(identity(n)));
+    while (true) {
+      index.clear();
+      final List<Mobilogram> current = new ArrayList<>();
+      final IntArrayList leftover = new IntArrayList();
+
+      for (int i = 0; i < dataPoints.size(); i++) {
+        final int dp = dataPoints.getInt(i);
+        final int position = positions[dp];
+        int range = index.getRangeAt(position);
+        if (range == -1) {
+          final double mz = mzs.getDouble(dp);
+          final double tol = tolerance.getMzToleranceForMass(mz);
+          final double lower = mz - tol;
+          final double upper = mz + tol;
+          // the proposed range must not overlap
+          if (index.getRange(lower) != -1 || index.getRange(upper) != -1) {
+            leftover.add(dp);
+            continue;
+          }
+          range = index.addClosed(position, lower, upper);
+          current.add(new Mobilogram());
+        }
+        final int previous = current.get(range).keepBetterFittingDataPoint(dp);
+        if (previous != -1) {
+          leftover.add(previous);
+        }
+      }
+
+      for (Mobilogram mobilogram : current) {
+        mobilograms.add(mobilogram.dataPoints.toIntArray());
+      }
+      if (leftover.size() <= RecursiveIMSBuilderTask.RECURSIVE_THRESHOLD) {
+        return mobilograms;
+      }
+      dataPoints = IntArrayList.wrap(sortByIntensity(leftover.toIntArray()));
+    }
+  }
+
+  private int[] sortByIntensity(final int[] dataPoints) {
+    IntArrays.mergeSort(dataPoints,
+        (a, b) -> Double.compare(intensities.getDouble(b), intensities.getDouble(a)));
+    return dataPoints;
+  }
+
+  private static int[] identity(final int n) {
+    final int[] values = new int[n];
+    for (int i = 0; i < n; i++) {
+      values[i] = i;
+    }
+    return values;
+  }
+
+  /**
+   * Same as {@link TempMobilogram} on data point indices.
+   */
+  private final class Mobilogram {
+
+    // ascending scan
+    private final IntArrayList dataPoints = new IntArrayList();
+    private double centerMz;
+
+    /**
+     * @return the data point that was not added or replaced, -1 if the data point was added
+     */
+    private int keepBetterFittingDataPoint(final int dp) {
+      final int position = findScan(scans.getInt(dp));
+      if (position < 0) {
+        dataPoints.add(-position - 1, dp);
+        updateCenterMz();
+        return -1;
+      }
+
+      final int current = dataPoints.getInt(position);
+      final double currentDelta = Math.abs(centerMz - mzs.getDouble(current));
+      final double proposedDelta = Math.abs(centerMz - mzs.getDouble(dp));
+      if (currentDelta < proposedDelta) {
+        return dp;
+      }
+      if (position > 0 && position < dataPoints.size() - 1) {
+        final double avg = (intensities.getDouble(dataPoints.getInt(position + 1))
+            + intensities.getDouble(dataPoints.getInt(position - 1))) / 2;
+        if (Math.abs(avg - intensities.getDouble(dp)) < Math.abs(
+            avg - intensities.getDouble(current))) {
+          dataPoints.set(position, dp);
+          updateCenterMz();
+          return current;
+        }
+      }
+      return dp;
+    }
+
+    /**
+     * @return the position or (-(insertion point) - 1)
+     */
+    private int findScan(final int scan) {
+      int low = 0;
+      int high = dataPoints.size() - 1;
+      while (low <= high) {
+        final int mid = (low + high) >>> 1;
+        final int midScan = scans.getInt(dataPoints.getInt(mid));
+        if (midScan < scan) {
+          low = mid + 1;
+        } else if (midScan > scan) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -(low + 1);
+    }
+
+    private void updateCenterMz() {
+      double center = 0d;
+      double summedIntensities = 0d;
+      for (int i = 0; i < dataPoints.size(); i++) {
+        final int dp = dataPoints.getInt(i);
+        final double intensity = intensities.getDouble(dp);
+        center += mzs.getDouble(dp) * intensity;
+        summedIntensities += intensity;
+      }
+      centerMz = center / summedIntensities;
+    }
+  }
+}
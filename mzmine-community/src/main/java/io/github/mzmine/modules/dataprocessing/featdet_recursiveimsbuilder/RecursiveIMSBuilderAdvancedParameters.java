@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2022 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -31,6 +31,7 @@ import static io.github.mzmine.modules.dataprocessing.featdet_mobilogram_summing
 
 import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.impl.SimpleParameterSet;
+import io.github.mzmine.parameters.parametertypes.ComboParameter;
 import io.github.mzmine.parameters.parametertypes.IntegerParameter;
 import io.github.mzmine.parameters.parametertypes.OptionalParameter;
 
@@ -56,8 +57,14 @@ public class RecursiveIMSBuilderAdvancedParameters extends SimpleParameterSet {
               + "The default binning width is " + DEFAULT_TIMS_BIN_WIDTH + ".",
           DEFAULT_DTIMS_BIN_WIDTH, 1, 1000));
 
+  public static final ComboParameter<RecursiveIMSBuilderEngine> engine = new ComboParameter<>(
+      "Engine", """
+      Object sets creates one object per data point. Primitive arrays processes frames in \
+      parallel on primitive arrays and needs less memory for large files. Both build the same \
+      features.""", RecursiveIMSBuilderEngine.values(), RecursiveIMSBuilderEngine.OBJECT_SETS);
+
   public RecursiveIMSBuilderAdvancedParameters() {
-    super(new Parameter[]{timsBinningWidth, dtimsBinningWidth, twimsBinningWidth});
+    super(new Parameter[]{timsBinningWidth, dtimsBinningWidth, twimsBinningWidth, engine});
   }
 }
 
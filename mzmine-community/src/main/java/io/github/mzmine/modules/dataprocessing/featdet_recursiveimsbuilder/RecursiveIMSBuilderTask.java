@@ -52,8 +52,13 @@ import io.github.mzmine.util.DataTypeUtils;
 import io.github.mzmine.util.FeatureConvertors;
 import io.github.mzmine.util.FeatureListUtils;
 import io.github.mzmine.util.MemoryMapStorage;
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
 import io.github.mzmine.util.exceptions.MissingMassListException;
 import io.github.mzmine.util.scans.SpectraMerging;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -66,15 +71,17 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class RecursiveIMSBuilderTask extends AbstractTask {
 
   private static final Logger logger = Logger.getLogger(RecursiveIMSBuilderTask.class.getName());
-  private static final int RECURSIVE_THRESHOLD = 50;
+  static final int RECURSIVE_THRESHOLD = 50;
   private static final int STEPS = 5;
 
   private final IMSRawDataFile file;
@@ -87,6 +94,7 @@ public class RecursiveIMSBuilderTask extends AbstractTask {
   private final int numConsecutiveFrames;
   private final int numDataPoints;
   private final int binWidth;
+  private final RecursiveIMSBuilderEngine engine;
   private AtomicInteger stepProcessed = new AtomicInteger(0);
   private int stepTotal = 0;
   private int currentStep = 0;
@@ -125,6 +133,7 @@ public class RecursiveIMSBuilderTask extends AbstractTask {
               .getValue() : BinningMobilogramDataAccess.getRecommendedBinWidth(file);
       default -> 1;
     };
+    engine = advancedParam.getValue(RecursiveIMSBuilderAdvancedParameters.engine);
 
     this.project = project;
   }
@@ -161,7 +170,10 @@ public class RecursiveIMSBuilderTask extends AbstractTask {
     stepTotal = access.getNumberOfScans();
 
     // build mobilograms for all frames
-    final TreeSet<BuildingIonMobilitySeries> sortedMobilograms = buildFrameMobilograms(access);
+    final Collection<BuildingIonMobilitySeries> sortedMobilograms = switch (engine) {
+      case OBJECT_SETS -> buildFrameMobilograms(access);
+      case PRIMITIVE_ARRAYS -> buildFrameMobilogramsParallel(access.getEligibleFrames());
+    };
     if (isCanceled()) {
       return;
     }
@@ -170,7 +182,10 @@ public class RecursiveIMSBuilderTask extends AbstractTask {
     currentStep++;
     stepProcessed.set(0);
     stepTotal = sortedMobilograms.size();
-    final List<TempIMTrace> ionMobilityTraces = createTempIMTraces(sortedMobilograms, tolerance);
+    final List<TempIMTrace> ionMobilityTraces = switch (engine) {
+      case OBJECT_SETS -> createTempIMTraces(sortedMobilograms, tolerance);
+      case PRIMITIVE_ARRAYS -> createTempIMTracesIndexed(List.copyOf(sortedMobilograms));
+    };
     if (isCanceled()) {
       return;
     }
@@ -377,7 +392,7 @@ public class RecursiveIMSBuilderTask extends AbstractTask {
     }).sum();
   }
 
-  private TreeSet<BuildingIonMobilitySeries> buildFrameMobilograms(MobilityScanDataAccess access) {
+  TreeSet<BuildingIonMobilitySeries> buildFrameMobilograms(MobilityScanDataAccess access) {
     Set<BuildingIonMobilitySeries> buildingTraces = new HashSet<>();
     try {
 
@@ -428,6 +443,75 @@ public class RecursiveIMSBuilderTask extends AbstractTask {
     return sortedMobilograms;
   }
 
+  /**
+   * Builds the mobilograms of chunks of frames in parallel with {@link FrameMobilogramBuilder}.
+   *
+   * @return all mobilograms sorted by descending summed intensity
+   */
+  List<BuildingIonMobilitySeries> buildFrameMobilogramsParallel(List<Frame> frames) {
+    final int chunkSize = Math.max(1, frames.size() / (ThreadPoolUtils.getNumThreads() * 4));
+    final int numChunks = (frames.size() + chunkSize - 1) / chunkSize;
+
+    final List<BuildingIonMobilitySeries> mobilograms = new ArrayList<>();
+    ThreadPoolUtils.callParallel("Recursive IMS builder",
+        () -> IntStream.range(0, numChunks).parallel().mapToObj(
+            chunk -> buildChunkMobilograms(frames.subList(chunk * chunkSize,
+                Math.min(frames.size(), (chunk + 1) * chunkSize)))).toList())
+        .forEach(mobilograms::addAll);
+
+    // now sort chromatograms like the adap builder, stable for equal intensities
+    logger.finest(() -> "Sorting mobilograms");
+    mobilograms.sort(
+        Comparator.comparingDouble(BuildingIonMobilitySeries::getSummedIntensity).reversed());
+    logger.finest(() -> "Mobilograms sorted");
+    return mobilograms;
+  }
+
+  private List<BuildingIonMobilitySeries> buildChunkMobilograms(List<Frame> frames) {
+    final List<BuildingIonMobilitySeries> mobilograms = new ArrayList<>();
+    // one access per chunk, the access is not thread safe
+    final MobilityScanDataAccess access = new MobilityScanDataAccess(file,
+        MobilityScanDataType.MASS_LIST, frames, scanSelection);
+    final FrameMobilogramBuilder builder = new FrameMobilogramBuilder(tolerance);
+    final List<MobilityScan> scans = new ArrayList<>();
+    try {
+      while (access.hasNextFrame()) {
+        if (isCanceled()) {
+          return mobilograms;
+        }
+
+        access.nextFrame();
+        scans.clear();
+        while (access.hasNextMobilityScan()) {
+          final MobilityScan currentMobilityScan = access.nextMobilityScan();
+          for (int i = 0; i < access.getNumberOfDataPoints(); i++) {
+            builder.addDataPoint(scans.size(), access.getMzValue(i), access.getIntensityValue(i));
+          }
+          scans.add(currentMobilityScan);
+        }
+
+        for (int[] dataPoints : builder.buildMobilograms()) {
+          final double[] mzs = new double[dataPoints.length];
+          final double[] intensities = new double[dataPoints.length];
+          final List<MobilityScan> mobilogramScans = new ArrayList<>(dataPoints.length);
+          for (int i = 0; i < dataPoints.length; i++) {
+            mzs[i] = builder.getMz(dataPoints[i]);
+            intensities[i] = builder.getIntensity(dataPoints[i]);
+            mobilogramScans.add(scans.get(builder.getScan(dataPoints[i])));
+          }
+          mobilograms.add(
+              new BuildingIonMobilitySeries(tempStorage, mzs, intensities, mobilogramScans));
+        }
+        builder.clear();
+
+        stepProcessed.getAndIncrement();
+      }
+    } catch (MissingMassListException e) {
+      logger.log(Level.WARNING, e.getMessage(), e);
+    }
+    return mobilograms;
+  }
+
   @NotNull
   private Set<TempMobilogram> calcMobilograms(Collection<RetentionTimeMobilityDataPoint> dps,
       final MZTolerance tolerance) {
@@ -484,10 +568,16 @@ public class RecursiveIMSBuilderTask extends AbstractTask {
   }
 
   @Nullable
-  private List<TempIMTrace> createTempIMTraces(
-      Collection<BuildingIonMobilitySeries> ionMobilitySeries, MZTolerance tolerance) {
+  List<TempIMTrace> createTempIMTraces(Collection<BuildingIonMobilitySeries> ionMobilitySeries,
+      MZTolerance tolerance) {
     final RangeMap<Double, TempIMTrace> map = TreeRangeMap.create();
-    Set<BuildingIonMobilitySeries> leftoverMobilograms = new HashSet<>();
+    // process leftovers by descending intensity, like the data points of the mobilograms
+    Set<BuildingIonMobilitySeries> leftoverMobilograms = new TreeSet<>((o1, o2) -> {
+      if (o1.getSummedIntensity() > o2.getSummedIntensity()) {
+        return -1;
+      }
+      return 1;
+    });
     for (final var mobilogram : ionMobilitySeries) {
       if (isCanceled()) {
         return null;
@@ -528,6 +618,70 @@ public class RecursiveIMSBuilderTask extends AbstractTask {
   }
 
 
+  /**
+   * Same as {@link #createTempIMTraces(Collection, MZTolerance)}, but looks up the trace ranges in
+   * a {@link SortedMzRangeOwners} of all mobilogram m/z values instead of a range map. Leftover
+   * mobilograms are processed in the order of the input.
+   *
+   * @param mobilograms sorted by descending summed intensity
+   */
+  @Nullable
+  List<TempIMTrace> createTempIMTracesIndexed(List<BuildingIonMobilitySeries> mobilograms) {
+    final int n = mobilograms.size();
+    final int[] byMz = new int[n];
+    for (int i = 0; i < n; i++) {
+      byMz[i] = i;
+    }
+    IntArrays.quickSort(byMz, (a, b) -> Double.compare(mobilograms.get(a).getAvgMZ(),
+        mobilograms.get(b).getAvgMZ()));
+    final double[] sortedMzs = new double[n];
+    final int[] positions = new int[n];
+    final Reference2IntMap<BuildingIonMobilitySeries> indices = new Reference2IntOpenHashMap<>(n);
+    for (int i = 0; i < n; i++) {
+      sortedMzs[i] = mobilograms.get(byMz[i]).getAvgMZ();
+      positions[byMz[i]] = i;
+      indices.put(mobilograms.get(i), i);
+    }
+    final SortedMzRangeOwners index = new SortedMzRangeOwners(sortedMzs);
+
+    final List<TempIMTrace> traces = new ArrayList<>();
+    int[] current = IntStream.range(0, n).toArray();
+    while (true) {
+      index.clear();
+      final List<TempIMTrace> passTraces = new ArrayList<>();
+      final IntArrayList leftover = new IntArrayList();
+      for (final int i : current) {
+        if (isCanceled()) {
+          return null;
+        }
+
+        final BuildingIonMobilitySeries mobilogram = mobilograms.get(i);
+        int range = index.getRangeAt(positions[i]);
+        if (range == -1) {
+          range = index.add(positions[i], index.createNewNonOverlappingRange(
+              tolerance.getToleranceRange(mobilogram.getAvgMZ())));
+          passTraces.add(new TempIMTrace());
+        }
+        final BuildingIonMobilitySeries previous = passTraces.get(range)
+            .keepBetterFittingDataPoint(mobilogram);
+        if (previous != null) {
+          leftover.add(indices.getInt(previous));
+        }
+
+        stepProcessed.getAndIncrement();
+      }
+      traces.addAll(passTraces);
+
+      if (!enableRecursive || leftover.size() <= RECURSIVE_THRESHOLD) {
+        return traces;
+      }
+      logger.finest(() -> leftover.size() + "/" + n + " leftover mobilograms");
+      // keep the order of descending intensity
+      current = leftover.toIntArray();
+      IntArrays.quickSort(current);
+    }
+  }
+
   /**
    * Taken from https://stackoverflow.com/a/48821002
    *
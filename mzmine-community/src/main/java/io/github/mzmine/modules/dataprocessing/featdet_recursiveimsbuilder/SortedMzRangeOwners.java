@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_recursiveimsbuilder;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+import io.github.mzmine.util.scans.SpectraMerging;
+import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Non-overlapping m/z ranges over a fixed, ascending array of m/z values. Replaces a
+ * {@link com.google.common.collect.RangeMap} when all values that are looked up are known
+ * beforehand: each range marks the values it contains, so a lookup of a value is a single array
+ * access and a lookup of any other m/z needs one binary search.
+ * <p>
+ * Each range must contain the value it was created for. As ranges are convex and do not overlap,
+ * a range that contains an m/z also contains the closest value above or below it.
+ */
+final class SortedMzRangeOwners {
+
+  private final double @NotNull [] sortedMzs;
+  // range by position in sortedMzs or -1
+  private final int @NotNull [] owners;
+  private final DoubleArrayList lowers = new DoubleArrayList();
+  private final DoubleArrayList uppers = new DoubleArrayList();
+  private final BooleanArrayList lowersOpen = new BooleanArrayList();
+  private final BooleanArrayList uppersOpen = new BooleanArrayList();
+
+  /**
+   * @param sortedMzs all values that will be looked up by position, ascending
+   */
+  SortedMzRangeOwners(final double @NotNull [] sortedMzs) {
+    this.sortedMzs = sortedMzs;
+    owners = new int[sortedMzs.length];
+    Arrays.fill(owners, -1);
+  }
+
+  /**
+   * Removes all ranges
+   */
+  void clear() {
+    Arrays.fill(owners, -1);
+    lowers.clear();
+    uppers.clear();
+    lowersOpen.clear();
+    uppersOpen.clear();
+  }
+
+  int size() {
+    return lowers.size();
+  }
+
+  /**
+   * @param position position of a value in the sorted m/z values
+   * @return the range containing this value or -1
+   */
+  int getRangeAt(final int position) {
+    return owners[position];
+  }
+
+  /**
+   * @return the range containing this m/z or -1
+   */
+  int getRange(final double mz) {
+    int position = Arrays.binarySearch(sortedMzs, mz);
+    if (position < 0) {
+      position = -position - 1;
+    } else {
+      // first of equal values
+      while (position > 0 && sortedMzs[position - 1] == mz) {
+        position--;
+      }
+    }
+    if (position < sortedMzs.length && owners[position] != -1 && contains(owners[position],
+        mz)) {
+      return owners[position];
+    }
+    if (position > 0 && owners[position - 1] != -1 && contains(owners[position - 1], mz)) {
+      return owners[position - 1];
+    }
+    return -1;
+  }
+
+  /**
+   * Adds a closed range.
+   *
+   * @param seed position of the value the range is created for
+   * @return the new range
+   */
+  int addClosed(final int seed, final double lower, final double upper) {
+    return add(seed, lower, false, upper, false);
+  }
+
+  /**
+   * @param seed position of the value the range is created for
+   * @return the new range
+   */
+  int add(final int seed, @NotNull final Range<Double> range) {
+    return add(seed, range.lowerEndpoint(), range.lowerBoundType() == BoundType.OPEN,
+        range.upperEndpoint(), range.upperBoundType() == BoundType.OPEN);
+  }
+
+  private int add(final int seed, final double lower, final boolean lowerOpen, final double upper,
+      final boolean upperOpen) {
+    final int range = lowers.size();
+    lowers.add(lower);
+    uppers.add(upper);
+    lowersOpen.add(lowerOpen);
+    uppersOpen.add(upperOpen);
+
+    owners[seed] = range;
+    for (int i = seed - 1; i >= 0 && contains(range, sortedMzs[i]); i--) {
+      owners[i] = range;
+    }
+    for (int i = seed + 1; i < sortedMzs.length && contains(range, sortedMzs[i]); i++) {
+      owners[i] = range;
+    }
+    return range;
+  }
+
+  boolean contains(final int range, final double mz) {
+    final double lower = lowers.getDouble(range);
+    final double upper = uppers.getDouble(range);
+    return (lowersOpen.getBoolean(range) ? mz > lower : mz >= lower) && (uppersOpen.getBoolean(
+        range) ? mz < upper : mz <= upper);
+  }
+
+  @NotNull Range<Double> toRange(final int range) {
+    return Range.range(lowers.getDouble(range),
+        lowersOpen.getBoolean(range) ? BoundType.OPEN : BoundType.CLOSED, uppers.getDouble(range),
+        uppersOpen.getBoolean(range) ? BoundType.OPEN : BoundType.CLOSED);
+  }
+
+  /**
+   * Same as {@link SpectraMerging#createNewNonOverlappingRange} on the ranges of this index.
+   */
+  @NotNull Range<Double> createNewNonOverlappingRange(@NotNull final Range<Double> proposedRange) {
+    final Range<Double> lowerEntry = getRangeOrNull(
+        proposedRange.lowerBoundType() == BoundType.CLOSED ? proposedRange.lowerEndpoint()
+            : proposedRange.lowerEndpoint() + SpectraMerging.EPSILON);
+    final Range<Double> upperEntry = getRangeOrNull(
+        proposedRange.upperBoundType() == BoundType.CLOSED ? proposedRange.upperEndpoint()
+            : proposedRange.upperEndpoint() - SpectraMerging.EPSILON);
+
+    final boolean overlapsLower =
+        lowerEntry != null && !proposedRange.intersection(lowerEntry).isEmpty();
+    final boolean overlapsUpper =
+        upperEntry != null && !proposedRange.intersection(upperEntry).isEmpty();
+    if (!overlapsLower && !overlapsUpper) {
+      return proposedRange;
+    }
+
+    BoundType lowerBoundType = proposedRange.lowerBoundType();
+    BoundType upperBoundType = proposedRange.upperBoundType();
+    double lowerBound = proposedRange.lowerEndpoint();
+    double upperBound = proposedRange.upperEndpoint();
+    if (overlapsLower) {
+      lowerBound = lowerEntry.upperEndpoint();
+      lowerBoundType = BoundType.OPEN;
+    }
+    if (overlapsUpper) {
+      upperBound = upperEntry.lowerEndpoint();
+      upperBoundType = BoundType.OPEN;
+    }
+    return createNewNonOverlappingRange(
+        Range.range(lowerBound, lowerBoundType, upperBound, upperBoundType));
+  }
+
+  private @Nullable Range<Double> getRangeOrNull(final double mz) {
+    final int range = getRange(mz);
+    return range == -1 ? null : toRange(range);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.filter_duplicatefilter;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Buckets rows into a grid of m/z, RT and mobility cells. Each cell is at least as large as the
+ * maximum tolerance of its dimension, so all rows within tolerance of a row are in the same or in
+ * a directly neighbouring cell. Values must be finite.
+ */
+final class DuplicateCandidateGrid {
+
+  private final Map<Cell, IntArrayList> cells = new HashMap<>();
+  private final Cell[] rowCells;
+
+  /**
+   * @param mzs                  m/z value of each row
+   * @param rts                  RT value of each row
+   * @param mobilities           mobility value of each row
+   * @param maxMzTolerance       maximum absolute m/z tolerance of all rows
+   * @param maxRtTolerance       maximum absolute RT tolerance of all rows
+   * @param maxMobilityTolerance maximum absolute mobility tolerance of all rows
+   */
+  DuplicateCandidateGrid(final double @NotNull [] mzs, final float @NotNull [] rts,
+      final float @NotNull [] mobilities, final double maxMzTolerance, final double maxRtTolerance,
+      final double maxMobilityTolerance) {
+    final double mzCell = cellSize(maxMzTolerance, maxAbs(mzs));
+    final double rtCell = cellSize(maxRtTolerance, maxAbs(toDoubles(rts)));
+    final double mobilityCell = cellSize(maxMobilityTolerance, maxAbs(toDoubles(mobilities)));
+
+    rowCells = new Cell[mzs.length];
+    for (int i = 0; i < mzs.length; i++) {
+      final Cell cell = new Cell(cellIndex(mzs[i], mzCell), cellIndex(rts[i], rtCell),
+          cellIndex(mobilities[i], mobilityCell));
+      rowCells[i] = cell;
+      // rows are added in ascending order
+      cells.computeIfAbsent(cell, k -> new IntArrayList()).add(i);
+    }
+  }
+
+  /**
+   * The tolerance checks compare float values, so rounding may accept a difference slightly above
+   * the tolerance. The cell is widened to cover these cases.
+   */
+  private static double cellSize(final double maxTolerance, final double maxAbsValue) {
+    return (Math.max(maxTolerance, 0) + 4 * Math.ulp((float) maxAbsValue)) * (1 + 1e-5);
+  }
+
+  private static long cellIndex(final double value, final double cellSize) {
+    return (long) Math.floor(value / cellSize);
+  }
+
+  private static double maxAbs(final double[] values) {
+    double max = 0;
+    for (final double value : values) {
+      max = Math.max(max, Math.abs(value));
+    }
+    return max;
+  }
+
+  private static double[] toDoubles(final float[] values) {
+    final double[] result = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = values[i];
+    }
+    return result;
+  }
+
+  /**
+   * @return all rows after index in the same or neighbouring cells in ascending order. A superset
+   * of the rows within tolerance.
+   */
+  int @NotNull [] candidatesAfter(final int index) {
+    final Cell cell = rowCells[index];
+    final IntArrayList candidates = new IntArrayList();
+    for (long mz = cell.mz() - 1; mz <= cell.mz() + 1; mz++) {
+      for (long rt = cell.rt() - 1; rt <= cell.rt() + 1; rt++) {
+        for (long mobility = cell.mobility() - 1; mobility <= cell.mobility() + 1; mobility++) {
+          final IntArrayList rows = cells.get(new Cell(mz, rt, mobility));
+          if (rows == null) {
+            continue;
+          }
+          for (int i = rows.size() - 1; i >= 0 && rows.getInt(i) > index; i--) {
+            candidates.add(rows.getInt(i));
+          }
+        }
+      }
+    }
+    final int[] result = candidates.toIntArray();
+    Arrays.sort(result);
+    return result;
+  }
+
+  private record Cell(long mz, long rt, long mobility) {
+
+  }
+}
@@ -60,12 +60,18 @@ public class DuplicateFilterParameters extends SimpleParameterSet {
   public static final BooleanParameter requireSameIdentification = new BooleanParameter(
       "Require same identification",
       "If checked, duplicate peaks must have same identification(s)");
+  public static final ComboParameter<DuplicateFilterEngine> engine = new ComboParameter<>(
+      "Duplicate search engine", """
+      Implementation used to find duplicate rows. Both engines keep and merge the same rows.
+      Grid index only compares rows in neighbouring m/z, RT and mobility cells in parallel and is \
+      faster for large feature lists.""", DuplicateFilterEngine.values(),
+      DuplicateFilterEngine.NESTED_LOOPS);
   public static final OriginalFeatureListHandlingParameter handleOriginal = new OriginalFeatureListHandlingParameter(
       true);
 
   public DuplicateFilterParameters() {
     super(new Parameter[]{peakLists, suffix, filterMode, mzDifferenceMax, rtDifferenceMax,
-            mobilityDifferenceMax, requireSameIdentification, handleOriginal},
+            mobilityDifferenceMax, requireSameIdentification, engine, handleOriginal},
         "https://mzmine.github.io/mzmine_documentation/module_docs/filter_duplicate_features/duplicate_feature_filter.html");
   }
 
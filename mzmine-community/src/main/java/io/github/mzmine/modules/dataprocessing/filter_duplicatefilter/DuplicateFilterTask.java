@@ -56,6 +56,8 @@ import io.github.mzmine.util.FeatureUtils;
 import io.github.mzmine.util.MemoryMapStorage;
 import io.github.mzmine.util.SortingDirection;
 import io.github.mzmine.util.SortingProperty;
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -64,6 +66,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -143,6 +146,7 @@ public class DuplicateFilterTask extends AbstractTask {
                 () -> new MobilityTolerance(Float.MAX_VALUE)), // use huge tolerance otherwise
             parameters.getParameter(DuplicateFilterParameters.requireSameIdentification).getValue(),
             parameters.getParameter(DuplicateFilterParameters.filterMode).getValue(),
+            parameters.getValue(DuplicateFilterParameters.engine),
             originalFeatureListOption == OriginalFeatureListOption.PROCESS_IN_PLACE);
 
         if (!isCanceled()) {
@@ -171,13 +175,14 @@ public class DuplicateFilterTask extends AbstractTask {
    * @param mzTolerance         m/z tolerance.
    * @param rtTolerance         RT tolerance.
    * @param requireSameId       must duplicate peaks have the same identities?
+   * @param engine              implementation to find duplicates, both keep the same rows
    * @param processOriginalList
    * @return the filtered feature list.
    */
   private FeatureList filterDuplicatePeakListRows(final FeatureList origPeakList,
       final String suffix, final MZTolerance mzTolerance, final RTTolerance rtTolerance,
       final MobilityTolerance mobilityTolerance, final boolean requireSameId, FilterMode mode,
-      Boolean processOriginalList) {
+      DuplicateFilterEngine engine, Boolean processOriginalList) {
     // Create the new feature list.
     final ModularFeatureList newPeakList;
     if (processOriginalList) {
@@ -195,16 +200,26 @@ public class DuplicateFilterTask extends AbstractTask {
     totalRows = rowCount;
     processedRows = 0;
     // sort rows
-    final int removedDuplicates = switch (mode) {
-      case OLD_AVERAGE ->
-          applyOldAverageFilter(mzTolerance, rtTolerance, mobilityTolerance, requireSameId,
-              peakListRows, rowCount);
-      case NEW_AVERAGE ->
-          applyNewMergingFilter(mzTolerance, rtTolerance, mobilityTolerance, requireSameId,
-              newPeakList, peakListRows, rowCount);
-      case SINGLE_FEATURE ->
-          applySingleFeatureMergingFilter(mzTolerance, rtTolerance, mobilityTolerance,
-              requireSameId, newPeakList, peakListRows, rowCount, rawFiles);
+    final int removedDuplicates = switch (engine) {
+      case GRID -> switch (mode) {
+        case OLD_AVERAGE, NEW_AVERAGE ->
+            applyGridFilter(mode, mzTolerance, rtTolerance, mobilityTolerance, requireSameId,
+                newPeakList, peakListRows, rowCount);
+        case SINGLE_FEATURE ->
+            applyParallelSingleFeatureFilter(mzTolerance, rtTolerance, mobilityTolerance,
+                requireSameId, newPeakList, peakListRows, rowCount, rawFiles);
+      };
+      case NESTED_LOOPS -> switch (mode) {
+        case OLD_AVERAGE ->
+            applyOldAverageFilter(mzTolerance, rtTolerance, mobilityTolerance, requireSameId,
+                peakListRows, rowCount);
+        case NEW_AVERAGE ->
+            applyNewMergingFilter(mzTolerance, rtTolerance, mobilityTolerance, requireSameId,
+                newPeakList, peakListRows, rowCount);
+        case SINGLE_FEATURE ->
+            applySingleFeatureMergingFilter(mzTolerance, rtTolerance, mobilityTolerance,
+                requireSameId, newPeakList, peakListRows, rowCount, rawFiles);
+      };
     };
 
     applyRowBinding(newPeakList);
@@ -385,23 +400,9 @@ public class DuplicateFilterTask extends AbstractTask {
 
       if (firstRow != null) {
 
-        final List<ModularFeature> firstFeatures = firstRow.getFeatures();
-        double minMZ = Double.MAX_VALUE;
-        double maxMZ = Double.NEGATIVE_INFINITY;
-        for (int i = 0; i < firstFeatures.size(); i++) {
-          Double mz = firstFeatures.get(i).getMZ();
-          if (mz == null) {
-            continue;
-          }
-          if (mz < minMZ) {
-            minMZ = mz;
-          }
-          if (mz > maxMZ) {
-            maxMZ = mz;
-          }
-        }
-        double lowerMZ = mzTolerance.getToleranceRange(minMZ).lowerEndpoint();
-        double upperMZ = mzTolerance.getToleranceRange(maxMZ).upperEndpoint();
+        final double[] mzWindow = getSingleFeatureMzWindow(firstRow, mzTolerance);
+        double lowerMZ = mzWindow[0];
+        double upperMZ = mzWindow[1];
 
         for (int secondRowIndex = firstRowIndex + 1; secondRowIndex < rowCount; secondRowIndex++) {
           if (isCanceled()) {
@@ -447,6 +448,227 @@ public class DuplicateFilterTask extends AbstractTask {
     return n;
   }
 
+  /**
+   * Same result as {@link #applyOldAverageFilter} and {@link #applyNewMergingFilter}. Duplicate
+   * pairs are searched in parallel within neighbouring cells of a {@link DuplicateCandidateGrid}.
+   * The pairs are then resolved in the sorted order like the nested loops, so rows are only
+   * removed by or merged into rows that were not removed before. The average values of the rows
+   * are only updated after the filter, so merging does not change the pairs.
+   *
+   * @return number of duplicates
+   */
+  private int applyGridFilter(FilterMode mode, MZTolerance mzTolerance, RTTolerance rtTolerance,
+      MobilityTolerance mobilityTolerance, boolean requireSameId, ModularFeatureList newPeakList,
+      ModularFeatureListRow[] peakListRows, int rowCount) {
+    final boolean oldAverage = mode == FilterMode.OLD_AVERAGE;
+    Arrays.sort(peakListRows, oldAverage ? new FeatureListRowSorter(SortingProperty.Area,
+        SortingDirection.Descending)
+        : new FeatureListRowSorter(SortingProperty.MZ, SortingDirection.Ascending));
+
+    final double[] mzs = new double[rowCount];
+    final float[] rts = new float[rowCount];
+    final float[] mobilities = new float[rowCount];
+    if (!extractFiniteAverages(peakListRows, mzs, rts, mobilities)) {
+      logger.fine("Rows without finite average values, using nested loops to filter duplicates");
+      return oldAverage ? applyOldAverageFilter(mzTolerance, rtTolerance, mobilityTolerance,
+          requireSameId, peakListRows, rowCount)
+          : applyNewMergingFilter(mzTolerance, rtTolerance, mobilityTolerance, requireSameId,
+              newPeakList, peakListRows, rowCount);
+    }
+
+    double maxMzTolerance = 0;
+    double maxRtTolerance = 0;
+    for (int i = 0; i < rowCount; i++) {
+      maxMzTolerance = Math.max(maxMzTolerance, mzTolerance.getMzToleranceForMass(mzs[i]));
+      maxRtTolerance = Math.max(maxRtTolerance, rtTolerance.getToleranceInMinutes(rts[i]));
+    }
+    final DuplicateCandidateGrid grid = new DuplicateCandidateGrid(mzs, rts, mobilities,
+        maxMzTolerance, maxRtTolerance, mobilityTolerance.getTolerance());
+
+    // only reads the rows, so the pairs can be searched in parallel
+    final int[][] duplicates = new int[rowCount][];
+    ThreadPoolUtils.runParallel("Duplicate filter",
+        () -> IntStream.range(0, rowCount).parallel().forEach(first -> {
+          if (isCanceled()) {
+            return;
+          }
+          final ModularFeatureListRow firstRow = peakListRows[first];
+          final Range<Double> mzRange = mzTolerance.getToleranceRange(mzs[first]);
+          final IntArrayList pairs = new IntArrayList();
+          for (final int second : grid.candidatesAfter(first)) {
+            final boolean sameMZ = oldAverage ? mzTolerance.checkWithinTolerance(mzs[first],
+                mzs[second]) : mzRange.contains(mzs[second]);
+            if (sameMZ && rtTolerance.checkWithinTolerance(rts[first], rts[second])
+                && mobilityTolerance.checkWithinTolerance(mobilities[first], mobilities[second])
+                && (!requireSameId || FeatureUtils.compareIdentities(firstRow,
+                peakListRows[second]))) {
+              pairs.add(second);
+            }
+          }
+          duplicates[first] = pairs.toIntArray();
+        }));
+    if (isCanceled()) {
+      return -1;
+    }
+
+    int n = 0;
+    for (int first = 0; first < rowCount; first++) {
+      final ModularFeatureListRow firstRow = peakListRows[first];
+      if (firstRow != null) {
+        for (final int second : duplicates[first]) {
+          final ModularFeatureListRow secondRow = peakListRows[second];
+          if (secondRow != null) {
+            if (!oldAverage) {
+              createConsensusFirstRow(newPeakList, firstRow, secondRow);
+            }
+            // second row deleted
+            n++;
+            peakListRows[second] = null;
+          }
+        }
+      }
+      processedRows++;
+    }
+    return n;
+  }
+
+  /**
+   * Same result as {@link #applySingleFeatureMergingFilter}. The features of the first row change
+   * when duplicates are merged into it, so the pairs are searched in parallel on the original rows
+   * and resolved in the sorted order afterwards. After the first merge into a row, the remaining
+   * rows of its m/z window are checked against the consensus row like in the nested loops.
+   *
+   * @return number of duplicates
+   */
+  private int applyParallelSingleFeatureFilter(MZTolerance mzTolerance, RTTolerance rtTolerance,
+      MobilityTolerance mobilityTolerance, boolean requireSameId, ModularFeatureList newPeakList,
+      ModularFeatureListRow[] peakListRows, int rowCount, RawDataFile[] rawFiles) {
+    // sort by mz to limit number of iterations
+    Arrays.sort(peakListRows,
+        new FeatureListRowSorter(SortingProperty.MZ, SortingDirection.Ascending));
+
+    final double[] mzs = new double[rowCount];
+    if (!extractFiniteAverages(peakListRows, mzs, new float[rowCount], new float[rowCount])) {
+      logger.fine("Rows without finite average values, using nested loops to filter duplicates");
+      return applySingleFeatureMergingFilter(mzTolerance, rtTolerance, mobilityTolerance,
+          requireSameId, newPeakList, peakListRows, rowCount, rawFiles);
+    }
+
+    final double[] lowerMZs = new double[rowCount];
+    final int[] windowEnds = new int[rowCount];
+    final int[][] duplicates = new int[rowCount][];
+    ThreadPoolUtils.runParallel("Duplicate filter",
+        () -> IntStream.range(0, rowCount).parallel().forEach(first -> {
+          if (isCanceled()) {
+            return;
+          }
+          final ModularFeatureListRow firstRow = peakListRows[first];
+          final double[] mzWindow = getSingleFeatureMzWindow(firstRow, mzTolerance);
+          final IntArrayList pairs = new IntArrayList();
+          int second = first + 1;
+          for (; second < rowCount && !(mzs[second] > mzWindow[1]); second++) {
+            if (mzs[second] >= mzWindow[0] && isSingleFeatureDuplicate(rawFiles, firstRow,
+                peakListRows[second], mzTolerance, rtTolerance, mobilityTolerance, requireSameId)) {
+              pairs.add(second);
+            }
+          }
+          lowerMZs[first] = mzWindow[0];
+          windowEnds[first] = second;
+          duplicates[first] = pairs.toIntArray();
+        }));
+    if (isCanceled()) {
+      return -1;
+    }
+
+    int n = 0;
+    for (int first = 0; first < rowCount; first++) {
+      final ModularFeatureListRow firstRow = peakListRows[first];
+      if (firstRow != null) {
+        int lastMerged = -1;
+        for (final int second : duplicates[first]) {
+          final ModularFeatureListRow secondRow = peakListRows[second];
+          if (secondRow != null) {
+            createConsensusFirstRow(newPeakList, firstRow, secondRow);
+            n++;
+            peakListRows[second] = null;
+            lastMerged = second;
+            break;
+          }
+        }
+        // the consensus row may now match other rows
+        for (int second = lastMerged + 1; lastMerged != -1 && second < windowEnds[first];
+            second++) {
+          final ModularFeatureListRow secondRow = peakListRows[second];
+          if (secondRow != null && mzs[second] >= lowerMZs[first] && isSingleFeatureDuplicate(
+              rawFiles, firstRow, secondRow, mzTolerance, rtTolerance, mobilityTolerance,
+              requireSameId)) {
+            createConsensusFirstRow(newPeakList, firstRow, secondRow);
+            n++;
+            peakListRows[second] = null;
+          }
+        }
+      }
+      processedRows++;
+    }
+    return n;
+  }
+
+  /**
+   * Reads the average values of all rows. Mobility defaults to 1 like in
+   * {@link #checkMobility(FeatureListRow, FeatureListRow, MobilityTolerance)}.
+   *
+   * @return false if any value is missing or not finite
+   */
+  private static boolean extractFiniteAverages(ModularFeatureListRow[] rows, double[] mzs,
+      float[] rts, float[] mobilities) {
+    for (int i = 0; i < rows.length; i++) {
+      final Double mz = rows[i].getAverageMZ();
+      final Float rt = rows[i].getAverageRT();
+      if (mz == null || rt == null) {
+        return false;
+      }
+      mzs[i] = mz;
+      rts[i] = rt;
+      mobilities[i] = Objects.requireNonNullElse(rows[i].getAverageMobility(), 1f);
+      if (!Double.isFinite(mzs[i]) || !Float.isFinite(rts[i]) || !Float.isFinite(mobilities[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return lower and upper m/z of the rows that may share a feature with the first row
+   */
+  private static double[] getSingleFeatureMzWindow(FeatureListRow firstRow,
+      MZTolerance mzTolerance) {
+    final List<ModularFeature> firstFeatures = firstRow.getFeatures();
+    double minMZ = Double.MAX_VALUE;
+    double maxMZ = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < firstFeatures.size(); i++) {
+      Double mz = firstFeatures.get(i).getMZ();
+      if (mz == null) {
+        continue;
+      }
+      if (mz < minMZ) {
+        minMZ = mz;
+      }
+      if (mz > maxMZ) {
+        maxMZ = mz;
+      }
+    }
+    return new double[]{mzTolerance.getToleranceRange(minMZ).lowerEndpoint(),
+        mzTolerance.getToleranceRange(maxMZ).upperEndpoint()};
+  }
+
+  private boolean isSingleFeatureDuplicate(RawDataFile[] rawFiles, FeatureListRow firstRow,
+      FeatureListRow secondRow, MZTolerance mzTolerance, RTTolerance rtTolerance,
+      MobilityTolerance mobilityTolerance, boolean requireSameId) {
+    return checkMobility(firstRow, secondRow, mobilityTolerance) && checkSameSingleFeatureRTMZ(
+        rawFiles, firstRow, secondRow, mzTolerance, rtTolerance) && (!requireSameId
+        || FeatureUtils.compareIdentities(firstRow, secondRow));
+  }
+
   /**
    * Turns firstRow to consensus row. With all features with highest FeatureStatus:
    * DETECTED>ESTIMATED>UNKNOWN Or the highest feature when comparing two ESTIMATED features
@@ -97,14 +97,41 @@ public class Gap {
     // Find top m/z peak in our range
     DataPoint basePeak = ScanUtils.findBasePeak(scan, mzRange);
 
-    GapDataPointImpl currentDataPoint;
     if (basePeak != null) {
-      currentDataPoint = new GapDataPointImpl(scan, basePeak.getMZ(), scanRT,
-          basePeak.getIntensity());
+      offerDataPoint(new GapDataPointImpl(scan, basePeak.getMZ(), scanRT,
+          basePeak.getIntensity()));
     } else {
-      currentDataPoint = new GapDataPointImpl(scan, RangeUtils.rangeCenter(mzRange), scanRT, 0);
+      offerDataPoint(new GapDataPointImpl(scan, RangeUtils.rangeCenter(mzRange), scanRT, 0));
+    }
+  }
+
+  /**
+   * Same as {@link #offerNextScan(Scan)} but the base peak in the {@link #getMzRange()} was
+   * already determined, e.g., by a batched search for multiple gaps.
+   *
+   * @param found     true if a base peak was found in the m/z range
+   * @param mz        m/z of the base peak, ignored if not found
+   * @param intensity intensity of the base peak, ignored if not found
+   */
+  public void offerBasePeak(Scan scan, boolean found, double mz, double intensity) {
+    float scanRT = scan.getRetentionTime();
+
+    // If not yet inside the RT range
+    if (!rtRange.contains(scanRT)) {
+      return;
     }
 
+    if (found) {
+      offerDataPoint(new GapDataPointImpl(scan, mz, scanRT, intensity));
+    } else {
+      offerDataPoint(new GapDataPointImpl(scan, RangeUtils.rangeCenter(mzRange), scanRT, 0));
+    }
+  }
+
+  /**
+   * Continues the current peak or finishes it and starts a new one
+   */
+  protected void offerDataPoint(GapDataPoint currentDataPoint) {
     // If we have not yet started, just create a new peak
     if (currentPeakDataPoints == null) {
       currentPeakDataPoints = new ArrayList<>();
@@ -352,4 +379,12 @@ public class Gap {
   public FeatureListRow getFeatureListRow() {
     return featureListRow;
   }
+
+  public Range<Double> getMzRange() {
+    return mzRange;
+  }
+
+  public Range<Float> getRtRange() {
+    return rtRange;
+  }
 }
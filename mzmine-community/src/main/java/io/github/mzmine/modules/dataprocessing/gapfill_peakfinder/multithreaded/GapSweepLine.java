@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.gapfill_peakfinder.multithreaded;
+
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.modules.dataprocessing.gapfill_peakfinder.Gap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sweep line over the retention time of the scans of one raw data file. Gaps are sorted by their
+ * RT range and only the gaps that cover the current scan RT are kept in the active set. Requires
+ * scans to be offered in ascending RT order, see {@link #isSortedByRt(List)}.
+ * <p>
+ * The active set is sorted by the lower m/z bound of the gaps, so the base peaks of all active gaps
+ * are found in a single pass over the sorted m/z values of a scan in
+ * {@link #offerBasePeaks(Scan)}.
+ *
+ * @param <T> the gap type
+ */
+class GapSweepLine<T extends Gap> {
+
+  private static final Comparator<Gap> MZ_LOWER_SORTER = Comparator.comparingDouble(
+      gap -> gap.getMzRange().lowerEndpoint());
+
+  private final List<T> gapsByRtStart;
+  private final List<T> activeGaps = new ArrayList<>();
+  private int nextGap = 0;
+
+  GapSweepLine(@NotNull final List<T> gaps) {
+    gapsByRtStart = new ArrayList<>(gaps);
+    gapsByRtStart.sort(Comparator.comparingDouble(gap -> gap.getRtRange().lowerEndpoint()));
+  }
+
+  /**
+   * @return true if the scans are sorted by ascending retention time, which is required by the
+   * sweep line
+   */
+  static boolean isSortedByRt(@NotNull final List<? extends Scan> scans) {
+    float lastRt = Float.NEGATIVE_INFINITY;
+    for (final Scan scan : scans) {
+      final float rt = scan.getRetentionTime();
+      if (rt < lastRt) {
+        return false;
+      }
+      lastRt = rt;
+    }
+    return true;
+  }
+
+  /**
+   * Moves the sweep line to the next scan retention time. Gaps that end before this retention time
+   * are removed from the active set and gaps that start at or before the retention time are added.
+   *
+   * @param rt the retention time of the next scan, must be >= the last retention time
+   * @return the active gaps, sorted by the lower bound of their m/z range
+   */
+  @NotNull
+  List<T> advanceTo(final float rt) {
+    // RT increases, so a gap that ended before the current scan will never be active again
+    activeGaps.removeIf(gap -> gap.getRtRange().upperEndpoint() < rt);
+
+    while (nextGap < gapsByRtStart.size()
+           && gapsByRtStart.get(nextGap).getRtRange().lowerEndpoint() <= rt) {
+      final T gap = gapsByRtStart.get(nextGap++);
+      if (gap.getRtRange().upperEndpoint() < rt) {
+        // the RT range lies between two scans
+        continue;
+      }
+      final int index = Collections.binarySearch(activeGaps, gap, MZ_LOWER_SORTER);
+      activeGaps.add(index < 0 ? -(index + 1) : index, gap);
+    }
+    return activeGaps;
+  }
+
+  /**
+   * Moves the sweep line to the scan retention time and offers the base peak within each gap's m/z
+   * range to all active gaps. Uses the same base peak definition as
+   * {@link io.github.mzmine.util.scans.ScanUtils#findBasePeak(Scan,
+   * com.google.common.collect.Range)}, but a single forward pass finds the start index for all
+   * gaps.
+   *
+   * @param scan the next scan in ascending RT order
+   */
+  void offerBasePeaks(@NotNull final Scan scan) {
+    final List<T> gaps = advanceTo(scan.getRetentionTime());
+    if (gaps.isEmpty()) {
+      return;
+    }
+
+    final Double scanBasePeakMz = scan.getBasePeakMz();
+    final double scanBasePeakIntensity =
+        scanBasePeakMz != null && scan.getBasePeakIntensity() != null
+            ? scan.getBasePeakIntensity() : 0d;
+    final int numDp = scan.getNumberOfDataPoints();
+
+    // gaps are sorted by lower m/z so the start index only moves forward
+    int startIndex = 0;
+    for (final T gap : gaps) {
+      if (scanBasePeakMz != null && gap.getMzRange().contains(scanBasePeakMz)) {
+        gap.offerBasePeak(scan, true, scanBasePeakMz, scanBasePeakIntensity);
+        continue;
+      }
+
+      final double lower = gap.getMzRange().lowerEndpoint();
+      final double upper = gap.getMzRange().upperEndpoint();
+      while (startIndex < numDp && scan.getMzValue(startIndex) < lower) {
+        startIndex++;
+      }
+
+      boolean found = false;
+      double baseMz = 0d;
+      double baseIntensity = 0d;
+      for (int i = startIndex; i < numDp; i++) {
+        final double mz = scan.getMzValue(i);
+        if (mz > upper) {
+          break;
+        }
+
+        final double intensity = scan.getIntensityValue(i);
+        if (intensity > baseIntensity) {
+          found = true;
+          baseIntensity = intensity;
+          baseMz = mz;
+        }
+      }
+      gap.offerBasePeak(scan, found, baseMz, baseIntensity);
+    }
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2022 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -28,6 +28,7 @@ package io.github.mzmine.modules.dataprocessing.gapfill_peakfinder.multithreaded
 import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.impl.IonMobilitySupport;
 import io.github.mzmine.parameters.impl.SimpleParameterSet;
+import io.github.mzmine.parameters.parametertypes.ComboParameter;
 import io.github.mzmine.parameters.parametertypes.IntegerParameter;
 import io.github.mzmine.parameters.parametertypes.OriginalFeatureListHandlingParameter;
 import io.github.mzmine.parameters.parametertypes.PercentParameter;
@@ -60,12 +61,19 @@ public class MultiThreadPeakFinderParameters extends SimpleParameterSet {
       "Only fill gaps with features with minimum number of data points. \n Usually lower number of data points are used.",
       1, 1, Integer.MAX_VALUE);
 
+  public static final ComboParameter<GapSchedulingMode> scheduling = new ComboParameter<>(
+      "Gap scheduling", """
+      Defines which gaps are checked for each scan. Both options fill the same features.
+      All gaps: every scan is offered to every gap.
+      Sweep line: gaps are sorted by retention time and each scan is only offered to the gaps that cover its retention time. Faster for many gaps.""",
+      GapSchedulingMode.values(), GapSchedulingMode.ALL_GAPS);
+
   public static final OriginalFeatureListHandlingParameter handleOriginal = new OriginalFeatureListHandlingParameter(
       true);
 
   public MultiThreadPeakFinderParameters() {
     super(new Parameter[]{peakLists, suffix, intTolerance, MZTolerance, RTTolerance, minDataPoints,
-            handleOriginal},
+            scheduling, handleOriginal},
         "https://mzmine.github.io/mzmine_documentation/module_docs/gapfill_peak_finder/gap-filling.html");
   }
 
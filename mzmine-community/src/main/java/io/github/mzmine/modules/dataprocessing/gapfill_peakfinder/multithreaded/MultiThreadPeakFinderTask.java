@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -25,11 +25,14 @@
 
 package io.github.mzmine.modules.dataprocessing.gapfill_peakfinder.multithreaded;
 
+import static java.util.Objects.requireNonNullElse;
+
 import com.google.common.collect.Range;
 import io.github.mzmine.datamodel.FeatureStatus;
 import io.github.mzmine.datamodel.Frame;
 import io.github.mzmine.datamodel.IMSRawDataFile;
 import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.Scan;
 import io.github.mzmine.datamodel.data_access.BinningMobilogramDataAccess;
 import io.github.mzmine.datamodel.data_access.EfficientDataAccess;
 import io.github.mzmine.datamodel.data_access.EfficientDataAccess.MobilityScanDataType;
@@ -69,6 +72,7 @@ class MultiThreadPeakFinderTask extends AbstractTask {
   private final int endexcl;
   private final int taskIndex;
   private final int minDataPoints;
+  private final GapSchedulingMode scheduling;
   private int totalScans;
 
   MultiThreadPeakFinderTask(ModularFeatureList peakList, ModularFeatureList processedPeakList,
@@ -85,6 +89,8 @@ class MultiThreadPeakFinderTask extends AbstractTask {
     mzTolerance = parameters.getValue(MultiThreadPeakFinderParameters.MZTolerance);
     rtTolerance = parameters.getValue(MultiThreadPeakFinderParameters.RTTolerance);
     minDataPoints = parameters.getValue(MultiThreadPeakFinderParameters.minDataPoints);
+    scheduling = requireNonNullElse(parameters.getValue(MultiThreadPeakFinderParameters.scheduling),
+        GapSchedulingMode.ALL_GAPS);
 
     this.start = start;
     this.endexcl = endexcl;
@@ -208,10 +214,24 @@ class MultiThreadPeakFinderTask extends AbstractTask {
   }
 
   private void processFile(RawDataFile file, List<Gap> gaps) {
+    final List<? extends Scan> scans = peakList.getSeletedScans(file);
+    final boolean sweepLine = switch (scheduling) {
+      case ALL_GAPS -> false;
+      case SWEEP_LINE -> {
+        if (scans != null && GapSweepLine.isSortedByRt(scans)) {
+          yield true;
+        }
+        logger.fine(() -> "Scans of " + file.getName()
+                          + " are not sorted by retention time. Offering all scans to all gaps.");
+        yield false;
+      }
+    };
+
     if (file instanceof IMSRawDataFile imsFile && peakList.hasFeatureType(MobilityType.class)) {
       final MobilityScanDataAccess access = new MobilityScanDataAccess(imsFile,
-          MobilityScanDataType.MASS_LIST, (List<Frame>) peakList.getSeletedScans(file));
+          MobilityScanDataType.MASS_LIST, (List<Frame>) scans);
       List<ImsGap> imsGaps = (List<ImsGap>) (List<? extends Gap>) gaps;
+      final GapSweepLine<ImsGap> sweep = sweepLine ? new GapSweepLine<>(imsGaps) : null;
 
       while (access.hasNextFrame()) {
         if (isCanceled()) {
@@ -219,7 +239,9 @@ class MultiThreadPeakFinderTask extends AbstractTask {
         }
 
         final Frame frame = access.nextFrame();
-        for (ImsGap gap : imsGaps) {
+        final List<ImsGap> activeGaps =
+            sweep != null ? sweep.advanceTo(frame.getRetentionTime()) : imsGaps;
+        for (ImsGap gap : activeGaps) {
           access.resetMobilityScan();
           gap.offerNextScan(access);
         }
@@ -230,15 +252,21 @@ class MultiThreadPeakFinderTask extends AbstractTask {
       // no IMS dimension
 
       final ScanDataAccess scanAccess = EfficientDataAccess.of(file, ScanDataType.MASS_LIST,
-          peakList.getSeletedScans(file));
+          scans);
+      final GapSweepLine<Gap> sweep = sweepLine ? new GapSweepLine<>(gaps) : null;
       while (scanAccess.hasNextScan()) {
         if (isCanceled()) {
           return;
         }
         scanAccess.nextScan();
-        // Feed this scan to all gaps
-        for (Gap gap : gaps) {
-          gap.offerNextScan(scanAccess);
+        if (sweep != null) {
+          // Feed this scan to all gaps that cover its RT
+          sweep.offerBasePeaks(scanAccess);
+        } else {
+          // Feed this scan to all gaps
+          for (Gap gap : gaps) {
+            gap.offerNextScan(scanAccess);
+          }
         }
 
         processedScans.incrementAndGet();
@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.group_imagecorrelate;
+
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
+import io.github.mzmine.util.maths.similarity.SimilarityMeasure;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntPredicate;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Pearson or cosine similarity of all pairs of rows on images packed into float arrays. Rows are
+ * split into blocks and pixels into chunks, so that the chunks of two row blocks stay in the CPU
+ * cache while all their pairs are compared. Pairs of blocks are processed in parallel and chunks
+ * without any kept pixel in both images are skipped.
+ * <p>
+ * A pixel is compared if it is kept in at least one of both images, the same as the pairwise
+ * comparison in {@link ImageCorrelateGroupingTask}. The inner loop works on plain float arrays
+ * without data dependent branches, which the JIT can unroll and vectorize.
+ */
+final class BlockedImageCorrelation {
+
+  static final int BLOCK_ROWS = 32;
+  // 32 rows * 4 kB of two blocks fit into the L2 cache
+  static final int CHUNK_PIXELS = 1024;
+  /**
+   * Pairs that reach the minimum similarity minus this margin on the subsampled pixels are checked
+   * on all pixels.
+   */
+  static final double PREFILTER_MARGIN = 0.1;
+
+  // n, sum x, sum y, sum xy, sum x^2, sum y^2
+  private static final int SUMS = 6;
+
+  // [raw file][row] null if the row has no feature in this file
+  private final @Nullable PackedImage @NotNull [] @NotNull [] images;
+  private final int[] pixels;
+  private final int numRows;
+  private final boolean cosine;
+  private final int minPixels;
+  private final int prefilterStep;
+  private final double minSimilarity;
+
+  /**
+   * @param images        [raw file][row] the packed images, null if the row has no feature in
+   *                      this raw file
+   * @param measure       {@link SimilarityMeasure#PEARSON} or {@link SimilarityMeasure#COSINE_SIM}
+   * @param minPixels     minimum number of compared pixels for Pearson, otherwise 0
+   * @param prefilterStep compare every n-th pixel first. Values below 2 disable the prefilter
+   * @param minSimilarity only pairs with at least this similarity are passed on
+   */
+  BlockedImageCorrelation(final @Nullable PackedImage @NotNull [] @NotNull [] images,
+      final int numRows, @NotNull final SimilarityMeasure measure, final int minPixels,
+      final int prefilterStep, final double minSimilarity) {
+    if (!supports(measure)) {
+      throw new IllegalArgumentException("Similarity measure not supported: " + measure);
+    }
+    this.images = images;
+    this.numRows = numRows;
+    this.cosine = measure == SimilarityMeasure.COSINE_SIM;
+    this.minPixels = minPixels;
+    this.prefilterStep = prefilterStep;
+    this.minSimilarity = minSimilarity;
+
+    pixels = new int[images.length];
+    for (int f = 0; f < images.length; f++) {
+      for (final PackedImage image : images[f]) {
+        if (image != null && image.values() != null) {
+          pixels[f] = image.values().length;
+          break;
+        }
+      }
+    }
+  }
+
+  static boolean supports(@NotNull final SimilarityMeasure measure) {
+    return measure == SimilarityMeasure.PEARSON || measure == SimilarityMeasure.COSINE_SIM;
+  }
+
+  /**
+   * Compares all pairs of rows in parallel, limited to the number of threads in the preferences.
+   *
+   * @param canceled skips all remaining blocks
+   * @param progress called with the number of checked pairs after each pair of blocks
+   * @param consumer called concurrently for all pairs that reach the minimum similarity
+   */
+  void forEachPair(@NotNull final BooleanSupplier canceled, @NotNull final LongConsumer progress,
+      @NotNull final PairConsumer consumer) {
+    final int blocks = (numRows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+    final int[] tileA = new int[blocks * (blocks + 1) / 2];
+    final int[] tileB = new int[tileA.length];
+    int tile = 0;
+    for (int a = 0; a < blocks; a++) {
+      for (int b = a; b < blocks; b++) {
+        tileA[tile] = a;
+        tileB[tile] = b;
+        tile++;
+      }
+    }
+
+    ThreadPoolUtils.runParallel("Image correlation",
+        () -> IntStream.range(0, tileA.length).parallel().forEach(t -> {
+          if (!canceled.getAsBoolean()) {
+            progress.accept(processTile(tileA[t] * BLOCK_ROWS, tileB[t] * BLOCK_ROWS, consumer));
+          }
+        }));
+  }
+
+  /**
+   * @return the number of checked pairs
+   */
+  private int processTile(final int i0, final int j0, @NotNull final PairConsumer consumer) {
+    final int nI = Math.min(BLOCK_ROWS, numRows - i0);
+    final int nJ = Math.min(BLOCK_ROWS, numRows - j0);
+    final boolean[] candidates = new boolean[nI * nJ];
+    int pairs = 0;
+    for (int a = 0; a < nI; a++) {
+      for (int b = 0; b < nJ; b++) {
+        // only upper triangle within the same block
+        if (i0 + a < j0 + b) {
+          candidates[a * nJ + b] = true;
+          pairs++;
+        }
+      }
+    }
+
+    if (prefilterStep > 1) {
+      final double[][] subsampled = similarities(i0, j0, nI, nJ, prefilterStep, candidates);
+      for (int k = 0; k < candidates.length; k++) {
+        // NaN also removes the pair
+        if (candidates[k] && !(score(subsampled, i0 + k / nJ, j0 + k % nJ, k)
+                               >= minSimilarity - PREFILTER_MARGIN)) {
+          candidates[k] = false;
+        }
+      }
+    }
+
+    final double[][] similarities = similarities(i0, j0, nI, nJ, 1, candidates);
+    for (int k = 0; k < candidates.length; k++) {
+      final int i = i0 + k / nJ;
+      final int j = j0 + k % nJ;
+      if (candidates[k] && score(similarities, i, j, k) >= minSimilarity) {
+        final DoubleList values = new DoubleArrayList(images.length);
+        for (int f = 0; f < images.length; f++) {
+          if (images[f][i] != null && images[f][j] != null) {
+            values.add(similarities[f][k]);
+          }
+        }
+        consumer.accept(i, j, values);
+      }
+    }
+    return pairs;
+  }
+
+  /**
+   * Score of a pair like the row relationships: the similarity for a single raw file, otherwise
+   * the maximum similarity with NaN as 0.
+   *
+   * @return the score or NaN if the rows share no raw file
+   */
+  private double score(final double[][] similarities, final int i, final int j, final int k) {
+    if (images.length == 1) {
+      return images[0][i] != null && images[0][j] != null ? similarities[0][k] : Double.NaN;
+    }
+    double max = Double.NaN;
+    for (int f = 0; f < images.length; f++) {
+      if (images[f][i] != null && images[f][j] != null) {
+        final double sim = Double.isNaN(similarities[f][k]) ? 0d : similarities[f][k];
+        max = Double.isNaN(max) ? sim : Math.max(max, sim);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * @return [raw file][pair in tile] the similarities of all candidate pairs
+   */
+  private double[][] similarities(final int i0, final int j0, final int nI, final int nJ,
+      final int step, final boolean[] candidates) {
+    final double[][] similarities = new double[images.length][candidates.length];
+    final double[] sums = new double[candidates.length * SUMS];
+    for (int f = 0; f < images.length; f++) {
+      final PackedImage[] fileImages = images[f];
+      Arrays.fill(sums, 0d);
+      for (int c0 = 0; c0 < pixels[f]; c0 += CHUNK_PIXELS) {
+        final int chunk = c0 / CHUNK_PIXELS;
+        final int end = Math.min(c0 + CHUNK_PIXELS, pixels[f]);
+        // first pixel of the subsample in this chunk
+        final int start = (c0 + step - 1) / step * step;
+        for (int a = 0; a < nI; a++) {
+          final PackedImage imageA = fileImages[i0 + a];
+          if (imageA == null || imageA.values() == null) {
+            continue;
+          }
+          final boolean keptA = imageA.hasKeptPixels(chunk);
+          for (int b = 0; b < nJ; b++) {
+            final int k = a * nJ + b;
+            final PackedImage imageB = fileImages[j0 + b];
+            if (!candidates[k] || imageB == null || imageB.values() == null) {
+              continue;
+            }
+            // no pixel to compare in this chunk
+            if (!keptA && !imageB.hasKeptPixels(chunk)) {
+              continue;
+            }
+            accumulate(imageA.values(), imageB.values(), start, end, step, sums, k * SUMS);
+          }
+        }
+      }
+
+      for (int k = 0; k < candidates.length; k++) {
+        final PackedImage imageA = fileImages[i0 + k / nJ];
+        final PackedImage imageB = fileImages[j0 + k % nJ];
+        if (!candidates[k] || imageA == null || imageB == null) {
+          similarities[f][k] = Double.NaN;
+        } else if (imageA.values() == null || imageB.values() == null) {
+          // feature without data
+          similarities[f][k] = 0d;
+        } else {
+          similarities[f][k] = similarity(sums, k * SUMS);
+        }
+      }
+    }
+    return similarities;
+  }
+
+  /**
+   * Adds all pixels that are kept in at least one image. Kept pixels are positive, removed pixels
+   * are stored negative.
+   */
+  private static void accumulate(final float[] a, final float[] b, final int from, final int to,
+      final int step, final double[] sums, final int offset) {
+    double n = 0, sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0, sumY2 = 0;
+    for (int p = from; p < to; p += step) {
+      final float va = a[p];
+      final float vb = b[p];
+      // 1 if kept in a or b
+      final double use = va > 0f || vb > 0f ? 1d : 0d;
+      final double x = Math.abs(va) * use;
+      final double y = Math.abs(vb) * use;
+      n += use;
+      sumX += x;
+      sumY += y;
+      sumXY += x * y;
+      sumX2 += x * x;
+      sumY2 += y * y;
+    }
+    sums[offset] += n;
+    sums[offset + 1] += sumX;
+    sums[offset + 2] += sumY;
+    sums[offset + 3] += sumXY;
+    sums[offset + 4] += sumX2;
+    sums[offset + 5] += sumY2;
+  }
+
+  private double similarity(final double[] sums, final int offset) {
+    final double n = sums[offset];
+    final double sumX = sums[offset + 1];
+    final double sumY = sums[offset + 2];
+    final double sumXY = sums[offset + 3];
+    final double sumX2 = sums[offset + 4];
+    final double sumY2 = sums[offset + 5];
+    if (cosine) {
+      return sumXY / (Math.sqrt(sumX2) * Math.sqrt(sumY2));
+    }
+
+    if (n < minPixels) {
+      return 0d;
+    }
+    final double numerator = n * sumXY - sumX * sumY;
+    final double denominator = Math.sqrt((n * sumX2 - sumX * sumX) * (n * sumY2 - sumY * sumY));
+    if (denominator == 0) {
+      return 0d;
+    }
+    return numerator / denominator;
+  }
+
+  @FunctionalInterface
+  interface PairConsumer {
+
+    /**
+     * @param rowA         index of the first row
+     * @param rowB         index of the second row, larger than rowA
+     * @param similarities the similarities in all raw files that contain both rows
+     */
+    void accept(int rowA, int rowB, @NotNull DoubleList similarities);
+  }
+
+  /**
+   * One image with kept pixels stored positive and removed pixels stored negative (or -0). Kept
+   * intensities are at least 1 after filtering.
+   *
+   * @param values     the intensities or null if the feature has no data
+   * @param keptChunks bit set of chunks with at least one kept pixel
+   */
+  record PackedImage(float @Nullable [] values, long @Nullable [] keptChunks) {
+
+    static final PackedImage NO_DATA = new PackedImage(null, null);
+
+    static @NotNull PackedImage of(final double @NotNull [] intensities,
+        @NotNull final IntPredicate removed) {
+      final float[] values = new float[intensities.length];
+      final int chunks = (intensities.length + CHUNK_PIXELS - 1) / CHUNK_PIXELS;
+      final long[] keptChunks = new long[(chunks + 63) / 64];
+      for (int p = 0; p < intensities.length; p++) {
+        final float value = (float) Math.abs(intensities[p]);
+        if (removed.test(p)) {
+          values[p] = -value;
+        } else {
+          values[p] = value;
+          final int chunk = p / CHUNK_PIXELS;
+          keptChunks[chunk >> 6] |= 1L << chunk;
+        }
+      }
+      return new PackedImage(values, keptChunks);
+    }
+
+    boolean hasKeptPixels(final int chunk) {
+      return keptChunks != null && (keptChunks[chunk >> 6] & 1L << chunk) != 0;
+    }
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -77,10 +77,24 @@ public class ImageCorrelateGroupingParameters extends SimpleParameterSet {
   public static final PercentParameter MIN_R = new PercentParameter("Minimum similarity",
       "Minimum percentage for image correlation in one raw file.", 0.70, 0d, 1d);
 
+  public static final ComboParameter<ImageCorrelationEngine> ENGINE = new ComboParameter<>(
+      "Engine", """
+      Pairwise rows compares each pair of rows on its own and supports all similarity measures. \
+      Blocked image matrix packs all images into memory and compares blocks of rows on all cores. \
+      It is only used for Pearson and cosine similarity. Its results are equivalent up to float \
+      rounding, as the images are packed as float values.""",
+      ImageCorrelationEngine.values(), ImageCorrelationEngine.PAIRWISE);
+
+  public static final OptionalParameter<IntegerParameter> SUBSAMPLING_PREFILTER = new OptionalParameter<>(
+      new IntegerParameter("Subsampling prefilter (every n-th pixel)", """
+          Blocked image matrix only: First compares every n-th pixel and only compares all pixels \
+          of pairs that reach the minimum similarity minus 0.1 on this subsample. \
+          Faster for large images, but may miss pairs.""", 4, 2, null), false);
+
   // Constructor
   public ImageCorrelateGroupingParameters() {
     super(new Parameter[]{FEATURE_LISTS, NOISE_LEVEL, MIN_NUMBER_OF_PIXELS, QUANTILE_THRESHOLD,
-            HOTSPOT_REMOVAL, MEASURE, MIN_R},
+            HOTSPOT_REMOVAL, MEASURE, MIN_R, ENGINE, SUBSAMPLING_PREFILTER},
         "https://mzmine.github.io/mzmine_documentation/module_docs/group_imagecorrelate/image-colocalization.html");
   }
 
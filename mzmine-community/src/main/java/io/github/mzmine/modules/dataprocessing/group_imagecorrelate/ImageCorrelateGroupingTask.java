@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -38,6 +38,7 @@ import io.github.mzmine.datamodel.features.correlation.R2RSimpleSimilarity;
 import io.github.mzmine.datamodel.features.correlation.R2RSimpleSimilarityList;
 import io.github.mzmine.datamodel.features.correlation.RowsRelationship;
 import io.github.mzmine.datamodel.features.correlation.RowsRelationship.Type;
+import io.github.mzmine.modules.dataprocessing.group_imagecorrelate.BlockedImageCorrelation.PackedImage;
 import io.github.mzmine.parameters.ParameterSet;
 import io.github.mzmine.taskcontrol.AbstractTask;
 import io.github.mzmine.taskcontrol.TaskStatus;
@@ -83,6 +84,8 @@ public class ImageCorrelateGroupingTask extends AbstractTask {
 
   private final SimilarityMeasure similarityMeasure;
   private final double minR;
+  private final ImageCorrelationEngine engine;
+  private final int prefilterStep;
 
   public ImageCorrelateGroupingTask(final ParameterSet parameterSet,
       final ModularFeatureList featureList, @NotNull Instant moduleCallDate) {
@@ -99,6 +102,9 @@ public class ImageCorrelateGroupingTask extends AbstractTask {
         ImageCorrelateGroupingParameters.HOTSPOT_REMOVAL, 1d);
     similarityMeasure = parameters.getValue(ImageCorrelateGroupingParameters.MEASURE);
     minR = parameters.getValue(ImageCorrelateGroupingParameters.MIN_R);
+    engine = parameters.getValue(ImageCorrelateGroupingParameters.ENGINE);
+    prefilterStep = parameters.getEmbeddedParameterValueIfSelectedOrElse(
+        ImageCorrelateGroupingParameters.SUBSAMPLING_PREFILTER, 0);
   }
 
   @Override
@@ -164,6 +170,15 @@ public class ImageCorrelateGroupingTask extends AbstractTask {
    */
   public void checkAllFeatures(R2RMap<RowsRelationship> mapSimilarity)
       throws MissingMassListException {
+    if (engine == ImageCorrelationEngine.BLOCKED_MATRIX) {
+      if (BlockedImageCorrelation.supports(similarityMeasure)) {
+        checkAllFeaturesBlocked(mapSimilarity);
+        return;
+      }
+      logger.info("Blocked image matrix does not support %s, comparing pairs of rows instead."
+          .formatted(similarityMeasure));
+    }
+
     // prefilter rows: check feature height and sort data
     Map<Feature, FilteredRowData> mapFeatureData = new HashMap<>();
     FeatureDataAccess featureDataAccess = EfficientDataAccess.of(featureList,
@@ -196,6 +211,66 @@ public class ImageCorrelateGroupingTask extends AbstractTask {
         "Image correlation: Performed %d pairwise comparisons of rows.".formatted(comparedPairs));
   }
 
+  /**
+   * Packs all images and checks all r2r similarities with {@link BlockedImageCorrelation}. Only
+   * pairs above the minimum similarity are added.
+   *
+   * @param mapSimilarity map for all image similarity edges
+   */
+  private void checkAllFeaturesBlocked(R2RMap<RowsRelationship> mapSimilarity) {
+    Map<Feature, PackedImage> mapFeatureImage = new HashMap<>();
+    FeatureDataAccess featureDataAccess = EfficientDataAccess.of(featureList,
+        FeatureDataType.INCLUDE_ZEROS);
+
+    while (featureDataAccess.hasNextFeature()) {
+      Feature f = featureDataAccess.nextFeature();
+      double[] intensities = featureDataAccess.getIntensityValuesCopy();
+      var data = FilteredRowData.create(intensities, lowerQuantile, upperQuantile, noiseLevel,
+          Transform.SQRT);
+      mapFeatureImage.put(f, PackedImage.of(data.intensities(), data::isRemoved));
+    }
+    List<FeatureListRow> rows = featureList.getRows();
+    List<RawDataFile> rawFiles = featureList.getRawDataFiles();
+
+    // [raw file][row] null if there is no feature
+    PackedImage[][] images = new PackedImage[rawFiles.size()][rows.size()];
+    for (int f = 0; f < rawFiles.size(); f++) {
+      for (int r = 0; r < rows.size(); r++) {
+        Feature feature = rows.get(r).getFeature(rawFiles.get(f));
+        if (feature != null) {
+          images[f][r] = mapFeatureImage.getOrDefault(feature, PackedImage.NO_DATA);
+        }
+      }
+    }
+    mapFeatureImage.clear();
+
+    int numRows = rows.size();
+    totalMaxPairs = Combinatorics.uniquePairs(rows);
+    logger.log(Level.INFO,
+        () -> MessageFormat.format("Checking image similarity on {0} rows in blocks", numRows));
+
+    var correlation = new BlockedImageCorrelation(images, numRows, similarityMeasure,
+        minimumNumberOfCorrelatedPixels, prefilterStep, minR);
+    correlation.forEachPair(this::isCanceled, processedPairs::addAndGet, (a, b, similarities) -> {
+      FeatureListRow rowA = rows.get(a);
+      FeatureListRow rowB = rows.get(b);
+      final RowsRelationship imageSimilarities;
+      if (singleRawFile) {
+        imageSimilarities = new R2RSimpleSimilarity(rowA, rowB, Type.MS1_FEATURE_CORR,
+            (float) similarities.getDouble(0));
+      } else {
+        var list = new R2RSimpleSimilarityList(rowA, rowB, Type.MS1_FEATURE_CORR);
+        for (int i = 0; i < similarities.size(); i++) {
+          list.addSimilarity(similarities.getDouble(i));
+        }
+        imageSimilarities = list;
+      }
+      mapSimilarity.add(rowA, rowB, imageSimilarities);
+    });
+    logger.info("Image correlation: Performed %d pairwise comparisons of rows in blocks.".formatted(
+        processedPairs.get()));
+  }
+
   //Intensities have to be sorted by scan number
 
   /**
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -25,10 +25,10 @@
 
 package io.github.mzmine.modules.dataprocessing.group_spectral_networking.dreams;
 
-import static io.github.mzmine.modules.dataprocessing.group_spectral_networking.ms2deepscore.MS2DeepscoreNetworkingTask.convertMatrixToR2RMap;
 import static io.github.mzmine.modules.dataprocessing.group_spectral_networking.ms2deepscore.MS2DeepscoreNetworkingTask.getScanAndApplyPrechecks;
+import static io.github.mzmine.modules.dataprocessing.group_spectral_networking.ms2deepscore.MS2DeepscoreNetworkingTask.streamSimilarPairsToR2RMap;
 import static io.github.mzmine.util.collections.CollectionUtils.argsortReversed;
-import static io.github.mzmine.util.scans.similarity.impl.ms2deepscore.EmbeddingBasedSimilarity.dotProduct;
+import static io.github.mzmine.util.scans.similarity.impl.ms2deepscore.EmbeddingBasedSimilarity.normalizedEmbeddings;
 
 import ai.djl.MalformedModelException;
 import ai.djl.ndarray.NDArray;
@@ -146,8 +146,12 @@ public class DreaMSNetworkingTask extends AbstractFeatureListTask {
       }
     }
 
-    // Predict the matrix of pairwise DreaMS similarities
-    float[][] similarityMatrix;
+    if (scanList.isEmpty()) {
+      return;
+    }
+
+    // Predict the DreaMS embeddings
+    final float[][] embeddings;
     try {
       // Pre-process mass spectra
       float[][][] tensorizedSpectra = model.getSpectrumTensorizer().tensorizeSpectra(scanList);
@@ -173,22 +177,24 @@ public class DreaMSNetworkingTask extends AbstractFeatureListTask {
       }
 
       // Combine all predictions into a single NDArray (stacked along the batch dimension)
-      NDArray embeddings = NDArrays.concat(allPredictions);
-
-      // Compute DreaMS similarities
-      similarityMatrix = dotProduct(embeddings, embeddings);
+      NDArray predicted = NDArrays.concat(allPredictions);
+      embeddings = normalizedEmbeddings(predicted);
+      predicted.close();
     } catch (TranslateException e) {
       throw new RuntimeException(e);
     }
 
-    // Choose numNeighbors nearest neighbors for each spectrum and retain all similarities above minScore
-    if (numNeighbors != null) {
-      similarityMatrix = toKNNMatrix(similarityMatrix, numNeighbors, minScore);
+    // Stream the DreaMS similarities into a R2RMap without creating the N x N matrix.
+    // Choose numNeighbors nearest neighbors for each spectrum and retain all similarities above
+    // minScore, same as toKNNMatrix
+    R2RMap<R2RSimpleSimilarity> relationsMap = numNeighbors != null
+        ? streamSimilarPairsToR2RMap(featureListRows, embeddings, minScore, numNeighbors,
+        minScoreNeighbors, Type.DREAMS, this::isCanceled)
+        : streamSimilarPairsToR2RMap(featureListRows, embeddings, minScore, 0, minScore,
+            Type.DREAMS, this::isCanceled);
+    if (isCanceled()) {
+      return;
     }
-
-    // Convert the similarity matrix to a R2RMap
-    R2RMap<R2RSimpleSimilarity> relationsMap = convertMatrixToR2RMap(featureListRows,
-        similarityMatrix, numNeighbors != null ? minScoreNeighbors : minScore, Type.DREAMS);
     R2RNetworkingMaps rowMaps = featureList.getRowMaps();
     rowMaps.addAllRowsRelationships(relationsMap, Type.DREAMS);
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -27,10 +27,18 @@ package io.github.mzmine.modules.dataprocessing.group_spectral_networking.modifi
 
 import io.github.mzmine.datamodel.DataPoint;
 import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.util.scans.similarity.CosineSpectrum;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * the filtered data of the best MS2 scan from row
+ *
+ * @param spectrum the data prepared for cosine similarity or null if not used
  */
-public record FilteredRowData(FeatureListRow row, DataPoint[] data) {
+public record FilteredRowData(FeatureListRow row, DataPoint[] data,
+                              @Nullable CosineSpectrum spectrum) {
 
+  public FilteredRowData(FeatureListRow row, DataPoint[] data) {
+    this(row, data, null);
+  }
 }
@@ -29,6 +29,7 @@ package io.github.mzmine.modules.dataprocessing.group_spectral_networking.modifi
 import static io.github.mzmine.modules.visualization.networking.visual.enums.NodeAtt.CLUSTER_ID;
 import static io.github.mzmine.modules.visualization.networking.visual.enums.NodeAtt.CLUSTER_SIZE;
 import static io.github.mzmine.modules.visualization.networking.visual.enums.NodeAtt.COMMUNITY_ID;
+import static java.util.Objects.requireNonNull;
 import static java.util.Objects.requireNonNullElse;
 
 import io.github.mzmine.datamodel.DataPoint;
@@ -66,6 +67,8 @@ import io.github.mzmine.util.maths.similarity.Similarity;
 import io.github.mzmine.util.scans.FragmentScanSelection;
 import io.github.mzmine.util.scans.ScanAlignment;
 import io.github.mzmine.util.scans.ScanMZDiffConverter;
+import io.github.mzmine.util.scans.similarity.CosineSimilarityKernel;
+import io.github.mzmine.util.scans.similarity.CosineSpectrum;
 import io.github.mzmine.util.scans.similarity.Weights;
 import java.text.MessageFormat;
 import java.time.Instant;
@@ -228,6 +231,14 @@ public class ModifiedCosineSpectralNetworkingTask extends AbstractFeatureListTas
       DataPoint[] sortedA, DataPoint[] sortedB, double minMatch,
       Function<List<DataPoint[]>, Integer> overlapFunction, double precursorMzA,
       double precursorMzB) {
+    if (overlapFunction == SIZE_OVERLAP) {
+      final CosineSimilarityKernel kernel = CosineSimilarityKernel.forCurrentThread();
+      final CosineSpectrum b = kernel.loadX(sortedB, weights, false);
+      final CosineSpectrum a = kernel.loadY(sortedA, weights, false);
+      return createMS2SimModificationAware(mzTol, a, b, minMatch, Double.NEGATIVE_INFINITY,
+          precursorMzA, precursorMzB);
+    }
+
     // align
     final List<DataPoint[]> aligned = alignDataPoints(precursorMzA, precursorMzB, mzTol, sortedB,
         sortedA);
@@ -273,6 +284,33 @@ public class ModifiedCosineSpectralNetworkingTask extends AbstractFeatureListTas
     return null;
   }
 
+  /**
+   * Same as the {@link #SIZE_OVERLAP} alignment but on prepared spectra with the
+   * {@link CosineSimilarityKernel}. Pairs below minCosine are rejected by an upper bound before
+   * matching signals.
+   *
+   * @param minMatch     minimum overlapping signals in the two spectra
+   * @param minCosine    minimum cosine similarity or {@link Double#NEGATIVE_INFINITY} to return
+   *                     all similarities with sufficient overlap
+   * @param precursorMzA precursor mz of spectrum a, modification aware matching if both are > 0
+   * @param precursorMzB precursor mz of spectrum b, modification aware matching if both are > 0
+   * @return the spectral similarity if overlap >= minMatch and cosine >= minCosine, else null
+   */
+  @Nullable
+  public static SpectralSimilarity createMS2SimModificationAware(MZTolerance mzTol,
+      CosineSpectrum a, CosineSpectrum b, double minMatch, double minCosine, double precursorMzA,
+      double precursorMzB) {
+    // same orientation as alignDataPoints: signals of b are matched against a
+    final double precursorMzDelta =
+        precursorMzA > 0 && precursorMzB > 0 ? precursorMzA - precursorMzB : Double.NaN;
+    final CosineSimilarityKernel kernel = CosineSimilarityKernel.forCurrentThread();
+    if (!kernel.match(b, a, mzTol, precursorMzDelta, minMatch, minCosine, true, true)) {
+      return null;
+    }
+    return new SpectralSimilarity(kernel.getCosine(), kernel.getOverlap(), kernel.getSizeX(),
+        kernel.getSizeY(), kernel.getExplainedIntensityX(), kernel.getExplainedIntensityY());
+  }
+
   /**
    * Make sure to use arrays sorted by intensity
    *
@@ -462,7 +500,7 @@ public class ModifiedCosineSpectralNetworkingTask extends AbstractFeatureListTas
     for (final FilteredRowData a : scans1) {
       for (final FilteredRowData b : scans2) {
         // align and check spectra
-        var result = calcSpectralSimilarity(a.row(), b.row(), a.data(), b.data());
+        var result = calcSpectralSimilarity(a, b);
         if (result != null && (best == null || result.cosine() > best.cosine())) {
           best = result;
         }
@@ -522,14 +560,19 @@ public class ModifiedCosineSpectralNetworkingTask extends AbstractFeatureListTas
     }
     // remove precursor signals
     DataPoint[] dps = signalFilter.applyFilterAndSortByIntensity(ms2, precursorMz, minDP);
-    return dps != null ? new FilteredRowData(row, dps) : null;
+    return dps != null ? new FilteredRowData(row, dps, CosineSpectrum.of(dps, Weights.SQRT))
+        : null;
   }
 
 
-  private @Nullable SpectralSimilarity calcSpectralSimilarity(final FeatureListRow a,
-      final FeatureListRow b, final DataPoint[] sortedA, final DataPoint[] sortedB) {
-    return createMS2SimModificationAware(mzTolerance, sortedA, sortedB, minMatch, SIZE_OVERLAP,
-        a.getAverageMZ(), b.getAverageMZ());
+  /**
+   * Pairs below the minimum cosine are rejected early as they never form an edge
+   */
+  private @Nullable SpectralSimilarity calcSpectralSimilarity(final FilteredRowData a,
+      final FilteredRowData b) {
+    return createMS2SimModificationAware(mzTolerance, requireNonNull(a.spectrum()),
+        requireNonNull(b.spectrum()), minMatch, minCosineSimilarity, a.row().getAverageMZ(),
+        b.row().getAverageMZ());
   }
 
   @Override
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -26,6 +26,7 @@
 package io.github.mzmine.modules.dataprocessing.group_spectral_networking.ms2deepscore;
 
 import ai.djl.MalformedModelException;
+import ai.djl.ndarray.NDArray;
 import ai.djl.repository.zoo.ModelNotFoundException;
 import ai.djl.translate.TranslateException;
 import io.github.mzmine.datamodel.MZmineProject;
@@ -44,6 +45,7 @@ import io.github.mzmine.taskcontrol.AbstractFeatureListTask;
 import io.github.mzmine.util.MemoryMapStorage;
 import io.github.mzmine.util.exceptions.MissingMassListException;
 import io.github.mzmine.util.scans.FragmentScanSelection;
+import io.github.mzmine.util.scans.similarity.impl.ms2deepscore.EmbeddingBasedSimilarity;
 import io.github.mzmine.util.scans.similarity.impl.ms2deepscore.MS2DeepscoreModel;
 import java.io.File;
 import java.io.IOException;
@@ -51,6 +53,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Logger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -132,16 +135,25 @@ public class MS2DeepscoreNetworkingTask extends AbstractFeatureListTask {
       }
     }
 
-    float[][] similarityMatrix;
+    if (scanList.isEmpty()) {
+      return;
+    }
+
+    final float[][] embeddings;
     try {
-      similarityMatrix = model.predictMatrixSymmetric(scanList);
+      final NDArray predicted = model.predictEmbedding(scanList);
+      embeddings = EmbeddingBasedSimilarity.normalizedEmbeddings(predicted);
+      predicted.close();
     } catch (TranslateException e) {
       throw new RuntimeException(e);
     }
     description = "Calculate MS2Deepscore similarity";
-//    Convert the similarity matrix to a R2RMap
-    R2RMap<R2RSimpleSimilarity> relationsMap = convertMatrixToR2RMap(featureListRows,
-        similarityMatrix, minScore, Type.MS2Deepscore);
+    // stream the pairs directly into the R2RMap instead of creating the N x N matrix
+    R2RMap<R2RSimpleSimilarity> relationsMap = streamSimilarPairsToR2RMap(featureListRows,
+        embeddings, minScore, 0, minScore, Type.MS2Deepscore, this::isCanceled);
+    if (isCanceled()) {
+      return;
+    }
     R2RNetworkingMaps rowMaps = featureList.getRowMaps();
     rowMaps.addAllRowsRelationships(relationsMap, Type.MS2Deepscore);
     // stats are currently only available for modified cosine
@@ -172,6 +184,35 @@ public class MS2DeepscoreNetworkingTask extends AbstractFeatureListTask {
     return null;
   }
 
+  /**
+   * Computes the cosine similarity of all pairs of rows in tiles, see
+   * {@link EmbeddingBasedSimilarity#streamSimilarPairsSymmetric(float[][], double, int,
+   * BooleanSupplier, EmbeddingBasedSimilarity.SimilarPairConsumer)}. Memory scales with the number
+   * of pairs instead of the number of rows squared.
+   *
+   * @param embeddings   unit length embeddings of the rows
+   * @param minScore     all pairs above minScore are added if they are also above minEdgeScore
+   * @param topK         the topK most similar rows of each row are added if they are above
+   *                     minEdgeScore. 0 to only add pairs above minScore
+   * @param minEdgeScore minimum score of all added pairs
+   */
+  public static R2RMap<R2RSimpleSimilarity> streamSimilarPairsToR2RMap(
+      final List<FeatureListRow> featureListRows, final float[][] embeddings,
+      final double minScore, final int topK, final double minEdgeScore,
+      final RowsRelationship.Type rowsRelationshipType, final BooleanSupplier canceled) {
+    final R2RMap<R2RSimpleSimilarity> relationsMap = new R2RMap<>();
+    EmbeddingBasedSimilarity.streamSimilarPairsSymmetric(embeddings, minScore, topK, canceled,
+        (i, j, similarityScore) -> {
+          if (similarityScore > minEdgeScore) {
+            final FeatureListRow a = featureListRows.get(i);
+            final FeatureListRow b = featureListRows.get(j);
+            relationsMap.add(a, b,
+                new R2RSimpleSimilarity(a, b, rowsRelationshipType, similarityScore));
+          }
+        });
+    return relationsMap;
+  }
+
   public static R2RMap<R2RSimpleSimilarity> convertMatrixToR2RMap(
       List<FeatureListRow> featureListRow, float[][] similarityMatrix, double minScore,
       RowsRelationship.Type rowsRelationshipType) {
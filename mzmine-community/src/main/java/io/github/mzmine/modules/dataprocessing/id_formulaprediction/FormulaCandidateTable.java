@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.id_formulaprediction;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+import java.util.stream.StreamSupport;
+import org.jetbrains.annotations.NotNull;
+import org.openscience.cdk.formula.MolecularFormulaGenerator;
+import org.openscience.cdk.formula.MolecularFormulaRange;
+import org.openscience.cdk.interfaces.IChemObjectBuilder;
+import org.openscience.cdk.interfaces.IIsotope;
+import org.openscience.cdk.interfaces.IMolecularFormula;
+import org.openscience.cdk.silent.SilentChemObjectBuilder;
+
+/**
+ * Mass sorted candidate formulas of an element range. The formulas are generated once for the
+ * merged search windows of many rows, so overlapping windows (duplicate rows, adducts, isotopes)
+ * do not run the {@link MolecularFormulaGenerator} again. The table is immutable and can be shared
+ * between threads, each lookup creates new formula instances.
+ * <p>
+ * Candidates are returned in ascending mass order instead of the order of the generator.
+ */
+public final class FormulaCandidateTable {
+
+  private static final Logger logger = Logger.getLogger(FormulaCandidateTable.class.getName());
+
+  private final IIsotope[] isotopes;
+  private final double[] masses;
+  /**
+   * element counts of formula i start at i * isotopes.length
+   */
+  private final int[] counts;
+
+  private FormulaCandidateTable(final IIsotope[] isotopes, final double[] masses,
+      final int[] counts) {
+    this.isotopes = isotopes;
+    this.masses = masses;
+    this.counts = counts;
+  }
+
+  /**
+   * Generates all formulas within the search ranges. Overlapping ranges are merged and the merged
+   * ranges are generated in parallel, limited to the number of threads in the preferences.
+   *
+   * @param elements     element ranges
+   * @param searchRanges neutral mass ranges of all rows
+   * @param isCanceled   stops the generation
+   */
+  @NotNull
+  public static FormulaCandidateTable build(@NotNull final MolecularFormulaRange elements,
+      @NotNull final List<Range<Double>> searchRanges, @NotNull final BooleanSupplier isCanceled) {
+    final IIsotope[] isotopes = StreamSupport.stream(elements.isotopes().spliterator(), false)
+        .toArray(IIsotope[]::new);
+
+    final List<Range<Double>> merged = mergeOverlapping(searchRanges);
+    final List<Generated> generated = ThreadPoolUtils.callParallel("Formula candidates",
+        () -> merged.parallelStream().map(range -> generate(elements, isotopes, range, isCanceled))
+            .toList());
+
+    final DoubleArrayList masses = new DoubleArrayList();
+    final IntArrayList counts = new IntArrayList();
+    for (final Generated g : generated) {
+      masses.addAll(g.masses());
+      counts.addAll(g.counts());
+    }
+
+    // stable sort keeps the generator order of equal masses
+    final double[] unsortedMasses = masses.toDoubleArray();
+    final int[] order = new int[unsortedMasses.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    IntArrays.mergeSort(order, (a, b) -> Double.compare(unsortedMasses[a], unsortedMasses[b]));
+
+    final int numIsotopes = isotopes.length;
+    final double[] sortedMasses = new double[order.length];
+    final int[] sortedCounts = new int[order.length * numIsotopes];
+    for (int i = 0; i < order.length; i++) {
+      sortedMasses[i] = unsortedMasses[order[i]];
+      counts.getElements(order[i] * numIsotopes, sortedCounts, i * numIsotopes, numIsotopes);
+    }
+
+    logger.finest(() -> "Generated %d candidate formulas in %d merged mass ranges".formatted(
+        sortedMasses.length, merged.size()));
+    return new FormulaCandidateTable(isotopes, sortedMasses, sortedCounts);
+  }
+
+  private static List<Range<Double>> mergeOverlapping(final List<Range<Double>> ranges) {
+    final List<Range<Double>> sorted = new ArrayList<>(ranges);
+    sorted.sort(Comparator.comparingDouble(Range::lowerEndpoint));
+
+    final List<Range<Double>> merged = new ArrayList<>();
+    Range<Double> current = null;
+    for (final Range<Double> range : sorted) {
+      if (current != null && range.lowerEndpoint() <= current.upperEndpoint()) {
+        current = current.span(range);
+      } else {
+        if (current != null) {
+          merged.add(current);
+        }
+        current = range;
+      }
+    }
+    if (current != null) {
+      merged.add(current);
+    }
+    return merged;
+  }
+
+  private static Generated generate(final MolecularFormulaRange elements,
+      final IIsotope[] isotopes, final Range<Double> range, final BooleanSupplier isCanceled) {
+    final IChemObjectBuilder builder = SilentChemObjectBuilder.getInstance();
+    final MolecularFormulaGenerator generator = new MolecularFormulaGenerator(builder,
+        range.lowerEndpoint(), range.upperEndpoint(), elements);
+
+    final DoubleArrayList masses = new DoubleArrayList();
+    final IntArrayList counts = new IntArrayList();
+    IMolecularFormula formula;
+    while (!isCanceled.getAsBoolean() && (formula = generator.getNextFormula()) != null) {
+      double mass = 0;
+      for (final IIsotope isotope : isotopes) {
+        final int count = formula.getIsotopeCount(isotope);
+        counts.add(count);
+        mass += count * isotope.getExactMass();
+      }
+      masses.add(mass);
+    }
+    return new Generated(masses, counts);
+  }
+
+  /**
+   * @return number of candidate formulas
+   */
+  public int size() {
+    return masses.length;
+  }
+
+  /**
+   * @param massRange neutral mass range
+   * @return new formula instances within the mass range in ascending mass order
+   */
+  @NotNull
+  public List<IMolecularFormula> getCandidates(@NotNull final Range<Double> massRange) {
+    final IChemObjectBuilder builder = SilentChemObjectBuilder.getInstance();
+    final List<IMolecularFormula> formulas = new ArrayList<>();
+    for (int i = lowerBound(massRange.lowerEndpoint());
+        i < masses.length && masses[i] <= massRange.upperEndpoint(); i++) {
+      final IMolecularFormula formula = builder.newInstance(IMolecularFormula.class);
+      for (int e = 0; e < isotopes.length; e++) {
+        final int count = counts[i * isotopes.length + e];
+        if (count > 0) {
+          formula.addIsotope(isotopes[e], count);
+        }
+      }
+      formulas.add(formula);
+    }
+    return formulas;
+  }
+
+  /**
+   * @return first index with a mass >= the given mass
+   */
+  private int lowerBound(final double mass) {
+    int low = 0;
+    int high = masses.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (masses[mid] < mass) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private record Generated(DoubleArrayList masses, IntArrayList counts) {
+
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -35,6 +35,7 @@ import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.ParameterSet;
 import io.github.mzmine.parameters.impl.IonMobilitySupport;
 import io.github.mzmine.parameters.impl.SimpleParameterSet;
+import io.github.mzmine.parameters.parametertypes.BooleanParameter;
 import io.github.mzmine.parameters.parametertypes.ComboParameter;
 import io.github.mzmine.parameters.parametertypes.DoubleParameter;
 import io.github.mzmine.parameters.parametertypes.IntegerParameter;
@@ -92,10 +93,19 @@ public class FormulaPredictionFeatureListParameters extends SimpleParameterSet {
       "Exclude masses above the given m/z ratio as computation for high m/zs will take more time.",
       ConfigService.getGuiFormats().mzFormat(), 800d, 0d, Double.MAX_VALUE);
 
+  public static final BooleanParameter sharedCandidates = new BooleanParameter(
+      "Shared candidate formulas", """
+      Generates the candidate formulas once for the mass windows of all features and looks them \
+      up per feature. Faster if many features have overlapping mass windows. Candidates are \
+      checked in ascending mass order, which only changes the order of unsorted results. \
+      Predicted isotope patterns are cached for all features.""",
+      false);
+
   public FormulaPredictionFeatureListParameters() {
     super(
         new Parameter[]{FEATURE_LISTS, ionization, sorting, mzTolerance, maxBestFormulasPerFeature,
-            elements, elementalRatios, rdbeRestrictions, isotopeFilter, msmsFilter, highMassLimit},
+            elements, elementalRatios, rdbeRestrictions, isotopeFilter, msmsFilter, highMassLimit,
+            sharedCandidates},
         "https://mzmine.github.io/mzmine_documentation/module_docs/id_spectra_chem_formula/chem-formula-pred.html");
   }
 
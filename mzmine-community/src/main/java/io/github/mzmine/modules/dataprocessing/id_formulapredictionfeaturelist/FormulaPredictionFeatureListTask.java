@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2025 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -25,11 +25,15 @@
 package io.github.mzmine.modules.dataprocessing.id_formulapredictionfeaturelist;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.IonizationType;
 import io.github.mzmine.datamodel.features.FeatureListRow;
 import io.github.mzmine.datamodel.features.ModularFeatureList;
 import io.github.mzmine.datamodel.features.SimpleFeatureListAppliedMethod;
 import io.github.mzmine.datamodel.features.types.DataTypes;
+import io.github.mzmine.modules.dataprocessing.id_formulaprediction.FormulaCandidateTable;
 import io.github.mzmine.parameters.ParameterSet;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
 import io.github.mzmine.taskcontrol.AbstractTask;
 import io.github.mzmine.taskcontrol.AllTasksFinishedListener;
 import io.github.mzmine.taskcontrol.Task;
@@ -43,6 +47,7 @@ import io.github.mzmine.taskcontrol.utils.TaskUtils;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -110,10 +115,17 @@ public class FormulaPredictionFeatureListTask extends AbstractTask {
     // across the different lists. Just keeping all threads active until all rows are processed is easier
     final var rows = new ConcurrentLinkedQueue<>(flist.getRowsCopy());
 
+    final FormulaCandidateTable candidateTable =
+        parameters.getValue(FormulaPredictionFeatureListParameters.sharedCandidates)
+            ? createCandidateTable(rows) : null;
+    if (isCanceled()) {
+      return;
+    }
+
     final List<FormulaPredictionSubTask> subTasks = new ArrayList<>();
     for (int i = 0; i < numSubtasks; i++) {
       final FormulaPredictionSubTask task = new FormulaPredictionSubTask(parameters, moduleCallDate,
-          rows);
+          rows, candidateTable);
       subTasks.add(task);
     }
     wrappedTasks = TaskService.getController().addTasks(subTasks.toArray(Task[]::new));
@@ -135,4 +147,27 @@ public class FormulaPredictionFeatureListTask extends AbstractTask {
     setStatus(TaskStatus.FINISHED);
   }
 
+  /**
+   * Generates the candidate formulas for the mass windows of all rows below the high mass limit
+   */
+  @NotNull
+  private FormulaCandidateTable createCandidateTable(@NotNull Collection<FeatureListRow> rows) {
+    message = "Generating candidate formulas for feature list " + flist;
+    final IonizationType fallbackIon = parameters.getValue(
+        FormulaPredictionFeatureListParameters.ionization);
+    final MZTolerance mzTolerance = parameters.getValue(
+        FormulaPredictionFeatureListParameters.mzTolerance);
+    final double highMassLimit = parameters.getValue(
+        FormulaPredictionFeatureListParameters.highMassLimit);
+
+    final List<Range<Double>> massRanges = rows.stream()
+        .filter(row -> row.getAverageMZ() <= highMassLimit).map(
+            row -> mzTolerance.getToleranceRange(
+                FormulaPredictionSubTask.getSearchedMass(row, fallbackIon))).toList();
+    final FormulaCandidateTable table = FormulaCandidateTable.build(
+        parameters.getValue(FormulaPredictionFeatureListParameters.elements), massRanges,
+        this::isCanceled);
+    message = "Formula Prediction for feature list " + flist;
+    return table;
+  }
 }
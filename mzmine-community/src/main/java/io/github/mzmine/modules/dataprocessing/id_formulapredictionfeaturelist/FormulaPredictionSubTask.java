@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2025 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -34,6 +34,7 @@ import io.github.mzmine.datamodel.features.FeatureListRow;
 import io.github.mzmine.datamodel.identities.iontype.IonType;
 import io.github.mzmine.main.ConfigService;
 import io.github.mzmine.modules.dataprocessing.id_formula_sort.FormulaSortParameters;
+import io.github.mzmine.modules.dataprocessing.id_formulaprediction.FormulaCandidateTable;
 import io.github.mzmine.modules.dataprocessing.id_formulaprediction.ResultFormula;
 import io.github.mzmine.modules.dataprocessing.id_formulaprediction.restrictions.elements.ElementalHeuristicChecker;
 import io.github.mzmine.modules.dataprocessing.id_formulaprediction.restrictions.elements.ElementalHeuristicParameters;
@@ -41,6 +42,7 @@ import io.github.mzmine.modules.dataprocessing.id_formulaprediction.restrictions
 import io.github.mzmine.modules.dataprocessing.id_formulaprediction.restrictions.rdbe.RDBERestrictionParameters;
 import io.github.mzmine.modules.tools.isotopepatternscore.IsotopePatternScoreCalculator;
 import io.github.mzmine.modules.tools.isotopepatternscore.IsotopePatternScoreParameters;
+import io.github.mzmine.modules.tools.isotopeprediction.IsotopePatternCache;
 import io.github.mzmine.modules.tools.isotopeprediction.IsotopePatternCalculator;
 import io.github.mzmine.modules.tools.msmsscore.MSMSScore;
 import io.github.mzmine.modules.tools.msmsscore.MSMSScoreCalculator;
@@ -60,6 +62,7 @@ import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Logger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.openscience.cdk.formula.MolecularFormulaGenerator;
 import org.openscience.cdk.formula.MolecularFormulaRange;
 import org.openscience.cdk.interfaces.IChemObjectBuilder;
@@ -99,13 +102,18 @@ class FormulaPredictionSubTask extends AbstractTask {
   private int topNmsmsSignals;
   private MZTolerance msmsMzTolerance;
   private final double highMassLimit;
+  @Nullable
+  private final FormulaCandidateTable candidateTable;
 
   /**
    * @param parameters
+   * @param candidateTable shared candidates for all rows or null to generate them per row. Also
+   *                       enables the cache of predicted isotope patterns.
    */
   FormulaPredictionSubTask(ParameterSet parameters, @NotNull Instant moduleCallDate,
-      ConcurrentLinkedQueue<FeatureListRow> rows) {
+      ConcurrentLinkedQueue<FeatureListRow> rows, @Nullable FormulaCandidateTable candidateTable) {
     super(null, moduleCallDate); // no new data stored -> null
+    this.candidateTable = candidateTable;
 
     ionType = parameters.getParameter(FormulaPredictionFeatureListParameters.ionization).getValue();
     mzTolerance = parameters.getParameter(FormulaPredictionFeatureListParameters.mzTolerance)
@@ -213,31 +221,44 @@ class FormulaPredictionSubTask extends AbstractTask {
         continue;
       }
 
-      final Optional<IonType> it = FeatureUtils.extractBestIonIdentity(null, row);
-      final double searchedMass = it.map(ion -> ion.getMass(rowMz))
-          .orElse((rowMz - ionType.getAddedMass()) * Math.abs(ionType.getCharge()));
+      final double searchedMass = getSearchedMass(row, ionType);
 
       final Range<Double> massRange = mzTolerance.getToleranceRange(searchedMass);
 
       message = "Formula prediction for " + ConfigService.getGuiFormats().mz(searchedMass);
 
-      generator = new MolecularFormulaGenerator(builder, massRange.lowerEndpoint(),
-          massRange.upperEndpoint(), elementCounts);
+      if (candidateTable != null) {
+        // candidates were generated once for all rows
+        for (final IMolecularFormula cdkFormula : candidateTable.getCandidates(massRange)) {
+          final ResultFormula molf = checkConstraints(cdkFormula, row, searchedMass);
 
-      IMolecularFormula cdkFormula = null;
-
-      // create a map to store ResultFormula and relative mass deviation
-      // for sorting
-      while ((cdkFormula = generator.getNextFormula()) != null) {
-        // Mass is ok, so test other constraints
-        ResultFormula molf = checkConstraints(cdkFormula, row, searchedMass);
+          if (isCanceled()) {
+            return;
+          }
 
-        if (isCanceled()) {
-          return;
+          if (molf != null) {
+            resultingFormulas.add(molf);
+          }
         }
+      } else {
+        generator = new MolecularFormulaGenerator(builder, massRange.lowerEndpoint(),
+            massRange.upperEndpoint(), elementCounts);
+
+        IMolecularFormula cdkFormula = null;
+
+        // create a map to store ResultFormula and relative mass deviation
+        // for sorting
+        while ((cdkFormula = generator.getNextFormula()) != null) {
+          // Mass is ok, so test other constraints
+          ResultFormula molf = checkConstraints(cdkFormula, row, searchedMass);
+
+          if (isCanceled()) {
+            return;
+          }
 
-        if (molf != null) {
-          resultingFormulas.add(molf);
+          if (molf != null) {
+            resultingFormulas.add(molf);
+          }
         }
       }
 
@@ -263,6 +284,17 @@ class FormulaPredictionSubTask extends AbstractTask {
     setStatus(TaskStatus.FINISHED);
   }
 
+  /**
+   * @param fallbackIon used if the row has no ion identity
+   * @return the neutral mass to search formulas for
+   */
+  static double getSearchedMass(@NotNull FeatureListRow row, @NotNull IonizationType fallbackIon) {
+    final double rowMz = row.getAverageMZ();
+    final Optional<IonType> it = FeatureUtils.extractBestIonIdentity(null, row);
+    return it.map(ion -> ion.getMass(rowMz))
+        .orElse((rowMz - fallbackIon.getAddedMass()) * Math.abs(fallbackIon.getCharge()));
+  }
+
   /**
    * @param cdkFormula
    * @return null if molecular formula does not match requirements
@@ -296,8 +328,12 @@ class FormulaPredictionSubTask extends AbstractTask {
       final double detectedPatternHeight = detectedPattern.getBasePeakIntensity();
       final double minPredictedAbundance = isotopeNoiseLevel / detectedPatternHeight;
 
-      predictedIsotopePattern = IsotopePatternCalculator.calculateIsotopePattern(clonedFormula,
-          minPredictedAbundance, ionType.getCharge(), ionType.getPolarity());
+      // the shared candidates are scored for many rows, so their patterns are cached
+      predictedIsotopePattern = candidateTable != null
+          ? IsotopePatternCache.calculateIsotopePattern(clonedFormula, minPredictedAbundance,
+          ionType.getCharge(), ionType.getPolarity())
+          : IsotopePatternCalculator.calculateIsotopePattern(clonedFormula, minPredictedAbundance,
+              ionType.getCharge(), ionType.getPolarity());
 
       isotopeScore = IsotopePatternScoreCalculator.getSimilarityScore(detectedPattern,
           predictedIsotopePattern, isotopeMZTolerance, isotopeNoiseLevel);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -35,6 +35,7 @@ import io.github.mzmine.modules.tools.msmsscore.MSMSScoreParameters;
 import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.impl.IonMobilitySupport;
 import io.github.mzmine.parameters.impl.SimpleParameterSet;
+import io.github.mzmine.parameters.parametertypes.BooleanParameter;
 import io.github.mzmine.parameters.parametertypes.DoubleParameter;
 import io.github.mzmine.parameters.parametertypes.OptionForValues;
 import io.github.mzmine.parameters.parametertypes.OptionForValuesParameter;
@@ -88,6 +89,13 @@ public class FormulaPredictionIonNetworkParameters extends SimpleParameterSet {
   public static final OptionalModuleParameter<MSMSScoreParameters> msmsFilter = new OptionalModuleParameter<>(
       "MS/MS filter", "Check MS/MS data", new MSMSScoreParameters(), true);
 
+  public static final BooleanParameter sharedCandidates = new BooleanParameter(
+      "Shared candidate formulas", """
+      Generates the candidate formulas once for the mass windows of all ions and looks them up \
+      per ion. Faster if many ions have overlapping mass windows. Candidates are checked in \
+      ascending mass order, which only changes the order of unsorted results. Predicted isotope \
+      patterns are cached for all ions.""", false);
+
   public FormulaPredictionIonNetworkParameters() {
     this(false);
   }
@@ -95,9 +103,9 @@ public class FormulaPredictionIonNetworkParameters extends SimpleParameterSet {
   public FormulaPredictionIonNetworkParameters(boolean isSub) {
     super(isSub ? //
         new Parameter[]{ppmOffset, sorting, elements, handleHigherMz, elementalRatios,
-            rdbeRestrictions, isotopeFilter, msmsFilter}
+            rdbeRestrictions, isotopeFilter, msmsFilter, sharedCandidates}
         : new Parameter[]{PEAK_LISTS, mzTolerance, ppmOffset, sorting, elements, handleHigherMz,
-            elementalRatios, rdbeRestrictions, isotopeFilter, msmsFilter});
+            elementalRatios, rdbeRestrictions, isotopeFilter, msmsFilter, sharedCandidates});
   }
 
   @Override
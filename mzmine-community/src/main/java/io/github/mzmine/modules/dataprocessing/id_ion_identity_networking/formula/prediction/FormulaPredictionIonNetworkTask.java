@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2025 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -38,6 +38,7 @@ import io.github.mzmine.datamodel.identities.iontype.IonNetworkLogic;
 import io.github.mzmine.datamodel.identities.iontype.IonType;
 import io.github.mzmine.modules.dataprocessing.id_formula_sort.FormulaSortParameters;
 import io.github.mzmine.modules.dataprocessing.id_formula_sort.FormulaSortTask;
+import io.github.mzmine.modules.dataprocessing.id_formulaprediction.FormulaCandidateTable;
 import io.github.mzmine.modules.dataprocessing.id_formulaprediction.ResultFormula;
 import io.github.mzmine.modules.dataprocessing.id_formulaprediction.restrictions.elements.ElementalHeuristicChecker;
 import io.github.mzmine.modules.dataprocessing.id_formulaprediction.restrictions.elements.ElementalHeuristicParameters;
@@ -46,6 +47,7 @@ import io.github.mzmine.modules.dataprocessing.id_formulaprediction.restrictions
 import io.github.mzmine.modules.dataprocessing.id_ion_identity_networking.formula.createavgformulas.CreateAvgNetworkFormulasTask;
 import io.github.mzmine.modules.tools.isotopepatternscore.IsotopePatternScoreCalculator;
 import io.github.mzmine.modules.tools.isotopepatternscore.IsotopePatternScoreParameters;
+import io.github.mzmine.modules.tools.isotopeprediction.IsotopePatternCache;
 import io.github.mzmine.modules.tools.isotopeprediction.IsotopePatternCalculator;
 import io.github.mzmine.modules.tools.msmsscore.MSMSScore;
 import io.github.mzmine.modules.tools.msmsscore.MSMSScoreCalculator;
@@ -60,9 +62,10 @@ import io.github.mzmine.util.FormulaUtils;
 import java.text.MessageFormat;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -95,7 +98,9 @@ public class FormulaPredictionIonNetworkTask extends AbstractTask {
   private final boolean sortResults;
   private final CreateAvgNetworkFormulasTask netFormulaMerger;
   private final OptionForValues handleHigherMz;
-  private final HashMap<IMolecularFormula, IsotopePattern> predictedPattern = new HashMap<>(1000);
+  private final boolean sharedCandidates;
+  @Nullable
+  private FormulaCandidateTable candidateTable;
   private MolecularFormulaGenerator generator;
   private String message;
   private int totalRows;
@@ -118,6 +123,7 @@ public class FormulaPredictionIonNetworkTask extends AbstractTask {
     ppmOffset = parameters.getValue(FormulaPredictionIonNetworkParameters.ppmOffset);
 
     handleHigherMz = parameters.getValue(FormulaPredictionIonNetworkParameters.handleHigherMz);
+    sharedCandidates = parameters.getValue(FormulaPredictionIonNetworkParameters.sharedCandidates);
 
     checkIsotopes = parameters.getParameter(FormulaPredictionIonNetworkParameters.isotopeFilter)
         .getValue();
@@ -210,6 +216,15 @@ public class FormulaPredictionIonNetworkTask extends AbstractTask {
       return;
     }
 
+    if (sharedCandidates) {
+      message = "Generating candidate formulas (MS annotation networks)";
+      candidateTable = FormulaCandidateTable.build(elementCounts, getMassRanges(nets),
+          this::isCanceled);
+      if (isCanceled()) {
+        return;
+      }
+    }
+
     // parallel
     nets.forEach(net -> {
       message = "Formula prediction on network " + net.getID();
@@ -223,10 +238,72 @@ public class FormulaPredictionIonNetworkTask extends AbstractTask {
     setStatus(TaskStatus.FINISHED);
   }
 
+  /**
+   * @return the mass windows of all networks and ions that are predicted
+   */
+  private List<Range<Double>> getMassRanges(List<IonNetwork> nets) {
+    final List<Range<Double>> ranges = new ArrayList<>();
+    for (final IonNetwork net : nets) {
+      if (isSimplifiedOrExcluded(net)) {
+        if (handleHigherMz.option() == ValueOption.SIMPLIFY) {
+          ranges.add(mzTolerance.getToleranceRange(correctByPpmOffset(net.getNeutralMass())));
+        }
+        continue;
+      }
+      net.forEach((row, ion) -> {
+        if (!ion.getIonType().isUndefinedAdduct()) {
+          ranges.add(mzTolerance.getToleranceRange(
+              correctByPpmOffset(ion.getIonType().getMass(row.getAverageMZ()))));
+        }
+      });
+    }
+    return ranges;
+  }
+
+  private boolean isSimplifiedOrExcluded(IonNetwork net) {
+    return handleHigherMz.option() != ValueOption.INCLUDE && handleHigherMz.checkValue(
+        net.getNeutralMass());
+  }
+
+  private double correctByPpmOffset(double mass) {
+    return mass + mass * ppmOffset / 1E6;
+  }
+
+  /**
+   * @return the candidate formulas within the mass range, either from the shared table or from a
+   * new generator
+   */
+  private Iterable<IMolecularFormula> getCandidates(Range<Double> massRange) {
+    if (candidateTable != null) {
+      return candidateTable.getCandidates(massRange);
+    }
+    IChemObjectBuilder builder = SilentChemObjectBuilder.getInstance();
+    final MolecularFormulaGenerator gen = new MolecularFormulaGenerator(builder,
+        massRange.lowerEndpoint(), massRange.upperEndpoint(), elementCounts);
+    generator = gen;
+    return () -> new Iterator<>() {
+      private IMolecularFormula next = gen.getNextFormula();
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public IMolecularFormula next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        final IMolecularFormula current = next;
+        next = gen.getNextFormula();
+        return current;
+      }
+    };
+  }
+
   @Nullable
   public List<ResultFormula> predictFormulasForNetwork(IonNetwork net) {
-    if (handleHigherMz.option() != ValueOption.INCLUDE && handleHigherMz.checkValue(
-        net.getNeutralMass())) {
+    if (isSimplifiedOrExcluded(net)) {
       if (handleHigherMz.option() == ValueOption.EXCLUDE) {
         return null;
       } else if (handleHigherMz.option() == ValueOption.SIMPLIFY) {
@@ -259,18 +336,12 @@ public class FormulaPredictionIonNetworkTask extends AbstractTask {
 
   private List<ResultFormula> predictFormulas(FeatureListRow row, IonType ion) {
     List<ResultFormula> resultingFormulas = new ArrayList<>();
-    double searchedMass = ion.getMass(row.getAverageMZ());
     // correct by ppm offset
-    searchedMass += searchedMass * ppmOffset / 1E6;
+    double searchedMass = correctByPpmOffset(ion.getMass(row.getAverageMZ()));
 
     Range<Double> massRange = mzTolerance.getToleranceRange(searchedMass);
 
-    IChemObjectBuilder builder = SilentChemObjectBuilder.getInstance();
-    generator = new MolecularFormulaGenerator(builder, massRange.lowerEndpoint(),
-        massRange.upperEndpoint(), elementCounts);
-
-    IMolecularFormula cdkFormula;
-    while ((cdkFormula = generator.getNextFormula()) != null) {
+    for (final IMolecularFormula cdkFormula : getCandidates(massRange)) {
       // ionized formula
       IMolecularFormula cdkFormulaIon = ion.addToFormula(cdkFormula, true);
 
@@ -297,18 +368,12 @@ public class FormulaPredictionIonNetworkTask extends AbstractTask {
       resultingFormulas[i] = new ArrayList<>();
     }
 
-    double searchedMass = net.getNeutralMass();
     // correct by ppm offset
-    searchedMass += searchedMass * ppmOffset / 1E6;
+    double searchedMass = correctByPpmOffset(net.getNeutralMass());
 
     Range<Double> massRange = mzTolerance.getToleranceRange(searchedMass);
 
-    IChemObjectBuilder builder = SilentChemObjectBuilder.getInstance();
-    generator = new MolecularFormulaGenerator(builder, massRange.lowerEndpoint(),
-        massRange.upperEndpoint(), elementCounts);
-
-    IMolecularFormula cdkFormula;
-    while ((cdkFormula = generator.getNextFormula()) != null) {
+    for (final IMolecularFormula cdkFormula : getCandidates(massRange)) {
       for (int i = 0; i < net.size(); i++) {
         final FeatureListRow row = entries.get(i).row();
         final IonType ion = entries.get(i).ion().getIonType();
@@ -376,9 +441,12 @@ public class FormulaPredictionIonNetworkTask extends AbstractTask {
       final double detectedPatternHeight = detectedPattern.getBasePeakIntensity();
       final double minPredictedAbundance = isotopeNoiseLevel / detectedPatternHeight;
 
-      predictedIsotopePattern = predictedPattern.computeIfAbsent(cdkFormulaIon,
-          key -> IsotopePatternCalculator.calculateIsotopePattern(cdkFormulaIon,
-              minPredictedAbundance, charge, ionType.getPolarity()));
+      // the shared candidates are scored for many ions, so their patterns are cached
+      predictedIsotopePattern = sharedCandidates
+          ? IsotopePatternCache.calculateIsotopePattern(cdkFormulaIon, minPredictedAbundance,
+          charge, ionType.getPolarity())
+          : IsotopePatternCalculator.calculateIsotopePattern(cdkFormulaIon, minPredictedAbundance,
+              charge, ionType.getPolarity());
 
       isotopeScore = IsotopePatternScoreCalculator.getSimilarityScore(detectedPattern,
           predictedIsotopePattern, isotopeMZTolerance, isotopeNoiseLevel);
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.mzmine.modules.dataprocessing.id_localcsvsearch;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.opencsv.exceptions.CsvException;
+import io.github.mzmine.util.CSVParsingUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Keeps the parsed lines of recently searched database files, so that repeated searches, e.g., in
+ * batch runs, read and parse a file only once. A changed file (modification time or size) is read
+ * again. Results are the same as {@link CSVParsingUtils#readData(File, String)}.
+ * <p>
+ * Cached lines are shared between callers and must not be changed.
+ */
+final class LocalCSVDatabaseCache {
+
+  private static final Cache<Key, List<String[]>> CACHE = Caffeine.newBuilder().maximumSize(4)
+      .softValues().build();
+
+  private LocalCSVDatabaseCache() {
+  }
+
+  @NotNull
+  static List<String[]> readData(@NotNull final File file, @NotNull final String separator)
+      throws IOException, CsvException {
+    final Path path = file.toPath().toAbsolutePath();
+    final Key key = new Key(path.toString(), Files.getLastModifiedTime(path).toMillis(),
+        Files.size(path), separator);
+    List<String[]> lines = CACHE.getIfPresent(key);
+    if (lines == null) {
+      lines = List.copyOf(CSVParsingUtils.readData(file, separator));
+      CACHE.put(key, lines);
+    }
+    return lines;
+  }
+
+  static void clear() {
+    CACHE.invalidateAll();
+  }
+
+  private record Key(@NotNull String path, long lastModified, long size,
+                     @NotNull String separator) {
+
+  }
+}
@@ -208,6 +208,13 @@ public class LocalCSVDatabaseSearchParameters extends SimpleParameterSet {
       regardless of charge state.""".formatted(ionLibrary.getName(),
       new IonTypeType().getHeaderString()), ChargeFilterType.values(), ChargeFilterType.NO_FILTER);
 
+  public static final ComboParameter<LocalCSVSearchEngine> engine = new ComboParameter<>(
+      "Search engine", """
+      Per database line searches the feature lists for each line of the database. Sorted merge \
+      sorts all compound m/z values once and joins them with all feature lists in parallel. It \
+      also keeps the parsed database file for following searches. Both find the same matches.""",
+      LocalCSVSearchEngine.values(), LocalCSVSearchEngine.PER_LINE);
+
   // old parameter
   private final StringParameter commentFields = new StringParameter("Append comment fields",
       "Multiple fields separated by comma that are appended to the comment. Like: Pathway,Synonyms",
@@ -218,7 +225,7 @@ public class LocalCSVDatabaseSearchParameters extends SimpleParameterSet {
         "https://mzmine.github.io/mzmine_documentation/module_docs/id_prec_local_cmpd_db/local-cmpd-db-search.html",
         peakLists, dataBaseFile, fieldSeparator, columns, mzTolerance, rtTolerance, mobTolerance,
         ccsTolerance, riTolerance, chargeFilter, isotopePatternMatcher, ionLibrary,
-        calculateMainSignal, filterSamples, extraColumns);
+        calculateMainSignal, filterSamples, extraColumns, engine);
   }
 
   @Override
@@ -46,13 +46,18 @@ import io.github.mzmine.taskcontrol.TaskStatus;
 import io.github.mzmine.util.CSVParsingUtils;
 import io.github.mzmine.util.FeatureListRowSorter;
 import io.github.mzmine.util.FeatureListUtils;
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import java.io.File;
 import java.nio.file.NoSuchFileException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -91,6 +96,7 @@ public class LocalCSVDatabaseSearchTask extends AbstractTask {
   private final ExtraColumnHandler extraColumnHandler;
   private final boolean calcMainSignal;
   private final ChargeFilterType chargeFilter;
+  private final LocalCSVSearchEngine engine;
 
   private List<String[]> databaseValues;
   private int finishedLines = 0;
@@ -128,6 +134,7 @@ public class LocalCSVDatabaseSearchTask extends AbstractTask {
     sampleHeader = parameters.getParameter(LocalCSVDatabaseSearchParameters.filterSamples)
         .getEmbeddedParameter().getValue();
     chargeFilter = parameters.getValue(LocalCSVDatabaseSearchParameters.chargeFilter);
+    engine = parameters.getValue(LocalCSVDatabaseSearchParameters.engine);
 
     extraColumnHandler = new ExtraColumnHandler(
         parameters.getValue(LocalCSVDatabaseSearchParameters.extraColumns));
@@ -172,7 +179,10 @@ public class LocalCSVDatabaseSearchTask extends AbstractTask {
 
     try {
       // read database contents in memory
-      databaseValues = CSVParsingUtils.readData(dataBaseFile, fieldSeparator);
+      databaseValues = switch (engine) {
+        case PER_LINE -> CSVParsingUtils.readData(dataBaseFile, fieldSeparator);
+        case SORTED_MERGE -> LocalCSVDatabaseCache.readData(dataBaseFile, fieldSeparator);
+      };
     } catch (NoSuchFileException e) {
       error("File %s does not exist.".formatted(
           Objects.requireNonNullElse(dataBaseFile, "File does not exist.")));
@@ -211,26 +221,14 @@ public class LocalCSVDatabaseSearchTask extends AbstractTask {
       var lib = parameters.getOptionalValue(LocalCSVDatabaseSearchParameters.ionLibrary);
       ionLibrary = lib.map(l -> l.filterPolarity(polarity)).orElse(null);
 
-      for (String[] currentLine : databaseValues) {
-        if (finishedLines == 0) {
-          finishedLines++;
-          continue; // skip header
-        }
-        if (isCanceled()) {
-          return;
-        }
-        try {
-          // check already once for all raw data files
-          if (filterSamples && !matchSample(allRawDataFiles, currentLine[sampleColIndex])) {
-            // sample mismatch for this line
-            continue;
-          }
-
-          processOneLine(mzSortedRows, currentLine, lineIds, databaseValues.getFirst());
-        } catch (Exception e) {
-          logger.log(Level.FINE, "Exception while processing csv line " + finishedLines, e);
-        }
-        finishedLines++;
+      // the sweep needs the m/z tolerance ranges
+      if (engine == LocalCSVSearchEngine.SORTED_MERGE && mzTolerance != null) {
+        matchSortedMerge(mzSortedRows, lineIds, mzTolerance);
+      } else {
+        matchPerLine(mzSortedRows, lineIds);
+      }
+      if (isCanceled()) {
+        return;
       }
 
       for (final SortedList<FeatureListRow> flist : mzSortedRows) {
@@ -266,6 +264,113 @@ public class LocalCSVDatabaseSearchTask extends AbstractTask {
 
   }
 
+  private void matchPerLine(final List<SortedList<FeatureListRow>> mzSortedRows,
+      final List<ImportType<?>> lineIds) {
+    for (String[] currentLine : databaseValues) {
+      if (finishedLines == 0) {
+        finishedLines++;
+        continue; // skip header
+      }
+      if (isCanceled()) {
+        return;
+      }
+      try {
+        // check already once for all raw data files
+        if (filterSamples && !matchSample(allRawDataFiles, currentLine[sampleColIndex])) {
+          // sample mismatch for this line
+          continue;
+        }
+
+        processOneLine(mzSortedRows, currentLine, lineIds, databaseValues.getFirst());
+      } catch (Exception e) {
+        logger.log(Level.FINE, "Exception while processing csv line " + finishedLines, e);
+      }
+      finishedLines++;
+    }
+  }
+
+  /**
+   * Creates the annotations of all lines once and joins them with each feature list in parallel.
+   * Matches are added to each row in database order, like {@link #matchPerLine(List, List)}.
+   */
+  private void matchSortedMerge(final List<SortedList<FeatureListRow>> mzSortedRows,
+      final List<ImportType<?>> lineIds, @NotNull final MZTolerance mzTolerance) {
+    final String[] csvHeaders = databaseValues.getFirst();
+    final List<CompoundDBAnnotation> annotations = new ArrayList<>();
+    final IntArrayList lines = new IntArrayList();
+    finishedLines = 1; // header
+    for (int i = 1; i < databaseValues.size(); i++) {
+      if (isCanceled()) {
+        return;
+      }
+      final String[] currentLine = databaseValues.get(i);
+      try {
+        // check already once for all raw data files
+        if (filterSamples && !matchSample(allRawDataFiles, currentLine[sampleColIndex])) {
+          // sample mismatch for this line
+          continue;
+        }
+
+        for (CompoundDBAnnotation annotation : getCompoundDBAnnotations(currentLine, lineIds,
+            csvHeaders, extraColumnHandler, ionLibrary)) {
+          if (annotation.getPrecursorMZ() != null) {
+            annotations.add(annotation);
+            lines.add(i);
+          }
+        }
+      } catch (Exception e) {
+        logger.log(Level.FINE, "Exception while processing csv line " + finishedLines, e);
+      }
+      finishedLines++;
+    }
+
+    final SortedCompoundDatabase database = new SortedCompoundDatabase(annotations,
+        lines.toIntArray(), mzTolerance);
+    ThreadPoolUtils.runParallel("Local CSV database search",
+        () -> IntStream.range(0, featureLists.length).parallel().forEach(i -> {
+          if (!isCanceled()) {
+            annotateSortedMerge(database, featureLists[i].getRawDataFiles(),
+                mzSortedRows.get(i), mzTolerance);
+          }
+        }));
+  }
+
+  private void annotateSortedMerge(@NotNull final SortedCompoundDatabase database,
+      @NotNull final List<RawDataFile> rawFiles, @NotNull final List<FeatureListRow> sortedRows,
+      @NotNull final MZTolerance mzTolerance) {
+    final double[] rowMzs = sortedRows.stream().mapToDouble(FeatureListRow::getAverageMZ)
+        .toArray();
+    // not all feature lists have all samples
+    final Map<String, Boolean> sampleMatches = new HashMap<>();
+    final List<SortedMergeMatch> matches = new ArrayList<>();
+
+    database.forEachCandidate(rowMzs, sortedRows, rtTolerance, mobTolerance, (index, r) -> {
+      if (filterSamples) {
+        final String sample = databaseValues.get(database.getLine(index))[sampleColIndex];
+        if (!sampleMatches.computeIfAbsent(sample, s -> matchSample(rawFiles, s))) {
+          return;
+        }
+      }
+      final CompoundDBAnnotation annotation = database.getAnnotation(index);
+      final FeatureListRow row = sortedRows.get(r);
+      if (!chargeFilter.matches(row, annotation)) {
+        return;
+      }
+      final CompoundDBAnnotation clone = annotation.checkMatchAndCalculateDeviation(row,
+          mzTolerance, rtTolerance, mobTolerance, ccsTolerance, riTolerance);
+      if (clone != null) {
+        matches.add(new SortedMergeMatch(r, index, clone));
+      }
+    });
+
+    // same order of annotations per row as the per line search
+    matches.sort(Comparator.comparingInt(SortedMergeMatch::row)
+        .thenComparingInt(SortedMergeMatch::annotation));
+    for (SortedMergeMatch match : matches) {
+      sortedRows.get(match.row()).addCompoundAnnotation(match.clone());
+    }
+  }
+
   private static PolarityType findPolarity(List<SortedList<FeatureListRow>> mzSortedRows) {
     PolarityType polarity = PolarityType.ANY;
     for (SortedList<FeatureListRow> rows : mzSortedRows) {
@@ -411,4 +516,8 @@ public class LocalCSVDatabaseSearchTask extends AbstractTask {
       r.run();
     }
   }
+
+  private record SortedMergeMatch(int row, int annotation, @NotNull CompoundDBAnnotation clone) {
+
+  }
 }
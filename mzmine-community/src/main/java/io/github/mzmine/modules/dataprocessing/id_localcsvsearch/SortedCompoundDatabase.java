@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.mzmine.modules.dataprocessing.id_localcsvsearch;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.datamodel.features.compoundannotations.CompoundDBAnnotation;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.parameters.parametertypes.tolerances.RTTolerance;
+import io.github.mzmine.parameters.parametertypes.tolerances.mobilitytolerance.MobilityTolerance;
+import io.github.mzmine.util.FeatureListUtils;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * All annotations (ions, adducts and main isotope signals) of a compound database with their m/z
+ * tolerance ranges, sorted by the lower bound. Joins these ranges with the m/z sorted rows of a
+ * feature list in a single sweep instead of one binary search per annotation and feature list.
+ * Candidates are the same as
+ * {@link FeatureListUtils#getCandidatesWithinRanges(Range, Range, Range, List, boolean)}.
+ */
+class SortedCompoundDatabase {
+
+  private final @NotNull List<CompoundDBAnnotation> annotations;
+  private final int @NotNull [] lines;
+  // by sorted position
+  private final int @NotNull [] order;
+  private final double @NotNull [] lowerMz;
+  private final double @NotNull [] upperMz;
+
+  /**
+   * @param annotations all annotations in database order, all with precursor m/z
+   * @param lines       the database line of each annotation
+   */
+  SortedCompoundDatabase(@NotNull final List<CompoundDBAnnotation> annotations,
+      final int @NotNull [] lines, @NotNull final MZTolerance mzTolerance) {
+    this.annotations = annotations;
+    this.lines = lines;
+
+    final int n = annotations.size();
+    final double[] lower = new double[n];
+    final double[] upper = new double[n];
+    for (int i = 0; i < n; i++) {
+      final Range<Double> range = mzTolerance.getToleranceRange(
+          annotations.get(i).getPrecursorMZ());
+      lower[i] = range.lowerEndpoint();
+      upper[i] = range.upperEndpoint();
+    }
+
+    order = new int[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+    }
+    // stable sort keeps the database order for equal m/z
+    IntArrays.mergeSort(order, (a, b) -> Double.compare(lower[a], lower[b]));
+
+    lowerMz = new double[n];
+    upperMz = new double[n];
+    for (int i = 0; i < n; i++) {
+      lowerMz[i] = lower[order[i]];
+      upperMz[i] = upper[order[i]];
+    }
+  }
+
+  int size() {
+    return annotations.size();
+  }
+
+  @NotNull CompoundDBAnnotation getAnnotation(final int index) {
+    return annotations.get(index);
+  }
+
+  /**
+   * @return the database line of the annotation
+   */
+  int getLine(final int index) {
+    return lines[index];
+  }
+
+  /**
+   * Passes all rows within the m/z tolerance and (if defined) the RT and mobility tolerance of each
+   * annotation to the consumer. Rows without RT or mobility pass the respective filter.
+   *
+   * @param rowMzs average m/z of rows in ascending order
+   * @param rows   the rows in the same order
+   */
+  void forEachCandidate(final double @NotNull [] rowMzs,
+      @NotNull final List<? extends FeatureListRow> rows, @Nullable final RTTolerance rtTolerance,
+      @Nullable final MobilityTolerance mobTolerance, @NotNull final CandidateConsumer consumer) {
+    int first = 0;
+    for (int p = 0; p < order.length; p++) {
+      // lower bounds ascend, so rows below this bound are below all following bounds
+      while (first < rowMzs.length && rowMzs[first] < lowerMz[p]) {
+        first++;
+      }
+      if (first == rowMzs.length) {
+        return;
+      }
+      if (rowMzs[first] > upperMz[p]) {
+        continue;
+      }
+
+      final int index = order[p];
+      final CompoundDBAnnotation annotation = annotations.get(index);
+      final Float rt = annotation.getRT();
+      final Float mobility = annotation.getMobility();
+      final Range<Float> rtRange =
+          rtTolerance != null && rt != null ? rtTolerance.getToleranceRange(rt) : Range.all();
+      final Range<Float> mobilityRange =
+          mobTolerance != null && mobility != null ? mobTolerance.getToleranceRange(mobility)
+              : Range.all();
+
+      for (int r = first; r < rowMzs.length && rowMzs[r] <= upperMz[p]; r++) {
+        final FeatureListRow row = rows.get(r);
+        final Float rowMobility = row.getAverageMobility();
+        final Float rowRT = row.getAverageRT();
+        if ((rowMobility == null || mobilityRange.contains(rowMobility)) //
+            && (rowRT == null || rtRange.contains(rowRT))) {
+          consumer.accept(index, r);
+        }
+      }
+    }
+  }
+
+  @FunctionalInterface
+  interface CandidateConsumer {
+
+    /**
+     * @param annotation index of the annotation in database order
+     * @param row        index of the row in the m/z sorted rows
+     */
+    void accept(int annotation, int row);
+  }
+}
@@ -54,6 +54,7 @@ import io.github.mzmine.modules.dataprocessing.group_spectral_networking.ms2deep
 import io.github.mzmine.parameters.ParameterSet;
 import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
 import io.github.mzmine.taskcontrol.AbstractFeatureListTask;
+import io.github.mzmine.util.collections.BinarySearch;
 import io.github.mzmine.util.exceptions.MissingMassListException;
 import io.github.mzmine.util.scans.FragmentScanSelection;
 import io.github.mzmine.util.scans.similarity.SpectralSimilarity;
@@ -62,15 +63,23 @@ import io.github.mzmine.util.scans.similarity.impl.ms2deepscore.EmbeddingBasedSi
 import io.github.mzmine.util.scans.similarity.impl.ms2deepscore.MS2DeepscoreModel;
 import io.github.mzmine.util.spectraldb.entry.DBEntryField;
 import io.github.mzmine.util.spectraldb.entry.SpectralDBAnnotation;
+import io.github.mzmine.util.spectraldb.entry.SpectralLibrary;
 import io.github.mzmine.util.spectraldb.entry.SpectralLibraryEntry;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -98,6 +107,12 @@ public class AnalogSpectralLibrarySearchMlTask extends AbstractFeatureListTask {
   // m/z tolerance used to compute the cosine fallback shown in the UI for ML matches.
   private static final MZTolerance ML_FALLBACK_MZ_TOL = MZTolerance.FIFTEEN_PPM_OR_FIVE_MDA;
 
+  // HNSW settings of the embedding index, the seed keeps rebuilt indices identical
+  private static final int INDEX_LINKS = 16;
+  private static final int INDEX_EF_CONSTRUCTION = 200;
+  private static final int INDEX_EF_SEARCH = 400;
+  private static final long INDEX_SEED = 42L;
+
   private final MZmineProject project;
   private final ModularFeatureList[] featureLists;
   private final SpectralNetworkingOptions algorithm;
@@ -110,6 +125,8 @@ public class AnalogSpectralLibrarySearchMlTask extends AbstractFeatureListTask {
   // DREAMS-only — number of spectra forwarded through the model in a single pass. Without batching
   // a large library OOMs because Fourier features balloon to (N * num_peaks * num_fourier).
   private final int batchSize;
+  // number of ANN candidates per library or null to score all library entries
+  private final @Nullable Integer indexCandidates;
 
   private String description;
 
@@ -123,6 +140,10 @@ public class AnalogSpectralLibrarySearchMlTask extends AbstractFeatureListTask {
     this.featureLists = featureLists;
     this.algorithm = mainParameters.getValue(AnalogSpectralLibrarySearchParameters.algorithm);
     this.description = "Analog spectral library search";
+    this.indexCandidates =
+        mainParameters.getValue(AnalogSpectralLibrarySearchParameters.mlEmbeddingIndex)
+            ? mainParameters.getParameter(AnalogSpectralLibrarySearchParameters.mlEmbeddingIndex)
+            .getEmbeddedParameter().getValue() : null;
 
     final ParameterSet algoParams = mainParameters.getEmbeddedParameterValue(
         AnalogSpectralLibrarySearchParameters.algorithm);
@@ -194,6 +215,17 @@ public class AnalogSpectralLibrarySearchMlTask extends AbstractFeatureListTask {
     final BitSet freshlyPredicted = new BitSet(libraryBatches.size());
 
     try (var model = openMlModel()) {
+      if (indexCandidates != null) {
+        // one more unit per query row to search it in the index
+        totalItems += queryScansTotal;
+        try {
+          processIndexed(model, sortedLibrary, indexCandidates);
+        } catch (TranslateException e) {
+          error("Failed to predict " + algorithm.toString() + " embeddings: " + e.getMessage(),
+              e);
+        }
+        return;
+      }
 
       // Phase 1: build per-batch NDArrays. Predict whenever ANY entry lacks a cached vector;
       // otherwise rebuild from cache via the model's NDManager so the batch shares the model's
@@ -388,28 +420,11 @@ public class AnalogSpectralLibrarySearchMlTask extends AbstractFeatureListTask {
       }
       List<SpectralDBAnnotation> rowBatchMatches = null;
       for (int c = 0; c < entryBatch.size(); c++) {
-        final float mlScore = simBatch[q][c];
-        final SpectralLibraryEntry entry = entryBatch.get(c);
-
-        if (mlScore < mlMinScore || (entry.getPrecursorMZ() != null
-            && ML_FALLBACK_MZ_TOL.checkWithinTolerance(entry.getPrecursorMZ(),
-            row.getAverageMZ()))) {
-          // skip direct matches
-          continue;
-        }
-        // lazy — only build the sorted-copy once at least one candidate passes the threshold
-        if (queryDpsCache[q] == null) {
-          queryDpsCache[q] = AnalogSearchSimilarities.sortAndCopyScan(queryScans.get(q));
-        }
-        final SpectralSimilarity cosineForViz = AnalogSearchSimilarities.computeFallbackCosine(
-            queryDpsCache[q], entry, ML_FALLBACK_MZ_TOL, rowPrecursor);
-        if (cosineForViz == null) {
+        final SpectralDBAnnotation annotation = createMlMatch(row, rowPrecursor,
+            queryScans.get(q), q, entryBatch.get(c), simBatch[q][c], queryDpsCache);
+        if (annotation == null) {
           continue;
         }
-        final SpectralDBAnnotation annotation = new SpectralDBAnnotation(entry, cosineForViz,
-            queryScans.get(q), null, rowPrecursor, row.getAverageRT(), null,
-            AnalogSpectralLibraryMatchesType.class);
-        annotation.set(MLScoreType.class, new MLScore(mlScore, modelId));
         if (rowBatchMatches == null) {
           rowBatchMatches = new ArrayList<>();
         }
@@ -421,6 +436,42 @@ public class AnalogSpectralLibrarySearchMlTask extends AbstractFeatureListTask {
     }
   }
 
+  /**
+   * @return the analog match or null if the ML score is below the threshold, the entry is a direct
+   * match by precursor m/z or no fallback cosine could be computed.
+   */
+  private @Nullable SpectralDBAnnotation createMlMatch(final FeatureListRow row,
+      final Double rowPrecursor, final Scan queryScan, final int q,
+      final SpectralLibraryEntry entry, final float mlScore, final DataPoint[][] queryDpsCache) {
+    if (mlScore < mlMinScore || isDirectMatch(row, entry)) {
+      // skip direct matches
+      return null;
+    }
+    // lazy — only build the sorted-copy once at least one candidate passes the threshold
+    if (queryDpsCache[q] == null) {
+      queryDpsCache[q] = AnalogSearchSimilarities.sortAndCopyScan(queryScan);
+    }
+    final SpectralSimilarity cosineForViz = AnalogSearchSimilarities.computeFallbackCosine(
+        queryDpsCache[q], entry, ML_FALLBACK_MZ_TOL, rowPrecursor);
+    if (cosineForViz == null) {
+      return null;
+    }
+    final SpectralDBAnnotation annotation = new SpectralDBAnnotation(entry, cosineForViz,
+        queryScan, null, rowPrecursor, row.getAverageRT(), null,
+        AnalogSpectralLibraryMatchesType.class);
+    annotation.set(MLScoreType.class, new MLScore(mlScore, modelId));
+    return annotation;
+  }
+
+  /**
+   * @return true if the entry has the precursor m/z of the row, these are no analogs
+   */
+  private static boolean isDirectMatch(final FeatureListRow row,
+      final SpectralLibraryEntry entry) {
+    return entry.getPrecursorMZ() != null && ML_FALLBACK_MZ_TOL.checkWithinTolerance(
+        entry.getPrecursorMZ(), row.getAverageMZ());
+  }
+
   /**
    * Sorts every query row's analog matches by the active ML score (descending) so the best matches
    * surface first downstream.
@@ -478,6 +529,285 @@ public class AnalogSpectralLibrarySearchMlTask extends AbstractFeatureListTask {
     }
   }
 
+  // ----- indexed search: persistent embeddings and ANN candidates -----
+
+  /**
+   * Embeddings and ANN index of one library. Entry indices refer to the entries list.
+   *
+   * @param precursorMzs sorted precursor m/z of all indexed entries
+   */
+  private record IndexedLibrary(@NotNull List<SpectralLibraryEntry> entries,
+                                @NotNull LibraryEmbeddingStore store, @NotNull HnswIndex index,
+                                double @NotNull [] precursorMzs) {
+
+    /**
+     * @return the number of indexed entries within the direct match tolerance of the precursor m/z
+     */
+    int countDirectMatches(final double precursorMz) {
+      return BinarySearch.indexRange(precursorMzs,
+          ML_FALLBACK_MZ_TOL.getToleranceRange(precursorMz)).size();
+    }
+  }
+
+  /**
+   * Loads the persistent embedding store and index of each library or creates them. Each query is
+   * then only scored against the candidates of the index.
+   */
+  private void processIndexed(final EmbeddingBasedSimilarity model,
+      final List<SpectralLibraryEntry> sortedLibrary, final int candidates)
+      throws TranslateException {
+    // stores are keyed by the library file, entries without library are only kept in memory
+    final Set<SpectralLibrary> libraries = new LinkedHashSet<>();
+    final List<SpectralLibraryEntry> withoutLibrary = new ArrayList<>();
+    for (final SpectralLibraryEntry entry : sortedLibrary) {
+      if (entry.getLibrary() != null) {
+        libraries.add(entry.getLibrary());
+      } else {
+        withoutLibrary.add(entry);
+      }
+    }
+
+    final List<IndexedLibrary> indexed = new ArrayList<>();
+    for (final SpectralLibrary library : libraries) {
+      File storeFile = null;
+      if (library.getPath().isFile()) {
+        try {
+          storeFile = LibraryEmbeddingStore.getStoreFile(library.getPath(), modelId, modelFile);
+        } catch (IOException e) {
+          logger.log(Level.WARNING, "Cannot hash library file " + library.getPath(), e);
+        }
+      }
+      final IndexedLibrary lib = createIndexedLibrary(model, library.getEntries(), storeFile);
+      if (lib == null) {
+        return;
+      }
+      indexed.add(lib);
+    }
+    if (!withoutLibrary.isEmpty()) {
+      final IndexedLibrary lib = createIndexedLibrary(model, withoutLibrary, null);
+      if (lib == null) {
+        return;
+      }
+      indexed.add(lib);
+    }
+
+    for (final ModularFeatureList flist : featureLists) {
+      if (isCanceled()) {
+        return;
+      }
+      matchFeatureListIndexed(model, flist, indexed, candidates);
+      flist.addDescriptionOfAppliedTask(new SimpleFeatureListAppliedMethod(
+          "Analog spectral library search (" + algorithm.getStableId() + ")",
+          AnalogSpectralLibrarySearchModule.class, parameters, getModuleCallDate()));
+    }
+  }
+
+  /**
+   * @param storeFile the persistent store or null to keep the embeddings in memory
+   * @return the library or null if canceled
+   */
+  private @Nullable IndexedLibrary createIndexedLibrary(final EmbeddingBasedSimilarity model,
+      final List<SpectralLibraryEntry> entries, final @Nullable File storeFile)
+      throws TranslateException {
+    final long searchable = entries.stream().filter(e -> e.getPrecursorMZ() != null).count();
+    final long fingerprint = LibraryEmbeddingStore.fingerprint(entries);
+    LibraryEmbeddingStore store =
+        storeFile == null ? null : LibraryEmbeddingStore.load(storeFile, fingerprint,
+            entries.size());
+    if (store == null) {
+      store = predictLibraryEmbeddings(model, entries, fingerprint);
+      if (store == null) {
+        return null;
+      }
+      if (storeFile != null) {
+        store.save(storeFile);
+        deleteQuietly(LibraryEmbeddingStore.getIndexFile(storeFile));
+      }
+    } else {
+      finishedItems.addAndGet(searchable);
+    }
+
+    final int[] ids = store.getAvailableEntries();
+    HnswIndex index = null;
+    final File indexFile = storeFile == null ? null : LibraryEmbeddingStore.getIndexFile(storeFile);
+    if (indexFile != null && indexFile.isFile()) {
+      try {
+        index = HnswIndex.load(indexFile, ids);
+      } catch (IOException | RuntimeException e) {
+        logger.log(Level.WARNING, "Cannot read embedding index " + indexFile, e);
+      }
+    }
+    if (index == null) {
+      description = "Building %s embedding index of %d library spectra".formatted(algorithm,
+          ids.length);
+      index = HnswIndex.build(store, ids, INDEX_LINKS, INDEX_EF_CONSTRUCTION, INDEX_SEED,
+          this::isCanceled);
+      if (index == null) {
+        return null;
+      }
+      if (indexFile != null) {
+        saveIndex(index, indexFile);
+      }
+    }
+    finishedItems.addAndGet(searchable);
+    final double[] precursorMzs = Arrays.stream(ids).mapToObj(entries::get)
+        .map(SpectralLibraryEntry::getPrecursorMZ).filter(Objects::nonNull)
+        .mapToDouble(Double::doubleValue).sorted().toArray();
+    return new IndexedLibrary(entries, store, index, precursorMzs);
+  }
+
+  /**
+   * Predicts the embeddings of all entries with precursor m/z. Embeddings cached on the entries are
+   * reused.
+   *
+   * @return the store or null if canceled
+   */
+  private @Nullable LibraryEmbeddingStore predictLibraryEmbeddings(
+      final EmbeddingBasedSimilarity model, final List<SpectralLibraryEntry> entries,
+      final long fingerprint) throws TranslateException {
+    final DBEntryField field = modelId.getEmbeddingField();
+    final float[][] embeddings = new float[entries.size()][];
+    final IntArrayList missing = new IntArrayList();
+    for (int i = 0; i < entries.size(); i++) {
+      final SpectralLibraryEntry entry = entries.get(i);
+      if (entry.getPrecursorMZ() == null) {
+        continue;
+      }
+      if (entry.getOrElse(field, null) instanceof float[] cached) {
+        embeddings[i] = cached;
+        finishedItems.incrementAndGet();
+      } else {
+        missing.add(i);
+      }
+    }
+
+    for (int start = 0; start < missing.size(); start += batchSize) {
+      if (isCanceled()) {
+        return null;
+      }
+      final int end = Math.min(start + batchSize, missing.size());
+      final List<SpectralLibraryEntry> batch = new ArrayList<>(end - start);
+      for (int i = start; i < end; i++) {
+        batch.add(entries.get(missing.getInt(i)));
+      }
+      final NDArray predicted = model.predictEmbedding(batch);
+      final float[][] rows;
+      try {
+        rows = EmbeddingBasedSimilarity.convertNDArrayToFloatMatrix(predicted);
+      } finally {
+        predicted.close();
+      }
+      for (int i = start; i < end; i++) {
+        embeddings[missing.getInt(i)] = rows[i - start];
+      }
+      finishedItems.addAndGet(end - start);
+      description = algorithm + " library embeddings: %d / %d".formatted(end, missing.size());
+    }
+
+    final int dimension = Arrays.stream(embeddings).filter(e -> e != null).mapToInt(e -> e.length)
+        .findFirst().orElse(0);
+    return LibraryEmbeddingStore.of(embeddings, dimension, fingerprint);
+  }
+
+  private void matchFeatureListIndexed(final EmbeddingBasedSimilarity model,
+      final ModularFeatureList flist, final List<IndexedLibrary> indexed, final int candidates)
+      throws TranslateException {
+    description = algorithm.toString() + " analog matching: " + flist.getName();
+    final List<FeatureListRow> queryRows = new ArrayList<>();
+    final List<Scan> queryScans = new ArrayList<>();
+    collectMlQueryScans(flist, queryRows, queryScans);
+    if (queryRows.isEmpty()) {
+      // embedding and search of every row
+      finishedItems.addAndGet(2L * flist.getNumberOfRows());
+      return;
+    }
+
+    final NDArray queryEmb = predictEmbeddingsBatched(model, queryScans, algorithm,
+        flist.getName());
+    final float[][] queries;
+    try {
+      if (isCanceled()) {
+        return;
+      }
+      queries = EmbeddingBasedSimilarity.convertNDArrayToFloatMatrix(queryEmb);
+    } finally {
+      queryEmb.close();
+    }
+
+    final DataPoint[][] queryDpsCache = new DataPoint[queryScans.size()][];
+    for (int q = 0; q < queryRows.size(); q++) {
+      if (isCanceled()) {
+        return;
+      }
+      finishedItems.incrementAndGet();
+      final FeatureListRow row = queryRows.get(q);
+      final Double rowPrecursor = row.getAverageMZ();
+      if (rowPrecursor == null) {
+        continue;
+      }
+      final float[] query = queries[q];
+      LibraryEmbeddingStore.normalize(query, 0, query.length);
+
+      final List<SpectralDBAnnotation> rowMatches = new ArrayList<>();
+      for (final IndexedLibrary lib : indexed) {
+        if (lib.store().getDimension() != query.length) {
+          continue;
+        }
+        // direct matches are skipped, fetch more candidates to keep the number of analogs
+        final int k = candidates + lib.countDirectMatches(rowPrecursor);
+        int analogs = 0;
+        // exact cosine on the approximate candidates
+        for (final int entryIndex : lib.index()
+            .search(lib.store(), query, k, Math.max(k, INDEX_EF_SEARCH))) {
+          final SpectralLibraryEntry entry = lib.entries().get(entryIndex);
+          if (isDirectMatch(row, entry)) {
+            continue;
+          }
+          if (++analogs > candidates) {
+            break;
+          }
+          final SpectralDBAnnotation annotation = createMlMatch(row, rowPrecursor,
+              queryScans.get(q), q, entry, lib.store().similarity(query, entryIndex),
+              queryDpsCache);
+          if (annotation != null) {
+            rowMatches.add(annotation);
+          }
+        }
+      }
+      if (!rowMatches.isEmpty()) {
+        ((ModularFeatureListRow) row).addAnalogSpectralLibraryMatches(rowMatches);
+      }
+    }
+    sortRowAnalogMatchesByMlScore(queryRows);
+
+    final long skipped = (long) flist.getNumberOfRows() - queryScans.size();
+    if (skipped > 0) {
+      finishedItems.addAndGet(2 * skipped);
+    }
+  }
+
+  /**
+   * Writes the index. Errors are only logged as the index is still usable.
+   */
+  private static void saveIndex(final HnswIndex index, final File indexFile) {
+    try {
+      final File tmp = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+      index.save(tmp);
+      Files.move(tmp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.WARNING, "Cannot write embedding index " + indexFile, e);
+    }
+  }
+
+  private static void deleteQuietly(final File file) {
+    try {
+      Files.deleteIfExists(file.toPath());
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Cannot delete outdated embedding index " + file, e);
+    }
+  }
+
   // ----- helpers -----
 
   private @NotNull EmbeddingBasedSimilarity openMlModel()
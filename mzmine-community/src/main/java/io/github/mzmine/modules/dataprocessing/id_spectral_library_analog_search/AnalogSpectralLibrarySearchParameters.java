@@ -28,6 +28,8 @@ package io.github.mzmine.modules.dataprocessing.id_spectral_library_analog_searc
 import io.github.mzmine.modules.dataprocessing.group_spectral_networking.SpectralNetworkingOptions;
 import io.github.mzmine.parameters.impl.IonMobilitySupport;
 import io.github.mzmine.parameters.impl.SimpleParameterSet;
+import io.github.mzmine.parameters.parametertypes.IntegerParameter;
+import io.github.mzmine.parameters.parametertypes.OptionalParameter;
 import io.github.mzmine.parameters.parametertypes.selectors.FeatureListsParameter;
 import io.github.mzmine.parameters.parametertypes.selectors.SpectralLibrarySelectionParameter;
 import io.github.mzmine.parameters.parametertypes.submodules.ModuleOptionsEnumComboParameter;
@@ -50,10 +52,18 @@ public class AnalogSpectralLibrarySearchParameters extends SimpleParameterSet {
       SpectralNetworkingOptions.getSpectralSimAlgorithms(),
       SpectralNetworkingOptions.MODIFIED_COSINE);
 
+  public static final OptionalParameter<IntegerParameter> mlEmbeddingIndex = new OptionalParameter<>(
+      new IntegerParameter("ML embedding index (candidates)", """
+          Only used by MS2Deepscore and DREAMS. Stores the library embeddings in the mzmine user \
+          directory, so they are only predicted once per library file and model, and searches \
+          them with an approximate nearest neighbour index. The ML score is only computed for \
+          the given number of most similar spectra per library. If unchecked, every feature is \
+          scored against every library spectrum.""", 200, 1, null), false);
+
   public AnalogSpectralLibrarySearchParameters() {
     super(
         "https://mzmine.github.io/mzmine_documentation/module_docs/id_spectral_library_analog_search/analog-spectral-library-search.html",
-        featureLists, libraries, algorithm);
+        featureLists, libraries, algorithm, mlEmbeddingIndex);
   }
 
   @NotNull
@@ -0,0 +1,479 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.id_spectral_library_analog_search;
+
+import io.github.mzmine.util.io.BinaryFileWriter;
+import io.github.mzmine.util.io.MappedBinaryFileReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Approximate nearest neighbour index (hierarchical navigable small world graph, Malkov and
+ * Yashunin 2018) over vectors compared by a similarity, e.g., the cosine of unit length embeddings.
+ * The graph only stores the ids of the vectors, the vectors are provided by {@link Vectors}.
+ * <p>
+ * Building is single threaded and deterministic for a seed. Searching is thread safe.
+ */
+public final class HnswIndex {
+
+  /**
+   * HNSW
+   */
+  public static final int MAGIC = 0x57534E48;
+  public static final int VERSION = 1;
+  private static final int[] NO_LINKS = new int[0];
+
+  /**
+   * Provides the similarity between vectors, higher is more similar.
+   */
+  public interface Vectors {
+
+    float similarity(int vectorA, int vectorB);
+
+    float similarity(float @NotNull [] query, int vector);
+  }
+
+  /**
+   * Similarity of a node to the current target of a search.
+   */
+  private interface Target {
+
+    float similarity(int node);
+  }
+
+  private final int m;
+  /**
+   * node to vector id
+   */
+  private final int[] ids;
+  /**
+   * node, level, neighbour nodes
+   */
+  private final int[][][] links;
+  private int entryPoint;
+  private int maxLevel;
+  private final ThreadLocal<VisitedNodes> visited;
+
+  private HnswIndex(final int m, final int[] ids, final int[][][] links, final int entryPoint,
+      final int maxLevel) {
+    this.m = m;
+    this.ids = ids;
+    this.links = links;
+    this.entryPoint = entryPoint;
+    this.maxLevel = maxLevel;
+    visited = ThreadLocal.withInitial(() -> new VisitedNodes(ids.length));
+  }
+
+  /**
+   * Builds the graph by inserting all vectors in the given order.
+   *
+   * @param ids            the vector ids to index
+   * @param m              number of links per node on the upper levels, twice as many on level 0
+   * @param efConstruction size of the candidate list during insertion
+   * @param seed           seed for the random levels of the nodes
+   * @return the index or null if canceled
+   */
+  public static @Nullable HnswIndex build(@NotNull final Vectors vectors, final int @NotNull [] ids,
+      final int m, final int efConstruction, final long seed,
+      @NotNull final BooleanSupplier canceled) {
+    final HnswIndex index = new HnswIndex(m, ids.clone(), new int[ids.length][][], -1, -1);
+    final Random random = new Random(seed);
+    final double levelFactor = 1d / Math.log(Math.max(2, m));
+    for (int node = 0; node < ids.length; node++) {
+      if (canceled.getAsBoolean()) {
+        return null;
+      }
+      final int level = (int) (-Math.log(1d - random.nextDouble()) * levelFactor);
+      index.insert(vectors, node, level, efConstruction);
+    }
+    return index;
+  }
+
+  private void insert(final Vectors vectors, final int node, final int level,
+      final int efConstruction) {
+    links[node] = new int[level + 1][];
+    Arrays.fill(links[node], NO_LINKS);
+    if (entryPoint < 0) {
+      entryPoint = node;
+      maxLevel = level;
+      return;
+    }
+
+    final int vector = ids[node];
+    final Target target = other -> vectors.similarity(vector, ids[other]);
+    int ep = entryPoint;
+    for (int l = maxLevel; l > level; l--) {
+      ep = greedySearch(target, ep, l);
+    }
+    for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+      final NodeHeap candidates = searchLayer(target, ep, efConstruction, l);
+      final int[] sorted = candidates.popAllDescending();
+      links[node][l] = selectNeighbours(vectors, vector, sorted, maxLinks(l));
+      for (final int neighbour : links[node][l]) {
+        addLink(vectors, neighbour, node, l);
+      }
+      ep = sorted[0];
+    }
+    if (level > maxLevel) {
+      maxLevel = level;
+      entryPoint = node;
+    }
+  }
+
+  private int maxLinks(final int level) {
+    return level == 0 ? 2 * m : m;
+  }
+
+  /**
+   * Adds node to the links of neighbour and prunes them if there are too many.
+   */
+  private void addLink(final Vectors vectors, final int neighbour, final int node,
+      final int level) {
+    final int[] current = links[neighbour][level];
+    final int[] extended = Arrays.copyOf(current, current.length + 1);
+    extended[current.length] = node;
+    if (extended.length <= maxLinks(level)) {
+      links[neighbour][level] = extended;
+      return;
+    }
+
+    // sort by similarity to the neighbour, then prune with the same heuristic
+    final int vector = ids[neighbour];
+    final NodeHeap heap = new NodeHeap(extended.length);
+    for (final int other : extended) {
+      heap.push(other, vectors.similarity(vector, ids[other]));
+    }
+    links[neighbour][level] = selectNeighbours(vectors, vector, heap.popAllDescending(),
+        maxLinks(level));
+  }
+
+  /**
+   * Selects diverse neighbours: a candidate is skipped if it is more similar to an already selected
+   * neighbour than to the base vector.
+   *
+   * @param candidates nodes sorted by descending similarity to the base vector
+   */
+  private int[] selectNeighbours(final Vectors vectors, final int baseVector,
+      final int[] candidates, final int maxLinks) {
+    final int[] selected = new int[Math.min(maxLinks, candidates.length)];
+    int numSelected = 0;
+    for (int c = 0; c < candidates.length && numSelected < selected.length; c++) {
+      final int candidateVector = ids[candidates[c]];
+      final float similarityToBase = vectors.similarity(baseVector, candidateVector);
+      boolean diverse = true;
+      for (int s = 0; s < numSelected; s++) {
+        if (vectors.similarity(candidateVector, ids[selected[s]]) > similarityToBase) {
+          diverse = false;
+          break;
+        }
+      }
+      if (diverse) {
+        selected[numSelected++] = candidates[c];
+      }
+    }
+    return numSelected == selected.length ? selected : Arrays.copyOf(selected, numSelected);
+  }
+
+  /**
+   * Searches the most similar vectors.
+   *
+   * @param k  maximum number of results
+   * @param ef size of the candidate list, higher values increase the recall. At least k is used.
+   * @return the vector ids sorted by descending similarity
+   */
+  public int @NotNull [] search(@NotNull final Vectors vectors, final float @NotNull [] query,
+      final int k, final int ef) {
+    if (entryPoint < 0 || k <= 0) {
+      return NO_LINKS;
+    }
+    final Target target = other -> vectors.similarity(query, ids[other]);
+    int ep = entryPoint;
+    for (int l = maxLevel; l > 0; l--) {
+      ep = greedySearch(target, ep, l);
+    }
+    final int[] nodes = searchLayer(target, ep, Math.max(k, ef), 0).popAllDescending();
+    final int[] result = new int[Math.min(k, nodes.length)];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = ids[nodes[i]];
+    }
+    return result;
+  }
+
+  private int greedySearch(final Target target, final int entry, final int level) {
+    int current = entry;
+    float currentSimilarity = target.similarity(current);
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (final int neighbour : links[current][level]) {
+        final float similarity = target.similarity(neighbour);
+        if (similarity > currentSimilarity) {
+          currentSimilarity = similarity;
+          current = neighbour;
+          changed = true;
+        }
+      }
+    }
+    return current;
+  }
+
+  /**
+   * @return the ef most similar nodes found on this level
+   */
+  private NodeHeap searchLayer(final Target target, final int entry, final int ef,
+      final int level) {
+    final VisitedNodes visitedNodes = visited.get();
+    visitedNodes.next(links.length);
+    visitedNodes.visit(entry);
+
+    final float entrySimilarity = target.similarity(entry);
+    // candidates to expand, most similar on top
+    final NodeHeap candidates = new NodeHeap(ef + 1);
+    candidates.push(entry, -entrySimilarity);
+    // results, least similar on top
+    final NodeHeap results = new NodeHeap(ef + 1);
+    results.push(entry, entrySimilarity);
+
+    while (candidates.size() > 0) {
+      final float similarity = -candidates.peekKey();
+      final int current = candidates.pop();
+      if (results.size() >= ef && similarity < results.peekKey()) {
+        break;
+      }
+      for (final int neighbour : links[current][level]) {
+        if (!visitedNodes.visit(neighbour)) {
+          continue;
+        }
+        final float neighbourSimilarity = target.similarity(neighbour);
+        if (results.size() < ef || neighbourSimilarity > results.peekKey()) {
+          candidates.push(neighbour, -neighbourSimilarity);
+          results.push(neighbour, neighbourSimilarity);
+          if (results.size() > ef) {
+            results.pop();
+          }
+        }
+      }
+    }
+    return results;
+  }
+
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+   * Layout: magic, version, m, number of nodes, entry point, max level, the vector id of each node
+   * and for each node the number of levels followed by the number of links and links per level.
+   */
+  public void save(@NotNull final File file) throws IOException {
+    try (BinaryFileWriter out = new BinaryFileWriter(file)) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(m);
+      out.writeInt(ids.length);
+      out.writeInt(entryPoint);
+      out.writeInt(maxLevel);
+      for (final int id : ids) {
+        out.writeInt(id);
+      }
+      for (final int[][] nodeLinks : links) {
+        out.writeInt(nodeLinks.length);
+        for (final int[] levelLinks : nodeLinks) {
+          out.writeInt(levelLinks.length);
+          for (final int link : levelLinks) {
+            out.writeInt(link);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the index or null if the file is no index with the expected vector ids
+   */
+  public static @Nullable HnswIndex load(@NotNull final File file,
+      final int @NotNull [] expectedIds) throws IOException {
+    final MappedBinaryFileReader in = new MappedBinaryFileReader(file);
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      return null;
+    }
+    final int m = in.readInt();
+    final int numNodes = in.readInt();
+    final int entryPoint = in.readInt();
+    final int maxLevel = in.readInt();
+    final int[] ids = new int[numNodes];
+    for (int i = 0; i < numNodes; i++) {
+      ids[i] = in.readInt();
+    }
+    // the order of insertion may differ, but the same vectors need to be indexed
+    final int[] sortedIds = ids.clone();
+    Arrays.sort(sortedIds);
+    final int[] sortedExpected = expectedIds.clone();
+    Arrays.sort(sortedExpected);
+    if (!Arrays.equals(sortedIds, sortedExpected)) {
+      return null;
+    }
+
+    final int[][][] links = new int[numNodes][][];
+    for (int node = 0; node < numNodes; node++) {
+      links[node] = new int[in.readInt()][];
+      for (int level = 0; level < links[node].length; level++) {
+        final int[] levelLinks = new int[in.readInt()];
+        for (int i = 0; i < levelLinks.length; i++) {
+          levelLinks[i] = in.readInt();
+        }
+        links[node][level] = levelLinks;
+      }
+    }
+    return new HnswIndex(m, ids, links, entryPoint, maxLevel);
+  }
+
+  /**
+   * Binary min heap of nodes by key.
+   */
+  private static final class NodeHeap {
+
+    private int[] nodes;
+    private float[] keys;
+    private int size;
+
+    private NodeHeap(final int capacity) {
+      nodes = new int[Math.max(1, capacity)];
+      keys = new float[nodes.length];
+    }
+
+    private int size() {
+      return size;
+    }
+
+    private float peekKey() {
+      return keys[0];
+    }
+
+    private void push(final int node, final float key) {
+      if (size == nodes.length) {
+        nodes = Arrays.copyOf(nodes, size * 2);
+        keys = Arrays.copyOf(keys, size * 2);
+      }
+      int i = size++;
+      while (i > 0) {
+        final int parent = (i - 1) >>> 1;
+        if (keys[parent] <= key) {
+          break;
+        }
+        nodes[i] = nodes[parent];
+        keys[i] = keys[parent];
+        i = parent;
+      }
+      nodes[i] = node;
+      keys[i] = key;
+    }
+
+    /**
+     * @return the node with the lowest key
+     */
+    private int pop() {
+      final int top = nodes[0];
+      size--;
+      final int lastNode = nodes[size];
+      final float lastKey = keys[size];
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && keys[child + 1] < keys[child]) {
+          child++;
+        }
+        if (keys[child] >= lastKey) {
+          break;
+        }
+        nodes[i] = nodes[child];
+        keys[i] = keys[child];
+        i = child;
+      }
+      nodes[i] = lastNode;
+      keys[i] = lastKey;
+      return top;
+    }
+
+    /**
+     * Empties the heap.
+     *
+     * @return the nodes sorted by descending key
+     */
+    private int[] popAllDescending() {
+      final int[] sorted = new int[size];
+      for (int i = sorted.length - 1; i >= 0; i--) {
+        sorted[i] = pop();
+      }
+      return sorted;
+    }
+  }
+
+  /**
+   * Marks visited nodes with a search specific generation to avoid clearing the array.
+   */
+  private static final class VisitedNodes {
+
+    private int[] marks;
+    private int generation;
+
+    private VisitedNodes(final int size) {
+      marks = new int[size];
+    }
+
+    private void next(final int size) {
+      if (marks.length < size) {
+        marks = new int[size];
+        generation = 0;
+      }
+      generation++;
+      if (generation == 0) {
+        // overflow, clear all marks
+        Arrays.fill(marks, 0);
+        generation = 1;
+      }
+    }
+
+    /**
+     * @return true if the node was not visited before in this search
+     */
+    private boolean visit(final int node) {
+      if (marks[node] == generation) {
+        return false;
+      }
+      marks[node] = generation;
+      return true;
+    }
+  }
+}
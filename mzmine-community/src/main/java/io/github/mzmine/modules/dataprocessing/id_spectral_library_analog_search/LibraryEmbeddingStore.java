@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.id_spectral_library_analog_search;
+
+import io.github.mzmine.datamodel.features.types.numbers.scores.MLModelId;
+import io.github.mzmine.modules.io.import_spectral_library.SpectralLibraryCache;
+import io.github.mzmine.util.files.FileAndPathUtil;
+import io.github.mzmine.util.io.BinaryFileWriter;
+import io.github.mzmine.util.io.MappedBinaryFileReader;
+import io.github.mzmine.util.spectraldb.entry.SpectralLibraryEntry;
+import java.io.File;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Unit length ML embeddings of all entries of one spectral library, stored in a memory mapped file
+ * in the mzmine user directory. The file is keyed by the SHA-256 of the library file, the
+ * {@link MLModelId} and the model file, so embeddings are only predicted once per library and
+ * model. The similarity of two embeddings is their dot product, which equals the cosine.
+ * <p>
+ * Layout: magic, version, number of entries, dimension, fingerprint of the entries, one byte per
+ * entry (1 if the embedding is available) and all embeddings as 4 byte aligned little endian
+ * floats. Missing embeddings are stored as zeros.
+ */
+public class LibraryEmbeddingStore implements HnswIndex.Vectors {
+
+  /**
+   * MEMB
+   */
+  public static final int MAGIC = 0x424D454D;
+  public static final int VERSION = 1;
+  private static final String CACHE_DIR = "ml_embedding_cache";
+  private static final String EXTENSION = ".mzemb";
+  private static final ValueLayout.OfFloat FLOAT = ValueLayout.JAVA_FLOAT_UNALIGNED;
+  private static final Logger logger = Logger.getLogger(LibraryEmbeddingStore.class.getName());
+
+  private final int numEntries;
+  private final int dimension;
+  private final long fingerprint;
+  private final BitSet available;
+  /**
+   * native order floats, numEntries * dimension
+   */
+  private final MemorySegment vectors;
+
+  private LibraryEmbeddingStore(final int numEntries, final int dimension, final long fingerprint,
+      @NotNull final BitSet available, @NotNull final MemorySegment vectors) {
+    this.numEntries = numEntries;
+    this.dimension = dimension;
+    this.fingerprint = fingerprint;
+    this.available = available;
+    this.vectors = vectors;
+  }
+
+  /**
+   * Creates a store in memory. The embeddings are normalized to unit length.
+   *
+   * @param embeddings  one embedding per entry, null if not available
+   * @param fingerprint the fingerprint of the entries, see {@link #fingerprint(List)}
+   */
+  public static @NotNull LibraryEmbeddingStore of(final float @NotNull [][] embeddings,
+      final int dimension, final long fingerprint) {
+    final float[] values = new float[embeddings.length * dimension];
+    final BitSet available = new BitSet(embeddings.length);
+    for (int i = 0; i < embeddings.length; i++) {
+      final float[] embedding = embeddings[i];
+      if (embedding == null) {
+        continue;
+      }
+      if (embedding.length != dimension) {
+        throw new IllegalArgumentException(
+            "Embedding dimension %d differs from %d".formatted(embedding.length, dimension));
+      }
+      System.arraycopy(embedding, 0, values, i * dimension, dimension);
+      normalize(values, i * dimension, dimension);
+      available.set(i);
+    }
+    return new LibraryEmbeddingStore(embeddings.length, dimension, fingerprint, available,
+        MemorySegment.ofArray(values));
+  }
+
+  /**
+   * @return the store file for the current content of the library file and the model. Does not
+   * check if it exists.
+   */
+  public static @NotNull File getStoreFile(@NotNull final File libraryFile,
+      @NotNull final MLModelId modelId, @Nullable final File modelFile) throws IOException {
+    // models with the same id may be retrained, use the file name and size as version of the file
+    final String modelFileKey =
+        modelFile == null ? "" : modelFile.getName() + "_" + modelFile.length();
+    final String modelKey = UUID.nameUUIDFromBytes(
+        modelFileKey.getBytes(StandardCharsets.UTF_8)).toString();
+    return new File(FileAndPathUtil.resolveInMzmineDir(CACHE_DIR),
+        "%s_%s_%s%s".formatted(SpectralLibraryCache.hashContent(libraryFile),
+            modelId.getUniqueID(), modelKey, EXTENSION));
+  }
+
+  /**
+   * @return the file of the {@link HnswIndex} over the store file
+   */
+  public static @NotNull File getIndexFile(@NotNull final File storeFile) {
+    return new File(storeFile.getParentFile(), storeFile.getName() + ".hnsw");
+  }
+
+  /**
+   * Identifies the imported entries of a library. The same library file may be imported with
+   * different filters.
+   */
+  public static long fingerprint(@NotNull final List<SpectralLibraryEntry> entries) {
+    long hash = entries.size();
+    for (final SpectralLibraryEntry entry : entries) {
+      final Double precursorMZ = entry.getPrecursorMZ();
+      hash = 31 * hash + (precursorMZ == null ? 0 : Double.hashCode(precursorMZ));
+      hash = 31 * hash + entry.getNumberOfDataPoints();
+    }
+    return hash;
+  }
+
+  /**
+   * @return the stored embeddings or null if there is no valid store for these entries
+   */
+  public static @Nullable LibraryEmbeddingStore load(@NotNull final File storeFile,
+      final long fingerprint, final int numEntries) {
+    if (!storeFile.isFile()) {
+      return null;
+    }
+    try {
+      final MappedBinaryFileReader in = new MappedBinaryFileReader(storeFile);
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not an embedding store: " + storeFile);
+      }
+      final int version = in.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported embedding store version " + version);
+      }
+      final int storedEntries = in.readInt();
+      final int dimension = in.readInt();
+      final long storedFingerprint = in.readLong();
+      if (storedEntries != numEntries || storedFingerprint != fingerprint) {
+        logger.fine(() -> "Embedding store %s was created for different library entries".formatted(
+            storeFile));
+        return null;
+      }
+      final BitSet available = new BitSet(numEntries);
+      for (int i = 0; i < numEntries; i++) {
+        if (in.readByte() != 0) {
+          available.set(i);
+        }
+      }
+      final MemorySegment vectors = in.readFloats((long) numEntries * dimension);
+      return new LibraryEmbeddingStore(numEntries, dimension, fingerprint, available, vectors);
+    } catch (IOException | RuntimeException e) {
+      // embeddings are predicted again and the store is overwritten
+      logger.log(Level.WARNING,
+          "Cannot read embedding store %s: %s".formatted(storeFile, e.getMessage()), e);
+      return null;
+    }
+  }
+
+  /**
+   * Writes the store. Errors are only logged as the embeddings are still usable.
+   */
+  public void save(@NotNull final File storeFile) {
+    try {
+      FileAndPathUtil.createDirectory(storeFile.getParentFile());
+      // write to a temporary file first so that aborted writes never leave a broken store
+      final File tmp = new File(storeFile.getParentFile(), storeFile.getName() + ".tmp");
+      try (BinaryFileWriter out = new BinaryFileWriter(tmp)) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(numEntries);
+        out.writeInt(dimension);
+        out.writeLong(fingerprint);
+        for (int i = 0; i < numEntries; i++) {
+          out.writeByte((byte) (available.get(i) ? 1 : 0));
+        }
+        out.writeFloats(vectors, (long) numEntries * dimension);
+      }
+      Files.move(tmp.toPath(), storeFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.WARNING,
+          "Cannot write embedding store %s: %s".formatted(storeFile, e.getMessage()), e);
+    }
+  }
+
+  /**
+   * @return the indices of all entries with an embedding
+   */
+  public int @NotNull [] getAvailableEntries() {
+    return available.stream().toArray();
+  }
+
+  public boolean isAvailable(final int entry) {
+    return available.get(entry);
+  }
+
+  public int size() {
+    return numEntries;
+  }
+
+  public int getDimension() {
+    return dimension;
+  }
+
+  @Override
+  public float similarity(final int entryA, final int entryB) {
+    final long offsetA = (long) entryA * dimension * Float.BYTES;
+    final long offsetB = (long) entryB * dimension * Float.BYTES;
+    float dot = 0f;
+    for (int i = 0; i < dimension; i++) {
+      dot += vectors.get(FLOAT, offsetA + (long) i * Float.BYTES) * vectors.get(FLOAT,
+          offsetB + (long) i * Float.BYTES);
+    }
+    return dot;
+  }
+
+  /**
+   * @param query a unit length embedding, see {@link #normalize(float[], int, int)}
+   * @return the cosine similarity
+   */
+  @Override
+  public float similarity(final float @NotNull [] query, final int entry) {
+    final long offset = (long) entry * dimension * Float.BYTES;
+    float dot = 0f;
+    for (int i = 0; i < dimension; i++) {
+      dot += query[i] * vectors.get(FLOAT, offset + (long) i * Float.BYTES);
+    }
+    return dot;
+  }
+
+  /**
+   * Scales the values to unit length. Zero vectors are not changed.
+   */
+  public static void normalize(final float @NotNull [] values, final int offset,
+      final int length) {
+    double sum = 0;
+    for (int i = offset; i < offset + length; i++) {
+      sum += (double) values[i] * values[i];
+    }
+    if (sum == 0) {
+      return;
+    }
+    final float norm = (float) Math.sqrt(sum);
+    for (int i = offset; i < offset + length; i++) {
+      values[i] /= norm;
+    }
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2025 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -25,6 +25,7 @@
 
 package io.github.mzmine.modules.dataprocessing.id_spectral_library_match;
 
+import com.google.common.collect.Range;
 import io.github.mzmine.datamodel.DataPoint;
 import io.github.mzmine.datamodel.IMSRawDataFile;
 import io.github.mzmine.datamodel.MassList;
@@ -116,6 +117,8 @@ public class RowsSpectralMatchTask extends AbstractTask {
   // 13C, H, 2H or Cl
   private boolean needsIsotopePattern;
   private int minMatchedIsoSignals;
+  // precursor m/z of the sorted library entries for the binary search, null if not sorted
+  private double @Nullable [] sortedPrecursorMZs;
 
   /**
    * Constructor used for matchign a single spectrum via {@link SingleSpectrumLibrarySearchModule}
@@ -365,6 +368,14 @@ public class RowsSpectralMatchTask extends AbstractTask {
       // sort by mz for binary search
       stream = stream.filter(entry -> entry.getPrecursorMZ() != null)
           .sorted(Comparator.comparing(SpectralLibraryEntry::getPrecursorMZ));
+      final List<SpectralLibraryEntry> sorted = stream.toList();
+      // primitive index - entries of cached libraries provide the precursor m/z without decoding
+      // their other fields, so only candidates within the precursor tolerance are decoded
+      sortedPrecursorMZs = new double[sorted.size()];
+      for (int i = 0; i < sortedPrecursorMZs.length; i++) {
+        sortedPrecursorMZs[i] = sorted.get(i).getPrecursorMZ();
+      }
+      return sorted;
     }
     return stream.toList();
   }
@@ -548,9 +559,11 @@ public class RowsSpectralMatchTask extends AbstractTask {
     if (scanPrecursorMZ == null || msLevelFilter.isMs1Only()) {
       return entries;
     }
-    var indexRange = BinarySearch.indexRange(
-        mzTolerancePrecursor.getToleranceRange(scanPrecursorMZ), entries,
-        SpectralLibraryEntry::getPrecursorMZ);
+    final Range<Double> mzRange = mzTolerancePrecursor.getToleranceRange(scanPrecursorMZ);
+    final double[] precursorMZs = sortedPrecursorMZs;
+    var indexRange = precursorMZs != null && precursorMZs.length == entries.size()
+        ? BinarySearch.indexRange(precursorMZs, mzRange)
+        : BinarySearch.indexRange(mzRange, entries, SpectralLibraryEntry::getPrecursorMZ);
     // filter
     entries = indexRange.sublist(entries);
     return entries;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -29,6 +29,7 @@ import io.github.mzmine.datamodel.MZmineProject;
 import io.github.mzmine.datamodel.RawDataFile;
 import io.github.mzmine.main.MZmineCore;
 import io.github.mzmine.modules.MZmineModuleCategory;
+import io.github.mzmine.modules.PerFileProcessingModule;
 import io.github.mzmine.parameters.ParameterSet;
 import io.github.mzmine.parameters.ParameterUtils;
 import io.github.mzmine.parameters.parametertypes.selectors.RawDataFilesParameter;
@@ -45,7 +46,7 @@ import org.jetbrains.annotations.Nullable;
  * A module that creates one task per RawDataFile
  */
 public abstract class TaskPerRawDataFileModule extends AbstractProcessingModule implements
-    Supplier<MemoryMapStorage> {
+    PerFileProcessingModule, Supplier<MemoryMapStorage> {
 
   private final boolean requiresMemoryMapping;
 
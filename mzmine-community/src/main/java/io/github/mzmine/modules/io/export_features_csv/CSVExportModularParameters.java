@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -56,6 +56,11 @@ public class CSVExportModularParameters extends SimpleParameterSet {
   public static final ComboParameter<FeatureListRowsFilter> filter = new ComboParameter<>(
       "Filter rows", "Limit the exported rows to those with MS/MS data (or annotated rows)",
       FeatureListRowsFilter.values(), FeatureListRowsFilter.ALL);
+  public static final ComboParameter<CSVExportEngine> engine = new ComboParameter<>(
+      "Export engine", """
+      Sequential formats and writes all rows on one thread. Parallel chunks formats chunks of rows \
+      in parallel and writes them in order, which is faster for large feature lists. \
+      Both write identical files.""", CSVExportEngine.values(), CSVExportEngine.SEQUENTIAL);
   private static final List<ExtensionFilter> extensions = List.of( //
       new ExtensionFilter("comma-separated values", "*.csv"), //
       new ExtensionFilter("All files", "*.*") //
@@ -69,7 +74,7 @@ public class CSVExportModularParameters extends SimpleParameterSet {
 
   public CSVExportModularParameters() {
     super(featureLists, compoundRowSelection, filename, fieldSeparator, idSeparator,
-        omitEmptyColumns, filter);
+        omitEmptyColumns, filter, engine);
   }
 
   @Override
@@ -57,13 +57,17 @@ import io.github.mzmine.taskcontrol.ProcessedItemsCounter;
 import io.github.mzmine.taskcontrol.TaskStatus;
 import io.github.mzmine.util.FeatureListRowSorter;
 import io.github.mzmine.util.files.FileAndPathUtil;
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
 import io.github.mzmine.util.io.CSVUtils;
 import io.github.mzmine.util.spectraldb.entry.SpectralDBAnnotation;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -76,11 +80,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -89,6 +96,10 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
 
   public static final String DATAFILE_PREFIX = "datafile";
   private static final Logger logger = Logger.getLogger(CSVExportModularTask.class.getName());
+  /**
+   * Rows formatted by one worker of the {@link CSVExportEngine#PARALLEL_CHUNKS} engine
+   */
+  private static final int PARALLEL_CHUNK_ROWS = 512;
   private final ModularFeatureList[] featureLists;
   // parameter values
   private final File fileName;
@@ -98,6 +109,7 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
   private final FeatureListRowsFilter rowFilter;
   private final boolean removeEmptyCols;
   private final CompoundRowSelection rowSelection;
+  private final CSVExportEngine engine;
   private final ParameterSet parameters;
   // track number of exported items
   private final AtomicInteger exportedRows = new AtomicInteger(0);
@@ -113,6 +125,7 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
     this.rowFilter = parameters.getParameter(CSVExportModularParameters.filter).getValue();
     removeEmptyCols = parameters.getValue(CSVExportModularParameters.omitEmptyColumns);
     rowSelection = parameters.getValue(CSVExportModularParameters.compoundRowSelection);
+    engine = parameters.getValue(CSVExportModularParameters.engine);
     this.parameters = parameters;
   }
 
@@ -128,6 +141,23 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
       String fieldSeparator, String idSeparator, FeatureListRowsFilter rowFilter,
       boolean removeEmptyCols, @NotNull Instant moduleCallDate,
       CompoundRowSelection compoundRowSelection) {
+    this(featureLists, fileName, fieldSeparator, idSeparator, rowFilter, removeEmptyCols,
+        moduleCallDate, compoundRowSelection, CSVExportEngine.SEQUENTIAL);
+  }
+
+  /**
+   * @param compoundRowSelection
+   * @param featureLists         feature lists to export
+   * @param fileName             export file name
+   * @param fieldSeparator       separation of columns
+   * @param idSeparator          identity field separation
+   * @param rowFilter            Row filter
+   * @param engine               formats and writes the rows
+   */
+  public CSVExportModularTask(ModularFeatureList[] featureLists, File fileName,
+      String fieldSeparator, String idSeparator, FeatureListRowsFilter rowFilter,
+      boolean removeEmptyCols, @NotNull Instant moduleCallDate,
+      CompoundRowSelection compoundRowSelection, @NotNull CSVExportEngine engine) {
     super(null, moduleCallDate); // no new data stored -> null
     if (fieldSeparator.equals(idSeparator)) {
       throw new IllegalArgumentException(MessageFormat.format(
@@ -140,6 +170,7 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
     this.rowFilter = rowFilter;
     this.removeEmptyCols = removeEmptyCols;
     this.rowSelection = compoundRowSelection;
+    this.engine = engine;
     parameters = null;
   }
 
@@ -209,10 +240,22 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
 
       // Open file
 
-      try (BufferedWriter writer = Files.newBufferedWriter(curFile.toPath(),
-          StandardCharsets.UTF_8)) {
-        exportFeatureList(featureList, writer);
-
+      try {
+        switch (engine) {
+          case SEQUENTIAL -> {
+            try (BufferedWriter writer = Files.newBufferedWriter(curFile.toPath(),
+                StandardCharsets.UTF_8)) {
+              exportFeatureList(featureList, writer);
+            }
+          }
+          case PARALLEL_CHUNKS -> {
+            try (FileChannel channel = FileChannel.open(curFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+              exportFeatureListParallel(featureList, channel);
+            }
+          }
+        }
       } catch (IOException e) {
         setStatus(TaskStatus.ERROR);
         setErrorMessage("Could not open file " + curFile + " for writing.");
@@ -242,9 +285,123 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
     }
   }
 
-  @SuppressWarnings("rawtypes")
   private void exportFeatureList(ModularFeatureList flist, BufferedWriter writer)
       throws IOException {
+    final ExportLayout layout = createLayout(flist);
+    final List<FeatureListRow> rows = layout.rows();
+
+    writer.append(layout.header());
+    writer.newLine();
+
+    // write data
+    totalTypes = layout.columns().size() + rows.size();
+
+    List<String[]> formattedCols = new ArrayList<>(layout.columns().size());
+
+    // list string values for each column and sub column
+    for (ExportColumn column : layout.columns()) {
+      if (isCanceled()) {
+        return;
+      }
+
+      formattedCols.add(rows.stream().map(column::format).toArray(String[]::new));
+      processedTypes++;
+    }
+
+    for (int i = 0; i < rows.size(); i++) {
+      // Cancel?
+      if (isCanceled()) {
+        return;
+      }
+
+      final int row = i;
+      writer.append(
+          formattedCols.stream().map(col -> col[row]).collect(Collectors.joining(fieldSeparator)));
+      writer.newLine();
+
+      exportedRows.incrementAndGet();
+      processedTypes++;
+    }
+  }
+
+  /**
+   * Formats chunks of {@link #PARALLEL_CHUNK_ROWS} rows in parallel to UTF-8 bytes and writes them
+   * in row order. The chunks are formatted in a pool limited to the number of threads in the
+   * preferences and only a limited number of chunks is held in memory at a time. The output is
+   * identical to {@link #exportFeatureList(ModularFeatureList, BufferedWriter)}.
+   */
+  private void exportFeatureListParallel(ModularFeatureList flist, FileChannel channel)
+      throws IOException {
+    final ExportLayout layout = createLayout(flist);
+    final List<FeatureListRow> rows = layout.rows();
+    final List<ExportColumn> columns = layout.columns();
+
+    writeFully(channel,
+        (layout.header() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+
+    totalTypes = rows.size();
+
+    final int numChunks = Math.ceilDiv(rows.size(), PARALLEL_CHUNK_ROWS);
+    try (ForkJoinPool pool = ThreadPoolUtils.newForkJoinPool("CSV export")) {
+      final int chunksPerBatch = pool.getParallelism() * 4;
+      for (int batchStart = 0; batchStart < numChunks; batchStart += chunksPerBatch) {
+        if (isCanceled()) {
+          return;
+        }
+
+        final int first = batchStart;
+        final int batchEnd = Math.min(numChunks, batchStart + chunksPerBatch);
+        // parallel ordered stream keeps the chunks in row order
+        final List<byte[]> chunks = ThreadPoolUtils.invoke(pool,
+            () -> IntStream.range(first, batchEnd).parallel()
+                .mapToObj(chunk -> formatRows(rows, columns, chunk * PARALLEL_CHUNK_ROWS,
+                    Math.min(rows.size(), (chunk + 1) * PARALLEL_CHUNK_ROWS))).toList());
+
+        for (byte[] chunk : chunks) {
+          writeFully(channel, chunk);
+        }
+
+        final int written = Math.min(rows.size(), batchEnd * PARALLEL_CHUNK_ROWS)
+            - batchStart * PARALLEL_CHUNK_ROWS;
+        exportedRows.addAndGet(written);
+        processedTypes += written;
+      }
+    }
+  }
+
+  /**
+   * @return the lines of rows from (inclusive) to (exclusive) as UTF-8 bytes
+   */
+  private byte[] formatRows(List<FeatureListRow> rows, List<ExportColumn> columns, int from,
+      int to) {
+    final String lineSeparator = System.lineSeparator();
+    final StringBuilder b = new StringBuilder();
+    for (int i = from; i < to; i++) {
+      final FeatureListRow row = rows.get(i);
+      for (int c = 0; c < columns.size(); c++) {
+        if (c > 0) {
+          b.append(fieldSeparator);
+        }
+        b.append(columns.get(c).format(row));
+      }
+      b.append(lineSeparator);
+    }
+    return b.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void writeFully(FileChannel channel, byte[] bytes) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * Selects the exported rows, types and sub types once per feature list and creates the header
+   * and one formatter per column.
+   */
+  @SuppressWarnings("rawtypes")
+  private ExportLayout createLayout(ModularFeatureList flist) {
     final List<FeatureListRow> selectedRows = new ArrayList<>(flist.getRowsCopy(rowSelection));
     final List<FeatureListRow> rows = selectedRows.stream().filter(rowFilter::accept)
         .sorted(FeatureListRowSorter.DEFAULT_ID).toList();
@@ -269,7 +426,7 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
 
     final Map<DataType, List<DataType>> rowsSubTypesIndex = indexSubTypes(rowTypes, rows);
 
-    // Write feature row headers
+    // feature row headers
     StringBuilder header = new StringBuilder(
         getJoinedHeader(rowTypes, "", rows, false, rowsSubTypesIndex));
     for (RawDataFile raw : rawDataFiles) {
@@ -278,51 +435,19 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
               true, null));
     }
 
-    writer.append(header.toString());
-    writer.newLine();
-
-    // write data
-    totalTypes = rowTypes.size() + featureTypes.size() * rawDataFiles.size();
-
-    List<String[]> formattedCols = new ArrayList<>(totalTypes);
-
-    // list string values for each type and sub type
+    final List<ExportColumn> columns = new ArrayList<>();
+    // formatters for each type and sub type
     for (DataType rowType : rowTypes) {
-      if (isCanceled()) {
-        return;
-      }
-
-      addFormattedColumnsRecursively(formattedCols, rows, null, rowType, rowsSubTypesIndex);
-
-      processedTypes++;
+      addColumnsRecursively(columns, rows, null, rowType, rowsSubTypesIndex);
     }
-
     // add feature types for each raw data file
     for (RawDataFile raw : rawDataFiles) {
       for (DataType featureType : featureTypes) {
-        if (isCanceled()) {
-          return;
-        }
-
-        addFormattedColumnsRecursively(formattedCols, rows, raw, featureType, null);
-        processedTypes++;
+        addColumnsRecursively(columns, rows, raw, featureType, null);
       }
     }
 
-    for (int i = 0; i < rows.size(); i++) {
-      // Cancel?
-      if (isCanceled()) {
-        return;
-      }
-
-      final int row = i;
-      writer.append(
-          formattedCols.stream().map(col -> col[row]).collect(Collectors.joining(fieldSeparator)));
-      writer.newLine();
-
-      exportedRows.incrementAndGet();
-      processedTypes++;
-    }
+    return new ExportLayout(rows, header.toString(), columns);
   }
 
   /**
@@ -439,15 +564,15 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
   }
 
   /**
-   * Adds columns of formatted values for each column / sub column. missing values are replaced by
-   * empty strings or default values
+   * Adds a formatter for each column / sub column. missing values are replaced by empty strings or
+   * default values
    *
-   * @param formattedCols the target list
-   * @param rows          the data
-   * @param raw           defines the feature
-   * @param type          the feature data type to be added (and its sub columns)
+   * @param columns the target list
+   * @param rows    the data
+   * @param raw     defines the feature
+   * @param type    the feature data type to be added (and its sub columns)
    */
-  private void addFormattedColumnsRecursively(List<String[]> formattedCols,
+  private void addColumnsRecursively(List<ExportColumn> columns,
       @NotNull final List<FeatureListRow> rows, @Nullable RawDataFile raw,
       @NotNull final DataType type, @Nullable final Map<DataType, List<DataType>> subTypesIndex) {
 
@@ -456,10 +581,7 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
       // explicitly indexed types
       final List<DataType> subTypes = subTypesIndex.get(type);
       for (DataType subType : subTypes) {
-        // collect column data
-        String[] column = getDataStream(rows, raw, false).map(
-            data -> getFormattedValue(data, subFactory, subType)).toArray(String[]::new);
-        formattedCols.add(column);
+        columns.add(new ExportColumn(raw, data -> getFormattedValue(data, subFactory, subType)));
       }
     } else if (type instanceof SubColumnsFactory subFactory) {
       // only "static" sub columns for this type, e.g. for number types as they are a dirty hack
@@ -471,16 +593,11 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
             s))) {
           continue;
         }
-        // collect column data
         final int subIndex = s;
-        String[] column = getDataStream(rows, raw, false).map(
-            data -> getFormattedValue(data, subFactory, subIndex)).toArray(String[]::new);
-        formattedCols.add(column);
+        columns.add(new ExportColumn(raw, data -> getFormattedValue(data, subFactory, subIndex)));
       }
     } else {
-      String[] column = getDataStream(rows, raw, false).map(data -> getFormattedValue(data, type))
-          .toArray(String[]::new);
-      formattedCols.add(column);
+      columns.add(new ExportColumn(raw, data -> getFormattedValue(data, type)));
     }
   }
 
@@ -691,4 +808,25 @@ public class CSVExportModularTask extends AbstractTask implements ProcessedItems
           featureList.getName(), numMS2, numMS2End));
     }
   }
+
+  /**
+   * Exported rows, header line and column formatters of one feature list
+   */
+  private record ExportLayout(@NotNull List<FeatureListRow> rows, @NotNull String header,
+                              @NotNull List<ExportColumn> columns) {
+
+  }
+
+  /**
+   * One exported column. The formatter receives the row or its feature of raw.
+   */
+  private record ExportColumn(@Nullable RawDataFile raw,
+                              @NotNull Function<ModularDataModel, String> formatter) {
+
+    String format(FeatureListRow row) {
+      final ModularDataModel data =
+          raw == null ? row : ((ModularFeatureListRow) row).getFeature(raw);
+      return formatter.apply(data);
+    }
+  }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2022 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -28,6 +28,8 @@ package io.github.mzmine.modules.io.export_features_sql;
 import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.impl.SimpleParameterSet;
 import io.github.mzmine.parameters.parametertypes.BooleanParameter;
+import io.github.mzmine.parameters.parametertypes.ComboParameter;
+import io.github.mzmine.parameters.parametertypes.IntegerParameter;
 import io.github.mzmine.parameters.parametertypes.StringParameter;
 import io.github.mzmine.parameters.parametertypes.selectors.FeatureListsParameter;
 
@@ -49,8 +51,19 @@ public class SQLExportParameters extends SimpleParameterSet {
       "Export empty feature list",
       "If selected, an empty feature list will be exported with null values for all column other than the rawdatafile and any constant values.");
 
+  public static final ComboParameter<SQLExportMode> exportMode = new ComboParameter<>(
+      "Export mode", """
+      Row by row sends one INSERT per row and raw data file. Bulk sends batches of INSERT \
+      statements in one transaction, or uses COPY when connected to PostgreSQL and no BLOB \
+      columns (isotope pattern, MS/MS) are exported.""", SQLExportMode.values(),
+      SQLExportMode.ROW_BY_ROW);
+
+  public static final IntegerParameter batchSize = new IntegerParameter("Batch size",
+      "Number of INSERT statements sent to the database at once in bulk mode", 1000, 1, null);
+
   public SQLExportParameters() {
-    super(new Parameter[] {featureList, connectionString, tableName, exportColumns, emptyExport});
+    super(new Parameter[] {featureList, connectionString, tableName, exportColumns, emptyExport,
+        exportMode, batchSize});
   }
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2022 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -26,11 +26,17 @@
 package io.github.mzmine.modules.io.export_features_sql;
 
 import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
 import io.github.mzmine.datamodel.DataPoint;
 import io.github.mzmine.datamodel.FeatureIdentity;
 import io.github.mzmine.datamodel.IsotopePattern;
@@ -44,17 +50,30 @@ import io.github.mzmine.parameters.ParameterSet;
 import io.github.mzmine.taskcontrol.AbstractTask;
 import io.github.mzmine.taskcontrol.TaskStatus;
 import io.github.mzmine.util.RangeUtils;
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
 import io.github.mzmine.util.scans.ScanUtils;
 import java.time.Instant;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
 
 class SQLExportTask extends AbstractTask {
 
+  private static final Logger logger = Logger.getLogger(SQLExportTask.class.getName());
+  /**
+   * Rows formatted by one worker for PostgreSQL COPY
+   */
+  private static final int COPY_CHUNK_ROWS = 512;
+
   private final FeatureList featureList;
   private final String connectionString;
   private final String tableName;
   private final SQLColumnSettings exportColumns;
   private final boolean emptyExport;
+  private final SQLExportMode exportMode;
+  private final int batchSize;
 
   private int processedRows = 0, totalRows = 0;
 
@@ -71,7 +90,22 @@ class SQLExportTask extends AbstractTask {
     this.tableName = parameters.getParameter(SQLExportParameters.tableName).getValue();
     this.exportColumns = parameters.getParameter(SQLExportParameters.exportColumns).getValue();
     this.emptyExport = parameters.getParameter(SQLExportParameters.emptyExport).getValue();
+    this.exportMode = parameters.getValue(SQLExportParameters.exportMode);
+    this.batchSize = parameters.getValue(SQLExportParameters.batchSize);
+
+  }
 
+  SQLExportTask(FeatureList featureList, String connectionString, String tableName,
+      SQLColumnSettings exportColumns, boolean emptyExport, SQLExportMode exportMode,
+      int batchSize, @NotNull Instant moduleCallDate) {
+    super(null, moduleCallDate); // no new data stored -> null
+    this.featureList = featureList;
+    this.connectionString = connectionString;
+    this.tableName = tableName;
+    this.exportColumns = exportColumns;
+    this.emptyExport = emptyExport;
+    this.exportMode = exportMode;
+    this.batchSize = batchSize;
   }
 
   @Override
@@ -112,18 +146,31 @@ class SQLExportTask extends AbstractTask {
       if (rows.length < 1 && emptyExport) {
         exportFeatureListRow(null);
       } else {
-        for (FeatureListRow row : rows) {
-          if (getStatus() != TaskStatus.PROCESSING)
-            break;
-          exportFeatureListRow(row);
-          processedRows++;
+        switch (exportMode) {
+          case ROW_BY_ROW -> {
+            for (FeatureListRow row : rows) {
+              if (getStatus() != TaskStatus.PROCESSING)
+                break;
+              exportFeatureListRow(row);
+              processedRows++;
+            }
+          }
+          case BULK -> exportBulk(rows);
         }
       }
+      if (exportMode == SQLExportMode.BULK && isCanceled()) {
+        // the bulk export is one transaction, do not keep the rows before the cancel
+        rollbackAndClose();
+        return;
+      }
       dbConnection.commit();
       dbConnection.close();
     } catch (SQLException e) {
       setStatus(TaskStatus.ERROR);
       setErrorMessage("Error running SQL query: " + e.toString());
+      if (exportMode == SQLExportMode.BULK) {
+        rollbackAndClose();
+      }
       return;
     }
 
@@ -139,27 +186,7 @@ class SQLExportTask extends AbstractTask {
       return;
     }
 
-    // Value for looping through raw data files
-    boolean loopDataFiles = false;
-
-    StringBuilder sql = new StringBuilder();
-    sql.append("INSERT INTO ");
-    sql.append(tableName);
-    sql.append(" (");
-    for (int i = 0; i < exportColumns.getRowCount(); i++) {
-      sql.append(exportColumns.getValueAt(i, 0));
-      if (i < exportColumns.getRowCount() - 1)
-        sql.append(",");
-    }
-    sql.append(" ) VALUES (");
-    for (int i = 0; i < exportColumns.getRowCount(); i++) {
-      sql.append("?");
-      if (i < exportColumns.getRowCount() - 1)
-        sql.append(",");
-    }
-    sql.append(")");
-
-    PreparedStatement statement = dbConnection.prepareStatement(sql.toString());
+    PreparedStatement statement = dbConnection.prepareStatement(createInsertSql());
 
     if (row == null) {
       for (int i = 0; i < exportColumns.getRowCount(); i++) {
@@ -183,130 +210,7 @@ class SQLExportTask extends AbstractTask {
 
     else {
       for (RawDataFile rawDataFile : row.getRawDataFiles()) {
-        Feature feature = row.getFeature(rawDataFile);
-
-        for (int i = 0; i < exportColumns.getRowCount(); i++) {
-          SQLExportDataType dataType = (SQLExportDataType) exportColumns.getValueAt(i, 1);
-          String dataValue = (String) exportColumns.getValueAt(i, 2);
-          switch (dataType) {
-            case CONSTANT:
-              statement.setString(i + 1, dataValue);
-              break;
-            case MZ:
-              statement.setDouble(i + 1, row.getAverageMZ());
-              break;
-            case RT:
-              statement.setDouble(i + 1, row.getAverageRT());
-              break;
-            case ID:
-              statement.setInt(i + 1, row.getID());
-              break;
-            case FEATURECHARGE:
-              statement.setDouble(i + 1, feature.getCharge());
-              loopDataFiles = true;
-              break;
-            case FEATUREDURATION:
-              statement.setDouble(i + 1, RangeUtils.rangeLength(feature.getRawDataPointsRTRange()));
-              loopDataFiles = true;
-              break;
-            case FEATURESTATUS:
-              statement.setString(i + 1, feature.getFeatureStatus().name());
-              loopDataFiles = true;
-              break;
-            case FEATUREMZ:
-              statement.setDouble(i + 1, feature.getMZ());
-              loopDataFiles = true;
-              break;
-            case FEATURERT:
-              statement.setDouble(i + 1, feature.getRT());
-              loopDataFiles = true;
-              break;
-            case FEATURERT_START:
-              statement.setDouble(i + 1, feature.getRawDataPointsRTRange().lowerEndpoint());
-              loopDataFiles = true;
-              break;
-            case FEATURERT_END:
-              statement.setDouble(i + 1, feature.getRawDataPointsRTRange().upperEndpoint());
-              loopDataFiles = true;
-              break;
-            case FEATUREHEIGHT:
-              statement.setDouble(i + 1, feature.getHeight());
-              loopDataFiles = true;
-              break;
-            case FEATUREAREA:
-              statement.setDouble(i + 1, feature.getArea());
-              loopDataFiles = true;
-              break;
-            case DATAPOINTS:
-              statement.setDouble(i + 1, feature.getScanNumbers().size());
-              loopDataFiles = true;
-              break;
-            case FWHM:
-              statement.setDouble(i + 1, feature.getFWHM());
-              loopDataFiles = true;
-              break;
-            case TAILINGFACTOR:
-              statement.setDouble(i + 1, feature.getTailingFactor());
-              loopDataFiles = true;
-              break;
-            case ASYMMETRYFACTOR:
-              statement.setDouble(i + 1, feature.getAsymmetryFactor());
-              loopDataFiles = true;
-              break;
-            case RAWFILE:
-              statement.setString(i + 1, rawDataFile.getName());
-              loopDataFiles = true;
-              break;
-            case HEIGHT:
-              statement.setDouble(i + 1, row.getMaxHeight());
-              break;
-            case AREA:
-              statement.setDouble(i + 1, row.getMaxArea());
-              break;
-            case COMMENT:
-              statement.setString(i + 1, row.getComment());
-              break;
-            case IDENTITY:
-              FeatureIdentity id = row.getPreferredFeatureIdentity();
-              if (id != null) {
-                statement.setString(i + 1, id.getName());
-              } else {
-                statement.setNull(i + 1, Types.VARCHAR);
-              }
-              break;
-            case ISOTOPEPATTERN:
-              IsotopePattern isotopes = row.getBestIsotopePattern();
-              if (isotopes == null) {
-                statement.setNull(i + 1, Types.BLOB);
-                break;
-              }
-              DataPoint dataPoints[] = ScanUtils.extractDataPoints(isotopes);
-              byte bytes[] = ScanUtils.encodeDataPointsToBytes(dataPoints);
-              ByteArrayInputStream is = new ByteArrayInputStream(bytes);
-              statement.setBlob(i + 1, is);
-              break;
-            case MSMS:
-              Scan msmsScan = row.getBestFeature().getMostIntenseFragmentScan();
-              // Check if there is any MS/MS scan
-              if (msmsScan == null) {
-                statement.setNull(i + 1, Types.BLOB);
-                break;
-              }
-              MassList msmsMassList = msmsScan.getMassList();
-              // Check if there is a masslist for the scan
-              if (msmsMassList == null) {
-                statement.setNull(i + 1, Types.BLOB);
-                break;
-              }
-              dataPoints = msmsMassList.getDataPoints();
-              bytes = ScanUtils.encodeDataPointsToBytes(dataPoints);
-              is = new ByteArrayInputStream(bytes);
-              statement.setBlob(i + 1, is);
-              break;
-            default:
-              break;
-          }
-        }
+        final boolean loopDataFiles = bindValues(statement, row, rawDataFile);
         statement.executeUpdate();
 
         // If no data file elements are selected then don't loop through
@@ -318,4 +222,388 @@ class SQLExportTask extends AbstractTask {
       }
     }
   }
+
+  /**
+   * Transfers all rows in the current transaction. Uses COPY for PostgreSQL if no BLOB columns are
+   * exported and JDBC batches of {@link #batchSize} INSERT statements otherwise.
+   */
+  private void exportBulk(FeatureListRow[] rows) throws SQLException {
+    final CopyManager copyManager = hasBlobColumns() ? null : getCopyManager();
+    if (copyManager != null) {
+      exportCopy(copyManager, rows);
+      return;
+    }
+
+    try (PreparedStatement statement = dbConnection.prepareStatement(createInsertSql())) {
+      int batched = 0;
+      for (FeatureListRow row : rows) {
+        if (getStatus() != TaskStatus.PROCESSING) {
+          return;
+        }
+        for (RawDataFile rawDataFile : row.getRawDataFiles()) {
+          final boolean loopDataFiles = bindValues(statement, row, rawDataFile);
+          statement.addBatch();
+          batched++;
+          if (!loopDataFiles) {
+            break;
+          }
+        }
+        if (batched >= batchSize) {
+          statement.executeBatch();
+          batched = 0;
+        }
+        processedRows++;
+      }
+      if (batched > 0) {
+        statement.executeBatch();
+      }
+    }
+  }
+
+  /**
+   * Formats chunks of rows in parallel and streams them in row order to a single COPY operation.
+   * The chunks are formatted in a pool limited to the number of threads in the preferences.
+   */
+  private void exportCopy(CopyManager copyManager, FeatureListRow[] rows) throws SQLException {
+    final CopyIn copyIn = copyManager.copyIn(createCopySql());
+    try (ForkJoinPool pool = ThreadPoolUtils.newForkJoinPool("SQL export")) {
+      final int numChunks = Math.ceilDiv(rows.length, COPY_CHUNK_ROWS);
+      final int chunksPerBatch = pool.getParallelism() * 4;
+      for (int batchStart = 0; batchStart < numChunks; batchStart += chunksPerBatch) {
+        if (getStatus() != TaskStatus.PROCESSING) {
+          copyIn.cancelCopy();
+          return;
+        }
+        final int first = batchStart;
+        final int batchEnd = Math.min(numChunks, batchStart + chunksPerBatch);
+        // parallel ordered stream keeps the chunks in row order
+        final List<byte[]> chunks = ThreadPoolUtils.invoke(pool,
+            () -> IntStream.range(first, batchEnd).parallel()
+                .mapToObj(chunk -> formatCopyRows(rows, chunk * COPY_CHUNK_ROWS,
+                    Math.min(rows.length, (chunk + 1) * COPY_CHUNK_ROWS))).toList());
+        for (byte[] chunk : chunks) {
+          copyIn.writeToCopy(chunk, 0, chunk.length);
+        }
+        processedRows = Math.min(rows.length, batchEnd * COPY_CHUNK_ROWS);
+      }
+      copyIn.endCopy();
+    } finally {
+      if (copyIn.isActive()) {
+        copyIn.cancelCopy();
+      }
+    }
+  }
+
+  /**
+   * @return rows from (inclusive) to (exclusive) as UTF-8 encoded CSV lines for COPY. Each row
+   * results in the same lines and values as the INSERT statements of
+   * {@link #bindValues(PreparedStatement, FeatureListRow, RawDataFile)}.
+   */
+  byte[] formatCopyRows(FeatureListRow[] rows, int from, int to) {
+    final StringBuilder b = new StringBuilder();
+    for (int r = from; r < to; r++) {
+      final FeatureListRow row = rows[r];
+      for (RawDataFile rawDataFile : row.getRawDataFiles()) {
+        final boolean loopDataFiles = appendCopyValues(b, row, rawDataFile);
+        b.append('\n');
+        if (!loopDataFiles) {
+          break;
+        }
+      }
+    }
+    return b.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Appends the comma separated values of one row and raw data file
+   *
+   * @return true if any data file element is exported
+   */
+  private boolean appendCopyValues(StringBuilder b, FeatureListRow row, RawDataFile rawDataFile) {
+    boolean loopDataFiles = false;
+    Feature feature = row.getFeature(rawDataFile);
+
+    for (int i = 0; i < exportColumns.getRowCount(); i++) {
+      if (i > 0) {
+        b.append(',');
+      }
+      SQLExportDataType dataType = (SQLExportDataType) exportColumns.getValueAt(i, 1);
+      String dataValue = (String) exportColumns.getValueAt(i, 2);
+      switch (dataType) {
+        case CONSTANT -> appendCopyString(b, dataValue);
+        case MZ -> appendCopyDouble(b, row.getAverageMZ());
+        case RT -> appendCopyDouble(b, row.getAverageRT());
+        case ID -> b.append(row.getID());
+        case HEIGHT -> appendCopyDouble(b, row.getMaxHeight());
+        case AREA -> appendCopyDouble(b, row.getMaxArea());
+        case COMMENT -> appendCopyString(b, row.getComment());
+        case IDENTITY -> {
+          FeatureIdentity id = row.getPreferredFeatureIdentity();
+          appendCopyString(b, id != null ? id.getName() : null);
+        }
+        case FEATURECHARGE, FEATUREDURATION, FEATURESTATUS, FEATUREMZ, FEATURERT,
+             FEATURERT_START, FEATURERT_END, FEATUREHEIGHT, FEATUREAREA, DATAPOINTS, FWHM,
+             TAILINGFACTOR, ASYMMETRYFACTOR, RAWFILE -> {
+          appendCopyFeatureValue(b, dataType, feature, rawDataFile);
+          loopDataFiles = true;
+        }
+        default -> {
+          // titles and BLOB columns, which are never exported by COPY, stay NULL
+        }
+      }
+    }
+    return loopDataFiles;
+  }
+
+  private void appendCopyFeatureValue(StringBuilder b, SQLExportDataType dataType,
+      Feature feature, RawDataFile rawDataFile) {
+    switch (dataType) {
+      case FEATURECHARGE -> appendCopyDouble(b, feature.getCharge());
+      case FEATUREDURATION ->
+          appendCopyDouble(b, RangeUtils.rangeLength(feature.getRawDataPointsRTRange()));
+      case FEATURESTATUS -> appendCopyString(b, feature.getFeatureStatus().name());
+      case FEATUREMZ -> appendCopyDouble(b, feature.getMZ());
+      case FEATURERT -> appendCopyDouble(b, feature.getRT());
+      case FEATURERT_START ->
+          appendCopyDouble(b, feature.getRawDataPointsRTRange().lowerEndpoint());
+      case FEATURERT_END -> appendCopyDouble(b, feature.getRawDataPointsRTRange().upperEndpoint());
+      case FEATUREHEIGHT -> appendCopyDouble(b, feature.getHeight());
+      case FEATUREAREA -> appendCopyDouble(b, feature.getArea());
+      case DATAPOINTS -> appendCopyDouble(b, feature.getScanNumbers().size());
+      case FWHM -> appendCopyDouble(b, feature.getFWHM());
+      case TAILINGFACTOR -> appendCopyDouble(b, feature.getTailingFactor());
+      case ASYMMETRYFACTOR -> appendCopyDouble(b, feature.getAsymmetryFactor());
+      case RAWFILE -> appendCopyString(b, rawDataFile.getName());
+      default -> throw new IllegalArgumentException("Not a data file element " + dataType);
+    }
+  }
+
+  /**
+   * Integral values are written without fraction so that they can also be copied into integer
+   * columns, like the INSERT statements that bind all numbers as double.
+   */
+  private static void appendCopyDouble(StringBuilder b, double value) {
+    if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      b.append((long) value);
+    } else {
+      b.append(value);
+    }
+  }
+
+  /**
+   * Quotes all values, so that empty strings stay empty strings. null is written as unquoted empty
+   * field, which is NULL in the CSV format.
+   */
+  private static void appendCopyString(StringBuilder b, @Nullable String value) {
+    if (value == null) {
+      return;
+    }
+    b.append('"').append(value.replace("\"", "\"\"")).append('"');
+  }
+
+  /**
+   * @return true if isotope patterns or MS/MS spectra are exported
+   */
+  private boolean hasBlobColumns() {
+    for (int i = 0; i < exportColumns.getRowCount(); i++) {
+      if (exportColumns.getValueAt(i, 1) instanceof SQLExportDataType type && "BLOB".equals(
+          type.valueType())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the COPY API if connected to PostgreSQL, otherwise null
+   */
+  private @Nullable CopyManager getCopyManager() {
+    try {
+      if (dbConnection.isWrapperFor(PGConnection.class)) {
+        return dbConnection.unwrap(PGConnection.class).getCopyAPI();
+      }
+    } catch (SQLException e) {
+      logger.log(Level.FINE, "PostgreSQL COPY is not available, using batches", e);
+    }
+    return null;
+  }
+
+  private String createInsertSql() {
+    StringBuilder sql = new StringBuilder();
+    sql.append("INSERT INTO ");
+    sql.append(tableName);
+    sql.append(" (");
+    appendColumnNames(sql);
+    sql.append(" ) VALUES (");
+    for (int i = 0; i < exportColumns.getRowCount(); i++) {
+      sql.append("?");
+      if (i < exportColumns.getRowCount() - 1)
+        sql.append(",");
+    }
+    sql.append(")");
+    return sql.toString();
+  }
+
+  private String createCopySql() {
+    StringBuilder sql = new StringBuilder();
+    sql.append("COPY ");
+    sql.append(tableName);
+    sql.append(" (");
+    appendColumnNames(sql);
+    sql.append(") FROM STDIN WITH (FORMAT csv)");
+    return sql.toString();
+  }
+
+  private void appendColumnNames(StringBuilder sql) {
+    for (int i = 0; i < exportColumns.getRowCount(); i++) {
+      sql.append(exportColumns.getValueAt(i, 0));
+      if (i < exportColumns.getRowCount() - 1)
+        sql.append(",");
+    }
+  }
+
+  private void rollbackAndClose() {
+    try {
+      dbConnection.rollback();
+      dbConnection.close();
+    } catch (SQLException e) {
+      logger.log(Level.WARNING, "Cannot roll back the SQL export", e);
+    }
+  }
+
+  /**
+   * Binds the values of row and one of its raw data files to the INSERT statement
+   *
+   * @return true if any data file element is exported, then the row is exported for each raw data
+   * file
+   */
+  private boolean bindValues(PreparedStatement statement, FeatureListRow row,
+      RawDataFile rawDataFile) throws SQLException {
+    boolean loopDataFiles = false;
+    Feature feature = row.getFeature(rawDataFile);
+
+    for (int i = 0; i < exportColumns.getRowCount(); i++) {
+      SQLExportDataType dataType = (SQLExportDataType) exportColumns.getValueAt(i, 1);
+      String dataValue = (String) exportColumns.getValueAt(i, 2);
+      switch (dataType) {
+        case CONSTANT:
+          statement.setString(i + 1, dataValue);
+          break;
+        case MZ:
+          statement.setDouble(i + 1, row.getAverageMZ());
+          break;
+        case RT:
+          statement.setDouble(i + 1, row.getAverageRT());
+          break;
+        case ID:
+          statement.setInt(i + 1, row.getID());
+          break;
+        case FEATURECHARGE:
+          statement.setDouble(i + 1, feature.getCharge());
+          loopDataFiles = true;
+          break;
+        case FEATUREDURATION:
+          statement.setDouble(i + 1, RangeUtils.rangeLength(feature.getRawDataPointsRTRange()));
+          loopDataFiles = true;
+          break;
+        case FEATURESTATUS:
+          statement.setString(i + 1, feature.getFeatureStatus().name());
+          loopDataFiles = true;
+          break;
+        case FEATUREMZ:
+          statement.setDouble(i + 1, feature.getMZ());
+          loopDataFiles = true;
+          break;
+        case FEATURERT:
+          statement.setDouble(i + 1, feature.getRT());
+          loopDataFiles = true;
+          break;
+        case FEATURERT_START:
+          statement.setDouble(i + 1, feature.getRawDataPointsRTRange().lowerEndpoint());
+          loopDataFiles = true;
+          break;
+        case FEATURERT_END:
+          statement.setDouble(i + 1, feature.getRawDataPointsRTRange().upperEndpoint());
+          loopDataFiles = true;
+          break;
+        case FEATUREHEIGHT:
+          statement.setDouble(i + 1, feature.getHeight());
+          loopDataFiles = true;
+          break;
+        case FEATUREAREA:
+          statement.setDouble(i + 1, feature.getArea());
+          loopDataFiles = true;
+          break;
+        case DATAPOINTS:
+          statement.setDouble(i + 1, feature.getScanNumbers().size());
+          loopDataFiles = true;
+          break;
+        case FWHM:
+          statement.setDouble(i + 1, feature.getFWHM());
+          loopDataFiles = true;
+          break;
+        case TAILINGFACTOR:
+          statement.setDouble(i + 1, feature.getTailingFactor());
+          loopDataFiles = true;
+          break;
+        case ASYMMETRYFACTOR:
+          statement.setDouble(i + 1, feature.getAsymmetryFactor());
+          loopDataFiles = true;
+          break;
+        case RAWFILE:
+          statement.setString(i + 1, rawDataFile.getName());
+          loopDataFiles = true;
+          break;
+        case HEIGHT:
+          statement.setDouble(i + 1, row.getMaxHeight());
+          break;
+        case AREA:
+          statement.setDouble(i + 1, row.getMaxArea());
+          break;
+        case COMMENT:
+          statement.setString(i + 1, row.getComment());
+          break;
+        case IDENTITY:
+          FeatureIdentity id = row.getPreferredFeatureIdentity();
+          if (id != null) {
+            statement.setString(i + 1, id.getName());
+          } else {
+            statement.setNull(i + 1, Types.VARCHAR);
+          }
+          break;
+        case ISOTOPEPATTERN:
+          IsotopePattern isotopes = row.getBestIsotopePattern();
+          if (isotopes == null) {
+            statement.setNull(i + 1, Types.BLOB);
+            break;
+          }
+          DataPoint dataPoints[] = ScanUtils.extractDataPoints(isotopes);
+          byte bytes[] = ScanUtils.encodeDataPointsToBytes(dataPoints);
+          ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+          statement.setBlob(i + 1, is);
+          break;
+        case MSMS:
+          Scan msmsScan = row.getBestFeature().getMostIntenseFragmentScan();
+          // Check if there is any MS/MS scan
+          if (msmsScan == null) {
+            statement.setNull(i + 1, Types.BLOB);
+            break;
+          }
+          MassList msmsMassList = msmsScan.getMassList();
+          // Check if there is a masslist for the scan
+          if (msmsMassList == null) {
+            statement.setNull(i + 1, Types.BLOB);
+            break;
+          }
+          dataPoints = msmsMassList.getDataPoints();
+          bytes = ScanUtils.encodeDataPointsToBytes(dataPoints);
+          is = new ByteArrayInputStream(bytes);
+          statement.setBlob(i + 1, is);
+          break;
+        default:
+          break;
+      }
+    }
+    return loopDataFiles;
+  }
 }
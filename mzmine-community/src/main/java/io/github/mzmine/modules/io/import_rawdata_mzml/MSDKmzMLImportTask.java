@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -25,6 +25,8 @@
 
 package io.github.mzmine.modules.io.import_rawdata_mzml;
 
+import static java.util.Objects.requireNonNullElse;
+
 import com.fasterxml.aalto.stax.InputFactoryImpl;
 import com.google.common.collect.Range;
 import com.google.common.collect.RangeMap;
@@ -43,14 +45,18 @@ import io.github.mzmine.datamodel.impl.SimpleFrame;
 import io.github.mzmine.datamodel.impl.masslist.ScanPointerMassList;
 import io.github.mzmine.datamodel.msms.IonMobilityMsMsInfo;
 import io.github.mzmine.datamodel.otherdetectors.OtherDataFile;
+import io.github.mzmine.gui.preferences.MZminePreferences;
 import io.github.mzmine.javafx.dialogs.DialogLoggerUtil;
+import io.github.mzmine.main.ConfigService;
 import io.github.mzmine.modules.MZmineModule;
 import io.github.mzmine.modules.io.import_rawdata_all.spectral_processor.ScanImportProcessorConfig;
 import io.github.mzmine.modules.io.import_rawdata_mzml.msdk.data.BuildingMobilityScanStorage;
 import io.github.mzmine.modules.io.import_rawdata_mzml.msdk.data.BuildingMzMLMobilityScan;
 import io.github.mzmine.modules.io.import_rawdata_mzml.msdk.data.BuildingMzMLMsScan;
+import io.github.mzmine.modules.io.import_rawdata_mzml.msdk.data.MzMLIndex;
 import io.github.mzmine.modules.io.import_rawdata_mzml.msdk.data.MzMLParser;
 import io.github.mzmine.modules.io.import_rawdata_mzml.msdk.data.MzMLRawDataFile;
+import io.github.mzmine.modules.io.import_rawdata_mzml.msdk.data.ParsedMzMLSpectrum;
 import io.github.mzmine.parameters.ParameterSet;
 import io.github.mzmine.project.impl.IMSRawDataFileImpl;
 import io.github.mzmine.project.impl.RawDataFileImpl;
@@ -59,16 +65,20 @@ import io.github.mzmine.taskcontrol.TaskStatus;
 import io.github.mzmine.util.ArrayUtils;
 import io.github.mzmine.util.MemoryMapStorage;
 import io.github.mzmine.util.RangeUtils;
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
 import io.github.mzmine.util.date.DateTimeUtils;
 import io.github.mzmine.util.exceptions.ExceptionUtils;
 import io.github.mzmine.util.scans.SpectraMerging;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -84,6 +94,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 import java.util.zip.DataFormatException;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
@@ -103,6 +114,10 @@ public class MSDKmzMLImportTask extends AbstractTask implements RawDataImportTas
   public static final Pattern watersPattern = Pattern.compile(
       "function=([1-9]+) process=([0-9]+) scan=([0-9]+)");
   private static final Logger logger = Logger.getLogger(MSDKmzMLImportTask.class.getName());
+  // spectra of one block are parsed in parallel and then added in order
+  private static final int PARALLEL_BLOCK_SIZE = 512;
+  // each chunk of spectra is parsed by one spectrum parser on one thread
+  private static final int PARALLEL_CHUNK_SIZE = 16;
 
   // File is always set even if the input stream may be already opened, e.g., from a converter
   private final @NotNull File file;
@@ -112,6 +127,7 @@ public class MSDKmzMLImportTask extends AbstractTask implements RawDataImportTas
   private final @NotNull ScanImportProcessorConfig scanProcessorConfig;
   private final ParameterSet parameters;
   private final Class<? extends MZmineModule> module;
+  private final @NotNull MzMLImportMode importMode;
   private int totalScansAfterFilter = 0, convertedScansAfterFilter;
   private String description;
 
@@ -147,6 +163,9 @@ public class MSDKmzMLImportTask extends AbstractTask implements RawDataImportTas
     this.scanProcessorConfig = scanProcessorConfig;
     this.parameters = parameters;
     this.module = module;
+    importMode = requireNonNullElse(
+        ConfigService.getPreferences().getValue(MZminePreferences.mzmlImportMode),
+        MzMLImportMode.SEQUENTIAL);
   }
 
   private static boolean isExcludedWatersScan(final BuildingMzMLMobilityScan mzMLScan) {
@@ -558,6 +577,9 @@ public class MSDKmzMLImportTask extends AbstractTask implements RawDataImportTas
 
       if (fis != null) {
         logger.finest("Began parsing file from stream");
+        if (importMode == MzMLImportMode.INDEXED_PARALLEL) {
+          logger.fine("Indexed parallel import is not available for streams, parsing sequentially");
+        }
         try (Reader reader = new InputStreamReader(fis)) {
           // buffered reader had no performance gains. most likely because the XMLStreamReader already buffers
 //        BufferedReader br = new BufferedReader(reader, 8192*4);
@@ -565,6 +587,14 @@ public class MSDKmzMLImportTask extends AbstractTask implements RawDataImportTas
           return parseMzMlInternal(xmlStreamReader);
         }
       } else if (file != null) {
+        if (importMode == MzMLImportMode.INDEXED_PARALLEL) {
+          final MzMLIndex index = MzMLIndex.read(file);
+          if (index != null) {
+            logger.finest("Began parsing indexed file in parallel: " + file.getAbsolutePath());
+            return parseIndexedMzMlParallel(factory, index);
+          }
+          logger.fine(() -> "No valid index in %s, parsing sequentially".formatted(file.getName()));
+        }
         logger.finest("Began parsing file: " + file.getAbsolutePath());
         // buffered reader had no performance gains. most likely because the XMLStreamReader already buffers
 //        try (BufferedReader br = Files.newBufferedReader(mzMLFile.toPath(),
@@ -576,11 +606,95 @@ public class MSDKmzMLImportTask extends AbstractTask implements RawDataImportTas
       } else {
         throw new MSDKException("Invalid input");
       }
-    } catch (IOException | XMLStreamException ex) {
+    } catch (IOException | XMLStreamException | DataFormatException ex) {
       throw new RuntimeException(ex);
     }
   }
 
+  /**
+   * Parses the header sequentially and then uses the byte offsets of the index to parse blocks of
+   * spectra in parallel, limited to the number of threads set in the preferences. Data loading,
+   * processing, and memory mapping is done by the spectrum parsers, the parsed spectra are then
+   * added in file order.
+   *
+   * @return the parsed data or null if canceled
+   */
+  private @Nullable MzMLRawDataFile parseIndexedMzMlParallel(final InputFactoryImpl factory,
+      final MzMLIndex index) throws IOException, XMLStreamException, DataFormatException {
+    this.parser = new MzMLParser(this, storage, scanProcessorConfig);
+
+    try (var fis = Files.newInputStream(file.toPath()); Reader br = new InputStreamReader(fis,
+        StandardCharsets.UTF_8)) {
+      final XMLStreamReader headerReader = factory.createXMLStreamReader(br);
+      parser.parseHeader(headerReader);
+      headerReader.close();
+    }
+
+    try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        var pool = ThreadPoolUtils.newForkJoinPool("mzML import " + file.getName())) {
+      final int numSpectra = index.numSpectra();
+      for (int blockStart = 0; blockStart < numSpectra; blockStart += PARALLEL_BLOCK_SIZE) {
+        if (isCanceled()) {
+          return null;
+        }
+        final int from = blockStart;
+        final int to = Math.min(blockStart + PARALLEL_BLOCK_SIZE, numSpectra);
+        final int numChunks = Math.ceilDiv(to - from, PARALLEL_CHUNK_SIZE);
+
+        // ordered stream keeps the file order of the chunks
+        final List<List<ParsedMzMLSpectrum>> chunks = ThreadPoolUtils.invoke(pool,
+            () -> IntStream.range(0, numChunks).parallel().mapToObj(chunk -> {
+              final int chunkStart = from + chunk * PARALLEL_CHUNK_SIZE;
+              return parseSpectra(factory, index, channel, chunkStart,
+                  Math.min(chunkStart + PARALLEL_CHUNK_SIZE, to));
+            }).toList());
+
+        for (final List<ParsedMzMLSpectrum> chunk : chunks) {
+          for (final ParsedMzMLSpectrum spectrum : chunk) {
+            parser.addParsedSpectrum(spectrum);
+          }
+        }
+      }
+      parser.finishSpectrumList();
+
+      final int numChromatograms = index.chromatogramOffsets().length;
+      for (int i = 0; i < numChromatograms; i++) {
+        if (isCanceled()) {
+          return null;
+        }
+        final XMLStreamReader reader = factory.createXMLStreamReader(
+            new ByteArrayInputStream(index.readChromatogram(channel, i)));
+        parser.parseChromatogram(reader);
+        reader.close();
+      }
+    }
+    logger.finest("Parsing Complete");
+    return parser.getMzMLRawFile();
+  }
+
+  /**
+   * Parses the spectra from index to index (exclusive) with a new spectrum parser
+   *
+   * @return the parsed spectra, null for filtered spectra
+   */
+  private @NotNull List<@Nullable ParsedMzMLSpectrum> parseSpectra(final InputFactoryImpl factory,
+      final MzMLIndex index, final FileChannel channel, final int from, final int to) {
+    final MzMLParser spectrumParser = parser.createSpectrumParser();
+    final List<ParsedMzMLSpectrum> spectra = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      try {
+        final XMLStreamReader reader = factory.createXMLStreamReader(
+            new ByteArrayInputStream(index.readSpectrum(channel, i)));
+        spectra.add(spectrumParser.parseSpectrum(reader));
+        reader.close();
+      } catch (IOException | DataFormatException | XMLStreamException e) {
+        throw new RuntimeException(
+            "Error while parsing spectrum %d of %s".formatted(i, file.getName()), e);
+      }
+    }
+    return spectra;
+  }
+
   private MzMLRawDataFile parseMzMlInternal(XMLStreamReader xmlStreamReader) throws MSDKException {
     try {
       this.parser = new MzMLParser(this, storage, scanProcessorConfig);
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.io.import_rawdata_mzml.msdk.data;
+
+import com.fasterxml.aalto.stax.InputFactoryImpl;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Byte offsets of spectra and chromatograms from the {@code <indexList>} of an indexed mzML file.
+ * The end of each element is defined by the start of the next one or the index list offset.
+ *
+ * @param spectrumOffsets     start of each {@code <spectrum>} in file order
+ * @param chromatogramOffsets start of each {@code <chromatogram>} in file order, may be empty
+ * @param indexListOffset     start of the {@code <indexList>}
+ */
+public record MzMLIndex(long @NotNull [] spectrumOffsets, long @NotNull [] chromatogramOffsets,
+                        long indexListOffset) {
+
+  private static final Logger logger = Logger.getLogger(MzMLIndex.class.getName());
+
+  // indexListOffset is written at the end of the file
+  private static final int TAIL_LENGTH = 4096;
+  private static final Pattern INDEX_LIST_OFFSET_PATTERN = Pattern.compile(
+      "<" + MzMLTags.TAG_INDEX_LIST_OFFSET + ">\\s*(\\d+)\\s*</" + MzMLTags.TAG_INDEX_LIST_OFFSET
+          + ">");
+
+  /**
+   * Reads the index of an indexed mzML file. The offsets are checked to point to the start of the
+   * first and last spectrum and chromatogram.
+   *
+   * @return the index or null if the file is not indexed or the index is invalid
+   */
+  public static @Nullable MzMLIndex read(@NotNull File file) {
+    try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      final long size = channel.size();
+      final int tailLength = (int) Math.min(size, TAIL_LENGTH);
+      final String tail = new String(readBytes(channel, size - tailLength, size),
+          StandardCharsets.UTF_8);
+      final Matcher matcher = INDEX_LIST_OFFSET_PATTERN.matcher(tail);
+      if (!matcher.find()) {
+        return null;
+      }
+      final long indexListOffset = Long.parseLong(matcher.group(1));
+      if (indexListOffset <= 0 || indexListOffset >= size) {
+        return null;
+      }
+
+      final MzMLIndex index = parseIndexList(readBytes(channel, indexListOffset, size),
+          indexListOffset);
+      if (index == null || !index.isValid(channel)) {
+        logger.fine(() -> "Index of mzML file %s is invalid".formatted(file.getName()));
+        return null;
+      }
+      return index;
+    } catch (IOException | XMLStreamException | RuntimeException e) {
+      logger.log(Level.FINE, "Cannot read index of mzML file %s".formatted(file.getName()), e);
+      return null;
+    }
+  }
+
+  private static @Nullable MzMLIndex parseIndexList(byte @NotNull [] indexListBytes,
+      long indexListOffset) throws XMLStreamException {
+    final InputFactoryImpl factory = new InputFactoryImpl();
+    factory.configureForSpeed();
+    final XMLStreamReader reader = factory.createXMLStreamReader(
+        new ByteArrayInputStream(indexListBytes));
+
+    final LongArrayList spectra = new LongArrayList();
+    final LongArrayList chromatograms = new LongArrayList();
+    LongArrayList current = null;
+    try {
+      while (reader.hasNext()) {
+        final int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          final String name = reader.getLocalName();
+          if (name.equals(MzMLTags.TAG_INDEX)) {
+            final String indexName = reader.getAttributeValue(null, MzMLTags.ATTR_NAME);
+            if (MzMLTags.TAG_SPECTRUM.equals(indexName)) {
+              current = spectra;
+            } else if (MzMLTags.TAG_CHROMATOGRAM.equals(indexName)) {
+              current = chromatograms;
+            } else {
+              current = null;
+            }
+          } else if (name.equals(MzMLTags.TAG_OFFSET) && current != null) {
+            current.add(Long.parseLong(reader.getElementText().trim()));
+          }
+        } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName()
+            .equals(MzMLTags.TAG_INDEX_LIST)) {
+          // stop here, the index list is followed by other root level elements
+          break;
+        }
+      }
+    } finally {
+      reader.close();
+    }
+
+    if (spectra.isEmpty()) {
+      return null;
+    }
+    return new MzMLIndex(spectra.toLongArray(), chromatograms.toLongArray(), indexListOffset);
+  }
+
+  /**
+   * Offsets need to be increasing, all spectra before chromatograms, and the first and last
+   * offsets need to point to the corresponding elements.
+   */
+  private boolean isValid(@NotNull FileChannel channel) throws IOException {
+    if (!isIncreasing(spectrumOffsets) || !isIncreasing(chromatogramOffsets)) {
+      return false;
+    }
+    final long lastSpectrum = spectrumOffsets[spectrumOffsets.length - 1];
+    if (lastSpectrum >= indexListOffset || (chromatogramOffsets.length > 0 && (
+        chromatogramOffsets[0] <= lastSpectrum
+            || chromatogramOffsets[chromatogramOffsets.length - 1] >= indexListOffset))) {
+      return false;
+    }
+    return startsWithTag(channel, spectrumOffsets[0], MzMLTags.TAG_SPECTRUM) && startsWithTag(
+        channel, lastSpectrum, MzMLTags.TAG_SPECTRUM) && (chromatogramOffsets.length == 0 || (
+        startsWithTag(channel, chromatogramOffsets[0], MzMLTags.TAG_CHROMATOGRAM) && startsWithTag(
+            channel, chromatogramOffsets[chromatogramOffsets.length - 1],
+            MzMLTags.TAG_CHROMATOGRAM)));
+  }
+
+  private static boolean isIncreasing(long @NotNull [] offsets) {
+    for (int i = 1; i < offsets.length; i++) {
+      if (offsets[i] <= offsets[i - 1]) {
+        return false;
+      }
+    }
+    return offsets.length == 0 || offsets[0] > 0;
+  }
+
+  private static boolean startsWithTag(@NotNull FileChannel channel, long offset,
+      @NotNull String tag) throws IOException {
+    // tag followed by a whitespace
+    final String start = "<" + tag;
+    final byte[] bytes = readBytes(channel, offset, offset + start.length() + 1);
+    final String text = new String(bytes, StandardCharsets.UTF_8);
+    return text.startsWith(start) && Character.isWhitespace(text.charAt(start.length()));
+  }
+
+  /**
+   * @return number of spectra in the index
+   */
+  public int numSpectra() {
+    return spectrumOffsets.length;
+  }
+
+  /**
+   * Reads the bytes of the spectrum. The range may contain trailing content after the closing
+   * spectrum tag.
+   */
+  public byte @NotNull [] readSpectrum(@NotNull FileChannel channel, int index)
+      throws IOException {
+    final long end = index + 1 < spectrumOffsets.length ? spectrumOffsets[index + 1]
+        : (chromatogramOffsets.length > 0 ? chromatogramOffsets[0] : indexListOffset);
+    return readBytes(channel, spectrumOffsets[index], end);
+  }
+
+  /**
+   * Reads the bytes of the chromatogram. The range may contain trailing content after the closing
+   * chromatogram tag.
+   */
+  public byte @NotNull [] readChromatogram(@NotNull FileChannel channel, int index)
+      throws IOException {
+    final long end = index + 1 < chromatogramOffsets.length ? chromatogramOffsets[index + 1]
+        : indexListOffset;
+    return readBytes(channel, chromatogramOffsets[index], end);
+  }
+
+  /**
+   * Positional read, can be used by multiple threads on the same channel
+   */
+  private static byte @NotNull [] readBytes(@NotNull FileChannel channel, long start, long end)
+      throws IOException {
+    final long length = end - start;
+    if (length < 0 || length > Integer.MAX_VALUE - 8) {
+      throw new IOException("Cannot read %d bytes at offset %d".formatted(length, start));
+    }
+    final ByteBuffer buffer = ByteBuffer.allocate((int) length);
+    long position = start;
+    while (buffer.hasRemaining()) {
+      final int read = channel.read(buffer, position);
+      if (read < 0) {
+        throw new IOException("Unexpected end of file at offset %d".formatted(position));
+      }
+      position += read;
+    }
+    return buffer.array();
+  }
+}
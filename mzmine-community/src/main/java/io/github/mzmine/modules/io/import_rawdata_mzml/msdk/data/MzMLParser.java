@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -43,9 +43,11 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.zip.DataFormatException;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * <p>
@@ -73,6 +75,9 @@ public class MzMLParser {
   private final Map<String, MzMLArrayType> arrayTypeMap = Arrays.stream(MzMLArrayType.values())
       .collect(Collectors.toMap(MzMLArrayType::getAccession, Function.identity()));
   private int totalScans = 0, parsedScans = 0;
+  // spectrum parsers keep the last finished spectrum instead of adding it to the lists
+  private final boolean isSpectrumParser;
+  private @Nullable ParsedMzMLSpectrum lastParsedSpectrum;
 
   public MzMLParser(MSDKmzMLImportTask importer, MemoryMapStorage storage,
       @NotNull ScanImportProcessorConfig scanProcessorConfig) {
@@ -83,6 +88,143 @@ public class MzMLParser {
         vars.mobilityScanData);
     this.storage = storage;
     this.scanProcessorConfig = scanProcessorConfig;
+    isSpectrumParser = false;
+  }
+
+  /**
+   * Parser for single spectra inside the spectrum list, shares the header information
+   */
+  private MzMLParser(@NotNull MzMLParser headerParser) {
+    this.vars = new Vars();
+    vars.referenceableParamGroupList = headerParser.vars.referenceableParamGroupList;
+    this.tracker = new TagTracker();
+    tracker.enter(MzMLTags.TAG_MZML);
+    tracker.enter(MzMLTags.TAG_RUN);
+    tracker.enter(MzMLTags.TAG_SPECTRUM_LIST);
+    mzMLFile = headerParser.mzMLFile;
+    newRawFile = headerParser.newRawFile;
+    storage = headerParser.storage;
+    scanProcessorConfig = headerParser.scanProcessorConfig;
+    isSpectrumParser = true;
+  }
+
+  /**
+   * Parses the file header up to the start tag of the first spectrum, which is not processed.
+   * Spectra are then parsed by spectrum parsers, see {@link #createSpectrumParser()}.
+   *
+   * @param xmlStreamReader reader at the start of the file
+   * @throws IllegalStateException if the file contains no spectrum
+   */
+  public void parseHeader(XMLStreamReader xmlStreamReader)
+      throws IOException, DataFormatException, XMLStreamException {
+    while (xmlStreamReader.hasNext()) {
+      switch (xmlStreamReader.next()) {
+        case XMLStreamConstants.START_ELEMENT -> {
+          final String openingTagName = xmlStreamReader.getLocalName();
+          if (openingTagName.equals(MzMLTags.TAG_SPECTRUM) && tracker.inside(
+              MzMLTags.TAG_SPECTRUM_LIST)) {
+            return;
+          }
+          processOpeningTag(xmlStreamReader, openingTagName);
+        }
+        case XMLStreamConstants.END_ELEMENT ->
+            processClosingTag(xmlStreamReader, xmlStreamReader.getLocalName());
+        default -> {
+        }
+      }
+    }
+    throw new IllegalStateException("No spectrum found in mzML file " + mzMLFile.getName());
+  }
+
+  /**
+   * Creates a parser for single spectra that are read from the byte offsets of indexed mzML. The
+   * header of the file up to the first spectrum needs to be parsed by this parser first. Each
+   * spectrum parser must only be used by one thread, see {@link #parseSpectrum(XMLStreamReader)}.
+   */
+  public @NotNull MzMLParser createSpectrumParser() {
+    return new MzMLParser(this);
+  }
+
+  /**
+   * Parses a single spectrum element and loads, processes, and memory maps its data. Only for
+   * parsers created by {@link #createSpectrumParser()}.
+   *
+   * @param xmlStreamReader reader positioned before the spectrum start tag, content after the
+   *                        spectrum end tag is not read
+   * @return the spectrum or null if it was filtered or has no data
+   */
+  public @Nullable ParsedMzMLSpectrum parseSpectrum(XMLStreamReader xmlStreamReader)
+      throws IOException, DataFormatException, XMLStreamException {
+    if (!isSpectrumParser) {
+      throw new IllegalStateException("Only spectrum parsers can parse single spectra");
+    }
+    parseElement(xmlStreamReader, MzMLTags.TAG_SPECTRUM);
+    final ParsedMzMLSpectrum parsed = lastParsedSpectrum;
+    lastParsedSpectrum = null;
+    return parsed;
+  }
+
+  /**
+   * Adds a spectrum parsed by a spectrum parser. Needs to be called in file order for all spectra,
+   * followed by {@link #finishSpectrumList()}.
+   *
+   * @param parsed the spectrum or null if it was filtered
+   */
+  public void addParsedSpectrum(@Nullable ParsedMzMLSpectrum parsed) {
+    parsedScans++;
+    if (parsed != null) {
+      addFinishedSpectrum(parsed);
+    }
+  }
+
+  /**
+   * Finishes the spectrum list after all spectra were added with
+   * {@link #addParsedSpectrum(ParsedMzMLSpectrum)} and prepares this parser for chromatograms
+   * parsed by {@link #parseChromatogram(XMLStreamReader)}.
+   */
+  public void finishSpectrumList() {
+    vars.memoryMapAndClearFrameMobilityScanData(storage);
+    tracker.exit(MzMLTags.TAG_SPECTRUM_LIST);
+    tracker.enter(MzMLTags.TAG_CHROMATOGRAM_LIST);
+  }
+
+  /**
+   * Parses a single chromatogram element after {@link #finishSpectrumList()}.
+   *
+   * @param xmlStreamReader reader positioned before the chromatogram start tag, content after the
+   *                        chromatogram end tag is not read
+   */
+  public void parseChromatogram(XMLStreamReader xmlStreamReader)
+      throws IOException, DataFormatException, XMLStreamException {
+    parseElement(xmlStreamReader, MzMLTags.TAG_CHROMATOGRAM);
+  }
+
+  private void parseElement(XMLStreamReader xmlStreamReader, String tag)
+      throws IOException, DataFormatException, XMLStreamException {
+    boolean started = false;
+    while (xmlStreamReader.hasNext()) {
+      switch (xmlStreamReader.next()) {
+        case XMLStreamConstants.START_ELEMENT -> {
+          final String openingTagName = xmlStreamReader.getLocalName();
+          if (!started && !openingTagName.equals(tag)) {
+            throw new IllegalStateException(
+                "Expected %s but found %s at index offset".formatted(tag, openingTagName));
+          }
+          started = true;
+          processOpeningTag(xmlStreamReader, openingTagName);
+        }
+        case XMLStreamConstants.END_ELEMENT -> {
+          final String closingTagName = xmlStreamReader.getLocalName();
+          processClosingTag(xmlStreamReader, closingTagName);
+          if (closingTagName.equals(tag)) {
+            return;
+          }
+        }
+        default -> {
+        }
+      }
+    }
+    throw new IllegalStateException("Element %s was not closed".formatted(tag));
   }
 
   /**
@@ -548,24 +690,40 @@ public class MzMLParser {
    */
   private void filterProcessFinalizeScan() {
     var spectrum = vars.spectrum;
+    vars.spectrum = null;
 //    logger.info(STR."Finalizing scan \{spectrum.getScanNumber()}");
     if (spectrum.isUVSpectrum()) {
       if (spectrum.loadProcessMemMapUvData(storage, scanProcessorConfig)) {
-        vars.addSpectrumToList(storage, spectrum);
+        finishedSpectrum(new ParsedMzMLSpectrum(spectrum, null));
       }
-      vars.spectrum = null;
       return;
     }
 
     if (scanProcessorConfig.scanFilter().matches(spectrum)) {
       if (spectrum.isMergedMobilitySpectrum()) {
-        vars.mobilityScanData.add(
-            spectrum.loadProccessMemMapMzDataForMergedMobilityScan(storage, scanProcessorConfig));
+        finishedSpectrum(new ParsedMzMLSpectrum(spectrum,
+            spectrum.loadProccessMemMapMzDataForMergedMobilityScan(storage, scanProcessorConfig)));
       } else if (spectrum.loadProcessMemMapMzData(storage, scanProcessorConfig)) {
-        vars.addSpectrumToList(storage, spectrum);
+        finishedSpectrum(new ParsedMzMLSpectrum(spectrum, null));
       }
     }
-    vars.spectrum = null;
+  }
+
+  private void finishedSpectrum(@NotNull ParsedMzMLSpectrum parsed) {
+    if (isSpectrumParser) {
+      // added later in file order
+      lastParsedSpectrum = parsed;
+    } else {
+      addFinishedSpectrum(parsed);
+    }
+  }
+
+  private void addFinishedSpectrum(@NotNull ParsedMzMLSpectrum parsed) {
+    if (parsed.mergedMobilityScans() != null) {
+      vars.mobilityScanData.add(parsed.mergedMobilityScans());
+    } else {
+      vars.addSpectrumToList(storage, parsed.spectrum());
+    }
   }
 
   /**
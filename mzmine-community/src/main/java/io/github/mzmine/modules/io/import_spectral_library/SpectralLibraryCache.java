@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.io.import_spectral_library;
+
+import io.github.mzmine.util.files.FileAndPathUtil;
+import io.github.mzmine.util.io.BinaryFileWriter;
+import io.github.mzmine.util.io.MappedBinaryFileReader;
+import io.github.mzmine.util.spectraldb.entry.DBEntryField;
+import io.github.mzmine.util.spectraldb.entry.SpectralDBEntry;
+import io.github.mzmine.util.spectraldb.entry.SpectralLibrary;
+import io.github.mzmine.util.spectraldb.entry.SpectralLibraryEntry;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Binary cache of imported spectral libraries, keyed by the SHA-256 hash of the library file.
+ * Loading the cache maps the file instead of parsing the text formats again. The data points of all
+ * entries are stored in one contiguous block and are used without copying. The precursor m/z of
+ * all entries are stored as a primitive array so that precursor filters do not need the fields,
+ * which are only decoded on first access, see {@link SpectralDBEntry}.
+ * <p>
+ * Layout: magic, version, library name, number of entries, total data points, precursor m/z per
+ * entry (NaN if missing), number of data points per entry, all mz values, all intensity values and
+ * the fields of each entry (number of fields and name value pairs). Double arrays are 8 byte
+ * aligned little endian.
+ */
+public class SpectralLibraryCache {
+
+  /**
+   * MZSL
+   */
+  public static final int MAGIC = 0x4C535A4D;
+  public static final int VERSION = 1;
+  private static final String CACHE_DIR = "spectral_library_cache";
+  private static final String EXTENSION = ".mzlibcache";
+  private static final Logger logger = Logger.getLogger(SpectralLibraryCache.class.getName());
+
+  private SpectralLibraryCache() {
+  }
+
+  /**
+   * @return the cache file for the current content of the library file. Does not check if it
+   * exists.
+   */
+  public static @NotNull File getCacheFile(@NotNull File libraryFile) throws IOException {
+    return new File(FileAndPathUtil.resolveInMzmineDir(CACHE_DIR),
+        hashContent(libraryFile) + EXTENSION);
+  }
+
+  /**
+   * @return the cached library or null if there is no valid cache for the current file content
+   */
+  public static @Nullable SpectralLibrary load(@NotNull File libraryFile) {
+    try {
+      final File cacheFile = getCacheFile(libraryFile);
+      if (!cacheFile.isFile()) {
+        return null;
+      }
+      return read(cacheFile, libraryFile);
+    } catch (IOException | RuntimeException e) {
+      // the library is parsed again and the cache is overwritten
+      logger.log(Level.WARNING,
+          "Cannot read spectral library cache of %s: %s".formatted(libraryFile, e.getMessage()), e);
+      return null;
+    }
+  }
+
+  /**
+   * Writes the cache for the library. Errors are only logged as the library is still usable.
+   */
+  public static void save(@NotNull SpectralLibrary library, @NotNull File libraryFile) {
+    try {
+      final File cacheFile = getCacheFile(libraryFile);
+      FileAndPathUtil.createDirectory(cacheFile.getParentFile());
+      // write to a temporary file first so that aborted writes never leave a broken cache
+      final File tmp = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp");
+      write(library, tmp);
+      Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      logger.fine(() -> "Wrote spectral library cache %s for %s".formatted(cacheFile,
+          libraryFile));
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.WARNING,
+          "Cannot write spectral library cache of %s: %s".formatted(libraryFile, e.getMessage()),
+          e);
+    }
+  }
+
+  static void write(@NotNull SpectralLibrary library, @NotNull File target) throws IOException {
+    final List<SpectralLibraryEntry> entries = library.getEntries();
+    long totalDataPoints = 0;
+    for (final SpectralLibraryEntry entry : entries) {
+      totalDataPoints += entry.getNumberOfDataPoints();
+    }
+
+    try (BinaryFileWriter out = new BinaryFileWriter(target)) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeString(library.getName());
+      out.writeInt(entries.size());
+      out.writeLong(totalDataPoints);
+      for (final SpectralLibraryEntry entry : entries) {
+        final Double precursorMZ = entry.getPrecursorMZ();
+        out.writeDouble(precursorMZ == null ? Double.NaN : precursorMZ);
+      }
+      for (final SpectralLibraryEntry entry : entries) {
+        out.writeInt(entry.getNumberOfDataPoints());
+      }
+
+      double[] buffer = new double[0];
+      for (final SpectralLibraryEntry entry : entries) {
+        buffer = entry.getMzValues(buffer);
+        out.writeDoubles(MemorySegment.ofArray(buffer), entry.getNumberOfDataPoints());
+      }
+      for (final SpectralLibraryEntry entry : entries) {
+        buffer = entry.getIntensityValues(buffer);
+        out.writeDoubles(MemorySegment.ofArray(buffer), entry.getNumberOfDataPoints());
+      }
+
+      for (final SpectralLibraryEntry entry : entries) {
+        // runtime only fields are never persisted
+        final List<Entry<DBEntryField, Object>> fields = entry.getFields().entrySet().stream()
+            .filter(e -> !e.getKey().isRuntimeOnly() && e.getValue() != null).toList();
+        out.writeInt(fields.size());
+        for (final Entry<DBEntryField, Object> field : fields) {
+          // same string conversion as in the project xml
+          out.writeString(field.getKey().name());
+          out.writeString(String.valueOf(field.getValue()));
+        }
+      }
+    }
+  }
+
+  static @NotNull SpectralLibrary read(@NotNull File cacheFile, @NotNull File libraryFile)
+      throws IOException {
+    final MappedBinaryFileReader in = new MappedBinaryFileReader(cacheFile);
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a spectral library cache file: " + cacheFile);
+    }
+    final int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported spectral library cache version " + version);
+    }
+    final String name = in.readString();
+    final int numEntries = in.readInt();
+    final long totalDataPoints = in.readLong();
+    final double[] precursorMZs = new double[numEntries];
+    for (int i = 0; i < numEntries; i++) {
+      precursorMZs[i] = in.readDouble();
+    }
+    final int[] numDataPoints = new int[numEntries];
+    for (int i = 0; i < numEntries; i++) {
+      numDataPoints[i] = in.readInt();
+    }
+    final MemorySegment mzs = in.readDoubles(totalDataPoints);
+    final MemorySegment intensities = in.readDoubles(totalDataPoints);
+
+    final SpectralLibrary library = new SpectralLibrary(null,
+        name == null ? libraryFile.getName() : name, libraryFile);
+    long dataPointOffset = 0;
+    for (int i = 0; i < numEntries; i++) {
+      // only find the end of the fields here, they are decoded on first access
+      final long fieldsStart = in.getPosition();
+      final int numFields = in.readInt();
+      for (int f = 0; f < numFields * 2; f++) {
+        in.skip(Math.max(0, in.readInt()));
+      }
+      final long fieldsEnd = in.getPosition();
+      in.setPosition(fieldsStart);
+      final MemorySegment fieldBytes = in.readSlice(fieldsEnd - fieldsStart);
+
+      final long bytes = (long) numDataPoints[i] * Double.BYTES;
+      final Double precursorMZ = Double.isNaN(precursorMZs[i]) ? null : precursorMZs[i];
+      library.addEntry(new SpectralDBEntry(mzs.asSlice(dataPointOffset, bytes),
+          intensities.asSlice(dataPointOffset, bytes), precursorMZ,
+          () -> decodeFields(fieldBytes), library));
+      dataPointOffset += bytes;
+    }
+    return library;
+  }
+
+  private static @NotNull Map<DBEntryField, Object> decodeFields(@NotNull MemorySegment bytes) {
+    final MappedBinaryFileReader in = new MappedBinaryFileReader(bytes);
+    final int numFields = in.readInt();
+    final Map<DBEntryField, Object> fields = new EnumMap<>(DBEntryField.class);
+    for (int f = 0; f < numFields; f++) {
+      final String name = in.readString();
+      final String value = in.readString();
+      final DBEntryField field;
+      try {
+        field = DBEntryField.valueOf(name);
+      } catch (IllegalArgumentException | NullPointerException e) {
+        // field was removed
+        continue;
+      }
+      final Object converted = value == null ? null : field.tryConvertValue(value);
+      if (converted != null) {
+        fields.put(field, converted);
+      }
+    }
+    return fields;
+  }
+
+  /**
+   * @return the SHA-256 of the file content as hex string. Identifies caches of this library file.
+   */
+  public static @NotNull String hashContent(@NotNull File file) throws IOException {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is required by the Java platform", e);
+    }
+    try (InputStream stream = Files.newInputStream(file.toPath())) {
+      final byte[] buffer = new byte[1 << 16];
+      int read;
+      while ((read = stream.read(buffer)) > 0) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+}
@@ -25,7 +25,11 @@
 
 package io.github.mzmine.modules.io.import_spectral_library;
 
+import static java.util.Objects.requireNonNullElse;
+
 import io.github.mzmine.datamodel.MZmineProject;
+import io.github.mzmine.gui.preferences.MZminePreferences;
+import io.github.mzmine.main.ConfigService;
 import io.github.mzmine.taskcontrol.AbstractTask;
 import io.github.mzmine.taskcontrol.TaskStatus;
 import io.github.mzmine.util.MemoryMapStorage;
@@ -48,6 +52,7 @@ public class SpectralLibraryImportTask extends AbstractTask {
   private final MZmineProject project;
   private final File dataBaseFile;
   private final boolean extensiveErrorLogging;
+  private final boolean useCache;
   private AutoLibraryParser parser;
   private int totalEntries = 0;
   private int totalEnrichedEntries = 0;
@@ -59,6 +64,8 @@ public class SpectralLibraryImportTask extends AbstractTask {
     this.project = project;
     this.dataBaseFile = dataBaseFile;
     this.extensiveErrorLogging = extensiveErrorLogging;
+    useCache = requireNonNullElse(
+        ConfigService.getPreferences().getValue(MZminePreferences.spectralLibraryCache), false);
   }
 
   @Override
@@ -86,11 +93,19 @@ public class SpectralLibraryImportTask extends AbstractTask {
     setStatus(TaskStatus.PROCESSING);
 
     try {
-      // will block until all library spectra are added to entries list
-      SpectralLibrary library = parseFile(dataBaseFile);
-      // remove empty or 0 intensity spectra
-      library.removeif(this::checkRemoveEntry);
-      library.trim(); // trim to save memory
+      SpectralLibrary library = useCache ? SpectralLibraryCache.load(dataBaseFile) : null;
+      if (library != null) {
+        logger.fine(() -> "Loaded spectral library %s from cache".formatted(dataBaseFile));
+      } else {
+        // will block until all library spectra are added to entries list
+        library = parseFile(dataBaseFile);
+        // remove empty or 0 intensity spectra
+        library.removeif(this::checkRemoveEntry);
+        library.trim(); // trim to save memory
+        if (useCache && !isCanceled() && library.size() > 0) {
+          SpectralLibraryCache.save(library, dataBaseFile);
+        }
+      }
       final List<SpectralLibraryEntry> entries = library.getEntries();
       if (!entries.isEmpty()) {
         // enrich structure metadata
@@ -27,9 +27,12 @@ package io.github.mzmine.modules.io.projectload;
 
 import com.google.common.io.CountingInputStream;
 import com.vdurmont.semver4j.Semver;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.gui.MZmineGUI;
 import io.github.mzmine.javafx.dialogs.DialogLoggerUtil;
 import io.github.mzmine.main.MZmineCore;
 import io.github.mzmine.modules.io.projectload.version_3_0.FeatureListLoadTask;
+import io.github.mzmine.modules.io.projectload.version_3_0.RawDataFileSnapshotReader;
 import io.github.mzmine.modules.io.projectsave.ProjectSavingTask;
 import io.github.mzmine.modules.io.projectsave.RawDataFileSaveHandler;
 import io.github.mzmine.parameters.ParameterSet;
@@ -42,6 +45,7 @@ import io.github.mzmine.taskcontrol.TaskStatus;
 import io.github.mzmine.util.GUIUtils;
 import io.github.mzmine.util.MemoryMapStorage;
 import io.github.mzmine.util.StreamCopy;
+import io.github.mzmine.util.ZipUtils;
 import io.github.mzmine.util.exceptions.ExceptionUtils;
 import io.github.mzmine.util.files.FileAndPathUtil;
 import io.github.mzmine.util.io.SemverVersionReader;
@@ -51,17 +55,26 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import org.jetbrains.annotations.NotNull;
+import org.xml.sax.SAXException;
 
 public class ProjectOpeningTask extends AbstractTask {
 
+  public static final String TEMP_SNAPSHOTS_FOLDER = "mzmine_msdatasnapshots_temp";
   private static final Logger logger = Logger.getLogger(ProjectOpeningTask.class.getName());
   private final boolean mergeOntoExisting;
   private final boolean keepCurrentLibraries;
@@ -149,6 +162,8 @@ public class ProjectOpeningTask extends AbstractTask {
       if(!keepCurrentLibraries) {
         newProject.clearSpectralLibrary();
       }
+      // the saved file indices are relative to the files of this project
+      final int numPreviousFiles = newProject.getNumberOfDataFiles();
 
       ZipFile zipFile = new ZipFile(openFile);
       Enumeration<? extends ZipEntry> entries = zipFile.entries();
@@ -196,6 +211,11 @@ public class ProjectOpeningTask extends AbstractTask {
 
       }
 
+      if (!loadRawDataSnapshots(zipFile, numPreviousFiles)) {
+        zipFile.close();
+        return;
+      }
+
       loadFeatureList(zipFile);
 
       // Finish and close the project ZIP file
@@ -356,6 +376,55 @@ public class ProjectOpeningTask extends AbstractTask {
     }
   }
 
+  /**
+   * Restores the MS data files that were stored with their scans and mass lists. The snapshots are
+   * unzipped to a temp directory and memory mapped. The restored files are then moved to their
+   * saved position between the files of the import batch.
+   *
+   * @param numPreviousFiles number of files in the project before it was opened
+   * @return false if canceled
+   */
+  private boolean loadRawDataSnapshots(ZipFile zipFile, int numPreviousFiles)
+      throws IOException, XMLStreamException, ParserConfigurationException, SAXException {
+    final boolean hasSnapshots = zipFile.stream()
+        .anyMatch(entry -> entry.getName().startsWith(RawDataFileSaveHandler.SNAPSHOTS_FOLDER));
+    if (!hasSnapshots) {
+      return true;
+    }
+    currentLoadedObjectName = "MS data files";
+
+    final Path tempDirectory = FileAndPathUtil.createTempDirectory(TEMP_SNAPSHOTS_FOLDER);
+    ZipUtils.unzipDirectory(RawDataFileSaveHandler.SNAPSHOTS_FOLDER, zipFile,
+        tempDirectory.toFile());
+    final File[] files = new File(tempDirectory.toFile(),
+        RawDataFileSaveHandler.SNAPSHOTS_FOLDER).listFiles(
+        (_, name) -> name.endsWith(RawDataFileSaveHandler.SNAPSHOT_SUFFIX));
+    if (files == null) {
+      return true;
+    }
+    // ascending index in the saved project
+    Arrays.sort(files, Comparator.comparing(File::getName));
+
+    // the import batch keeps the order of the other files, the snapshots fill the gaps
+    final List<RawDataFile> order = new ArrayList<>(newProject.getCurrentRawDataFiles());
+    for (final File file : files) {
+      final RawDataFile raw = new RawDataFileSnapshotReader(file).read(
+          newProject.getCurrentRawDataFiles(), this::isCanceled);
+      if (raw == null) {
+        return false;
+      }
+      newProject.addFile(raw);
+      logger.finest(() -> "Restored scans of MS data file " + raw.getName());
+
+      final int savedIndex = RawDataFileSaveHandler.getSnapshotFileIndex(file.getName());
+      order.add(savedIndex < 0 ? order.size()
+          : Math.min(numPreviousFiles + savedIndex, order.size()), raw);
+    }
+    newProject.sortDataFiles(order);
+    MZmineGUI.sortRawDataFiles(order);
+    return true;
+  }
+
   private boolean loadRawDataFiles(InputStream is, ZipFile zipFile) {
     currentLoadedObjectName = ("MS data files");
     rawDataFileOpenHandler.setBatchFileStream(is);
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.io.projectload.version_3_0;
+
+import io.github.mzmine.datamodel.features.types.DataType;
+import io.github.mzmine.datamodel.features.types.FeatureDataType;
+import io.github.mzmine.datamodel.features.types.numbers.abstr.DoubleRangeType;
+import io.github.mzmine.datamodel.features.types.numbers.abstr.DoubleType;
+import io.github.mzmine.datamodel.features.types.numbers.abstr.FloatRangeType;
+import io.github.mzmine.datamodel.features.types.numbers.abstr.FloatType;
+import io.github.mzmine.datamodel.features.types.numbers.abstr.IntegerType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Encoding of a {@link DataType} column in the binary feature list format. Number types are
+ * written as primitive arrays like in the memory mapped columns, all other types are written as
+ * length prefixed XML of {@link DataType#saveToXML}.
+ */
+public enum BinaryColumnEncoding {
+
+  /**
+   * 8 byte aligned doubles, NaN is null
+   */
+  DOUBLE(1),
+  /**
+   * floats, NaN is null
+   */
+  FLOAT(2),
+  /**
+   * ints, {@link io.github.mzmine.datamodel.features.columnar_data.columns.general.NullableInteger#NULL_VALUE}
+   * is null
+   */
+  INTEGER(3),
+  /**
+   * 8 byte aligned lower and upper bound pairs, NaN is null
+   */
+  DOUBLE_RANGE(4),
+  /**
+   * lower and upper bound pairs, NaN is null
+   */
+  FLOAT_RANGE(5),
+  /**
+   * Scan indices and 8 byte aligned mz and intensity values of simple ion time series, other
+   * series are written as XML
+   */
+  ION_TIME_SERIES(6),
+  /**
+   * length prefixed UTF-8 XML of each value, -1 is null
+   */
+  XML(7);
+
+  // never change the ids for compatibility
+  private final byte id;
+
+  BinaryColumnEncoding(final int id) {
+    this.id = (byte) id;
+  }
+
+  public static @NotNull BinaryColumnEncoding forType(@NotNull DataType<?> type) {
+    return switch (type) {
+      case FeatureDataType _ -> ION_TIME_SERIES;
+      case IntegerType _ -> INTEGER;
+      case DoubleType _ -> DOUBLE;
+      case FloatType _ -> FLOAT;
+      case DoubleRangeType _ -> DOUBLE_RANGE;
+      case FloatRangeType _ -> FLOAT_RANGE;
+      default -> XML;
+    };
+  }
+
+  public static @Nullable BinaryColumnEncoding forId(byte id) {
+    for (final BinaryColumnEncoding encoding : values()) {
+      if (encoding.id == id) {
+        return encoding;
+      }
+    }
+    return null;
+  }
+
+  public byte getId() {
+    return id;
+  }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.io.projectload.version_3_0;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.MZmineProject;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.datamodel.featuredata.impl.SimpleIonTimeSeries;
+import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.datamodel.features.ModularDataModel;
+import io.github.mzmine.datamodel.features.ModularFeature;
+import io.github.mzmine.datamodel.features.ModularFeatureList;
+import io.github.mzmine.datamodel.features.ModularFeatureListRow;
+import io.github.mzmine.datamodel.features.columnar_data.columns.general.NullableInteger;
+import io.github.mzmine.datamodel.features.types.DataType;
+import io.github.mzmine.datamodel.features.types.DataTypes;
+import io.github.mzmine.modules.io.projectload.CachedIMSRawDataFile;
+import io.github.mzmine.modules.io.projectsave.FeatureListBinaryWriter;
+import io.github.mzmine.util.DataTypeUtils;
+import io.github.mzmine.util.ParsingUtils;
+import io.github.mzmine.util.io.MappedBinaryFileReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.XMLEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads feature lists written by {@link FeatureListBinaryWriter}. The file is memory mapped and
+ * number columns are read without parsing. The mz and intensity values of ion time series are not
+ * copied, the series point to the mapped file, which therefore needs to stay in the temp
+ * directory.
+ */
+public class FeatureListBinaryReader {
+
+  private static final Logger logger = Logger.getLogger(FeatureListBinaryReader.class.getName());
+
+  private final @NotNull MappedBinaryFileReader in;
+  private final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+  private volatile double progress;
+
+  public FeatureListBinaryReader(@NotNull File file) throws IOException {
+    in = new MappedBinaryFileReader(file);
+  }
+
+  /**
+   * Reads the header and adds the rows with their ids. No other data will be put into the rows, so
+   * that rows can reference each other by their id while being loaded.
+   *
+   * @param flist the feature list created from the metadata file
+   */
+  public void createRows(@NotNull ModularFeatureList flist) {
+    in.setPosition(0);
+    if (in.readInt() != FeatureListBinaryWriter.MAGIC) {
+      throw new IllegalStateException("Not a binary feature list file");
+    }
+    final int version = in.readInt();
+    if (version > FeatureListBinaryWriter.VERSION) {
+      throw new IllegalStateException(
+          "Binary feature list version %d is not supported by this version of mzmine.".formatted(
+              version));
+    }
+    final String name = in.readString();
+    final String dateCreated = in.readString();
+    if (!flist.getName().equals(name) || !Objects.equals(flist.getDateCreated(), dateCreated)) {
+      throw new IllegalArgumentException(
+          "The name of the loaded feature list does not match the expected name. %s != %s Does a feature list with this name already exist?".formatted(
+              flist.getName(), name));
+    }
+
+    final int numRows = in.readInt();
+    for (int i = 0; i < numRows; i++) {
+      flist.addRow(new ModularFeatureListRow(flist, in.readInt()));
+    }
+  }
+
+  /**
+   * Loads all row and feature data into the rows created by {@link #createRows}.
+   *
+   * @param isCanceled checked between columns
+   * @return false if canceled
+   */
+  public boolean loadData(@NotNull MZmineProject project, @NotNull ModularFeatureList flist,
+      @NotNull BooleanSupplier isCanceled) throws XMLStreamException {
+    final List<ModularFeatureListRow> rows = new ArrayList<>(flist.getNumberOfRows());
+    for (final FeatureListRow row : flist.getRows()) {
+      rows.add((ModularFeatureListRow) row);
+    }
+
+    // features are created first and added to the rows after all values were set
+    final List<ModularFeature> features = new ArrayList<>();
+    final List<ModularFeatureListRow> featureRows = new ArrayList<>();
+    final List<RawDataFile> featureFiles = new ArrayList<>();
+    final int numFiles = in.readInt();
+    for (int f = 0; f < numFiles; f++) {
+      final String fileName = in.readString();
+      final int numFeatures = in.readInt();
+      // use buffered file for data type loading and the original file for the feature
+      final RawDataFile file = project.getCurrentRawDataFiles().stream()
+          .filter(raw -> raw.getName().equals(fileName)).findFirst().orElse(null);
+      final RawDataFile originalFile =
+          file instanceof CachedIMSRawDataFile c ? c.getOriginalFile() : file;
+      if (file == null) {
+        logger.warning(() -> "Cannot load %d features for file %s. File does not exist in project."
+            .formatted(numFeatures, fileName));
+      }
+      for (int i = 0; i < numFeatures; i++) {
+        final ModularFeatureListRow row = rows.get(in.readInt());
+        features.add(file == null ? null : new ModularFeature(flist, originalFile, null, null));
+        featureRows.add(row);
+        featureFiles.add(file);
+      }
+    }
+
+    final int numRowColumns = in.readInt();
+    for (int c = 0; c < numRowColumns; c++) {
+      if (isCanceled.getAsBoolean()) {
+        return false;
+      }
+      readColumn(project, flist, rows, rows, null);
+      progress = 0.5 * (c + 1) / numRowColumns;
+    }
+
+    final int numFeatureColumns = in.readInt();
+    for (int c = 0; c < numFeatureColumns; c++) {
+      if (isCanceled.getAsBoolean()) {
+        return false;
+      }
+      readColumn(project, flist, features, featureRows, featureFiles);
+      progress = 0.5 + 0.5 * (c + 1) / numFeatureColumns;
+    }
+
+    for (int i = 0; i < features.size(); i++) {
+      final ModularFeature feature = features.get(i);
+      if (feature == null) {
+        continue;
+      }
+      DataTypeUtils.applyFeatureSpecificGraphicalTypes(feature);
+      final ModularFeatureListRow row = featureRows.get(i);
+      row.addFeature(feature.getRawDataFile(), feature, false);
+    }
+    // features were added without updating the row bindings - update once for each row.
+    // rows without features keep the loaded values, like in the XML format
+    for (final ModularFeatureListRow row : rows) {
+      if (row.getNumberOfFeatures() > 0) {
+        flist.applyRowBindings(row);
+      }
+    }
+
+    if (in.readByte() == 1) {
+      final XMLStreamReader reader = readXml();
+      FeatureListLoadTask.parseCompoundList(reader, project, flist);
+    }
+    progress = 1d;
+    return true;
+  }
+
+  /**
+   * @param models the rows or features, null for features of missing files
+   * @param rows   the row of each model
+   * @param files  the raw data file of each feature or null for rows
+   */
+  private void readColumn(@NotNull MZmineProject project, @NotNull ModularFeatureList flist,
+      @NotNull List<? extends ModularDataModel> models, @NotNull List<ModularFeatureListRow> rows,
+      @Nullable List<RawDataFile> files) throws XMLStreamException {
+    final String typeId = in.readString();
+    final byte encodingId = in.readByte();
+    final BinaryColumnEncoding encoding = BinaryColumnEncoding.forId(encodingId);
+    if (encoding == null) {
+      throw new IllegalStateException(
+          "Unknown encoding %d of data type %s".formatted(encodingId, typeId));
+    }
+    final DataType type = DataTypes.getTypeForId(typeId);
+    if (type == null) {
+      logger.info(() -> "No data type for id " + typeId);
+    }
+    if (encoding == BinaryColumnEncoding.DOUBLE || encoding == BinaryColumnEncoding.DOUBLE_RANGE) {
+      in.align(Double.BYTES);
+    }
+
+    for (int i = 0; i < models.size(); i++) {
+      final ModularDataModel model = models.get(i);
+      final RawDataFile file = files != null ? files.get(i) : null;
+      final boolean load = type != null && model != null;
+      final Object value = switch (encoding) {
+        case DOUBLE -> {
+          final double v = in.readDouble();
+          yield Double.isNaN(v) ? null : v;
+        }
+        case FLOAT -> {
+          final float v = in.readFloat();
+          yield Float.isNaN(v) ? null : v;
+        }
+        case INTEGER -> {
+          final int v = in.readInt();
+          yield v == NullableInteger.NULL_VALUE ? null : v;
+        }
+        case DOUBLE_RANGE -> {
+          final double lower = in.readDouble();
+          final double upper = in.readDouble();
+          yield Double.isNaN(lower) || Double.isNaN(upper) ? null : Range.closed(lower, upper);
+        }
+        case FLOAT_RANGE -> {
+          final float lower = in.readFloat();
+          final float upper = in.readFloat();
+          yield Float.isNaN(lower) || Float.isNaN(upper) ? null : Range.closed(lower, upper);
+        }
+        case ION_TIME_SERIES -> readIonTimeSeries(load, type, project, flist, model, rows.get(i),
+            file);
+        case XML -> readDataTypeXml(load, type, project, flist, model, rows.get(i), file);
+      };
+
+      if (load && value != null) {
+        try {
+          model.set(type, value);
+        } catch (RuntimeException e) {
+          logger.log(Level.WARNING, () -> String.format(
+              "DataType %s and value %s were not set. Maybe incompatible during loading?", type,
+              value));
+        }
+      }
+    }
+  }
+
+  private @Nullable Object readIonTimeSeries(boolean load, @Nullable DataType type,
+      @NotNull MZmineProject project, @NotNull ModularFeatureList flist,
+      @Nullable ModularDataModel model, @NotNull ModularFeatureListRow row,
+      @Nullable RawDataFile file) throws XMLStreamException {
+    return switch (in.readByte()) {
+      case 0 -> null;
+      case 1 -> {
+        final int numValues = in.readInt();
+        final int[] scanIndices = new int[numValues];
+        for (int i = 0; i < numValues; i++) {
+          scanIndices[i] = in.readInt();
+        }
+        final MemorySegment mzs = in.readDoubles(numValues);
+        final MemorySegment intensities = in.readDoubles(numValues);
+        if (!load || file == null) {
+          yield null;
+        }
+        final List<Scan> scans = ParsingUtils.getSublistFromIndices(file.getScans(),
+            scanIndices);
+        yield new SimpleIonTimeSeries(mzs, intensities, scans);
+      }
+      default -> readDataTypeXml(load, type, project, flist, model, row, file);
+    };
+  }
+
+  private @Nullable Object readDataTypeXml(boolean load, @Nullable DataType type,
+      @NotNull MZmineProject project, @NotNull ModularFeatureList flist,
+      @Nullable ModularDataModel model, @NotNull ModularFeatureListRow row,
+      @Nullable RawDataFile file) throws XMLStreamException {
+    if (!load) {
+      skipXml();
+      return null;
+    }
+    final XMLStreamReader reader = readXml();
+    if (reader == null) {
+      return null;
+    }
+    return FeatureListLoadTask.parseDataType(reader, type, project, flist, row,
+        model instanceof ModularFeature feature ? feature : null, file);
+  }
+
+  /**
+   * @return reader at the first start element or null if the value was null
+   */
+  private @Nullable XMLStreamReader readXml() throws XMLStreamException {
+    final int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    final byte[] bytes = in.readBytes(length);
+    final XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(
+        new ByteArrayInputStream(bytes));
+    while (reader.hasNext() && reader.next() != XMLEvent.START_ELEMENT) {
+      // move to the element
+    }
+    return reader;
+  }
+
+  private void skipXml() {
+    final int length = in.readInt();
+    if (length > 0) {
+      in.skip(length);
+    }
+  }
+
+  /**
+   * @return progress of reading columns
+   */
+  public double getProgress() {
+    return progress;
+  }
+}
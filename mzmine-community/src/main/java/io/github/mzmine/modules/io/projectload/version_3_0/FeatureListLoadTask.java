@@ -98,6 +98,8 @@ public class FeatureListLoadTask extends AbstractTask {
   public static final String TEMP_FLIST_DATA_FOLDER = "mzmine_featurelists_temp";
   public static final Pattern fileNamePattern = Pattern.compile(
       "([^\\n]+)(" + FeatureListSaveTask.DATA_FILE_SUFFIX + ")");
+  public static final Pattern binaryFileNamePattern = Pattern.compile(
+      "([^\\n]+)(" + FeatureListSaveTask.BINARY_DATA_FILE_SUFFIX + ")");
 
   private static final Logger logger = Logger.getLogger(FeatureListLoadTask.class.getName());
   final String idTypeUniqueID = new IDType().getUniqueID();
@@ -109,6 +111,7 @@ public class FeatureListLoadTask extends AbstractTask {
   private String currentFlist = "";
   private int numFlists = 1;
   private int processedFlists;
+  private @Nullable FeatureListBinaryReader binaryReader;
 
   public FeatureListLoadTask(@Nullable MemoryMapStorage storage, @NotNull MZmineProject project,
       ZipFile zip) {
@@ -147,14 +150,21 @@ public class FeatureListLoadTask extends AbstractTask {
 
   @Override
   public String getTaskDescription() {
+    if (binaryReader != null) {
+      return "Importing feature list " + currentFlist + (processedFlists + 1) + "/" + numFlists
+          + ". Reading binary columns";
+    }
     return "Importing feature list " + currentFlist + (processedFlists + 1) + "/" + numFlists
         + ". Parsing row " + processedRows + "/" + totalRows;
   }
 
   @Override
   public double getFinishedPercentage() {
+    final FeatureListBinaryReader reader = binaryReader;
+    final double flistProgress =
+        reader != null ? reader.getProgress() : (double) processedRows / totalRows;
     return (double) processedFlists / numFlists // overall progress finished flists
-        + (double) processedRows / totalRows / numFlists; // current flist progress
+        + flistProgress / numFlists; // current flist progress
   }
 
   @Override
@@ -170,7 +180,8 @@ public class FeatureListLoadTask extends AbstractTask {
       logger.info(() -> "Unzipping feature lists done.");
 
       File[] files = new File(tempDirectory.toFile(), FeatureListSaveTask.FLIST_FOLDER).listFiles(
-          (dir, name) -> fileNamePattern.matcher(name).matches());
+          (dir, name) -> fileNamePattern.matcher(name).matches()
+              || binaryFileNamePattern.matcher(name).matches());
       if (files == null) {
         logger.info("Did not find feature lists to load.");
         setStatus(TaskStatus.FINISHED);
@@ -190,10 +201,15 @@ public class FeatureListLoadTask extends AbstractTask {
         }
         rowCounter.set(0);
 
-        final File metadataFile = new File(flistFile.toString()
-            .replace(FeatureListSaveTask.DATA_FILE_SUFFIX,
-                FeatureListSaveTask.METADATA_FILE_SUFFIX));
-        ModularFeatureList flist = createRows(storage, flistFile, metadataFile);
+        final boolean binary = binaryFileNamePattern.matcher(flistFile.getName()).matches();
+        final String dataSuffix = binary ? FeatureListSaveTask.BINARY_DATA_FILE_SUFFIX
+            : FeatureListSaveTask.DATA_FILE_SUFFIX;
+        final File metadataFile = new File(
+            flistFile.toString().replace(dataSuffix, FeatureListSaveTask.METADATA_FILE_SUFFIX));
+        final FeatureListBinaryReader reader =
+            binary ? new FeatureListBinaryReader(flistFile) : null;
+        ModularFeatureList flist = binary ? createRowsBinary(storage, reader, metadataFile)
+            : createRows(storage, flistFile, metadataFile);
 
         if (flist == null) {
           logger.severe(
@@ -201,9 +217,20 @@ public class FeatureListLoadTask extends AbstractTask {
                   + metadataFile.getAbsolutePath());
           continue;
         }
-        parseFeatureList(storage, project, flist, flistFile);
+        if (binary) {
+          currentFlist = flist.getName();
+          binaryReader = reader;
+          final boolean loaded = reader.loadData(project, flist, this::isCanceled);
+          binaryReader = null;
+          if (!loaded) {
+            return;
+          }
+        } else {
+          parseFeatureList(storage, project, flist, flistFile);
+        }
 
-        loadR2RNetworkingMaps(flist, flistFile);
+        loadR2RNetworkingMaps(flist, new File(
+            flistFile.toString().replace(dataSuffix, FeatureListSaveTask.R2R_FILE_SUFFIX)));
 
         // TODO maybe remove so that ModularFeatureList.getFeatureList can be unmodifiable
         // disable buffering after the import (replace references to CachedIMSRawDataFiles with IMSRawDataFiles
@@ -236,9 +263,7 @@ public class FeatureListLoadTask extends AbstractTask {
     setStatus(TaskStatus.FINISHED);
   }
 
-  private void loadR2RNetworkingMaps(ModularFeatureList flist, File flistFile) {
-    final File r2rFile = new File(flistFile.toString()
-        .replace(FeatureListSaveTask.DATA_FILE_SUFFIX, FeatureListSaveTask.R2R_FILE_SUFFIX));
+  private void loadR2RNetworkingMaps(ModularFeatureList flist, File r2rFile) {
     if (!r2rFile.exists()) {
       // older projects predate R2R persistence — silently skip
       return;
@@ -515,6 +540,24 @@ public class FeatureListLoadTask extends AbstractTask {
     return flist;
   }
 
+  /**
+   * Creates the modular feature list from the metadata file and the rows with their ids from the
+   * binary feature list file.
+   *
+   * @return The created feature list with empty rows (row ids are set)
+   */
+  private ModularFeatureList createRowsBinary(MemoryMapStorage storage,
+      FeatureListBinaryReader reader, File metadataFile) {
+    ModularFeatureList flist = readMetadataCreateFeatureList(metadataFile, storage);
+    if (flist == null) {
+      throw new IllegalStateException("Cannot create feature list.");
+    }
+    reader.createRows(flist);
+    logger.finest(
+        () -> "Created " + flist.getNumberOfRows() + " rows in feature list " + flist.getName());
+    return flist;
+  }
+
   /**
    * Creates a feature list from the metadata xml file. Adds the selected raw data files (must be in
    * the loaded project) and sets the selected scans.
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.io.projectload.version_3_0;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.MassSpectrumType;
+import io.github.mzmine.datamodel.PolarityType;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.datamodel.features.SimpleFeatureListAppliedMethod;
+import io.github.mzmine.datamodel.impl.SimpleScan;
+import io.github.mzmine.datamodel.impl.masslist.ScanPointerMassList;
+import io.github.mzmine.datamodel.impl.masslist.SimpleMassList;
+import io.github.mzmine.datamodel.msms.MsMsInfo;
+import io.github.mzmine.modules.io.projectsave.RawDataFileSnapshotWriter;
+import io.github.mzmine.project.impl.RawDataFileImpl;
+import io.github.mzmine.util.MemoryMapStorage;
+import io.github.mzmine.util.XMLUtils;
+import io.github.mzmine.util.io.MappedBinaryFileReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import javafx.scene.paint.Color;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.XMLEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Restores a raw data file from a snapshot written by {@link RawDataFileSnapshotWriter}. The mz
+ * and intensity values of scans and mass lists are not copied, they point to the memory mapped
+ * snapshot file, which therefore needs to stay in the temp directory.
+ */
+public class RawDataFileSnapshotReader {
+
+  private final @NotNull MappedBinaryFileReader in;
+  private final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+  private volatile double progress;
+
+  public RawDataFileSnapshotReader(@NotNull File file) throws IOException {
+    in = new MappedBinaryFileReader(file);
+  }
+
+  /**
+   * @param allProjectFiles used to resolve MS/MS infos that reference other files
+   * @param isCanceled      checked between scans
+   * @return the restored file or null if canceled
+   */
+  public @Nullable RawDataFile read(@NotNull List<RawDataFile> allProjectFiles,
+      @NotNull BooleanSupplier isCanceled)
+      throws XMLStreamException, IOException, ParserConfigurationException, SAXException {
+    in.setPosition(0);
+    if (in.readInt() != RawDataFileSnapshotWriter.MAGIC) {
+      throw new IllegalStateException("Not a raw data file snapshot");
+    }
+    final int version = in.readInt();
+    if (version > RawDataFileSnapshotWriter.VERSION) {
+      throw new IllegalStateException(
+          "Raw data file snapshot version %d is not supported by this version of mzmine.".formatted(
+              version));
+    }
+
+    final String name = in.readString();
+    final String path = in.readString();
+    final String color = in.readString();
+    final String startTimeStamp = in.readString();
+    final String appliedMethods = in.readString();
+
+    final RawDataFileImpl file = new RawDataFileImpl(name, path, MemoryMapStorage.forRawDataFile(),
+        Color.web(color));
+    if (startTimeStamp != null) {
+      file.setStartTimeStamp(LocalDateTime.parse(startTimeStamp));
+    }
+
+    // MS/MS infos reference scans by their index, so they are set after all scans were added
+    final int numScans = in.readInt();
+    final List<String> msMsInfos = new ArrayList<>(numScans);
+    for (int i = 0; i < numScans; i++) {
+      if (isCanceled.getAsBoolean()) {
+        return null;
+      }
+      final int scanNumber = in.readInt();
+      final int msLevel = in.readInt();
+      final float rt = in.readFloat();
+      final float correctedRt = in.readFloat();
+      final String polarity = in.readString();
+      final String spectrumType = in.readString();
+      final String scanDefinition = in.readString();
+      final double lowerMz = in.readDouble();
+      final double upperMz = in.readDouble();
+      final float injectionTime = in.readFloat();
+      msMsInfos.add(in.readString());
+
+      final int numValues = in.readInt();
+      final MemorySegment mzs = in.readDoubles(numValues);
+      final MemorySegment intensities = in.readDoubles(numValues);
+      final SimpleScan scan = new SimpleScan(file, scanNumber, msLevel, rt, null, mzs, intensities,
+          spectrumType != null ? MassSpectrumType.valueOf(spectrumType) : null,
+          polarity != null ? PolarityType.valueOf(polarity) : null, scanDefinition,
+          Double.isNaN(lowerMz) ? null : Range.closed(lowerMz, upperMz),
+          Float.isNaN(injectionTime) ? null : injectionTime);
+      if (!Float.isNaN(correctedRt)) {
+        scan.setCorrectedRetentionTime(correctedRt);
+      }
+
+      final byte massListType = in.readByte();
+      if (massListType == RawDataFileSnapshotWriter.MASS_LIST_SCAN_POINTER) {
+        scan.addMassList(new ScanPointerMassList(scan));
+      } else if (massListType == RawDataFileSnapshotWriter.MASS_LIST_VALUES) {
+        final int numMasses = in.readInt();
+        final MemorySegment massMzs = in.readDoubles(numMasses);
+        final MemorySegment massIntensities = in.readDoubles(numMasses);
+        scan.addMassList(SimpleMassList.ofStoredValues(massMzs, massIntensities));
+      }
+      file.addScan(scan);
+      progress = 0.9 * (i + 1) / numScans;
+    }
+
+    final List<Scan> scans = file.getScans();
+    for (int i = 0; i < numScans; i++) {
+      final String msMsInfo = msMsInfos.get(i);
+      if (msMsInfo != null) {
+        ((SimpleScan) scans.get(i)).setMsMsInfo(parseMsMsInfo(msMsInfo, file, allProjectFiles));
+      }
+    }
+
+    if (appliedMethods != null) {
+      final Document document = XMLUtils.load(appliedMethods);
+      final NodeList methods = document.getElementsByTagName(
+          CONST.XML_FLIST_APPLIED_METHOD_ELEMENT);
+      for (int i = 0; i < methods.getLength(); i++) {
+        file.getAppliedMethods()
+            .add(SimpleFeatureListAppliedMethod.loadValueFromXML((Element) methods.item(i)));
+      }
+    }
+    progress = 1d;
+    return file;
+  }
+
+  private @NotNull MsMsInfo parseMsMsInfo(@NotNull String xml, @NotNull RawDataFile file,
+      @NotNull List<RawDataFile> allProjectFiles) throws XMLStreamException {
+    final XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(
+        new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    while (reader.hasNext() && reader.next() != XMLEvent.START_ELEMENT) {
+      // move to the element
+    }
+    return MsMsInfo.loadFromXML(reader, file, allProjectFiles);
+  }
+
+  /**
+   * @return progress of reading scans
+   */
+  public double getProgress() {
+    return progress;
+  }
+}
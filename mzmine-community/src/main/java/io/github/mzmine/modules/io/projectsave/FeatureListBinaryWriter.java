@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.io.projectsave;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.datamodel.featuredata.impl.SimpleIonTimeSeries;
+import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.datamodel.features.ModularDataModel;
+import io.github.mzmine.datamodel.features.ModularFeature;
+import io.github.mzmine.datamodel.features.ModularFeatureList;
+import io.github.mzmine.datamodel.features.ModularFeatureListRow;
+import io.github.mzmine.datamodel.features.columnar_data.columns.general.NullableInteger;
+import io.github.mzmine.datamodel.features.compoundlist.CompoundList;
+import io.github.mzmine.datamodel.features.types.DataType;
+import io.github.mzmine.datamodel.features.types.FeatureDataType;
+import io.github.mzmine.modules.io.projectload.version_3_0.BinaryColumnEncoding;
+import io.github.mzmine.util.ParsingUtils;
+import io.github.mzmine.util.io.BinaryFileWriter;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Writes a feature list in the binary columnar format. Each {@link DataType} of the rows and
+ * features is written as one column, see {@link BinaryColumnEncoding}. Number columns and the mz
+ * and intensity buffers of {@link SimpleIonTimeSeries} are written as little endian primitive
+ * arrays, 8 byte aligned where needed, so that the loader can memory map them directly. All other
+ * types are written as XML of {@link DataType#saveToXML}.
+ * <p>
+ * Layout: header (magic, version, name, date), row ids, features of each raw data file (row
+ * indices), row columns, feature columns (all features in raw data file order), compound list
+ * XML.
+ */
+public class FeatureListBinaryWriter {
+
+  /**
+   * MZFL
+   */
+  public static final int MAGIC = 0x4C465A4D;
+  public static final int VERSION = 1;
+
+  private final @NotNull ModularFeatureList flist;
+  private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+  private final ByteArrayOutputStream xmlBytes = new ByteArrayOutputStream();
+  private BinaryFileWriter out;
+  private volatile double progress;
+
+  public FeatureListBinaryWriter(@NotNull ModularFeatureList flist) {
+    this.flist = flist;
+  }
+
+  /**
+   * Feature data first, so that saved values are set after values that are calculated from the
+   * feature data during loading.
+   */
+  private static @NotNull List<DataType> sortTypes(@NotNull Iterable<DataType> types) {
+    final List<DataType> sorted = new ArrayList<>();
+    types.forEach(sorted::add);
+    sorted.sort(Comparator.comparing((DataType type) -> !(type instanceof FeatureDataType))
+        .thenComparing(DataType::getUniqueID));
+    return sorted;
+  }
+
+  /**
+   * @param file       the target file
+   * @param isCanceled checked between columns
+   * @return true if written, false if canceled
+   */
+  public boolean write(@NotNull File file, @NotNull BooleanSupplier isCanceled)
+      throws IOException, XMLStreamException {
+    final List<ModularFeatureListRow> rows = new ArrayList<>(flist.getNumberOfRows());
+    for (final FeatureListRow row : flist.getRows()) {
+      rows.add((ModularFeatureListRow) row);
+    }
+    final List<RawDataFile> dataFiles = flist.getRawDataFiles();
+    final List<DataType> rowTypes = sortTypes(flist.getRowTypes());
+    final List<DataType> featureTypes = sortTypes(flist.getFeatureTypes());
+
+    try (BinaryFileWriter writer = new BinaryFileWriter(file)) {
+      out = writer;
+
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeString(flist.getName());
+      out.writeString(flist.getDateCreated());
+
+      out.writeInt(rows.size());
+      for (final ModularFeatureListRow row : rows) {
+        out.writeInt(row.getID());
+      }
+
+      // features of each raw data file by row index
+      final List<ModularFeature> features = new ArrayList<>();
+      final List<ModularFeatureListRow> featureRows = new ArrayList<>();
+      out.writeInt(dataFiles.size());
+      for (final RawDataFile raw : dataFiles) {
+        out.writeString(raw.getName());
+        final IntList rowIndices = new IntArrayList();
+        for (int i = 0; i < rows.size(); i++) {
+          final ModularFeature feature = rows.get(i).getFeature(raw);
+          if (feature != null) {
+            features.add(feature);
+            featureRows.add(rows.get(i));
+            rowIndices.add(i);
+          }
+        }
+        out.writeInt(rowIndices.size());
+        for (int i = 0; i < rowIndices.size(); i++) {
+          out.writeInt(rowIndices.getInt(i));
+        }
+      }
+
+      final int totalColumns = rowTypes.size() + featureTypes.size();
+      int writtenColumns = 0;
+      out.writeInt(rowTypes.size());
+      for (final DataType type : rowTypes) {
+        if (isCanceled.getAsBoolean()) {
+          return false;
+        }
+        writeColumn(type, rows, rows);
+        progress = (double) ++writtenColumns / totalColumns;
+      }
+      out.writeInt(featureTypes.size());
+      for (final DataType type : featureTypes) {
+        if (isCanceled.getAsBoolean()) {
+          return false;
+        }
+        writeColumn(type, features, featureRows);
+        progress = (double) ++writtenColumns / totalColumns;
+      }
+
+      final CompoundList compoundList = flist.getCompoundList();
+      if (compoundList != null && !compoundList.getRows().isEmpty()) {
+        out.writeByte((byte) 1);
+        final XMLStreamWriter writer = startXml();
+        FeatureListSaveTask.saveCompoundList(writer, flist, compoundList);
+        writeXml(writer);
+      } else {
+        out.writeByte((byte) 0);
+      }
+    } finally {
+      out = null;
+    }
+    progress = 1d;
+    return true;
+  }
+
+  /**
+   * @param models the rows or features
+   * @param rows   the row of each model
+   */
+  private void writeColumn(@NotNull DataType type, @NotNull List<? extends ModularDataModel> models,
+      @NotNull List<ModularFeatureListRow> rows) throws IOException, XMLStreamException {
+    final BinaryColumnEncoding encoding = BinaryColumnEncoding.forType(type);
+    out.writeString(type.getUniqueID());
+    out.writeByte(encoding.getId());
+
+    switch (encoding) {
+      case DOUBLE -> {
+        out.align(Double.BYTES);
+        for (final ModularDataModel model : models) {
+          out.writeDouble(model.get(type) instanceof Number n ? n.doubleValue() : Double.NaN);
+        }
+      }
+      case FLOAT -> {
+        for (final ModularDataModel model : models) {
+          out.writeFloat(model.get(type) instanceof Number n ? n.floatValue() : Float.NaN);
+        }
+      }
+      case INTEGER -> {
+        for (final ModularDataModel model : models) {
+          out.writeInt(
+              model.get(type) instanceof Number n ? n.intValue() : NullableInteger.NULL_VALUE);
+        }
+      }
+      case DOUBLE_RANGE -> {
+        out.align(Double.BYTES);
+        for (final ModularDataModel model : models) {
+          final Range<?> range = boundedRange(model.get(type));
+          out.writeDouble(
+              range != null ? ((Number) range.lowerEndpoint()).doubleValue() : Double.NaN);
+          out.writeDouble(
+              range != null ? ((Number) range.upperEndpoint()).doubleValue() : Double.NaN);
+        }
+      }
+      case FLOAT_RANGE -> {
+        for (final ModularDataModel model : models) {
+          final Range<?> range = boundedRange(model.get(type));
+          out.writeFloat(range != null ? ((Number) range.lowerEndpoint()).floatValue() : Float.NaN);
+          out.writeFloat(range != null ? ((Number) range.upperEndpoint()).floatValue() : Float.NaN);
+        }
+      }
+      case ION_TIME_SERIES -> {
+        for (int i = 0; i < models.size(); i++) {
+          writeIonTimeSeries(type, models.get(i), rows.get(i));
+        }
+      }
+      case XML -> {
+        for (int i = 0; i < models.size(); i++) {
+          final ModularDataModel model = models.get(i);
+          writeDataTypeXml(type, model.get(type), model, rows.get(i));
+        }
+      }
+    }
+  }
+
+  private static @Nullable Range<?> boundedRange(@Nullable Object value) {
+    return value instanceof Range<?> range && range.hasLowerBound() && range.hasUpperBound() ? range
+        : null;
+  }
+
+  /**
+   * 0: null, 1: scan indices, mz and intensity values, 2: XML
+   */
+  private void writeIonTimeSeries(@NotNull DataType type, @NotNull ModularDataModel model,
+      @NotNull ModularFeatureListRow row) throws IOException, XMLStreamException {
+    final Object value = model.get(type);
+    if (value == null) {
+      out.writeByte((byte) 0);
+      return;
+    }
+    if (value.getClass() != SimpleIonTimeSeries.class || !(model instanceof ModularFeature feature)
+        || feature.getRawDataFile() == null) {
+      out.writeByte((byte) 2);
+      writeDataTypeXml(type, value, model, row);
+      return;
+    }
+
+    final SimpleIonTimeSeries series = (SimpleIonTimeSeries) value;
+    final List<Scan> spectra = series.getSpectra();
+    final int[] scanIndices = spectra.isEmpty() ? new int[0]
+        : ParsingUtils.getIndicesOfSubListElements(spectra, feature.getRawDataFile().getScans());
+    out.writeByte((byte) 1);
+    out.writeInt(scanIndices.length);
+    for (final int scanIndex : scanIndices) {
+      out.writeInt(scanIndex);
+    }
+    out.writeDoubles(series.getMZValueBuffer(), scanIndices.length);
+    out.writeDoubles(series.getIntensityValueBuffer(), scanIndices.length);
+  }
+
+  private void writeDataTypeXml(@NotNull DataType type, @Nullable Object value,
+      @NotNull ModularDataModel model, @NotNull ModularFeatureListRow row)
+      throws IOException, XMLStreamException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    final ModularFeature feature = model instanceof ModularFeature f ? f : null;
+    final XMLStreamWriter writer = startXml();
+    FeatureListSaveTask.writeDataType(writer, type, value, flist, row, feature,
+        feature != null ? feature.getRawDataFile() : null);
+    writeXml(writer);
+  }
+
+  private @NotNull XMLStreamWriter startXml() throws XMLStreamException {
+    xmlBytes.reset();
+    return xmlOutputFactory.createXMLStreamWriter(xmlBytes, StandardCharsets.UTF_8.name());
+  }
+
+  private void writeXml(@NotNull XMLStreamWriter writer) throws IOException, XMLStreamException {
+    writer.flush();
+    writer.close();
+    out.writeInt(xmlBytes.size());
+    out.writeBytes(xmlBytes.toByteArray());
+  }
+
+  /**
+   * @return progress of writing columns
+   */
+  public double getProgress() {
+    return progress;
+  }
+}
@@ -79,6 +79,7 @@ public class FeatureListSaveTask extends AbstractTask {
 
   public static final String METADATA_FILE_SUFFIX = "_metadata.xml";
   public static final String DATA_FILE_SUFFIX = "_data.xml";
+  public static final String BINARY_DATA_FILE_SUFFIX = "_data.bin";
   public static final String R2R_FILE_SUFFIX = "_r2r.json";
   public static final String FLIST_FOLDER = "featurelists/";
   private static final Logger logger = Logger.getLogger(FeatureListSaveTask.class.getName());
@@ -86,14 +87,22 @@ public class FeatureListSaveTask extends AbstractTask {
 
   private final ModularFeatureList flist;
   private final ZipOutputStream zos;
+  private final FeatureListSaveFormat format;
   private final int rows;
   private final StreamCopy copy;
   private int processedRows = 0;
+  private @Nullable FeatureListBinaryWriter binaryWriter;
 
   public FeatureListSaveTask(ModularFeatureList flist, ZipOutputStream zos) {
+    this(flist, zos, FeatureListSaveFormat.XML);
+  }
+
+  public FeatureListSaveTask(ModularFeatureList flist, ZipOutputStream zos,
+      @NotNull FeatureListSaveFormat format) {
     super(null, Instant.now());
     this.flist = flist;
     this.zos = zos;
+    this.format = format;
     rows = flist.getNumberOfRows();
     copy = new StreamCopy();
   }
@@ -102,6 +111,11 @@ public class FeatureListSaveTask extends AbstractTask {
     return FLIST_FOLDER + CONST.XML_FEATURE_LIST_ELEMENT + "_" + flistname + DATA_FILE_SUFFIX;
   }
 
+  public static String getBinaryDataFileName(String flistname) {
+    return FLIST_FOLDER + CONST.XML_FEATURE_LIST_ELEMENT + "_" + flistname
+        + BINARY_DATA_FILE_SUFFIX;
+  }
+
   public static String getMetadataFileName(String flistname) {
     return FLIST_FOLDER + CONST.XML_FEATURE_LIST_ELEMENT + "_" + flistname + METADATA_FILE_SUFFIX;
   }
@@ -117,14 +131,21 @@ public class FeatureListSaveTask extends AbstractTask {
 
   @Override
   public double getFinishedPercentage() {
-    return (((double) processedRows / rows) + copy.getProgress()) / 2;
+    final FeatureListBinaryWriter writer = binaryWriter;
+    final double dataProgress =
+        writer != null ? writer.getProgress() : (double) processedRows / rows;
+    return (dataProgress + copy.getProgress()) / 2;
   }
 
   @Override
   public void run() {
     setStatus(TaskStatus.PROCESSING);
 
-    if (!saveFeatureData()) {
+    final boolean saved = switch (format) {
+      case XML -> saveFeatureData();
+      case BINARY -> saveBinaryFeatureData();
+    };
+    if (!saved) {
       return;
     }
 
@@ -244,6 +265,43 @@ public class FeatureListSaveTask extends AbstractTask {
     root.appendChild(dataFilesListElement);
   }
 
+  private boolean saveBinaryFeatureData() {
+    logger.finest(() -> "Creating temporary file for feature list " + flist.getName() + ".");
+    File tempFile;
+    try {
+      tempFile = FileAndPathUtil.createTempFile("mzmine_featurelist_data", ".tmp");
+    } catch (IOException e) {
+      logger.log(Level.SEVERE, "Cannot create temporary file.", e);
+      setStatus(TaskStatus.ERROR);
+      return false;
+    }
+
+    binaryWriter = new FeatureListBinaryWriter(flist);
+    try {
+      if (!binaryWriter.write(tempFile, this::isCanceled)) {
+        tempFile.delete();
+        return false;
+      }
+    } catch (IOException | XMLStreamException e) {
+      logger.log(Level.SEVERE, e.getMessage(), e);
+      setStatus(TaskStatus.ERROR);
+      tempFile.delete();
+      return false;
+    }
+
+    try (FileInputStream is = new FileInputStream(tempFile)) {
+      zos.putNextEntry(new ZipEntry(getBinaryDataFileName(flist.getName())));
+      copy.copy(is, zos);
+    } catch (IOException e) {
+      logger.log(Level.SEVERE, e.getMessage(), e);
+      setStatus(TaskStatus.ERROR);
+      return false;
+    } finally {
+      tempFile.delete();
+    }
+    return true;
+  }
+
   private boolean saveFeatureData() {
     logger.finest(() -> "Creating temporary file for feature list " + flist.getName() + ".");
     File tempFile;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2025 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -34,6 +34,7 @@ import io.github.mzmine.javafx.components.factories.FxTextFlows;
 import io.github.mzmine.parameters.Parameter;
 import io.github.mzmine.parameters.dialogs.ParameterSetupDialog;
 import io.github.mzmine.parameters.impl.SimpleParameterSet;
+import io.github.mzmine.parameters.parametertypes.BooleanParameter;
 import io.github.mzmine.parameters.parametertypes.ComboParameter;
 import io.github.mzmine.parameters.parametertypes.filenames.FileNameSuffixExportParameter;
 import io.github.mzmine.project.ProjectService;
@@ -67,12 +68,24 @@ public class ProjectSaveAsParameters extends SimpleParameterSet {
       creating a larger, but flexible project that can be shared without any additional requirements.""",
       ProjectSaveOption.values(), ProjectSaveOption.REFERENCING);
 
+  public static final ComboParameter<FeatureListSaveFormat> featureListFormat =
+      new ComboParameter<>("Feature list format", """
+      XML is compatible with all mzmine versions. Binary columns save and load large feature lists
+      considerably faster, but the project cannot be opened by older mzmine versions.""",
+      FeatureListSaveFormat.values(), FeatureListSaveFormat.XML);
+
+  public static final BooleanParameter storeScans = new BooleanParameter("Store processed scans",
+      """
+      Stores the scans and mass lists of MS data files in the project. Opening the project then
+      restores them directly instead of importing the raw data and repeating the mass detection.
+      Increases the project size. Ion mobility data is always imported again.""", false);
+
   public static final FileNameSuffixExportParameter projectFile = new FileNameSuffixExportParameter(
       "Project file", "File name of project to be saved", extensions, null);
   private static final Logger logger = Logger.getLogger(ProjectSaveAsParameters.class.getName());
 
   public ProjectSaveAsParameters() {
-    super(new Parameter[]{projectFile, option});
+    super(new Parameter[]{projectFile, option, featureListFormat, storeScans});
   }
 
   @Override
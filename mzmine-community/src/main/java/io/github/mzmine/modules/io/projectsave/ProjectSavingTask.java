@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -69,6 +69,8 @@ public class ProjectSavingTask extends AbstractTask {
   public static final String CONFIG_FILENAME = MZmineConfiguration.CONFIG_FILE.getName();
   private static final Logger logger = Logger.getLogger(ProjectSavingTask.class.getName());
   private final ProjectSaveOption projectType;
+  private final FeatureListSaveFormat featureListFormat;
+  private final boolean storeScans;
 
   private final File saveFile;
   private final MZmineProjectImpl savedProject;
@@ -86,6 +88,8 @@ public class ProjectSavingTask extends AbstractTask {
     this.savedProject = (MZmineProjectImpl) project;
     this.saveFile = parameters.getValue(ProjectSaveAsParameters.projectFile);
     this.projectType = parameters.getValue(ProjectSaveAsParameters.option);
+    this.featureListFormat = parameters.getValue(ProjectSaveAsParameters.featureListFormat);
+    this.storeScans = parameters.getValue(ProjectSaveAsParameters.storeScans);
     dataFilesIDMap = new Hashtable<>();
     this.totalSaveItems = project.getDataFiles().length + project.getCurrentFeatureLists().size();
   }
@@ -343,7 +347,8 @@ public class ProjectSavingTask extends AbstractTask {
 
     AtomicBoolean finished = new AtomicBoolean(false);
     rawDataFileSaveHandler = new RawDataFileSaveHandler(savedProject, zipStream,
-        Objects.requireNonNullElse(savedProject.isStandalone(), true), getModuleCallDate());
+        Objects.requireNonNullElse(savedProject.isStandalone(), true), storeScans,
+        getModuleCallDate());
     rawDataFileSaveHandler.addTaskStatusListener((task, newStatus, oldStatus) -> {
       switch (newStatus) {
         case WAITING, PROCESSING -> {
@@ -385,7 +390,7 @@ public class ProjectSavingTask extends AbstractTask {
     final List<FeatureList> currentFeatureLists = savedProject.getCurrentFeatureLists();
     for (FeatureList featureList : currentFeatureLists) {
       FeatureListSaveTask saveTask = new FeatureListSaveTask((ModularFeatureList) featureList,
-          zipStream);
+          zipStream, featureListFormat);
 
       AtomicBoolean finished = new AtomicBoolean(false);
       saveTask.addTaskStatusListener((_, newStatus, _) -> {
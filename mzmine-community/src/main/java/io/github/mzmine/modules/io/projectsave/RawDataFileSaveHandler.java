@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2025 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -66,6 +66,7 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 import java.util.zip.ZipOutputStream;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.TransformerException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -83,12 +84,18 @@ public class RawDataFileSaveHandler extends AbstractTask {
   public static final String DATA_FILES_PREFIX = "$$";
   public static final String DATA_FILES_SUFFIX = DATA_FILES_PREFIX;
   public static final Pattern DATA_FILE_PATTERN = Pattern.compile("(\\$\\$)([^\\n]+)(\\$\\$)");
+  public static final String SNAPSHOTS_FOLDER = "msdatasnapshots/";
+  public static final String SNAPSHOT_SUFFIX = "_snapshot.bin";
 
   private static final Logger logger = Logger.getLogger(RawDataFileSaveHandler.class.getName());
 
   private final MZmineProject project;
   private final ZipOutputStream zipStream;
   private final List<RawDataFile> files;
+  /**
+   * Files that are stored with their scans and mass lists instead of the import batch
+   */
+  private final List<RawDataFile> snapshotFiles;
   /**
    * Files from {@link FileNameParameter}s that are not a {@link RawDataFile}, e.g. metadata files.
    */
@@ -102,13 +109,25 @@ public class RawDataFileSaveHandler extends AbstractTask {
 
   public RawDataFileSaveHandler(MZmineProject project, ZipOutputStream zipOutputStream,
       boolean saveFilesInProject, @NotNull Instant moduleCallDate) {
+    this(project, zipOutputStream, saveFilesInProject, false, moduleCallDate);
+  }
+
+  /**
+   * @param storeScans store the scans and mass lists of supported files, so that they are not
+   *                   imported and processed again when the project is opened. See
+   *                   {@link RawDataFileSnapshotWriter#isSupported(RawDataFile)}.
+   */
+  public RawDataFileSaveHandler(MZmineProject project, ZipOutputStream zipOutputStream,
+      boolean saveFilesInProject, boolean storeScans, @NotNull Instant moduleCallDate) {
     super(null, moduleCallDate);
     this.project = project;
     this.zipStream = zipOutputStream;
     this.saveFilesInProject = saveFilesInProject;
     files = List.of(project.getDataFiles());
+    snapshotFiles = storeScans ? files.stream().filter(RawDataFileSnapshotWriter::isSupported)
+        .toList() : List.of();
     numSteps = 1 /*dissect + merge */ + (saveFilesInProject ? files.size() : 0) /*save files*/
-        + 1 /*save batch file*/;
+        + snapshotFiles.size() /*save scans*/ + 1 /*save batch file*/;
     stepProgress = 1 / (double) numSteps;
   }
 
@@ -134,6 +153,26 @@ public class RawDataFileSaveHandler extends AbstractTask {
     return path.toString();
   }
 
+  /**
+   * @param fileIndex index of the file in the project, to restore the order of all files
+   */
+  public static String getSnapshotZipPath(int fileIndex) {
+    return SNAPSHOTS_FOLDER + "%05d".formatted(fileIndex) + SNAPSHOT_SUFFIX;
+  }
+
+  /**
+   * @param snapshotName the file name of a snapshot, see {@link #getSnapshotZipPath(int)}
+   * @return the index of the file in the saved project or -1 if the name has no index
+   */
+  public static int getSnapshotFileIndex(@NotNull String snapshotName) {
+    try {
+      return Integer.parseInt(
+          snapshotName.substring(0, snapshotName.length() - SNAPSHOT_SUFFIX.length()));
+    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      return -1;
+    }
+  }
+
   public static String getZipPath(RawDataFile file) {
     return getZipPath(file, null, null);
   }
@@ -149,7 +188,10 @@ public class RawDataFileSaveHandler extends AbstractTask {
 
   public boolean saveRawDataFilesAsBatch() throws IOException, ParserConfigurationException {
 
-    List<BatchQueue> cleanedBatchQueues = List.of(RawDataSavingUtils.makeBatchQueue(files));
+    // files with snapshots are restored without the import batch
+    final List<RawDataFile> batchFiles = files.stream()
+        .filter(file -> !snapshotFiles.contains(file)).toList();
+    List<BatchQueue> cleanedBatchQueues = List.of(RawDataSavingUtils.makeBatchQueue(batchFiles));
     progress += stepProgress;
 
     if (saveFilesInProject) {
@@ -158,6 +200,10 @@ public class RawDataFileSaveHandler extends AbstractTask {
       copyRawDataFilesToZip();
     }
 
+    if (!saveSnapshots()) {
+      return false;
+    }
+
     zipStream.putNextEntry(new ZipEntry(RAW_DATA_IMPORT_BATCH_FILENAME));
 
     try {
@@ -241,6 +287,29 @@ public class RawDataFileSaveHandler extends AbstractTask {
     }
   }
 
+  private boolean saveSnapshots() throws IOException {
+    for (final RawDataFile file : snapshotFiles) {
+      if (isCanceled()) {
+        return false;
+      }
+      description = prefix + "Storing scans of " + file.getName() + ".";
+      final File tempFile = FileAndPathUtil.createTempFile("mzmine_msdata_snapshot", ".tmp");
+      try {
+        if (!new RawDataFileSnapshotWriter(file).write(tempFile, this::isCanceled)) {
+          return false;
+        }
+        copyToZip(tempFile, getSnapshotZipPath(files.indexOf(file)));
+      } catch (XMLStreamException | ParserConfigurationException e) {
+        logger.log(Level.WARNING, "Could not store scans of file " + file.getName(), e);
+        return false;
+      } finally {
+        tempFile.delete();
+      }
+      progress += stepProgress;
+    }
+    return true;
+  }
+
   private void copyToZip(File actualFile, String zipPath) throws IOException {
     zipStream.putNextEntry(new ZipEntry(zipPath));
     FileInputStream inputStream = new FileInputStream(actualFile);
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.io.projectsave;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.MassList;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.datamodel.features.FeatureList.FeatureListAppliedMethod;
+import io.github.mzmine.datamodel.impl.SimpleScan;
+import io.github.mzmine.datamodel.impl.masslist.ScanPointerMassList;
+import io.github.mzmine.datamodel.impl.masslist.SimpleMassList;
+import io.github.mzmine.datamodel.msms.MsMsInfo;
+import io.github.mzmine.modules.io.projectload.version_3_0.CONST;
+import io.github.mzmine.project.impl.RawDataFileImpl;
+import io.github.mzmine.util.XMLUtils;
+import io.github.mzmine.util.io.BinaryFileWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Writes the scans and mass lists of a {@link RawDataFileImpl} to a binary snapshot, so that the
+ * file can be restored on project load without importing the raw data and repeating the mass
+ * detection. Only files that consist of {@link SimpleScan}s are supported, see
+ * {@link #isSupported(RawDataFile)}.
+ * <p>
+ * Layout: header (magic, version, name, path, color, start time stamp, applied methods XML),
+ * number of scans, and per scan the metadata, MS/MS info XML, the mz and intensity values and the
+ * mass list values. Double arrays are 8 byte aligned little endian.
+ */
+public class RawDataFileSnapshotWriter {
+
+  /**
+   * MZRS
+   */
+  public static final int MAGIC = 0x53525A4D;
+  public static final int VERSION = 1;
+
+  public static final byte MASS_LIST_NONE = 0;
+  public static final byte MASS_LIST_SCAN_POINTER = 1;
+  public static final byte MASS_LIST_VALUES = 2;
+
+  private final @NotNull RawDataFile file;
+  private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+  private final ByteArrayOutputStream xmlBytes = new ByteArrayOutputStream();
+  private BinaryFileWriter out;
+  private volatile double progress;
+
+  public RawDataFileSnapshotWriter(@NotNull RawDataFile file) {
+    this.file = file;
+  }
+
+  /**
+   * Ion mobility files, files with other data files (e.g. UV traces) and files with scans or mass
+   * lists of other implementations are restored by the import batch instead.
+   */
+  public static boolean isSupported(@NotNull RawDataFile file) {
+    if (file.getClass() != RawDataFileImpl.class || !file.getOtherDataFiles().isEmpty()) {
+      return false;
+    }
+    for (final Scan scan : file.getScans()) {
+      if (scan.getClass() != SimpleScan.class) {
+        return false;
+      }
+      final MassList massList = scan.getMassList();
+      if (massList != null && massList.getClass() != SimpleMassList.class
+          && massList.getClass() != ScanPointerMassList.class) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param target     the snapshot file
+   * @param isCanceled checked between scans
+   * @return true if written, false if canceled
+   */
+  public boolean write(@NotNull File target, @NotNull BooleanSupplier isCanceled)
+      throws IOException, XMLStreamException, ParserConfigurationException {
+    final List<Scan> scans = file.getScans();
+    try (BinaryFileWriter writer = new BinaryFileWriter(target)) {
+      out = writer;
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeString(file.getName());
+      out.writeString(file.getAbsolutePath());
+      out.writeString(file.getColor().toString());
+      final LocalDateTime startTimeStamp = file.getStartTimeStamp();
+      out.writeString(startTimeStamp != null ? startTimeStamp.toString() : null);
+      out.writeString(appliedMethodsToXml(file.getAppliedMethods()));
+
+      out.writeInt(scans.size());
+      double[] mzs = new double[0];
+      double[] intensities = new double[0];
+      for (int i = 0; i < scans.size(); i++) {
+        if (isCanceled.getAsBoolean()) {
+          return false;
+        }
+        final Scan scan = scans.get(i);
+        writeScanHeader((SimpleScan) scan);
+
+        final int numValues = scan.getNumberOfDataPoints();
+        out.writeInt(numValues);
+        if (mzs.length < numValues) {
+          mzs = new double[numValues];
+          intensities = new double[numValues];
+        }
+        writeValues(scan.getMzValues(mzs), scan.getIntensityValues(intensities), numValues);
+
+        final MassList massList = scan.getMassList();
+        if (massList == null) {
+          out.writeByte(MASS_LIST_NONE);
+        } else if (massList instanceof ScanPointerMassList) {
+          out.writeByte(MASS_LIST_SCAN_POINTER);
+        } else {
+          out.writeByte(MASS_LIST_VALUES);
+          final int numMasses = massList.getNumberOfDataPoints();
+          out.writeInt(numMasses);
+          if (mzs.length < numMasses) {
+            mzs = new double[numMasses];
+            intensities = new double[numMasses];
+          }
+          writeValues(massList.getMzValues(mzs), massList.getIntensityValues(intensities),
+              numMasses);
+        }
+        progress = (double) (i + 1) / scans.size();
+      }
+    } finally {
+      out = null;
+    }
+    progress = 1d;
+    return true;
+  }
+
+  private void writeScanHeader(@NotNull SimpleScan scan) throws IOException, XMLStreamException {
+    out.writeInt(scan.getScanNumber());
+    out.writeInt(scan.getMSLevel());
+    out.writeFloat(scan.getUncorrectedRetentionTime());
+    final Float correctedRt = scan.getCorrectedRetentionTime();
+    out.writeFloat(correctedRt != null ? correctedRt : Float.NaN);
+    out.writeString(scan.getPolarity() != null ? scan.getPolarity().name() : null);
+    out.writeString(scan.getSpectrumType() != null ? scan.getSpectrumType().name() : null);
+    out.writeString(scan.getScanDefinition());
+    final Range<Double> mzRange = scan.getScanningMZRange();
+    out.writeDouble(mzRange != null ? mzRange.lowerEndpoint() : Double.NaN);
+    out.writeDouble(mzRange != null ? mzRange.upperEndpoint() : Double.NaN);
+    final Float injectionTime = scan.getInjectionTime();
+    out.writeFloat(injectionTime != null ? injectionTime : Float.NaN);
+    writeMsMsInfo(scan.getMsMsInfo());
+  }
+
+  private void writeMsMsInfo(@Nullable MsMsInfo info) throws IOException, XMLStreamException {
+    if (info == null) {
+      out.writeInt(-1);
+      return;
+    }
+    xmlBytes.reset();
+    final XMLStreamWriter writer = xmlOutputFactory.createXMLStreamWriter(xmlBytes,
+        StandardCharsets.UTF_8.name());
+    info.writeToXML(writer);
+    writer.flush();
+    writer.close();
+    out.writeInt(xmlBytes.size());
+    out.writeBytes(xmlBytes.toByteArray());
+  }
+
+  private void writeValues(double @NotNull [] mzs, double @NotNull [] intensities, int numValues)
+      throws IOException {
+    out.writeDoubles(MemorySegment.ofArray(mzs), numValues);
+    out.writeDoubles(MemorySegment.ofArray(intensities), numValues);
+  }
+
+  private static @NotNull String appliedMethodsToXml(
+      @NotNull List<FeatureListAppliedMethod> methods) throws ParserConfigurationException {
+    final Document document = XMLUtils.newDocument();
+    final Element root = document.createElement(CONST.XML_FLIST_APPLIED_METHODS_LIST_ELEMENT);
+    document.appendChild(root);
+    for (final FeatureListAppliedMethod method : methods) {
+      final Element element = document.createElement(CONST.XML_FLIST_APPLIED_METHOD_ELEMENT);
+      method.saveValueToXML(element);
+      root.appendChild(element);
+    }
+    return XMLUtils.saveToString(document);
+  }
+
+  /**
+   * @return progress of writing scans
+   */
+  public double getProgress() {
+    return progress;
+  }
+}
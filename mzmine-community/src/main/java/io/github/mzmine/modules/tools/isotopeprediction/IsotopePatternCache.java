@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.tools.isotopeprediction;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.mzmine.datamodel.IsotopePattern;
+import io.github.mzmine.datamodel.PolarityType;
+import io.github.mzmine.datamodel.impl.SimpleIsotopePattern;
+import io.github.mzmine.util.FormulaStringFlavor;
+import io.github.mzmine.util.FormulaUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openscience.cdk.interfaces.IMolecularFormula;
+
+/**
+ * Bounded cache of predicted isotope patterns for formula prediction, where many rows and ions
+ * score the same candidate formulas. Patterns are keyed by the formula string with minor isotopes
+ * and charge, the charge and the polarity. The requested minimum abundance depends on the detected
+ * pattern height of each row, so each pattern is calculated once down to
+ * {@link #CACHED_MIN_ABUNDANCE} and trimmed to the requested minimum abundance. Results are the
+ * same as
+ * {@link IsotopePatternCalculator#calculateIsotopePattern(IMolecularFormula, double, int,
+ * PolarityType)}.
+ * <p>
+ * Cached patterns are shared between callers and must not be changed.
+ */
+public class IsotopePatternCache {
+
+  /**
+   * Lowest cached relative abundance. Lower requested abundances, i.e., very intense patterns
+   * above a low noise level, are calculated without the cache.
+   */
+  public static final double CACHED_MIN_ABUNDANCE = 1E-4;
+
+  private static final Cache<Key, IsotopePattern> CACHE = Caffeine.newBuilder()
+      .maximumSize(50_000).build();
+
+  private IsotopePatternCache() {
+  }
+
+  /**
+   * @param formula      the (ionized) formula, not changed
+   * @param minAbundance the minimum relative abundance of isotopes
+   * @return the cached or newly calculated isotope pattern
+   */
+  @NotNull
+  public static IsotopePattern calculateIsotopePattern(@NotNull final IMolecularFormula formula,
+      final double minAbundance, final int charge, @NotNull final PolarityType polarity) {
+    if (minAbundance < CACHED_MIN_ABUNDANCE) {
+      return IsotopePatternCalculator.calculateIsotopePattern(formula, minAbundance, charge,
+          polarity);
+    }
+    final IsotopePattern pattern = CACHE.get(createKey(formula, charge, polarity),
+        k -> IsotopePatternCalculator.calculateIsotopePattern(formula, CACHED_MIN_ABUNDANCE,
+            charge, polarity));
+    final IsotopePattern trimmed = trim(pattern, minAbundance);
+    // nothing above the minimum abundance, keep the behavior of the calculator
+    return trimmed != null ? trimmed
+        : IsotopePatternCalculator.calculateIsotopePattern(formula, minAbundance, charge,
+            polarity);
+  }
+
+  /**
+   * @return the pattern without isotopes below the minimum abundance or null if no isotope is left
+   */
+  @Nullable
+  private static IsotopePattern trim(@NotNull final IsotopePattern pattern,
+      final double minAbundance) {
+    final int numPoints = pattern.getNumberOfDataPoints();
+    int kept = 0;
+    for (int i = 0; i < numPoints; i++) {
+      if (pattern.getIntensityValue(i) >= minAbundance) {
+        kept++;
+      }
+    }
+    if (kept == numPoints) {
+      return pattern;
+    }
+    if (kept == 0) {
+      return null;
+    }
+
+    final double[] mzs = new double[kept];
+    final double[] intensities = new double[kept];
+    int j = 0;
+    for (int i = 0; i < numPoints; i++) {
+      final double intensity = pattern.getIntensityValue(i);
+      if (intensity >= minAbundance) {
+        mzs[j] = pattern.getMzValue(i);
+        intensities[j] = intensity;
+        j++;
+      }
+    }
+    return new SimpleIsotopePattern(mzs, intensities, pattern.getCharge(), pattern.getStatus(),
+        pattern.getDescription());
+  }
+
+  /**
+   * @return the cached pattern at {@link #CACHED_MIN_ABUNDANCE} or null if not cached
+   */
+  @Nullable
+  static IsotopePattern getCachedPattern(@NotNull final IMolecularFormula formula,
+      final int charge, @NotNull final PolarityType polarity) {
+    return CACHE.getIfPresent(createKey(formula, charge, polarity));
+  }
+
+  public static void clear() {
+    CACHE.invalidateAll();
+  }
+
+  @NotNull
+  private static Key createKey(@NotNull final IMolecularFormula formula, final int charge,
+      @NotNull final PolarityType polarity) {
+    return new Key(FormulaUtils.getFormulaString(formula, FormulaStringFlavor.DEFAULT_CHARGED),
+        charge, polarity);
+  }
+
+  private record Key(@NotNull String formula, int charge, @NotNull PolarityType polarity) {
+
+  }
+}
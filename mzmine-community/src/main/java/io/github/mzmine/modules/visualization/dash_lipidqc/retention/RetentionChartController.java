@@ -245,13 +245,14 @@ final class RetentionChartController {
       if (!(dataset instanceof ColoredXYDataset coloredDataset)) {
         continue;
       }
-      for (int item = 0; item < coloredDataset.getItemCount(0); item++) {
+      final XYValueProvider valueProvider = coloredDataset.getValueProvider();
+      for (int item = 0; item < coloredDataset.getSourceItemCount(); item++) {
         final @Nullable RetentionPointRef pointRef = extractPointRef(dataset, item);
         if (pointRef == null || !Objects.equals(pointRef.row(), selectedRow)) {
           continue;
         }
-        chart.setCursorPosition(new PlotCursorPosition(coloredDataset.getXValue(0, item),
-            coloredDataset.getYValue(0, item), item, dataset));
+        chart.setCursorPosition(new PlotCursorPosition(valueProvider.getDomainValue(item),
+            valueProvider.getRangeValue(item), item, dataset));
         return;
       }
     }
@@ -103,11 +103,13 @@ import io.github.mzmine.javafx.components.factories.FxTexts;
 import io.github.mzmine.javafx.components.util.FxLayout;
 import io.github.mzmine.javafx.concurrent.threading.FxThread;
 import io.github.mzmine.javafx.dialogs.DialogLoggerUtil;
+import io.github.mzmine.javafx.mvci.LatestTaskScheduler;
 import io.github.mzmine.javafx.properties.DelayedListChangeListener;
 import io.github.mzmine.javafx.util.FxIconUtil;
 import io.github.mzmine.javafx.util.FxIcons;
 import io.github.mzmine.main.MZmineCore;
 import io.github.mzmine.modules.dataprocessing.filter_deleterows.DeleteRowsModule;
+import io.github.mzmine.modules.visualization.featurelisttable_modular.FeatureTableRowIndex.SortKey;
 import io.github.mzmine.parameters.ParameterSet;
 import io.github.mzmine.parameters.parametertypes.datatype.DataTypeCheckListParameter;
 import io.github.mzmine.util.FeatureTableFXUtil;
@@ -179,13 +181,19 @@ public class FeatureTableFX extends BorderPane {
   private final FilteredList<TreeItem<ModularFeatureListRow>> filteredRowItems;
   private final ObservableList<TreeItem<ModularFeatureListRow>> rowItems;
   // One per compound tree row: the filtered view of that row's member children. Rebuilt by
-  // updateRows() and re-predicated by applyCurrentRowFilter() so children can be hidden when
+  // updateRows() and re-predicated by applyRowQuery() so children can be hidden when
   // "filter children" is on.
-  private final List<FilteredList<TreeItem<ModularFeatureListRow>>> childFilteredLists = new ArrayList<>();
+  private final Map<TreeItem<ModularFeatureListRow>, FilteredList<TreeItem<ModularFeatureListRow>>> childFilteredLists = new HashMap<>();
   // last applied row filter and child-filtering flag; re-applied after the tree is rebuilt so a new
   // tree picks up the active filter without the user re-typing.
   private @Nullable TableFeatureListRowFilter currentRowFilter = null;
   private boolean filterChildren = false;
+  // filtering and sorting by indexed columns run on a task thread, stale queries are canceled
+  private final LatestTaskScheduler rowQueryScheduler = new LatestTaskScheduler();
+  // index of the current rowItems, null until the first query after the rows changed
+  private @Nullable FeatureTableRowIndex rowIndex = null;
+  // incremented whenever rowItems is rebuilt, results of older queries are discarded
+  private int rowItemsVersion = 0;
   // parameters
   private final ParameterSet parameters;
   private final DataTypeCheckListParameter rowTypesParameter;
@@ -265,6 +273,14 @@ public class FeatureTableFX extends BorderPane {
     filteredRowItems = new FilteredList<>(rowItems);
     // auto reflect filtered items to table
     Bindings.bindContent(root.getChildren(), filteredRowItems);
+    // sorting by indexed columns is done together with filtering on a task thread
+    table.setSortPolicy(t -> {
+      if (getIndexedSortColumn() != null) {
+        requestRowQuery();
+        return true;
+      }
+      return TreeTableView.DEFAULT_SORT_POLICY.call(t);
+    });
 
     // re-populate rows when the display mode is changed by the user
     compoundRowSelection.subscribe(_ -> updateRows());
@@ -697,6 +713,8 @@ public class FeatureTableFX extends BorderPane {
       final ModularFeatureList flist = getFeatureList();
       if (flist == null) {
         rowItems.clear();
+        rowIndex = null;
+        rowItemsVersion++;
         return;
       }
       final List<TreeItem<ModularFeatureListRow>> newRows;
@@ -720,17 +738,16 @@ public class FeatureTableFX extends BorderPane {
       }
 
       rowItems.setAll(newRows);
-
-      // a freshly built tree has new (unfiltered) child lists; re-apply the active filter so the
-      // new rows immediately reflect it (children hidden / parents expanded as needed).
-      applyCurrentRowFilter();
+      rowIndex = null;
+      rowItemsVersion++;
 
       if (selectedRow != null) {
         FeatureTableFXUtil.selectAndScrollTo(selectedRow.getValue(), this);
       }
 
-      // this applies the last sorting the the new rows
-      table.sort();
+      // a freshly built tree has new (unfiltered) child lists; re-apply the active filter and the
+      // last sorting so the new rows reflect it (children hidden / parents expanded as needed).
+      requestRowQuery();
     });
   }
 
@@ -790,7 +807,7 @@ public class FeatureTableFX extends BorderPane {
     final FilteredList<TreeItem<ModularFeatureListRow>> filteredMembers = new FilteredList<>(
         members);
     Bindings.bindContent(root.getChildren(), filteredMembers);
-    childFilteredLists.add(filteredMembers);
+    childFilteredLists.put(root, filteredMembers);
     return root;
   }
 
@@ -799,6 +816,9 @@ public class FeatureTableFX extends BorderPane {
    * their member children: a compound row is kept when it matches itself or when any of its members
    * match (in which case it is expanded so the match is visible). RT is special and only ever
    * filters the top-level rows.
+   * <p>
+   * The filter is evaluated on a task thread, see {@link FeatureTableRowIndex}. The table is
+   * updated once the result of the latest query is available.
    *
    * @param filter         the filter to apply, or null to clear filtering
    * @param filterChildren when true, non-matching member rows are hidden; otherwise all members of
@@ -808,77 +828,102 @@ public class FeatureTableFX extends BorderPane {
       final boolean filterChildren) {
     this.currentRowFilter = filter;
     this.filterChildren = filterChildren;
-    applyCurrentRowFilter();
-    // changing the filter predicate re-populates the filtered list but does not re-trigger the
-    // TreeTableView's active column sort — re-apply it so rows stay sorted by the active sorter.
-    table.sort();
+    requestRowQuery();
   }
 
   /**
-   * (Re)apply {@link #currentRowFilter} / {@link #filterChildren} to the current tree. Child
-   * predicates are set first so that the top-level predicate sees the already-filtered children.
+   * Filter {@link #rowItems} with {@link #currentRowFilter} / {@link #filterChildren} and sort by
+   * the active sort column if it is indexed. Runs on a task thread and cancels older queries.
    */
-  private void applyCurrentRowFilter() {
-    final TableFeatureListRowFilter filter = currentRowFilter;
+  private void requestRowQuery() {
+    final List<TreeItem<ModularFeatureListRow>> rows = List.copyOf(rowItems);
+    final List<List<TreeItem<ModularFeatureListRow>>> children = new ArrayList<>(rows.size());
+    for (final TreeItem<ModularFeatureListRow> item : rows) {
+      final FilteredList<TreeItem<ModularFeatureListRow>> members = childFilteredLists.get(item);
+      children.add(members == null ? List.of() : List.copyOf(members.getSource()));
+    }
+    final TreeTableColumn<ModularFeatureListRow, ?> sortColumn = getIndexedSortColumn();
+    final SortKey sortKey =
+        sortColumn == null ? null : SortKey.forType(newColumnMap.get(sortColumn).getDataType());
+    final boolean ascending =
+        sortColumn == null || sortColumn.getSortType() == TreeTableColumn.SortType.ASCENDING;
 
-    // 1) children: hidden only when filtering children is on and a filter is present
-    final Predicate<TreeItem<ModularFeatureListRow>> childPredicate;
-    if (filter == null || !filterChildren) {
-      childPredicate = _ -> true;
-    } else {
-      childPredicate = child -> {
-        final ModularFeatureListRow row = child.getValue();
-        return row != null && filter.matchesAllExceptRT(row);
-      };
+    rowQueryScheduler.onTaskThread(
+        new FeatureTableRowQueryTask(this, rowIndex, rowItemsVersion, rows, children,
+            currentRowFilter, filterChildren, sortKey, ascending));
+  }
+
+  /**
+   * @return the sort column if the table is only sorted by a row column that is indexed by
+   * {@link FeatureTableRowIndex}, otherwise null
+   */
+  private @Nullable TreeTableColumn<ModularFeatureListRow, ?> getIndexedSortColumn() {
+    if (table.getSortOrder().size() != 1) {
+      return null;
+    }
+    final TreeTableColumn<ModularFeatureListRow, ?> column = table.getSortOrder().getFirst();
+    final ColumnID id = newColumnMap.get(column);
+    if (id == null || id.getType() != ColumnType.ROW_TYPE || id.getSubColIndex() != -1
+        || SortKey.forType(id.getDataType()) == null) {
+      return null;
+    }
+    return column;
+  }
+
+  /**
+   * Applies the result of a {@link FeatureTableRowQueryTask} on the FX thread. Only sets the
+   * precomputed visible rows and order.
+   */
+  void applyRowQuery(@NotNull final FeatureTableRowQueryTask query) {
+    if (query.getRowItemsVersion() != rowItemsVersion) {
+      // rows were rebuilt, the query of the new rows follows
+      return;
     }
-    for (final FilteredList<TreeItem<ModularFeatureListRow>> children : childFilteredLists) {
-      children.setPredicate(childPredicate);
+    rowIndex = query.getIndex();
+
+    // clear selection before changing the items to avoid stale indices in the selection model
+    final FeatureListRow selectedRow = getSelectedRow();
+    table.getSelectionModel().clearSelection();
+
+    // 1) children: hidden only when filtering children is on and a filter is present
+    final Set<ModularFeatureListRow> visibleChildren = query.getVisibleChildren();
+    for (final FilteredList<TreeItem<ModularFeatureListRow>> children :
+        childFilteredLists.values()) {
+      children.setPredicate(
+          visibleChildren == null ? null : child -> visibleChildren.contains(child.getValue()));
     }
 
     // 2) top level: RT on the top row, plus self-or-any-child match for the non-RT filters
-    filteredRowItems.setPredicate(item -> {
-      if (filter == null) {
-        return true;
-      }
-      final ModularFeatureListRow row = item.getValue();
-      if (row == null) {
-        return false;
-      }
-      if (!filter.matchesRT(row)) {
-        return false;
-      }
-      return filter.matchesAllExceptRT(row) || anyChildMatchesNonRt(item, filter);
-    });
+    final Set<ModularFeatureListRow> visibleRows = query.getVisibleRows();
+    filteredRowItems.setPredicate(
+        visibleRows == null ? null : item -> visibleRows.contains(item.getValue()));
 
     // 3) expand compounds that are kept only because a member matched, so the match is visible
-    if (filter != null) {
-      for (final TreeItem<ModularFeatureListRow> item : rowItems) {
-        final ModularFeatureListRow row = item.getValue();
-        if (row == null) {
-          continue;
-        }
-        if (filter.matchesRT(row) && !filter.matchesAllExceptRT(row) && anyChildMatchesNonRt(item,
-            filter)) {
-          item.setExpanded(true);
+    for (final TreeItem<ModularFeatureListRow> item : query.getExpandItems()) {
+      item.setExpanded(true);
+    }
+
+    // 4) sorting: either precomputed by the query or by the table itself
+    final List<TreeItem<ModularFeatureListRow>> sortedItems = query.getSortedItems();
+    if (sortedItems != null) {
+      table.getRoot().getChildren().setAll(sortedItems);
+      final List<TreeItem<ModularFeatureListRow>> rows = query.getRowItems();
+      final List<List<TreeItem<ModularFeatureListRow>>> sortedChildren =
+          query.getSortedChildItems();
+      for (int i = 0; i < rows.size(); i++) {
+        if (!sortedChildren.get(i).isEmpty()) {
+          rows.get(i).getChildren().setAll(sortedChildren.get(i));
         }
       }
+    } else {
+      // changing the filter predicate re-populates the filtered list but does not re-trigger the
+      // TreeTableView's active column sort — re-apply it so rows stay sorted by the active sorter.
+      table.sort();
     }
-  }
 
-  /**
-   * @return true if any (currently visible) member of {@code item} passes the non-RT filters. When
-   * "filter children" is on the non-matching members are already hidden, so a match still implies a
-   * visible member; when off all members are present and searched.
-   */
-  private static boolean anyChildMatchesNonRt(@NotNull final TreeItem<ModularFeatureListRow> item,
-      @NotNull final TableFeatureListRowFilter filter) {
-    for (final TreeItem<ModularFeatureListRow> child : item.getChildren()) {
-      final ModularFeatureListRow row = child.getValue();
-      if (row != null && filter.matchesAllExceptRT(row)) {
-        return true;
-      }
+    if (selectedRow != null) {
+      FeatureTableFXUtil.selectAndScrollTo(selectedRow, this);
     }
-    return false;
   }
 
   /**
@@ -1609,6 +1654,7 @@ public class FeatureTableFX extends BorderPane {
   }
 
   public void closeTable() {
+    rowQueryScheduler.cancelTasks();
     final ModularFeatureList flist = featureListProperty.get();
     if (flist == null) {
       return;
@@ -0,0 +1,427 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.visualization.featurelisttable_modular;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.datamodel.features.types.DataType;
+import io.github.mzmine.datamodel.features.types.numbers.HeightType;
+import io.github.mzmine.datamodel.features.types.numbers.IDType;
+import io.github.mzmine.datamodel.features.types.numbers.MZType;
+import io.github.mzmine.datamodel.features.types.numbers.MobilityType;
+import io.github.mzmine.datamodel.features.types.numbers.RTType;
+import io.github.mzmine.util.collections.IndexRange;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.ToDoubleFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Primitive snapshot of the rows shown in the {@link FeatureTableFX}, used to filter and sort off
+ * the FX thread. Rows are the top level rows of the tree, children are the members of compound
+ * rows. Values are read once on creation and the sorted indices are created on first use.
+ * <p>
+ * The index only narrows down the candidates of the m/z, ID and RT ranges. The final decision is
+ * always made by {@link TableFeatureListRowFilter} so that the result is the same as filtering the
+ * tree directly. Thread safe.
+ */
+public final class FeatureTableRowIndex {
+
+  /**
+   * Row columns that are sorted by the index. Missing values are sorted first, like in the table.
+   */
+  public enum SortKey {
+    ID(IDType.class, row -> row.getID() == null ? Double.NaN : row.getID()), //
+    MZ(MZType.class, row -> toDouble(row.getAverageMZ())), //
+    RT(RTType.class, row -> toDouble(row.getAverageRT())), //
+    MOBILITY(MobilityType.class, row -> toDouble(row.getAverageMobility())), //
+    HEIGHT(HeightType.class, row -> toDouble(row.getMaxHeight()));
+
+    private final Class<? extends DataType<?>> type;
+    private final ToDoubleFunction<FeatureListRow> value;
+
+    SortKey(final Class<? extends DataType<?>> type, final ToDoubleFunction<FeatureListRow> value) {
+      this.type = type;
+      this.value = value;
+    }
+
+    /**
+     * @return the key of the row column of this data type or null if the type is not indexed
+     */
+    public static @Nullable SortKey forType(@Nullable final DataType<?> type) {
+      if (type == null) {
+        return null;
+      }
+      for (final SortKey key : values()) {
+        if (key.type.equals(type.getClass())) {
+          return key;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * @param visibleRows     rows that pass the filter
+   * @param visibleChildren children that are shown or null if all children are shown
+   * @param expandRows      rows that are only visible because a child matches the filter
+   * @param sortedRows      the visible rows in sorted order or null if not sorted
+   * @param sortedChildren  all children, sorted within the range of their parent row. Null if not
+   *                        sorted
+   */
+  public record Result(@NotNull BitSet visibleRows, @Nullable BitSet visibleChildren,
+                       @NotNull BitSet expandRows, int @Nullable [] sortedRows,
+                       int @Nullable [] sortedChildren) {
+
+  }
+
+  private final int numRows;
+  /**
+   * Rows followed by all children
+   */
+  private final FeatureListRow[] entries;
+  /**
+   * Children of row r are childStart[r] until childStart[r+1]
+   */
+  private final int[] childStart;
+  /**
+   * parent row of each child
+   */
+  private final int[] parents;
+  /**
+   * key, entry. NaN for missing values
+   */
+  private final double[][] values;
+  /**
+   * key, rows sorted by key
+   */
+  private final int[][] sortedRows;
+  /**
+   * key, rows and children sorted by key
+   */
+  private final int[][] sortedEntries;
+
+  private FeatureTableRowIndex(final FeatureListRow[] entries, final int numRows,
+      final int[] childStart, final int[] parents) {
+    this.entries = entries;
+    this.numRows = numRows;
+    this.childStart = childStart;
+    this.parents = parents;
+    final SortKey[] keys = SortKey.values();
+    values = new double[keys.length][entries.length];
+    for (final SortKey key : keys) {
+      final double[] keyValues = values[key.ordinal()];
+      for (int i = 0; i < entries.length; i++) {
+        keyValues[i] = key.value.applyAsDouble(entries[i]);
+      }
+    }
+    sortedRows = new int[keys.length][];
+    sortedEntries = new int[keys.length][];
+  }
+
+  /**
+   * @param rows top level rows without children
+   */
+  public static @NotNull FeatureTableRowIndex of(
+      @NotNull final List<? extends FeatureListRow> rows) {
+    return of(rows, List.of());
+  }
+
+  /**
+   * @param rows     top level rows
+   * @param children the children of each row or an empty list if no row has children
+   */
+  public static @NotNull FeatureTableRowIndex of(@NotNull final List<? extends FeatureListRow> rows,
+      @NotNull final List<? extends List<? extends FeatureListRow>> children) {
+    final int numRows = rows.size();
+    final int[] childStart = new int[numRows + 1];
+    for (int r = 0; r < numRows; r++) {
+      childStart[r + 1] = childStart[r] + (children.isEmpty() ? 0 : children.get(r).size());
+    }
+    final int numChildren = childStart[numRows];
+    final FeatureListRow[] entries = new FeatureListRow[numRows + numChildren];
+    final int[] parents = new int[numChildren];
+    for (int r = 0; r < numRows; r++) {
+      entries[r] = rows.get(r);
+      for (int c = childStart[r]; c < childStart[r + 1]; c++) {
+        entries[numRows + c] = children.get(r).get(c - childStart[r]);
+        parents[c] = r;
+      }
+    }
+    return new FeatureTableRowIndex(entries, numRows, childStart, parents);
+  }
+
+  public int getNumberOfRows() {
+    return numRows;
+  }
+
+  public int getNumberOfChildren() {
+    return parents.length;
+  }
+
+  /**
+   * Applies the filter like {@link FeatureTableFX#applyTreeRowFilter(TableFeatureListRowFilter,
+   * boolean)} and sorts the result.
+   *
+   * @param sortKey   the sort key or null to keep the order of the rows
+   * @param ascending sort order
+   * @param canceled  stops the query
+   * @return the result or null if canceled
+   */
+  public @Nullable Result query(@Nullable final TableFeatureListRowFilter filter,
+      final boolean filterChildren, @Nullable final SortKey sortKey, final boolean ascending,
+      @NotNull final BooleanSupplier canceled) {
+    final BitSet visibleRows = new BitSet(numRows);
+    final BitSet expandRows = new BitSet(numRows);
+    BitSet visibleChildren = null;
+
+    if (filter == null) {
+      visibleRows.set(0, numRows);
+    } else if (!filter.hasFiltersExceptRT()) {
+      // all rows and children match, only RT is left
+      visibleRows.or(rowsInRtRange(filter));
+    } else {
+      final BitSet matches = matchAllExceptRT(filter, canceled);
+      if (matches == null) {
+        return null;
+      }
+      // the row is kept if the row or any child matches
+      final BitSet checkedRows = new BitSet(numRows);
+      for (int e = matches.nextSetBit(0); e >= 0; e = matches.nextSetBit(e + 1)) {
+        final int row = e < numRows ? e : parents[e - numRows];
+        if (checkedRows.get(row)) {
+          continue;
+        }
+        checkedRows.set(row);
+        if (filter.matchesRT(entries[row])) {
+          visibleRows.set(row);
+          if (!matches.get(row)) {
+            // expand so that the matching children are visible
+            expandRows.set(row);
+          }
+        }
+      }
+      if (filterChildren) {
+        visibleChildren = matches.get(numRows, entries.length);
+      }
+    }
+    if (canceled.getAsBoolean()) {
+      return null;
+    }
+
+    if (sortKey == null) {
+      return new Result(visibleRows, visibleChildren, expandRows, null, null);
+    }
+    final int[] sorted = sortedRows(sortKey);
+    final int[] sortedVisible = new int[visibleRows.cardinality()];
+    int n = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      final int row = sorted[ascending ? i : sorted.length - 1 - i];
+      if (visibleRows.get(row)) {
+        sortedVisible[n++] = row;
+      }
+    }
+    return new Result(visibleRows, visibleChildren, expandRows, sortedVisible,
+        sortChildren(sortKey, ascending));
+  }
+
+  /**
+   * Rows in the RT range and rows without RT, which are never filtered by RT
+   */
+  private BitSet rowsInRtRange(final TableFeatureListRowFilter filter) {
+    final BitSet rows = new BitSet(numRows);
+    final Range<Double> rtRange = filter.rtRange();
+    if (rtRange == null) {
+      rows.set(0, numRows);
+      return rows;
+    }
+    final int[] sorted = sortedRows(SortKey.RT);
+    final double[] rts = values[SortKey.RT.ordinal()];
+    final int from = lowerBound(sorted, rts, rtRange);
+    for (int i = 0; i < sorted.length && Double.isNaN(rts[sorted[i]]); i++) {
+      rows.set(sorted[i]);
+    }
+    for (int i = from; i < sorted.length && belowUpperBound(rts[sorted[i]], rtRange); i++) {
+      if (filter.matchesRT(entries[sorted[i]])) {
+        rows.set(sorted[i]);
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * @return the rows and children that match all filters except RT or null if canceled
+   */
+  private @Nullable BitSet matchAllExceptRT(final TableFeatureListRowFilter filter,
+      final BooleanSupplier canceled) {
+    final BitSet candidates = candidatesExceptRT(filter);
+    final BitSet matches = new BitSet(entries.length);
+    int checked = 0;
+    for (int e = candidates.nextSetBit(0); e >= 0; e = candidates.nextSetBit(e + 1)) {
+      if (++checked % 10_000 == 0 && canceled.getAsBoolean()) {
+        return null;
+      }
+      if (filter.matchesAllExceptRT(entries[e])) {
+        matches.set(e);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * @return all rows and children in the m/z range or ID ranges. All if neither is set
+   */
+  private BitSet candidatesExceptRT(final TableFeatureListRowFilter filter) {
+    final BitSet candidates = new BitSet(entries.length);
+    final Range<Double> mzRange = filter.mzRange();
+    final List<IndexRange> idRanges = filter.idRanges();
+    if (mzRange != null) {
+      final int[] sorted = sortedEntries(SortKey.MZ);
+      final double[] mzs = values[SortKey.MZ.ordinal()];
+      for (int i = lowerBound(sorted, mzs, mzRange);
+          i < sorted.length && belowUpperBound(mzs[sorted[i]], mzRange); i++) {
+        candidates.set(sorted[i]);
+      }
+    } else if (idRanges != null && !idRanges.isEmpty()) {
+      final int[] sorted = sortedEntries(SortKey.ID);
+      final double[] ids = values[SortKey.ID.ordinal()];
+      for (final IndexRange idRange : idRanges) {
+        if (idRange.isEmpty()) {
+          continue;
+        }
+        final Range<Double> range = Range.closed((double) idRange.min(),
+            (double) idRange.maxInclusive());
+        for (int i = lowerBound(sorted, ids, range);
+            i < sorted.length && belowUpperBound(ids[sorted[i]], range); i++) {
+          candidates.set(sorted[i]);
+        }
+      }
+    } else {
+      candidates.set(0, entries.length);
+    }
+    return candidates;
+  }
+
+  /**
+   * @return index of the first non-missing value that is not below the lower bound. Bounds are
+   * treated as closed, the filter decides on the exact bounds.
+   */
+  private static int lowerBound(final int[] sorted, final double[] values,
+      final Range<Double> range) {
+    final boolean hasLower = range.hasLowerBound();
+    final double lower = hasLower ? range.lowerEndpoint() : 0;
+    int low = 0;
+    int high = sorted.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      final double value = values[sorted[mid]];
+      // missing values are sorted first
+      if (Double.isNaN(value) || (hasLower && value < lower)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static boolean belowUpperBound(final double value, final Range<Double> range) {
+    return !range.hasUpperBound() || value <= range.upperEndpoint();
+  }
+
+  private int[] sortChildren(final SortKey key, final boolean ascending) {
+    final int[] sorted = new int[parents.length];
+    final double[] keyValues = values[key.ordinal()];
+    for (int c = 0; c < sorted.length; c++) {
+      sorted[c] = c;
+    }
+    for (int r = 0; r < numRows; r++) {
+      if (childStart[r + 1] - childStart[r] > 1) {
+        IntArrays.quickSort(sorted, childStart[r], childStart[r + 1], (a, b) -> {
+          final int result = compare(keyValues[numRows + a], keyValues[numRows + b]);
+          return result != 0 ? (ascending ? result : -result) : Integer.compare(a, b);
+        });
+      }
+    }
+    return sorted;
+  }
+
+  private synchronized int[] sortedRows(final SortKey key) {
+    int[] sorted = sortedRows[key.ordinal()];
+    if (sorted == null) {
+      sorted = sortEntries(key, numRows);
+      sortedRows[key.ordinal()] = sorted;
+    }
+    return sorted;
+  }
+
+  private synchronized int[] sortedEntries(final SortKey key) {
+    if (parents.length == 0) {
+      return sortedRows(key);
+    }
+    int[] sorted = sortedEntries[key.ordinal()];
+    if (sorted == null) {
+      sorted = sortEntries(key, entries.length);
+      sortedEntries[key.ordinal()] = sorted;
+    }
+    return sorted;
+  }
+
+  /**
+   * @return the first n entries sorted by key, ties by index
+   */
+  private int[] sortEntries(final SortKey key, final int n) {
+    final double[] keyValues = values[key.ordinal()];
+    final int[] sorted = new int[n];
+    for (int i = 0; i < n; i++) {
+      sorted[i] = i;
+    }
+    IntArrays.quickSort(sorted, (a, b) -> {
+      final int result = compare(keyValues[a], keyValues[b]);
+      return result != 0 ? result : Integer.compare(a, b);
+    });
+    return sorted;
+  }
+
+  /**
+   * Missing values first
+   */
+  private static int compare(final double a, final double b) {
+    final boolean missingA = Double.isNaN(a);
+    final boolean missingB = Double.isNaN(b);
+    if (missingA || missingB) {
+      return Boolean.compare(!missingA, !missingB);
+    }
+    return Double.compare(a, b);
+  }
+
+  private static double toDouble(@Nullable final Number value) {
+    return value == null ? Double.NaN : value.doubleValue();
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.visualization.featurelisttable_modular;
+
+import io.github.mzmine.datamodel.features.ModularFeatureListRow;
+import io.github.mzmine.javafx.mvci.FxUpdateTask;
+import io.github.mzmine.modules.visualization.featurelisttable_modular.FeatureTableRowIndex.Result;
+import io.github.mzmine.modules.visualization.featurelisttable_modular.FeatureTableRowIndex.SortKey;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import javafx.scene.control.TreeItem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Filters and sorts the rows of the {@link FeatureTableFX} on a task thread. Only the visible rows
+ * and their order are applied to the table on the FX thread, and only if this is still the latest
+ * query. The {@link FeatureTableRowIndex} is created on the first query after the rows changed.
+ */
+class FeatureTableRowQueryTask extends FxUpdateTask<FeatureTableFX> {
+
+  private final @Nullable FeatureTableRowIndex lastIndex;
+  private final int rowItemsVersion;
+  private final @NotNull List<TreeItem<ModularFeatureListRow>> rowItems;
+  private final @NotNull List<List<TreeItem<ModularFeatureListRow>>> childItems;
+  private final @Nullable TableFeatureListRowFilter filter;
+  private final boolean filterChildren;
+  private final @Nullable SortKey sortKey;
+  private final boolean ascending;
+
+  // results
+  private @Nullable FeatureTableRowIndex index;
+  private @Nullable Set<ModularFeatureListRow> visibleRows;
+  private @Nullable Set<ModularFeatureListRow> visibleChildren;
+  private final List<TreeItem<ModularFeatureListRow>> expandItems = new ArrayList<>();
+  private @Nullable List<TreeItem<ModularFeatureListRow>> sortedItems;
+  private final List<List<TreeItem<ModularFeatureListRow>>> sortedChildItems = new ArrayList<>();
+
+  /**
+   * @param index      the index of the rows or null to create it
+   * @param rowItems   snapshot of the top level rows
+   * @param childItems snapshot of all children of each row
+   * @param sortKey    the indexed sort column or null if the table sorts itself
+   */
+  FeatureTableRowQueryTask(@NotNull final FeatureTableFX table,
+      @Nullable final FeatureTableRowIndex index, final int rowItemsVersion,
+      @NotNull final List<TreeItem<ModularFeatureListRow>> rowItems,
+      @NotNull final List<List<TreeItem<ModularFeatureListRow>>> childItems,
+      @Nullable final TableFeatureListRowFilter filter, final boolean filterChildren,
+      @Nullable final SortKey sortKey, final boolean ascending) {
+    super("feature_table_row_query", table);
+    this.lastIndex = index;
+    this.rowItemsVersion = rowItemsVersion;
+    this.rowItems = rowItems;
+    this.childItems = childItems;
+    this.filter = filter;
+    this.filterChildren = filterChildren;
+    this.sortKey = sortKey;
+    this.ascending = ascending;
+  }
+
+  @Override
+  protected void process() {
+    final FeatureTableRowIndex rowIndex;
+    if (lastIndex != null) {
+      rowIndex = lastIndex;
+    } else {
+      final List<List<ModularFeatureListRow>> children = new ArrayList<>(childItems.size());
+      for (final List<TreeItem<ModularFeatureListRow>> items : childItems) {
+        children.add(items.stream().map(TreeItem::getValue).toList());
+      }
+      rowIndex = FeatureTableRowIndex.of(rowItems.stream().map(TreeItem::getValue).toList(),
+          children);
+    }
+    if (isCanceled()) {
+      return;
+    }
+
+    final Result result = rowIndex.query(filter, filterChildren, sortKey, ascending,
+        this::isCanceled);
+    if (result == null) {
+      return;
+    }
+    // map to the tree items here to keep the work on the FX thread minimal
+    if (filter != null) {
+      visibleRows = collectRows(result.visibleRows(), rowItems);
+    }
+    if (result.visibleChildren() != null) {
+      final List<TreeItem<ModularFeatureListRow>> allChildren = new ArrayList<>(
+          rowIndex.getNumberOfChildren());
+      childItems.forEach(allChildren::addAll);
+      visibleChildren = collectRows(result.visibleChildren(), allChildren);
+    }
+    final BitSet expand = result.expandRows();
+    for (int r = expand.nextSetBit(0); r >= 0; r = expand.nextSetBit(r + 1)) {
+      expandItems.add(rowItems.get(r));
+    }
+
+    if (result.sortedRows() != null && result.sortedChildren() != null) {
+      sortedItems = new ArrayList<>(result.sortedRows().length);
+      final int[] sortedChildren = result.sortedChildren();
+      int childStart = 0;
+      for (int r = 0; r < rowItems.size(); r++) {
+        final List<TreeItem<ModularFeatureListRow>> children = childItems.get(r);
+        final List<TreeItem<ModularFeatureListRow>> sorted = new ArrayList<>(children.size());
+        for (int c = childStart; c < childStart + children.size(); c++) {
+          final TreeItem<ModularFeatureListRow> child = children.get(
+              sortedChildren[c] - childStart);
+          if (visibleChildren == null || visibleChildren.contains(child.getValue())) {
+            sorted.add(child);
+          }
+        }
+        sortedChildItems.add(sorted);
+        childStart += children.size();
+      }
+      for (final int row : result.sortedRows()) {
+        sortedItems.add(rowItems.get(row));
+      }
+    }
+    index = rowIndex;
+  }
+
+  private static Set<ModularFeatureListRow> collectRows(final BitSet visible,
+      final List<TreeItem<ModularFeatureListRow>> items) {
+    final Set<ModularFeatureListRow> rows = Collections.newSetFromMap(
+        new IdentityHashMap<>(visible.cardinality()));
+    for (int i = visible.nextSetBit(0); i >= 0; i = visible.nextSetBit(i + 1)) {
+      rows.add(items.get(i).getValue());
+    }
+    return rows;
+  }
+
+  @Override
+  protected void updateGuiModel() {
+    if (index == null || !isFinished()) {
+      return;
+    }
+    model.applyRowQuery(this);
+  }
+
+  int getRowItemsVersion() {
+    return rowItemsVersion;
+  }
+
+  @Nullable FeatureTableRowIndex getIndex() {
+    return index;
+  }
+
+  /**
+   * @return rows that pass the filter or null if all rows are visible
+   */
+  @Nullable Set<ModularFeatureListRow> getVisibleRows() {
+    return visibleRows;
+  }
+
+  /**
+   * @return children that are visible or null if all children are visible
+   */
+  @Nullable Set<ModularFeatureListRow> getVisibleChildren() {
+    return visibleChildren;
+  }
+
+  /**
+   * @return rows that are only kept because a child matches
+   */
+  @NotNull List<TreeItem<ModularFeatureListRow>> getExpandItems() {
+    return expandItems;
+  }
+
+  /**
+   * @return the visible rows in sorted order or null if the table sorts itself
+   */
+  @Nullable List<TreeItem<ModularFeatureListRow>> getSortedItems() {
+    return sortedItems;
+  }
+
+  /**
+   * @return the visible children of each row in {@link #rowItems} in sorted order. Empty if not
+   * sorted
+   */
+  @NotNull List<List<TreeItem<ModularFeatureListRow>>> getSortedChildItems() {
+    return sortedChildItems;
+  }
+
+  @NotNull List<TreeItem<ModularFeatureListRow>> getRowItems() {
+    return rowItems;
+  }
+
+  @Override
+  public String getTaskDescription() {
+    return "Filtering and sorting feature table rows";
+  }
+
+  @Override
+  public double getFinishedPercentage() {
+    return 0;
+  }
+}
@@ -65,6 +65,14 @@ public record TableFeatureListRowFilter(@Nullable List<IndexRange> idRanges,
     return matchesId(row) && matchesCompoundId(row) && matchesMZ(row) && matchAnyRowTypeFilter(row);
   }
 
+  /**
+   * @return true if any filter except RT is set
+   */
+  boolean hasFiltersExceptRT() {
+    return (idRanges != null && !idRanges.isEmpty()) || (compoundIdRanges != null
+        && !compoundIdRanges.isEmpty()) || mzRange != null || rowTypeFilter != null;
+  }
+
   private boolean matchAnyRowTypeFilter(FeatureListRow row) {
     if (rowTypeFilter == null) {
       return true;
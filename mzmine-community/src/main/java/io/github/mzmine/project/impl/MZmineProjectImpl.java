@@ -46,8 +46,11 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
@@ -179,6 +182,23 @@ public class MZmineProjectImpl implements MZmineProject {
     }
   }
 
+  /**
+   * Sorts the data files to match the given order. Files not in the list are moved to the end.
+   */
+  public void sortDataFiles(@NotNull final List<RawDataFile> sortedOrder) {
+    try {
+      rawLock.writeLock().lock();
+      final Map<RawDataFile, Integer> orderMap = new HashMap<>();
+      for (int i = 0; i < sortedOrder.size(); i++) {
+        orderMap.put(sortedOrder.get(i), i);
+      }
+      FXCollections.sort(rawDataFiles,
+          Comparator.comparingInt(file -> orderMap.getOrDefault(file, Integer.MAX_VALUE)));
+    } finally {
+      rawLock.writeLock().unlock();
+    }
+  }
+
   @Override
   public RawDataFile[] getDataFiles() {
     try {
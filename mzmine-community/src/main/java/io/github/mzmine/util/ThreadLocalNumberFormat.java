@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.mzmine.util;
+
+import java.math.RoundingMode;
+import java.text.AttributedCharacterIterator;
+import java.text.FieldPosition;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.util.Currency;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link NumberFormat} that can be shared between threads. {@link java.text.DecimalFormat} keeps
+ * its digits in an internal buffer and produces corrupted strings when used concurrently. This
+ * wrapper takes a snapshot of the wrapped format and formats and parses with a per-thread copy of
+ * that snapshot. The wrapper is immutable, later changes to the wrapped format, e.g., by
+ * {@link java.text.DecimalFormat#applyPattern} in the preferences, are not reflected. Create a new
+ * wrapper instead, or change a {@link #clone()}.
+ */
+public final class ThreadLocalNumberFormat extends NumberFormat {
+
+  private final NumberFormat prototype;
+  private final transient ThreadLocal<NumberFormat> copies;
+
+  private ThreadLocalNumberFormat(final @NotNull NumberFormat format) {
+    this.prototype = (NumberFormat) format.clone();
+    copies = ThreadLocal.withInitial(() -> (NumberFormat) prototype.clone());
+  }
+
+  /**
+   * @param format the format, copied and not changed
+   * @return a thread safe snapshot of format or format itself if it is already thread safe
+   */
+  public static @NotNull NumberFormat of(final @NotNull NumberFormat format) {
+    if (format instanceof ThreadLocalNumberFormat) {
+      return format;
+    }
+    return new ThreadLocalNumberFormat(format);
+  }
+
+  private NumberFormat local() {
+    return copies.get();
+  }
+
+  private static UnsupportedOperationException immutable() {
+    return new UnsupportedOperationException(
+        "ThreadLocalNumberFormat is immutable, change a clone instead");
+  }
+
+  @Override
+  public StringBuffer format(final Object number, final StringBuffer toAppendTo,
+      final FieldPosition pos) {
+    return local().format(number, toAppendTo, pos);
+  }
+
+  @Override
+  public StringBuffer format(final double number, final StringBuffer toAppendTo,
+      final FieldPosition pos) {
+    return local().format(number, toAppendTo, pos);
+  }
+
+  @Override
+  public StringBuffer format(final long number, final StringBuffer toAppendTo,
+      final FieldPosition pos) {
+    return local().format(number, toAppendTo, pos);
+  }
+
+  @Override
+  public AttributedCharacterIterator formatToCharacterIterator(final Object obj) {
+    return local().formatToCharacterIterator(obj);
+  }
+
+  @Override
+  public Number parse(final String source, final ParsePosition parsePosition) {
+    return local().parse(source, parsePosition);
+  }
+
+  @Override
+  public boolean isParseIntegerOnly() {
+    return prototype.isParseIntegerOnly();
+  }
+
+  @Override
+  public void setParseIntegerOnly(final boolean value) {
+    throw immutable();
+  }
+
+  @Override
+  public boolean isGroupingUsed() {
+    return prototype.isGroupingUsed();
+  }
+
+  @Override
+  public void setGroupingUsed(final boolean newValue) {
+    throw immutable();
+  }
+
+  @Override
+  public int getMaximumIntegerDigits() {
+    return prototype.getMaximumIntegerDigits();
+  }
+
+  @Override
+  public void setMaximumIntegerDigits(final int newValue) {
+    throw immutable();
+  }
+
+  @Override
+  public int getMinimumIntegerDigits() {
+    return prototype.getMinimumIntegerDigits();
+  }
+
+  @Override
+  public void setMinimumIntegerDigits(final int newValue) {
+    throw immutable();
+  }
+
+  @Override
+  public int getMaximumFractionDigits() {
+    return prototype.getMaximumFractionDigits();
+  }
+
+  @Override
+  public void setMaximumFractionDigits(final int newValue) {
+    throw immutable();
+  }
+
+  @Override
+  public int getMinimumFractionDigits() {
+    return prototype.getMinimumFractionDigits();
+  }
+
+  @Override
+  public void setMinimumFractionDigits(final int newValue) {
+    throw immutable();
+  }
+
+  @Override
+  public Currency getCurrency() {
+    return prototype.getCurrency();
+  }
+
+  @Override
+  public void setCurrency(final Currency currency) {
+    throw immutable();
+  }
+
+  @Override
+  public RoundingMode getRoundingMode() {
+    return prototype.getRoundingMode();
+  }
+
+  @Override
+  public void setRoundingMode(final RoundingMode roundingMode) {
+    throw immutable();
+  }
+
+  /**
+   * @return an independent copy of the snapshot, which may be changed without affecting this
+   * format
+   */
+  @Override
+  public Object clone() {
+    return prototype.clone();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj instanceof ThreadLocalNumberFormat other) {
+      return prototype.equals(other.prototype);
+    }
+    return prototype.equals(obj);
+  }
+
+  @Override
+  public int hashCode() {
+    return prototype.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return prototype.toString();
+  }
+}
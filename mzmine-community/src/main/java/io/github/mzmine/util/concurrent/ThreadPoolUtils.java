@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.concurrent;
+
+import io.github.mzmine.gui.preferences.MZminePreferences;
+import io.github.mzmine.main.ConfigService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Thread pools limited to the number of threads set in the {@link MZminePreferences}. Parallel
+ * streams otherwise run on the common fork join pool, which uses all processors. A parallel
+ * stream that is started by a task of a {@link ForkJoinPool} runs in this pool.
+ */
+public final class ThreadPoolUtils {
+
+  private ThreadPoolUtils() {
+  }
+
+  /**
+   * @return the number of threads set in the preferences
+   */
+  public static int getNumThreads() {
+    return Math.max(1, ConfigService.getPreference(MZminePreferences.numOfThreads));
+  }
+
+  /**
+   * Creates a fork join pool with {@link #getNumThreads()} threads. Use to run multiple parallel
+   * streams of one task, and close it afterwards.
+   *
+   * @param name names the worker threads
+   */
+  public static @NotNull ForkJoinPool newForkJoinPool(@NotNull final String name) {
+    return new ForkJoinPool(getNumThreads(), pool -> {
+      final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(
+          pool);
+      thread.setName(name + " " + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+  }
+
+  /**
+   * Runs the action in the pool and waits for it. Parallel streams of the action run in the pool.
+   *
+   * @return the result of the action
+   * @throws RuntimeException if the action failed
+   */
+  public static <T> T invoke(@NotNull final ForkJoinPool pool,
+      @NotNull final Supplier<T> action) {
+    final Callable<T> callable = action::get;
+    return pool.invoke(ForkJoinTask.adapt(callable));
+  }
+
+  /**
+   * Runs the action in the pool and waits for it. Parallel streams of the action run in the pool.
+   *
+   * @throws RuntimeException if the action failed
+   */
+  public static void invoke(@NotNull final ForkJoinPool pool, @NotNull final Runnable action) {
+    pool.invoke(ForkJoinTask.adapt(action));
+  }
+
+  /**
+   * Runs the action in a new pool with {@link #getNumThreads()} threads, see
+   * {@link #newForkJoinPool(String)}.
+   *
+   * @param name names the worker threads
+   * @return the result of the action
+   */
+  public static <T> T callParallel(@NotNull final String name,
+      @NotNull final Supplier<T> action) {
+    try (final ForkJoinPool pool = newForkJoinPool(name)) {
+      return invoke(pool, action);
+    }
+  }
+
+  /**
+   * Runs the action in a new pool with {@link #getNumThreads()} threads, see
+   * {@link #newForkJoinPool(String)}.
+   *
+   * @param name names the worker threads
+   */
+  public static void runParallel(@NotNull final String name, @NotNull final Runnable action) {
+    try (final ForkJoinPool pool = newForkJoinPool(name)) {
+      invoke(pool, action);
+    }
+  }
+
+  /**
+   * Creates a fixed pool of daemon threads for tasks that block and wait for each other, which
+   * must not run in a fork join pool. Shut it down after use.
+   *
+   * @param name       names the threads
+   * @param numThreads the number of threads, usually {@link #getNumThreads()}
+   */
+  public static @NotNull ExecutorService newFixedThreadPool(@NotNull final String name,
+      final int numThreads) {
+    final AtomicInteger threadCounter = new AtomicInteger(0);
+    return Executors.newFixedThreadPool(numThreads, runnable -> {
+      final Thread thread = new Thread(runnable, name + " " + threadCounter.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+}
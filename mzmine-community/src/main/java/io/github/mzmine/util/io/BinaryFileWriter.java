@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Buffered little endian writer for binary project files. Double arrays are 8 byte aligned so that
+ * {@link MappedBinaryFileReader} can hand out slices of the mapped file without copying.
+ */
+public class BinaryFileWriter implements AutoCloseable {
+
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final ValueLayout.OfDouble DOUBLE_LE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(
+      ByteOrder.LITTLE_ENDIAN);
+  private static final ValueLayout.OfFloat FLOAT_LE = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(
+      ByteOrder.LITTLE_ENDIAN);
+
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE)
+      .order(ByteOrder.LITTLE_ENDIAN);
+  private final FileChannel channel;
+  // bytes written to the file including the buffer
+  private long position;
+
+  public BinaryFileWriter(@NotNull File file) throws IOException {
+    channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  /**
+   * Writes the length and UTF-8 bytes, -1 for null
+   */
+  public void writeString(@Nullable String value) throws IOException {
+    if (value == null) {
+      writeInt(-1);
+      return;
+    }
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeInt(bytes.length);
+    writeBytes(bytes);
+  }
+
+  public void writeByte(byte value) throws IOException {
+    ensureRemaining(Byte.BYTES);
+    buffer.put(value);
+    position += Byte.BYTES;
+  }
+
+  public void writeInt(int value) throws IOException {
+    ensureRemaining(Integer.BYTES);
+    buffer.putInt(value);
+    position += Integer.BYTES;
+  }
+
+  public void writeLong(long value) throws IOException {
+    ensureRemaining(Long.BYTES);
+    buffer.putLong(value);
+    position += Long.BYTES;
+  }
+
+  public void writeFloat(float value) throws IOException {
+    ensureRemaining(Float.BYTES);
+    buffer.putFloat(value);
+    position += Float.BYTES;
+  }
+
+  public void writeDouble(double value) throws IOException {
+    ensureRemaining(Double.BYTES);
+    buffer.putDouble(value);
+    position += Double.BYTES;
+  }
+
+  public void writeBytes(byte @NotNull [] bytes) throws IOException {
+    if (bytes.length > buffer.capacity()) {
+      flush();
+      final ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+      while (wrapped.hasRemaining()) {
+        channel.write(wrapped);
+      }
+    } else {
+      ensureRemaining(bytes.length);
+      buffer.put(bytes);
+    }
+    position += bytes.length;
+  }
+
+  /**
+   * Copies doubles from a native order segment in little endian order, 8 byte aligned
+   */
+  public void writeDoubles(@NotNull MemorySegment values, long numValues) throws IOException {
+    align(Double.BYTES);
+    long offset = 0;
+    while (offset < numValues) {
+      ensureRemaining(Double.BYTES);
+      final int count = (int) Math.min(numValues - offset, buffer.remaining() / Double.BYTES);
+      // the buffer segment starts at the current buffer position
+      MemorySegment.copy(values, ValueLayout.JAVA_DOUBLE_UNALIGNED, offset * Double.BYTES,
+          MemorySegment.ofBuffer(buffer), DOUBLE_LE, 0, count);
+      buffer.position(buffer.position() + count * Double.BYTES);
+      position += (long) count * Double.BYTES;
+      offset += count;
+    }
+  }
+
+  /**
+   * Copies floats from a native order segment in little endian order, 4 byte aligned
+   */
+  public void writeFloats(@NotNull MemorySegment values, long numValues) throws IOException {
+    align(Float.BYTES);
+    long offset = 0;
+    while (offset < numValues) {
+      ensureRemaining(Float.BYTES);
+      final int count = (int) Math.min(numValues - offset, buffer.remaining() / Float.BYTES);
+      MemorySegment.copy(values, ValueLayout.JAVA_FLOAT_UNALIGNED, offset * Float.BYTES,
+          MemorySegment.ofBuffer(buffer), FLOAT_LE, 0, count);
+      buffer.position(buffer.position() + count * Float.BYTES);
+      position += (long) count * Float.BYTES;
+      offset += count;
+    }
+  }
+
+  /**
+   * Pads with zeros so that the next value starts at a multiple of alignment
+   */
+  public void align(int alignment) throws IOException {
+    final int padding = (int) ((alignment - position % alignment) % alignment);
+    for (int i = 0; i < padding; i++) {
+      writeByte((byte) 0);
+    }
+  }
+
+  private void ensureRemaining(int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      flush();
+    }
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Writes the remaining buffer and closes the file
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads files written by {@link BinaryFileWriter} from a read only memory mapping. The mapping is
+ * released once no segment returned by {@link #readDoubles(long)} is referenced anymore.
+ */
+public class MappedBinaryFileReader {
+
+  private static final ValueLayout.OfInt INT_LE = ValueLayout.JAVA_INT_UNALIGNED.withOrder(
+      ByteOrder.LITTLE_ENDIAN);
+  private static final ValueLayout.OfLong LONG_LE = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(
+      ByteOrder.LITTLE_ENDIAN);
+  private static final ValueLayout.OfFloat FLOAT_LE = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(
+      ByteOrder.LITTLE_ENDIAN);
+  private static final ValueLayout.OfDouble DOUBLE_LE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(
+      ByteOrder.LITTLE_ENDIAN);
+
+  private final @NotNull MemorySegment data;
+  private long position;
+
+  /**
+   * Reads a part of an already mapped file, see {@link #readSlice(long)}
+   */
+  public MappedBinaryFileReader(@NotNull MemorySegment data) {
+    this.data = data;
+  }
+
+  public MappedBinaryFileReader(@NotNull File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      // automatic arena keeps the mapping as long as slices point to it
+      data = channel.map(MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto());
+    }
+  }
+
+  public long getPosition() {
+    return position;
+  }
+
+  public void setPosition(long position) {
+    this.position = position;
+  }
+
+  public boolean hasRemaining() {
+    return position < data.byteSize();
+  }
+
+  public @Nullable String readString() {
+    final int length = readInt();
+    if (length < 0) {
+      return null;
+    }
+    return new String(readBytes(length), StandardCharsets.UTF_8);
+  }
+
+  public byte @NotNull [] readBytes(int length) {
+    final byte[] bytes = data.asSlice(position, length).toArray(ValueLayout.JAVA_BYTE);
+    position += length;
+    return bytes;
+  }
+
+  public void skip(long bytes) {
+    position += bytes;
+  }
+
+  public byte readByte() {
+    final byte value = data.get(ValueLayout.JAVA_BYTE, position);
+    position += Byte.BYTES;
+    return value;
+  }
+
+  public int readInt() {
+    final int value = data.get(INT_LE, position);
+    position += Integer.BYTES;
+    return value;
+  }
+
+  public long readLong() {
+    final long value = data.get(LONG_LE, position);
+    position += Long.BYTES;
+    return value;
+  }
+
+  public float readFloat() {
+    final float value = data.get(FLOAT_LE, position);
+    position += Float.BYTES;
+    return value;
+  }
+
+  public double readDouble() {
+    final double value = data.get(DOUBLE_LE, position);
+    position += Double.BYTES;
+    return value;
+  }
+
+  /**
+   * @return a slice of the mapped file on little endian platforms or a copy otherwise. Both are in
+   * native order.
+   */
+  public @NotNull MemorySegment readDoubles(long numValues) {
+    align(Double.BYTES);
+    final MemorySegment slice = data.asSlice(position, numValues * Double.BYTES);
+    position += slice.byteSize();
+    if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+      return slice;
+    }
+    return MemorySegment.ofArray(slice.toArray(DOUBLE_LE));
+  }
+
+  /**
+   * @return a slice of the mapped file on little endian platforms or a copy otherwise. Both are in
+   * native order.
+   */
+  public @NotNull MemorySegment readFloats(long numValues) {
+    align(Float.BYTES);
+    final MemorySegment slice = data.asSlice(position, numValues * Float.BYTES);
+    position += slice.byteSize();
+    if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+      return slice;
+    }
+    return MemorySegment.ofArray(slice.toArray(FLOAT_LE));
+  }
+
+  /**
+   * @return the next bytes as a slice of the mapped file without copying
+   */
+  public @NotNull MemorySegment readSlice(long numBytes) {
+    final MemorySegment slice = data.asSlice(position, numBytes);
+    position += numBytes;
+    return slice;
+  }
+
+  public void align(int alignment) {
+    position += (alignment - position % alignment) % alignment;
+  }
+}
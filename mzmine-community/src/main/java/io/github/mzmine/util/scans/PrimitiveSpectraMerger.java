@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.scans;
+
+import gnu.trove.list.array.TDoubleArrayList;
+import io.github.mzmine.datamodel.MassSpectrum;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.util.maths.CenterFunction;
+import io.github.mzmine.util.scans.SpectraMerging.IntensityMergingType;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import java.util.Arrays;
+import java.util.Collection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Primitive implementation of the spectra merging in
+ * {@link SpectraMerging#calculatedMergedMzsAndIntensities}. The m/z sorted source spectra are
+ * combined into parallel m/z, intensity and spectrum index arrays by a k-way merge. Same as in the
+ * range map implementation, merged signals are started by the most intense data point that is not
+ * part of a signal yet and span its m/z tolerance, limited by neighboring signals. Because all data
+ * points are sorted by m/z, every signal is a contiguous block of the arrays and is assigned by a
+ * linear sweep from its first data point. No objects are created per data point.
+ * <p>
+ * A new signal never replaces a signal that is enclosed by its tolerance range. The range map
+ * would drop such a signal, which can only happen if the tolerance changes with m/z.
+ */
+final class PrimitiveSpectraMerger {
+
+  private static final int UNASSIGNED = -1;
+
+  private PrimitiveSpectraMerger() {
+  }
+
+  /**
+   * Same parameters as {@link SpectraMerging#calculatedMergedMzsAndIntensities}.
+   *
+   * @return double[2][] array, [0][] being the mzs, [1] being the intensities. Null if one of the
+   * spectra is not sorted by m/z.
+   */
+  static <T extends MassSpectrum> double @Nullable [][] merge(
+      @NotNull final Collection<T> source, @NotNull final MZTolerance tolerance,
+      @NotNull final IntensityMergingType intensityMergingType,
+      @NotNull final CenterFunction mzCenterFunction, @Nullable final Double inputNoiseLevel,
+      @Nullable final Double outputNoiseLevel, @Nullable final Integer minNumPeaks) {
+
+    final int numSpectra = source.size();
+    int maxDp = 0;
+    int totalDp = 0;
+    for (final T spectrum : source) {
+      maxDp = Math.max(maxDp, spectrum.getNumberOfDataPoints());
+      totalDp += spectrum.getNumberOfDataPoints();
+    }
+
+    // copy all data points above the noise level, the spectra stay separated by their start index
+    final double[] rawMzs = new double[totalDp];
+    final double[] rawIntensities = new double[totalDp];
+    final double[] mzBuffer = new double[maxDp];
+    final double[] intensityBuffer = new double[maxDp];
+    final int[] spectrumStart = new int[numSpectra + 1];
+    int numDp = 0;
+    int spectrumIndex = 0;
+    for (final T spectrum : source) {
+      spectrum.getMzValues(mzBuffer);
+      spectrum.getIntensityValues(intensityBuffer);
+      spectrumStart[spectrumIndex] = numDp;
+      for (int i = 0; i < spectrum.getNumberOfDataPoints(); i++) {
+        if (inputNoiseLevel == null || intensityBuffer[i] > inputNoiseLevel) {
+          // also catches NaN
+          if (numDp > spectrumStart[spectrumIndex] && !(mzBuffer[i] >= rawMzs[numDp - 1])) {
+            return null;
+          }
+          rawMzs[numDp] = mzBuffer[i];
+          rawIntensities[numDp] = intensityBuffer[i];
+          numDp++;
+        }
+      }
+      spectrumIndex++;
+    }
+    spectrumStart[numSpectra] = numDp;
+
+    final double[] mzs = new double[numDp];
+    final double[] intensities = new double[numDp];
+    final int[] spectra = new int[numDp];
+    kWayMerge(rawMzs, rawIntensities, spectrumStart, mzs, intensities, spectra);
+
+    final int[] signalOf = assignSignals(mzs, intensities, spectra, tolerance);
+
+    return calculateSignals(mzs, intensities, spectra, signalOf, numSpectra,
+        intensityMergingType, mzCenterFunction, outputNoiseLevel, minNumPeaks);
+  }
+
+  /**
+   * Merges the m/z sorted spectra into one m/z sorted array. Equal m/z values are sorted by their
+   * spectrum index, data points of the same spectrum keep their order.
+   */
+  private static void kWayMerge(final double[] rawMzs, final double[] rawIntensities,
+      final int[] spectrumStart, final double[] mzs, final double[] intensities,
+      final int[] spectra) {
+    final int numSpectra = spectrumStart.length - 1;
+    final int[] cursor = Arrays.copyOf(spectrumStart, numSpectra);
+    // binary min heap of spectrum indices
+    final int[] heap = new int[numSpectra];
+    int heapSize = 0;
+    for (int s = 0; s < numSpectra; s++) {
+      if (cursor[s] < spectrumStart[s + 1]) {
+        heap[heapSize++] = s;
+      }
+    }
+    for (int i = heapSize / 2 - 1; i >= 0; i--) {
+      siftDown(heap, heapSize, i, cursor, rawMzs);
+    }
+
+    int out = 0;
+    while (heapSize > 0) {
+      final int s = heap[0];
+      final int dp = cursor[s]++;
+      mzs[out] = rawMzs[dp];
+      intensities[out] = rawIntensities[dp];
+      spectra[out] = s;
+      out++;
+
+      if (cursor[s] == spectrumStart[s + 1]) {
+        heap[0] = heap[--heapSize];
+      }
+      siftDown(heap, heapSize, 0, cursor, rawMzs);
+    }
+  }
+
+  private static void siftDown(final int[] heap, final int heapSize, int i, final int[] cursor,
+      final double[] rawMzs) {
+    final int value = heap[i];
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= heapSize) {
+        break;
+      }
+      if (child + 1 < heapSize && isBefore(heap[child + 1], heap[child], cursor, rawMzs)) {
+        child++;
+      }
+      if (!isBefore(heap[child], value, cursor, rawMzs)) {
+        break;
+      }
+      heap[i] = heap[child];
+      i = child;
+    }
+    heap[i] = value;
+  }
+
+  private static boolean isBefore(final int spectrumA, final int spectrumB, final int[] cursor,
+      final double[] rawMzs) {
+    final int result = Double.compare(rawMzs[cursor[spectrumA]], rawMzs[cursor[spectrumB]]);
+    return result < 0 || (result == 0 && spectrumA < spectrumB);
+  }
+
+  /**
+   * Data points are processed by descending intensity, then descending m/z, the same order as the
+   * stable object sort of the range map implementation. A data point that is not assigned yet
+   * starts a new signal, which takes all unassigned data points in its tolerance range. As
+   * neighboring signals are contiguous blocks, the sweep stops at the first assigned data point.
+   *
+   * @return the signal index of each data point. Signal indices are in processing order.
+   */
+  private static int[] assignSignals(final double[] mzs, final double[] intensities,
+      final int[] spectra, @NotNull final MZTolerance tolerance) {
+    final int numDp = mzs.length;
+    final int[] order = new int[numDp];
+    for (int i = 0; i < numDp; i++) {
+      order[i] = i;
+    }
+    IntArrays.quickSort(order, (a, b) -> {
+      int result = Double.compare(intensities[b], intensities[a]);
+      if (result == 0) {
+        result = Double.compare(mzs[b], mzs[a]);
+      }
+      if (result == 0) {
+        result = Integer.compare(spectra[a], spectra[b]);
+      }
+      return result != 0 ? result : Integer.compare(a, b);
+    });
+
+    final int[] signalOf = new int[numDp];
+    Arrays.fill(signalOf, UNASSIGNED);
+    int numSignals = 0;
+    for (final int dp : order) {
+      if (signalOf[dp] != UNASSIGNED) {
+        continue;
+      }
+      final int signal = numSignals++;
+      final double mz = mzs[dp];
+      final double absTolerance = tolerance.getMzToleranceForMass(mz);
+      final double lower = mz - absTolerance;
+      final double upper = mz + absTolerance;
+
+      signalOf[dp] = signal;
+      for (int i = dp - 1; i >= 0 && signalOf[i] == UNASSIGNED && mzs[i] >= lower; i--) {
+        signalOf[i] = signal;
+      }
+      for (int i = dp + 1; i < numDp && signalOf[i] == UNASSIGNED && mzs[i] <= upper; i++) {
+        signalOf[i] = signal;
+      }
+    }
+    return signalOf;
+  }
+
+  /**
+   * Sweeps over the signal blocks in m/z order. Only the first data point of each spectrum in
+   * processing order is used for a signal. The values are passed to the center function in the
+   * order of the spectrum index, same as the range map implementation.
+   */
+  private static double[][] calculateSignals(final double[] mzs, final double[] intensities,
+      final int[] spectra, final int[] signalOf, final int numSpectra,
+      @NotNull final IntensityMergingType intensityMergingType,
+      @NotNull final CenterFunction mzCenterFunction, @Nullable final Double outputNoiseLevel,
+      @Nullable final Integer minNumPeaks) {
+    final TDoubleArrayList newMzs = new TDoubleArrayList();
+    final TDoubleArrayList newIntensities = new TDoubleArrayList();
+
+    // data point of each spectrum in the current signal
+    final int[] dpOfSpectrum = new int[numSpectra];
+    Arrays.fill(dpOfSpectrum, UNASSIGNED);
+    final int[] usedSpectra = new int[numSpectra];
+
+    final int numDp = mzs.length;
+    int start = 0;
+    while (start < numDp) {
+      final int signal = signalOf[start];
+      int end = start;
+      int numUsed = 0;
+      for (; end < numDp && signalOf[end] == signal; end++) {
+        final int spectrum = spectra[end];
+        final int previous = dpOfSpectrum[spectrum];
+        if (previous == UNASSIGNED) {
+          dpOfSpectrum[spectrum] = end;
+          usedSpectra[numUsed++] = spectrum;
+        } else if (isProcessedBefore(end, previous, mzs, intensities)) {
+          dpOfSpectrum[spectrum] = end;
+        }
+      }
+
+      Arrays.sort(usedSpectra, 0, numUsed);
+      final double[] signalMzs = new double[numUsed];
+      final double[] signalIntensities = new double[numUsed];
+      for (int i = 0; i < numUsed; i++) {
+        final int dp = dpOfSpectrum[usedSpectra[i]];
+        signalMzs[i] = mzs[dp];
+        signalIntensities[i] = intensities[dp];
+        dpOfSpectrum[usedSpectra[i]] = UNASSIGNED;
+      }
+      start = end;
+
+      if (minNumPeaks != null && numUsed < minNumPeaks) {
+        continue;
+      }
+
+      final double newMz = mzCenterFunction.calcCenter(signalMzs, signalIntensities);
+      final double newIntensity = switch (intensityMergingType) {
+        case SUMMED -> Arrays.stream(signalIntensities).sum();
+        case MAXIMUM -> Arrays.stream(signalIntensities).max().orElse(0d);
+        case AVERAGE -> Arrays.stream(signalIntensities).average().orElse(0d);
+      };
+
+      if (outputNoiseLevel == null || newIntensity > outputNoiseLevel) {
+        newMzs.add(newMz);
+        newIntensities.add(newIntensity);
+      }
+    }
+
+    return new double[][]{newMzs.toArray(), newIntensities.toArray()};
+  }
+
+  /**
+   * @return true if data point a of a spectrum is processed before data point b of the same
+   * spectrum
+   */
+  private static boolean isProcessedBefore(final int a, final int b, final double[] mzs,
+      final double[] intensities) {
+    int result = Double.compare(intensities[a], intensities[b]);
+    if (result == 0) {
+      result = Double.compare(mzs[a], mzs[b]);
+    }
+    return result != 0 ? result > 0 : a < b;
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -25,6 +25,8 @@
 
 package io.github.mzmine.util.scans;
 
+import static java.util.Objects.requireNonNullElse;
+
 import com.google.common.collect.BoundType;
 import com.google.common.collect.Range;
 import com.google.common.collect.RangeMap;
@@ -51,6 +53,8 @@ import io.github.mzmine.datamodel.impl.SimpleMergedMsMsSpectrum;
 import io.github.mzmine.datamodel.msms.MsMsInfo;
 import io.github.mzmine.datamodel.msms.PasefMsMsInfo;
 import io.github.mzmine.datamodel.utils.UniqueIdSupplier;
+import io.github.mzmine.gui.preferences.MZminePreferences;
+import io.github.mzmine.main.ConfigService;
 import io.github.mzmine.modules.dataprocessing.featdet_adapchromatogrambuilder.ModularADAPChromatogramBuilderTask;
 import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
 import io.github.mzmine.util.DataPointSorter;
@@ -128,11 +132,40 @@ public class SpectraMerging {
       @NotNull final SpectraMerging.IntensityMergingType intensityMergingType,
       @NotNull final CenterFunction mzCenterFunction, @Nullable final Double inputNoiseLevel,
       @Nullable final Double outputNoiseLevel, @Nullable final Integer minNumPeaks) {
+    final SpectraMergingEngine engine = requireNonNullElse(
+        ConfigService.getPreferences().getValue(MZminePreferences.spectraMergingEngine),
+        SpectraMergingEngine.RANGE_MAP);
+    return calculatedMergedMzsAndIntensities(source, tolerance, intensityMergingType,
+        mzCenterFunction, inputNoiseLevel, outputNoiseLevel, minNumPeaks, engine);
+  }
+
+  /**
+   * Same as
+   * {@link #calculatedMergedMzsAndIntensities(Collection, MZTolerance, IntensityMergingType,
+   * CenterFunction, Double, Double, Integer)} with a specific engine instead of the one selected in
+   * the preferences. The {@link SpectraMergingEngine#PRIMITIVE} engine requires spectra sorted by
+   * m/z and falls back to the range map otherwise.
+   */
+  public static <T extends MassSpectrum> double[][] calculatedMergedMzsAndIntensities(
+      @NotNull final Collection<T> source, @NotNull final MZTolerance tolerance,
+      @NotNull final SpectraMerging.IntensityMergingType intensityMergingType,
+      @NotNull final CenterFunction mzCenterFunction, @Nullable final Double inputNoiseLevel,
+      @Nullable final Double outputNoiseLevel, @Nullable final Integer minNumPeaks,
+      @NotNull final SpectraMergingEngine engine) {
 
     if (source.isEmpty()) {
       return new double[][]{new double[0], new double[0]};
     }
 
+    if (engine == SpectraMergingEngine.PRIMITIVE) {
+      final double[][] merged = PrimitiveSpectraMerger.merge(source, tolerance,
+          intensityMergingType, mzCenterFunction, inputNoiseLevel, outputNoiseLevel,
+          minNumPeaks);
+      if (merged != null) {
+        return merged;
+      }
+    }
+
     final List<IndexedDataPoint> dataPoints = new ArrayList<>();
     // extract all data points in the mass spectrum
     final int numDp = source.stream().mapToInt(MassSpectrum::getNumberOfDataPoints).max()
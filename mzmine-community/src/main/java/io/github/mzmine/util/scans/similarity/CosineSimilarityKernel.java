@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.scans.similarity;
+
+import io.github.mzmine.datamodel.DataPoint;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Allocation free (modified) cosine similarity on primitive arrays. Produces the same results as
+ * the greedy matching of {@link io.github.mzmine.util.scans.ScanAlignment} followed by the
+ * weighted cosine on the aligned signals, but uses an m/z index instead of scanning all signals
+ * and rejects pairs by an upper bound of overlap and cosine before the actual matching.
+ * <p>
+ * Signals of x are matched in descending intensity order to the most intense unmatched signal of
+ * y within the m/z tolerance (or within tolerance after adding the precursor m/z delta for the
+ * modified cosine). Scratch buffers are reused, use one kernel per thread via
+ * {@link #forCurrentThread()}. Results of the last {@link #match} are available through the
+ * getters.
+ */
+public final class CosineSimilarityKernel {
+
+  // only reject by the cosine upper bound if it is clearly below the minimum
+  private static final double BOUND_TOLERANCE = 1e-9;
+  private static final int NO_MATCH = Integer.MAX_VALUE;
+
+  private static final ThreadLocal<CosineSimilarityKernel> KERNELS = ThreadLocal.withInitial(
+      CosineSimilarityKernel::new);
+
+  private final CosineSpectrum scratchX = new CosineSpectrum();
+  private final CosineSpectrum scratchY = new CosineSpectrum();
+
+  private boolean[] usedY = new boolean[0];
+  private boolean[] matchableY = new boolean[0];
+  private int[] matchOfX = new int[0];
+
+  // results of the last match
+  private int overlap;
+  private double cosine = Double.NaN;
+  private int sizeX;
+  private int sizeY;
+  private double totalIntensityX;
+  private double totalIntensityY;
+  private double explainedIntensityX;
+  private double explainedIntensityY;
+
+  private CosineSimilarityKernel() {
+  }
+
+  /**
+   * @return the kernel of the current thread
+   */
+  public static @NotNull CosineSimilarityKernel forCurrentThread() {
+    return KERNELS.get();
+  }
+
+  /**
+   * Loads data points into the reused x spectrum of this kernel. Invalidated by the next call.
+   *
+   * @param sortByIntensity false if dps are already sorted by descending intensity
+   */
+  public @NotNull CosineSpectrum loadX(@NotNull DataPoint[] dps, @NotNull Weights weights,
+      boolean sortByIntensity) {
+    return scratchX.load(dps, weights, sortByIntensity);
+  }
+
+  /**
+   * Loads data points into the reused y spectrum of this kernel. Invalidated by the next call.
+   *
+   * @param sortByIntensity false if dps are already sorted by descending intensity
+   */
+  public @NotNull CosineSpectrum loadY(@NotNull DataPoint[] dps, @NotNull Weights weights,
+      boolean sortByIntensity) {
+    return scratchY.load(dps, weights, sortByIntensity);
+  }
+
+  /**
+   * Matches signals of x and y and calculates the cosine similarity. Both spectra need to be
+   * prepared with the same weights.
+   *
+   * @param precursorMzDelta precursor m/z of y minus precursor m/z of x. Signals of x shifted by
+   *                         this delta are also matched (modified cosine). Use
+   *                         {@link Double#NaN} to only match signals directly.
+   * @param minMatch         minimum number of matched signals
+   * @param minCosine        minimum cosine similarity, pairs are rejected by an upper bound before
+   *                         matching
+   * @param keepUnmatchedX   unmatched x signals are matched against 0 intensity, otherwise they
+   *                         are removed
+   * @param keepUnmatchedY   unmatched y signals are matched against 0 intensity, otherwise they
+   *                         are removed
+   * @return true if overlap >= minMatch and the cosine is not below minCosine. The cosine may be
+   * NaN if all signals have zero intensity.
+   */
+  public boolean match(@NotNull CosineSpectrum x, @NotNull CosineSpectrum y,
+      @NotNull MZTolerance mzTol, double precursorMzDelta, double minMatch, double minCosine,
+      boolean keepUnmatchedX, boolean keepUnmatchedY) {
+    overlap = 0;
+    cosine = Double.NaN;
+    sizeX = 0;
+    sizeY = 0;
+    totalIntensityX = 0;
+    totalIntensityY = 0;
+    explainedIntensityX = 0;
+    explainedIntensityY = 0;
+
+    if (Math.min(x.size, y.size) < minMatch) {
+      return false;
+    }
+    ensureCapacity(x.size, y.size);
+
+    final boolean modified = !Double.isNaN(precursorMzDelta);
+    if ((minMatch > 0 || minCosine > 0) && !isWithinUpperBound(x, y, mzTol, precursorMzDelta,
+        modified, minMatch, minCosine, keepUnmatchedX, keepUnmatchedY)) {
+      return false;
+    }
+
+    // greedy matching in descending intensity order
+    Arrays.fill(usedY, 0, y.size, false);
+    int matched = 0;
+    for (int i = 0; i < x.size; i++) {
+      int best = findUnmatched(y, mzTol, x.mzs[i], NO_MATCH);
+      if (modified) {
+        best = findUnmatched(y, mzTol, x.mzs[i] + precursorMzDelta, best);
+      }
+      if (best != NO_MATCH) {
+        usedY[best] = true;
+        matchOfX[i] = best;
+        matched++;
+      } else {
+        matchOfX[i] = -1;
+      }
+    }
+    overlap = matched;
+    if (matched < minMatch) {
+      return false;
+    }
+
+    // sum up in the order of the aligned list: all x signals followed by unmatched y signals
+    double dot = 0;
+    double normX = 0;
+    double normY = 0;
+    for (int i = 0; i < x.size; i++) {
+      final int j = matchOfX[i];
+      final double wx = x.weighted[i];
+      if (j >= 0) {
+        final double wy = y.weighted[j];
+        dot += wx * wy;
+        normX += wx * wx;
+        normY += wy * wy;
+        explainedIntensityX += x.intensities[i];
+        explainedIntensityY += y.intensities[j];
+        totalIntensityX += x.intensities[i];
+        totalIntensityY += y.intensities[j];
+        sizeX++;
+        sizeY++;
+      } else if (keepUnmatchedX) {
+        normX += wx * wx;
+        totalIntensityX += x.intensities[i];
+        sizeX++;
+      }
+    }
+    if (keepUnmatchedY) {
+      for (int j = 0; j < y.size; j++) {
+        if (!usedY[j]) {
+          final double wy = y.weighted[j];
+          normY += wy * wy;
+          totalIntensityY += y.intensities[j];
+          sizeY++;
+        }
+      }
+    }
+
+    cosine = dot / (Math.sqrt(normX) * Math.sqrt(normY));
+    return !(cosine < minCosine);
+  }
+
+  /**
+   * Upper bound check: only signals with any partner within tolerance can be matched. This limits
+   * the overlap and, by Cauchy-Schwarz, the cosine to sqrt(matchable norm / total norm) for each
+   * side that keeps unmatched signals.
+   *
+   * @return false if the pair cannot reach minMatch or minCosine
+   */
+  private boolean isWithinUpperBound(@NotNull CosineSpectrum x, @NotNull CosineSpectrum y,
+      @NotNull MZTolerance mzTol, double precursorMzDelta, boolean modified, double minMatch,
+      double minCosine, boolean keepUnmatchedX, boolean keepUnmatchedY) {
+    Arrays.fill(matchableY, 0, y.size, false);
+    int matchableX = 0;
+    double matchableNormX = 0;
+    for (int i = 0; i < x.size; i++) {
+      boolean matchable = markMatchable(y, mzTol, x.mzs[i]);
+      if (modified) {
+        matchable |= markMatchable(y, mzTol, x.mzs[i] + precursorMzDelta);
+      }
+      if (matchable) {
+        matchableX++;
+        matchableNormX += x.weighted[i] * x.weighted[i];
+      }
+    }
+    int matchableCountY = 0;
+    double matchableNormY = 0;
+    for (int j = 0; j < y.size; j++) {
+      if (matchableY[j]) {
+        matchableCountY++;
+        matchableNormY += y.weighted[j] * y.weighted[j];
+      }
+    }
+    if (Math.min(matchableX, matchableCountY) < minMatch) {
+      return false;
+    }
+
+    double bound = 1;
+    if (keepUnmatchedX) {
+      bound *= Math.sqrt(matchableNormX / x.norm);
+    }
+    if (keepUnmatchedY) {
+      bound *= Math.sqrt(matchableNormY / y.norm);
+    }
+    return !(bound < minCosine - BOUND_TOLERANCE);
+  }
+
+  /**
+   * @return true if any y signal is within tolerance of mz, all of them are marked as matchable
+   */
+  private boolean markMatchable(@NotNull CosineSpectrum y, @NotNull MZTolerance mzTol,
+      double mz) {
+    // the m/z index is searched with a wider window, the exact check is the same as in matching
+    final double window = 2 * mzTol.getMzToleranceForMass(mz);
+    boolean found = false;
+    for (int s = y.lowerBoundMz(mz - window); s < y.size && y.sortedMzs[s] <= mz + window; s++) {
+      final int j = y.mzOrder[s];
+      if (mzTol.checkWithinTolerance(mz, y.mzs[j])) {
+        matchableY[j] = true;
+        found = true;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * @param best current best index (lowest index is most intense)
+   * @return the most intense unmatched y signal within tolerance of mz if it is more intense than
+   * best, otherwise best
+   */
+  private int findUnmatched(@NotNull CosineSpectrum y, @NotNull MZTolerance mzTol, double mz,
+      int best) {
+    final double window = 2 * mzTol.getMzToleranceForMass(mz);
+    for (int s = y.lowerBoundMz(mz - window); s < y.size && y.sortedMzs[s] <= mz + window; s++) {
+      final int j = y.mzOrder[s];
+      if (j < best && !usedY[j] && mzTol.checkWithinTolerance(mz, y.mzs[j])) {
+        best = j;
+      }
+    }
+    return best;
+  }
+
+  private void ensureCapacity(int sizeX, int sizeY) {
+    if (matchOfX.length < sizeX) {
+      matchOfX = new int[Math.max(sizeX, matchOfX.length * 2)];
+    }
+    if (usedY.length < sizeY) {
+      final int capacity = Math.max(sizeY, usedY.length * 2);
+      usedY = new boolean[capacity];
+      matchableY = new boolean[capacity];
+    }
+  }
+
+  /**
+   * Creates the aligned data points of the last successful {@link #match} of x and y. Only matched
+   * signals are added in descending intensity order of x.
+   *
+   * @return list of DataPoint[x, y]
+   */
+  public @NotNull List<DataPoint[]> createAlignedDataPoints(@NotNull CosineSpectrum x,
+      @NotNull CosineSpectrum y) {
+    final List<DataPoint[]> aligned = new ArrayList<>(overlap);
+    for (int i = 0; i < x.size; i++) {
+      final int j = matchOfX[i];
+      if (j >= 0) {
+        aligned.add(new DataPoint[]{x.dataPoint(i), y.dataPoint(j)});
+      }
+    }
+    return aligned;
+  }
+
+  /**
+   * @return number of matched signals
+   */
+  public int getOverlap() {
+    return overlap;
+  }
+
+  public double getCosine() {
+    return cosine;
+  }
+
+  /**
+   * @return number of x signals after removing unmatched signals if selected
+   */
+  public int getSizeX() {
+    return sizeX;
+  }
+
+  /**
+   * @return number of y signals after removing unmatched signals if selected
+   */
+  public int getSizeY() {
+    return sizeY;
+  }
+
+  /**
+   * @return matched intensity of x divided by the total intensity of x
+   */
+  public double getExplainedIntensityX() {
+    return explainedIntensityX / totalIntensityX;
+  }
+
+  /**
+   * @return matched intensity of y divided by the total intensity of y
+   */
+  public double getExplainedIntensityY() {
+    return explainedIntensityY / totalIntensityY;
+  }
+}
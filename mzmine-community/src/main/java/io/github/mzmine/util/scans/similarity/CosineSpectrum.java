@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.scans.similarity;
+
+import io.github.mzmine.datamodel.DataPoint;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntComparator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Primitive representation of a spectrum for the {@link CosineSimilarityKernel}. Signals are
+ * stored in descending intensity order (ties by descending m/z, same as
+ * {@link io.github.mzmine.util.scans.ScanAlignment#sorter}) together with their weighted
+ * intensities and an m/z sorted index for fast tolerance lookups.
+ * <p>
+ * Instances created by {@link #of(DataPoint[], Weights)} are effectively immutable and may be
+ * shared between threads. The scratch instances of a {@link CosineSimilarityKernel} are reused for
+ * every call and must not leave the thread.
+ */
+public final class CosineSpectrum {
+
+  private static final double[] EMPTY_DOUBLES = new double[0];
+  private static final int[] EMPTY_INTS = new int[0];
+
+  // source data points in original order, only used to create aligned data point lists
+  private @Nullable DataPoint[] source;
+  // index into source for each signal in intensity order
+  int[] sourceIndex = EMPTY_INTS;
+  // signals in descending intensity order
+  double[] mzs = EMPTY_DOUBLES;
+  double[] intensities = EMPTY_DOUBLES;
+  double[] weighted = EMPTY_DOUBLES;
+  // signal indices sorted by ascending m/z and the corresponding m/z values
+  int[] mzOrder = EMPTY_INTS;
+  double[] sortedMzs = EMPTY_DOUBLES;
+  int size;
+  // sum of squared weighted intensities
+  double norm;
+
+  // comparators are created once to avoid allocations when the scratch spectrum is reused
+  private final IntComparator intensityDescending = (i, j) -> {
+    int result = Double.compare(intensities[j], intensities[i]);
+    return result != 0 ? result : Double.compare(mzs[j], mzs[i]);
+  };
+  private final IntComparator mzAscending = (i, j) -> {
+    int result = Double.compare(mzs[i], mzs[j]);
+    return result != 0 ? result : Integer.compare(i, j);
+  };
+
+  CosineSpectrum() {
+  }
+
+  /**
+   * Prepares a spectrum once to be matched against many others
+   *
+   * @param sortedByIntensity data points sorted by descending intensity
+   * @param weights           weights for m/z and intensity
+   * @return a new spectrum
+   */
+  public static @NotNull CosineSpectrum of(@NotNull DataPoint[] sortedByIntensity,
+      @NotNull Weights weights) {
+    return new CosineSpectrum().load(sortedByIntensity, weights, false);
+  }
+
+  /**
+   * Loads data points into this spectrum and reuses the arrays if they are large enough.
+   *
+   * @param dps             the data points, not changed
+   * @param weights         weights for m/z and intensity
+   * @param sortByIntensity true to sort the data points by descending intensity, false if they are
+   *                        already sorted
+   * @return this spectrum
+   */
+  @NotNull CosineSpectrum load(@NotNull DataPoint[] dps, @NotNull Weights weights,
+      boolean sortByIntensity) {
+    final int n = dps.length;
+    ensureCapacity(n);
+    source = dps;
+    size = n;
+
+    for (int i = 0; i < n; i++) {
+      mzs[i] = dps[i].getMZ();
+      intensities[i] = dps[i].getIntensity();
+      sourceIndex[i] = i;
+    }
+
+    if (sortByIntensity) {
+      IntArrays.quickSort(sourceIndex, 0, n, intensityDescending);
+      // reorder signals by the sorted source indices
+      for (int i = 0; i < n; i++) {
+        final DataPoint dp = dps[sourceIndex[i]];
+        mzs[i] = dp.getMZ();
+        intensities[i] = dp.getIntensity();
+      }
+    }
+
+    // weighting like ScanAlignment#toIntensityMatrixWeighted
+    final double weightIntensity = weights.getIntensity();
+    final double weightMz = weights.getMz();
+    double sumSquares = 0;
+    for (int i = 0; i < n; i++) {
+      weighted[i] = Math.pow(intensities[i], weightIntensity) * Math.pow(mzs[i], weightMz);
+      sumSquares += weighted[i] * weighted[i];
+      mzOrder[i] = i;
+    }
+    norm = sumSquares;
+
+    IntArrays.quickSort(mzOrder, 0, n, mzAscending);
+    for (int i = 0; i < n; i++) {
+      sortedMzs[i] = mzs[mzOrder[i]];
+    }
+    return this;
+  }
+
+  private void ensureCapacity(int n) {
+    if (mzs.length >= n) {
+      return;
+    }
+    final int capacity = Math.max(n, mzs.length * 2);
+    sourceIndex = new int[capacity];
+    mzs = new double[capacity];
+    intensities = new double[capacity];
+    weighted = new double[capacity];
+    mzOrder = new int[capacity];
+    sortedMzs = new double[capacity];
+  }
+
+  /**
+   * @return number of signals
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param i index in descending intensity order
+   * @return the source data point
+   */
+  @NotNull DataPoint dataPoint(int i) {
+    assert source != null;
+    return source[sourceIndex[i]];
+  }
+
+  /**
+   * @return index of the first signal in m/z order with m/z >= value or size if there is none
+   */
+  int lowerBoundMz(double value) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (sortedMzs[mid] < value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The MZmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -28,8 +28,8 @@ package io.github.mzmine.util.scans.similarity.impl.cosine;
 import io.github.mzmine.datamodel.DataPoint;
 import io.github.mzmine.parameters.ParameterSet;
 import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
-import io.github.mzmine.util.maths.similarity.Similarity;
-import io.github.mzmine.util.scans.ScanAlignment;
+import io.github.mzmine.util.scans.similarity.CosineSimilarityKernel;
+import io.github.mzmine.util.scans.similarity.CosineSpectrum;
 import io.github.mzmine.util.scans.similarity.HandleUnmatchedSignalOptions;
 import io.github.mzmine.util.scans.similarity.SpectralSimilarity;
 import io.github.mzmine.util.scans.similarity.SpectralSimilarityFunction;
@@ -67,31 +67,35 @@ public class WeightedCosineSpectralSimilarity extends SpectralSimilarityFunction
   }
 
   /**
-   * Returns mass and intensity values detected in given scan
+   * Returns mass and intensity values detected in given scan. Equivalent to aligning with
+   * {@link SpectralSimilarityFunction#alignDataPoints} and calculating the weighted cosine on the
+   * aligned signals but uses the {@link CosineSimilarityKernel}. The input arrays are not sorted
+   * unless a similarity is returned.
    */
   @Override
   public SpectralSimilarity getSimilarity(MZTolerance mzTol, int minMatch, DataPoint[] library,
       DataPoint[] query) {
-    // align
-    List<DataPoint[]> aligned = alignDataPoints(mzTol, library, query);
-    // removes all signals which were not found in both masslists
-    aligned = handleUnmatched.handleUnmatched(aligned);
+    final CosineSimilarityKernel kernel = CosineSimilarityKernel.forCurrentThread();
+    final CosineSpectrum librarySpectrum = kernel.loadX(library, weights, true);
+    final CosineSpectrum querySpectrum = kernel.loadY(query, weights, true);
+    final boolean keepLibrary = switch (handleUnmatched) {
+      case KEEP_ALL_AND_MATCH_TO_ZERO, KEEP_LIBRARY_SIGNALS -> true;
+      case REMOVE_ALL, KEEP_EXPERIMENTAL_SIGNALS -> false;
+    };
+    final boolean keepQuery = switch (handleUnmatched) {
+      case KEEP_ALL_AND_MATCH_TO_ZERO, KEEP_EXPERIMENTAL_SIGNALS -> true;
+      case REMOVE_ALL, KEEP_LIBRARY_SIGNALS -> false;
+    };
 
-    // overlapping within mass tolerance
-    int overlap = calcOverlap(aligned);
-
-    if (overlap >= minMatch) {
-      // weighted cosine
-      double[][] diffArray = ScanAlignment.toIntensityMatrixWeighted(aligned,
-          weights.getIntensity(), weights.getMz());
-      double diffCosine = Similarity.COSINE.calc(diffArray);
-      if (diffCosine >= minCos) {
-        return new SpectralSimilarity(getName(), diffCosine, overlap, library, query, aligned);
-      } else {
-        return null;
-      }
+    if (!kernel.match(librarySpectrum, querySpectrum, mzTol, Double.NaN, minMatch, minCos,
+        keepLibrary, keepQuery) || !(kernel.getCosine() >= minCos)) {
+      return null;
     }
-    return null;
+    // unmatched signals are filtered by SpectralSimilarity anyway
+    final List<DataPoint[]> aligned = kernel.createAlignedDataPoints(librarySpectrum,
+        querySpectrum);
+    return new SpectralSimilarity(getName(), kernel.getCosine(), kernel.getOverlap(), library,
+        query, aligned);
   }
 
   @Override
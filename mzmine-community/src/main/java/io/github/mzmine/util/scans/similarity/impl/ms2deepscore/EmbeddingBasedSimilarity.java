@@ -31,10 +31,31 @@ import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
 import ai.djl.translate.TranslateException;
 import io.github.mzmine.datamodel.MassSpectrum;
+import io.github.mzmine.util.concurrent.ThreadPoolUtils;
 import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+import org.jetbrains.annotations.NotNull;
 
 public abstract class EmbeddingBasedSimilarity implements AutoCloseable {
 
+  /**
+   * Rows and columns of one tile of the similarity matrix. The 256 column embeddings of a tile
+   * (500 to 1024 floats each) stay in the L2 cache while they are multiplied with all rows.
+   */
+  private static final int ROW_TILE = 32;
+  private static final int COL_TILE = 256;
+
+  /**
+   * Receives the pairs of {@link #streamSimilarPairs(float[][], float[][], double, int,
+   * BooleanSupplier, SimilarPairConsumer)}. Called concurrently from multiple threads.
+   */
+  @FunctionalInterface
+  public interface SimilarPairConsumer {
+
+    void accept(int row, int col, float similarity);
+  }
+
   /**
    * Predict embeddings for a list of scans
    *
@@ -107,6 +128,214 @@ public abstract class EmbeddingBasedSimilarity implements AutoCloseable {
     return convertNDArrayToFloatMatrix(embedding1.dot(embedding2.transpose()));
   }
 
+  /**
+   * @param embeddings 2D NDArray of embeddings, one per row
+   * @return the embeddings scaled to unit length so that the dot product is the cosine similarity.
+   * Zero vectors are kept and have a similarity of 0 to all others.
+   */
+  public static float @NotNull [][] normalizedEmbeddings(@NotNull NDArray embeddings) {
+    final float[][] result = convertNDArrayToFloatMatrix(embeddings);
+    for (final float[] embedding : result) {
+      double sum = 0;
+      for (final float value : embedding) {
+        sum += (double) value * value;
+      }
+      if (sum == 0) {
+        continue;
+      }
+      final float norm = (float) Math.sqrt(sum);
+      for (int i = 0; i < embedding.length; i++) {
+        embedding[i] /= norm;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Streams the similar pairs of rows and columns without creating the similarity matrix. The
+   * similarity is the dot product, use {@link #normalizedEmbeddings(NDArray)} for the cosine. The
+   * matrix is multiplied in tiles on all threads so that memory scales with the number of pairs.
+   *
+   * @param rows     embeddings of the rows
+   * @param cols     embeddings of the columns
+   * @param minScore pairs with a similarity above minScore are streamed
+   * @param topK     the topK most similar columns of each row are streamed independent of
+   *                 minScore. 0 to only stream pairs above minScore
+   * @param consumer receives each pair once, concurrently from multiple threads
+   */
+  public static void streamSimilarPairs(final float @NotNull [][] rows,
+      final float @NotNull [][] cols, final double minScore, final int topK,
+      @NotNull final BooleanSupplier canceled, @NotNull final SimilarPairConsumer consumer) {
+    streamTiles(rows, cols, false, minScore, topK, canceled, consumer);
+  }
+
+  /**
+   * Same as {@link #streamSimilarPairs(float[][], float[][], double, int, BooleanSupplier,
+   * SimilarPairConsumer)} for all pairs of one list of embeddings. Skips the diagonal. Without topK
+   * only the upper triangle is computed and each pair is streamed once with row &lt; col.
+   * Otherwise, a pair is streamed once for each of its two rows that selects it.
+   */
+  public static void streamSimilarPairsSymmetric(final float @NotNull [][] embeddings,
+      final double minScore, final int topK, @NotNull final BooleanSupplier canceled,
+      @NotNull final SimilarPairConsumer consumer) {
+    streamTiles(embeddings, embeddings, true, minScore, topK, canceled, consumer);
+  }
+
+  private static void streamTiles(final float[][] rows, final float[][] cols,
+      final boolean symmetric, final double minScore, final int topK,
+      final BooleanSupplier canceled, final SimilarPairConsumer consumer) {
+    final int rowTiles = (rows.length + ROW_TILE - 1) / ROW_TILE;
+    ThreadPoolUtils.runParallel("Embedding similarity",
+        () -> IntStream.range(0, rowTiles).parallel().forEach(tile -> {
+          if (!canceled.getAsBoolean()) {
+            streamRowTile(rows, cols, tile, symmetric, minScore, topK, consumer);
+          }
+        }));
+  }
+
+  private static void streamRowTile(final float[][] rows, final float[][] cols, final int tile,
+      final boolean symmetric, final double minScore, final int topK,
+      final SimilarPairConsumer consumer) {
+    final int rowStart = tile * ROW_TILE;
+    final int rowEnd = Math.min(rowStart + ROW_TILE, rows.length);
+    final TopK[] best = new TopK[rowEnd - rowStart];
+    if (topK > 0) {
+      for (int r = 0; r < best.length; r++) {
+        best[r] = new TopK(Math.min(topK, cols.length));
+      }
+    }
+    // the lower triangle is only needed for the topK of each row
+    final int firstCol = symmetric && topK <= 0 ? rowStart : 0;
+    for (int colStart = firstCol; colStart < cols.length; colStart += COL_TILE) {
+      final int colEnd = Math.min(colStart + COL_TILE, cols.length);
+      for (int r = rowStart; r < rowEnd; r++) {
+        final float[] row = rows[r];
+        for (int c = symmetric && topK <= 0 ? Math.max(colStart, r + 1) : colStart;
+            c < colEnd; c++) {
+          if (symmetric && c == r) {
+            continue;
+          }
+          final float similarity = dot(row, cols[c]);
+          if (similarity > minScore) {
+            consumer.accept(r, c, similarity);
+            if (topK > 0) {
+              best[r - rowStart].aboveMinScore++;
+            }
+          } else if (topK > 0) {
+            // pairs above minScore were streamed already, only those below may be added
+            best[r - rowStart].offer(c, similarity);
+          }
+        }
+      }
+    }
+    if (topK > 0) {
+      for (int r = rowStart; r < rowEnd; r++) {
+        best[r - rowStart].acceptBelow(r, consumer);
+      }
+    }
+  }
+
+  private static float dot(final float[] a, final float[] b) {
+    // independent sums break the dependency chain of the additions
+    float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+    final int n = Math.min(a.length, b.length);
+    int i = 0;
+    for (; i + 3 < n; i += 4) {
+      s0 += a[i] * b[i];
+      s1 += a[i + 1] * b[i + 1];
+      s2 += a[i + 2] * b[i + 2];
+      s3 += a[i + 3] * b[i + 3];
+    }
+    for (; i < n; i++) {
+      s0 += a[i] * b[i];
+    }
+    return (s0 + s1) + (s2 + s3);
+  }
+
+  /**
+   * The k most similar columns of a row below minScore. The columns above minScore are streamed
+   * directly and only counted, as they are always part of the top k. Min heap with the least
+   * similar column on top.
+   */
+  private static final class TopK {
+
+    private final int[] cols;
+    private final float[] similarities;
+    private int size;
+    private int aboveMinScore;
+
+    private TopK(final int k) {
+      cols = new int[k];
+      similarities = new float[k];
+    }
+
+    private void offer(final int col, final float similarity) {
+      if (size < cols.length) {
+        cols[size] = col;
+        similarities[size] = similarity;
+        siftUp(size++);
+      } else if (size > 0 && similarity > similarities[0]) {
+        cols[0] = col;
+        similarities[0] = similarity;
+        siftDown(0);
+      }
+    }
+
+    /**
+     * Streams the columns that are left after the ones above minScore took their places.
+     */
+    private void acceptBelow(final int row, final SimilarPairConsumer consumer) {
+      final int remaining = Math.max(0, cols.length - aboveMinScore);
+      while (size > remaining) {
+        // drop the least similar
+        size--;
+        cols[0] = cols[size];
+        similarities[0] = similarities[size];
+        siftDown(0);
+      }
+      for (int i = 0; i < size; i++) {
+        consumer.accept(row, cols[i], similarities[i]);
+      }
+    }
+
+    private void siftUp(int i) {
+      while (i > 0) {
+        final int parent = (i - 1) >>> 1;
+        if (similarities[parent] <= similarities[i]) {
+          return;
+        }
+        swap(i, parent);
+        i = parent;
+      }
+    }
+
+    private void siftDown(int i) {
+      while (true) {
+        final int left = 2 * i + 1;
+        if (left >= size) {
+          return;
+        }
+        final int right = left + 1;
+        final int child =
+            right < size && similarities[right] < similarities[left] ? right : left;
+        if (similarities[i] <= similarities[child]) {
+          return;
+        }
+        swap(i, child);
+        i = child;
+      }
+    }
+
+    private void swap(final int a, final int b) {
+      final int col = cols[a];
+      cols[a] = cols[b];
+      cols[b] = col;
+      final float similarity = similarities[a];
+      similarities[a] = similarities[b];
+      similarities[b] = similarity;
+    }
+  }
+
   /**
    * Converts a 2D NDArray into a float matrix.
    *
@@ -38,6 +38,7 @@ import io.github.mzmine.util.FormulaUtils;
 import io.github.mzmine.util.MemoryMapStorage;
 import io.github.mzmine.util.ParsingUtils;
 import io.github.mzmine.util.StringUtils;
+import java.lang.foreign.MemorySegment;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
@@ -58,7 +59,16 @@ public class SpectralDBEntry extends SimpleMassList implements SpectralLibraryEn
   public static final String XML_LIBRARY_FILE_NAME_ATTR = "library_file";
   private static final String XML_DB_FIELD_ELEMENT = "entry";
   private static final String XML_FIELD_NAME_ATTR = "name";
-  private final Map<DBEntryField, Object> fields;
+  private Map<DBEntryField, Object> fields;
+  /**
+   * Decodes the fields on first access for entries of a cached library. Null once decoded or if the
+   * fields were set directly.
+   */
+  @Nullable
+  private volatile Supplier<Map<DBEntryField, Object>> fieldsDecoder;
+  // precursor m/z from the library index, only used while the fields are not decoded
+  @Nullable
+  private final Double indexedPrecursorMZ;
 
   @Nullable
   private SpectralLibrary library;
@@ -84,7 +94,8 @@ public class SpectralDBEntry extends SimpleMassList implements SpectralLibraryEn
    */
   public SpectralDBEntry(SpectralDBEntry entry) {
     super(entry.mzValues, entry.intensityValues);
-    this.fields = new HashMap<>(entry.fields);
+    this.fields = new HashMap<>(entry.fields());
+    this.indexedPrecursorMZ = null;
   }
 
   public SpectralDBEntry(@Nullable MemoryMapStorage storage, @NotNull double[] mzValues,
@@ -96,6 +107,26 @@ public class SpectralDBEntry extends SimpleMassList implements SpectralLibraryEn
       this.fields.putAll(fields);
     }
     this.library = library;
+    this.indexedPrecursorMZ = null;
+  }
+
+  /**
+   * Entry of a cached library that uses already stored data points without copying and decodes the
+   * fields on first access. {@link #getPrecursorMZ()} uses the indexed value until then.
+   *
+   * @param mzValues           ascending mz sorted mz values, e.g., memory mapped
+   * @param intensityValues    intensities for sorted mz values
+   * @param indexedPrecursorMZ the precursor m/z or null
+   * @param fieldsDecoder      called once on first access of any field
+   */
+  public SpectralDBEntry(@NotNull MemorySegment mzValues, @NotNull MemorySegment intensityValues,
+      @Nullable Double indexedPrecursorMZ,
+      @NotNull Supplier<Map<DBEntryField, Object>> fieldsDecoder,
+      @Nullable SpectralLibrary library) {
+    super(mzValues, intensityValues);
+    this.fieldsDecoder = fieldsDecoder;
+    this.indexedPrecursorMZ = indexedPrecursorMZ;
+    this.library = library;
   }
 
   public SpectralDBEntry(@Nullable MemoryMapStorage storage, @NotNull double[] mzValues,
@@ -201,7 +232,7 @@ public class SpectralDBEntry extends SimpleMassList implements SpectralLibraryEn
         DBEntryField.INCHIKEY)) {
       isHarmonizedStructure = false;
     }
-    this.fields.putAll(fields);
+    fields().putAll(fields);
   }
 
   @Override
@@ -212,7 +243,7 @@ public class SpectralDBEntry extends SimpleMassList implements SpectralLibraryEn
     }
 
     if (field != null && value != null) {
-      fields.put(field, value);
+      fields().put(field, value);
       return true;
     }
     return false;
@@ -229,26 +260,30 @@ public class SpectralDBEntry extends SimpleMassList implements SpectralLibraryEn
     }
 
     if (value == null) {
-      fields.remove(field);
+      fields().remove(field);
       return true;
     }
-    fields.put(field, value);
+    fields().put(field, value);
     return true;
   }
 
   @Override
   public Double getPrecursorMZ() {
-    return (Double) fields.get(DBEntryField.PRECURSOR_MZ);
+    if (fieldsDecoder != null) {
+      // no need to decode all fields for precursor filters
+      return indexedPrecursorMZ;
+    }
+    return (Double) fields().get(DBEntryField.PRECURSOR_MZ);
   }
 
   @Override
   public Optional<Object> getField(DBEntryField f) {
-    return Optional.ofNullable(fields.get(f));
+    return Optional.ofNullable(fields().get(f));
   }
 
   @Override
   public <T> T getOrElse(DBEntryField f, T defaultValue) {
-    final Object value = fields.get(f);
+    final Object value = fields().get(f);
     return value == null ? defaultValue : (T) value;
   }
 
@@ -270,7 +305,7 @@ public class SpectralDBEntry extends SimpleMassList implements SpectralLibraryEn
     writer.writeEndElement(); // intensities
 
     writer.writeStartElement(XML_DB_FIELD_LIST_ELEMENT);
-    for (Entry<DBEntryField, Object> entry : fields.entrySet()) {
+    for (Entry<DBEntryField, Object> entry : fields().entrySet()) {
       var key = entry.getKey();
       // runtime-only fields (e.g. ML embedding caches) live in the same map but must not persist
       if (key.isRuntimeOnly()) {
@@ -314,17 +349,33 @@ public class SpectralDBEntry extends SimpleMassList implements SpectralLibraryEn
   // exclude runtime-only fields (e.g. ML embedding caches) — they would break equals/hashCode by
   // mixing reference-equal array values into the map identity
   private Map<DBEntryField, Object> persistedFields() {
-    if (fields.keySet().stream().noneMatch(DBEntryField::isRuntimeOnly)) {
-      return fields;
+    if (fields().keySet().stream().noneMatch(DBEntryField::isRuntimeOnly)) {
+      return fields();
     }
-    final Map<DBEntryField, Object> filtered = new HashMap<>(fields);
+    final Map<DBEntryField, Object> filtered = new HashMap<>(fields());
     filtered.keySet().removeIf(DBEntryField::isRuntimeOnly);
     return filtered;
   }
 
+  /**
+   * @return the fields, decodes them first for entries of a cached library
+   */
+  private Map<DBEntryField, Object> fields() {
+    if (fieldsDecoder != null) {
+      synchronized (this) {
+        final Supplier<Map<DBEntryField, Object>> decoder = fieldsDecoder;
+        if (decoder != null) {
+          fields = new HashMap<>(decoder.get());
+          fieldsDecoder = null;
+        }
+      }
+    }
+    return fields;
+  }
+
   @Override
   public Map<DBEntryField, Object> getFields() {
-    return fields;
+    return fields();
   }
 
   public @Nullable SpectralLibrary getLibrary() {
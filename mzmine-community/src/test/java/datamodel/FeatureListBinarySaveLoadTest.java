@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package datamodel;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.FeatureStatus;
+import io.github.mzmine.datamodel.MZmineProject;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.datamodel.featuredata.IonTimeSeries;
+import io.github.mzmine.datamodel.featuredata.impl.SimpleIonTimeSeries;
+import io.github.mzmine.datamodel.features.ModularFeature;
+import io.github.mzmine.datamodel.features.ModularFeatureList;
+import io.github.mzmine.datamodel.features.ModularFeatureListRow;
+import io.github.mzmine.datamodel.features.types.DetectionType;
+import io.github.mzmine.datamodel.features.types.FeatureDataType;
+import io.github.mzmine.datamodel.features.types.annotations.CommentType;
+import io.github.mzmine.datamodel.features.types.numbers.ChargeType;
+import io.github.mzmine.datamodel.features.types.numbers.HeightType;
+import io.github.mzmine.datamodel.features.types.numbers.MZType;
+import io.github.mzmine.datamodel.features.types.numbers.RTRangeType;
+import io.github.mzmine.datamodel.features.types.numbers.RTType;
+import io.github.mzmine.modules.io.projectload.version_3_0.FeatureListBinaryReader;
+import io.github.mzmine.modules.io.projectsave.FeatureListBinaryWriter;
+import io.github.mzmine.project.impl.MZmineProjectImpl;
+import io.github.mzmine.project.impl.RawDataFileImpl;
+import java.io.File;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.List;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Round trip of row and feature values through {@link FeatureListBinaryWriter} and
+ * {@link FeatureListBinaryReader}. Covers primitive columns, range columns, missing values, ion
+ * time series that are mapped from the file and types that are embedded as XML.
+ */
+public class FeatureListBinarySaveLoadTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testRoundTrip() throws Exception {
+    final RawDataFileImpl fileA = new RawDataFileImpl("file_a", null, null, Color.BLACK);
+    final RawDataFileImpl fileB = new RawDataFileImpl("file_b", null, null, Color.BLACK);
+    final MZmineProject project = new MZmineProjectImpl();
+    project.addFile(fileA);
+    project.addFile(fileB);
+
+    final ModularFeatureList flist = new ModularFeatureList("binary_flist", null, fileA, fileB);
+    final ModularFeatureListRow row1 = new ModularFeatureListRow(flist, 5);
+    row1.set(MZType.class, 150.0712);
+    row1.set(RTType.class, 3.25f);
+    row1.set(ChargeType.class, 2);
+    row1.set(CommentType.class, "first row");
+    flist.addRow(row1);
+    // row without values and features
+    final ModularFeatureListRow row2 = new ModularFeatureListRow(flist, 9);
+    flist.addRow(row2);
+
+    final ModularFeature featureA = new ModularFeature(flist, fileA, FeatureStatus.DETECTED);
+    featureA.set(HeightType.class, 1.5e5f);
+    featureA.set(RTRangeType.class, Range.closed(3.1f, 3.4f));
+    row1.addFeature(fileA, featureA);
+
+    final File file = tempDir.resolve("flist_data.bin").toFile();
+    Assertions.assertTrue(new FeatureListBinaryWriter(flist).write(file, () -> false));
+
+    final ModularFeatureList loaded = new ModularFeatureList(flist.getName(), null, fileA, fileB);
+    loaded.setDateCreated(flist.getDateCreated());
+    final FeatureListBinaryReader reader = new FeatureListBinaryReader(file);
+    reader.createRows(loaded);
+    Assertions.assertTrue(reader.loadData(project, loaded, () -> false));
+
+    Assertions.assertEquals(2, loaded.getNumberOfRows());
+    final ModularFeatureListRow lrow1 = (ModularFeatureListRow) loaded.getRow(0);
+    final ModularFeatureListRow lrow2 = (ModularFeatureListRow) loaded.getRow(1);
+    Assertions.assertEquals(5, lrow1.getID());
+    Assertions.assertEquals(9, lrow2.getID());
+
+    Assertions.assertEquals(2, lrow1.get(ChargeType.class));
+    Assertions.assertEquals("first row", lrow1.get(CommentType.class));
+    Assertions.assertNull(lrow2.get(ChargeType.class));
+    Assertions.assertNull(lrow2.get(CommentType.class));
+    Assertions.assertEquals(0, lrow2.getNumberOfFeatures());
+
+    Assertions.assertEquals(1, lrow1.getNumberOfFeatures());
+    Assertions.assertNull(lrow1.getFeature(fileB));
+    final ModularFeature lfeatureA = lrow1.getFeature(fileA);
+    Assertions.assertNotNull(lfeatureA);
+    Assertions.assertEquals(FeatureStatus.DETECTED, lfeatureA.get(DetectionType.class));
+    Assertions.assertEquals(1.5e5f, lfeatureA.get(HeightType.class), 1e-3f);
+    Assertions.assertEquals(Range.closed(3.1f, 3.4f), lfeatureA.get(RTRangeType.class));
+
+    fileA.close();
+    fileB.close();
+  }
+
+  @Test
+  void testIonTimeSeriesRoundTrip() throws Exception {
+    final RawDataFileImpl file = new RawDataFileImpl("file_a", null, null, Color.BLACK);
+    final List<Scan> scans = IonTimeSeriesTest.makeSomeScans(file, 10);
+    for (final Scan scan : scans) {
+      file.addScan(scan);
+    }
+    final MZmineProject project = new MZmineProjectImpl();
+    project.addFile(file);
+
+    final ModularFeatureList flist = new ModularFeatureList("binary_flist", null, file);
+    flist.setSelectedScans(file, scans);
+    final ModularFeatureListRow row = new ModularFeatureListRow(flist, 1);
+    flist.addRow(row);
+    final ModularFeature feature = new ModularFeature(flist, file, FeatureStatus.DETECTED);
+    // not all scans of the file, so the scan indices are relative to the file's scans
+    final List<Scan> seriesScans = List.of(scans.get(2), scans.get(3), scans.get(5),
+        scans.get(8));
+    final double[] mzs = {200.1, 200.12, 200.09, 200.11};
+    final double[] intensities = {1.5e3, 4.5e4, 2e5, 7e2};
+    feature.set(FeatureDataType.class,
+        new SimpleIonTimeSeries(null, mzs, intensities, seriesScans));
+    row.addFeature(file, feature);
+
+    final File binFile = tempDir.resolve("flist_data.bin").toFile();
+    Assertions.assertTrue(new FeatureListBinaryWriter(flist).write(binFile, () -> false));
+
+    final ModularFeatureList loaded = new ModularFeatureList(flist.getName(), null, file);
+    loaded.setDateCreated(flist.getDateCreated());
+    final FeatureListBinaryReader reader = new FeatureListBinaryReader(binFile);
+    reader.createRows(loaded);
+    Assertions.assertTrue(reader.loadData(project, loaded, () -> false));
+
+    final ModularFeature lfeature = ((ModularFeatureListRow) loaded.getRow(0)).getFeature(file);
+    Assertions.assertNotNull(lfeature);
+    final IonTimeSeries<? extends Scan> series = lfeature.getFeatureData();
+    Assertions.assertEquals(SimpleIonTimeSeries.class, series.getClass());
+    if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+      // read as columns from the mapped file, not through the XML fallback
+      Assertions.assertTrue(series.getMZValueBuffer().isMapped());
+      Assertions.assertTrue(series.getIntensityValueBuffer().isMapped());
+    }
+    Assertions.assertEquals(seriesScans, series.getSpectra());
+    Assertions.assertArrayEquals(mzs, series.getMzValues(new double[mzs.length]));
+    Assertions.assertArrayEquals(intensities,
+        series.getIntensityValues(new double[intensities.length]));
+
+    file.close();
+  }
+
+  @Test
+  void testNameMismatch() throws Exception {
+    final RawDataFileImpl fileA = new RawDataFileImpl("file_a", null, null, Color.BLACK);
+    final ModularFeatureList flist = new ModularFeatureList("binary_flist", null, fileA);
+    flist.addRow(new ModularFeatureListRow(flist, 1));
+
+    final File file = tempDir.resolve("flist_data.bin").toFile();
+    Assertions.assertTrue(new FeatureListBinaryWriter(flist).write(file, () -> false));
+
+    final ModularFeatureList other = new ModularFeatureList("other", null, fileA);
+    other.setDateCreated(flist.getDateCreated());
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new FeatureListBinaryReader(file).createRows(other));
+    fileA.close();
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package datamodel;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.MassList;
+import io.github.mzmine.datamodel.MassSpectrumType;
+import io.github.mzmine.datamodel.PolarityType;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.datamodel.impl.SimpleScan;
+import io.github.mzmine.datamodel.impl.masslist.ScanPointerMassList;
+import io.github.mzmine.datamodel.impl.masslist.SimpleMassList;
+import io.github.mzmine.modules.io.projectload.version_3_0.RawDataFileSnapshotReader;
+import io.github.mzmine.modules.io.projectsave.RawDataFileSaveHandler;
+import io.github.mzmine.modules.io.projectsave.RawDataFileSnapshotWriter;
+import io.github.mzmine.project.impl.MZmineProjectImpl;
+import io.github.mzmine.project.impl.RawDataFileImpl;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Round trip of scans and mass lists through {@link RawDataFileSnapshotWriter} and
+ * {@link RawDataFileSnapshotReader} and the order of restored files in the project.
+ */
+public class RawDataFileSnapshotTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testRoundTrip() throws Exception {
+    final RawDataFileImpl file = new RawDataFileImpl("snapshot_file", null, null, Color.BLUE);
+    final SimpleScan profile = new SimpleScan(file, 1, 1, 0.5f, null,
+        new double[]{100.1, 100.2, 200.5}, new double[]{10, 50, 20}, MassSpectrumType.PROFILE,
+        PolarityType.POSITIVE, "profile scan", Range.closed(50d, 500d));
+    profile.addMassList(new SimpleMassList(null, new double[]{100.2}, new double[]{50}));
+    profile.setCorrectedRetentionTime(0.6f);
+    file.addScan(profile);
+    final SimpleScan centroid = new SimpleScan(file, 2, 1, 0.7f, null, new double[]{150.3},
+        new double[]{1e4}, MassSpectrumType.CENTROIDED, PolarityType.POSITIVE, "centroid scan",
+        null);
+    centroid.addMassList(new ScanPointerMassList(centroid));
+    file.addScan(centroid);
+    final SimpleScan empty = new SimpleScan(file, 3, 1, 0.9f, null, new double[0], new double[0],
+        MassSpectrumType.CENTROIDED, PolarityType.NEGATIVE, "empty scan", null);
+    file.addScan(empty);
+
+    Assertions.assertTrue(RawDataFileSnapshotWriter.isSupported(file));
+    final File snapshot = tempDir.resolve("file_snapshot.bin").toFile();
+    Assertions.assertTrue(new RawDataFileSnapshotWriter(file).write(snapshot, () -> false));
+
+    final RawDataFile loaded = new RawDataFileSnapshotReader(snapshot).read(List.of(),
+        () -> false);
+    Assertions.assertNotNull(loaded);
+    Assertions.assertEquals("snapshot_file", loaded.getName());
+    Assertions.assertEquals(Color.BLUE, loaded.getColor());
+    Assertions.assertEquals(3, loaded.getNumOfScans());
+
+    final Scan lprofile = loaded.getScan(0);
+    Assertions.assertEquals(1, lprofile.getScanNumber());
+    Assertions.assertEquals(0.6f, lprofile.getRetentionTime());
+    Assertions.assertEquals(0.5f, ((SimpleScan) lprofile).getUncorrectedRetentionTime());
+    Assertions.assertEquals(MassSpectrumType.PROFILE, lprofile.getSpectrumType());
+    Assertions.assertEquals("profile scan", lprofile.getScanDefinition());
+    Assertions.assertEquals(Range.closed(50d, 500d), lprofile.getScanningMZRange());
+    Assertions.assertArrayEquals(new double[]{100.1, 100.2, 200.5},
+        lprofile.getMzValues(new double[3]));
+    Assertions.assertArrayEquals(new double[]{10, 50, 20},
+        lprofile.getIntensityValues(new double[3]));
+    final MassList profileMasses = lprofile.getMassList();
+    Assertions.assertNotNull(profileMasses);
+    Assertions.assertEquals(1, profileMasses.getNumberOfDataPoints());
+    Assertions.assertEquals(100.2, profileMasses.getMzValue(0));
+
+    final Scan lcentroid = loaded.getScan(1);
+    Assertions.assertNull(lcentroid.getScanningMZRange());
+    Assertions.assertInstanceOf(ScanPointerMassList.class, lcentroid.getMassList());
+    Assertions.assertEquals(1e4, lcentroid.getMassList().getIntensityValue(0));
+
+    final Scan lempty = loaded.getScan(2);
+    Assertions.assertEquals(0, lempty.getNumberOfDataPoints());
+    Assertions.assertEquals(PolarityType.NEGATIVE, lempty.getPolarity());
+    Assertions.assertNull(lempty.getMassList());
+  }
+
+  @Test
+  void testSavedFileOrder() {
+    final String snapshotName = new File(RawDataFileSaveHandler.getSnapshotZipPath(12)).getName();
+    Assertions.assertEquals(12, RawDataFileSaveHandler.getSnapshotFileIndex(snapshotName));
+    Assertions.assertEquals(-1, RawDataFileSaveHandler.getSnapshotFileIndex("other.bin"));
+
+    final RawDataFileImpl a = new RawDataFileImpl("a", null, null, Color.BLUE);
+    final RawDataFileImpl b = new RawDataFileImpl("b", null, null, Color.BLUE);
+    final RawDataFileImpl c = new RawDataFileImpl("c", null, null, Color.BLUE);
+    final MZmineProjectImpl project = new MZmineProjectImpl();
+    // imported by the batch first, the snapshot of b is restored afterwards
+    project.addFile(a);
+    project.addFile(c);
+    project.addFile(b);
+    project.sortDataFiles(List.of(a, b, c));
+    Assertions.assertEquals(List.of(a, b, c), project.getCurrentRawDataFiles());
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package import_data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.gui.preferences.MZminePreferences;
+import io.github.mzmine.main.ConfigService;
+import io.github.mzmine.modules.io.import_rawdata_mzml.MzMLImportMode;
+import io.github.mzmine.modules.io.import_rawdata_mzml.msdk.data.MzMLIndex;
+import io.github.mzmine.project.ProjectService;
+import java.io.File;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import testutils.MZmineTestUtil;
+
+/**
+ * Tests that the indexed parallel mzML import results in the same data as the sequential import.
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@DisabledOnOs(OS.MAC)
+public class MzMLIndexedParallelImportTest {
+
+  private static final String INDEXED_FILE = "rawdatafiles/additional/gc_orbi_profile_21scans.mzML";
+  // index offsets do not point to the spectra
+  private static final String INVALID_INDEX_FILE = "rawdatafiles/additional/sciex_no_mz_range_cv.mzML";
+
+  @BeforeAll
+  void initialize() {
+    MZmineTestUtil.startMzmineCore();
+  }
+
+  @AfterAll
+  void tearDown() {
+    ConfigService.getPreferences()
+        .setParameter(MZminePreferences.mzmlImportMode, MzMLImportMode.SEQUENTIAL);
+    MZmineTestUtil.cleanProject();
+  }
+
+  @Test
+  @DisplayName("Read the index of indexed mzML")
+  void testReadIndex() {
+    final MzMLIndex index = MzMLIndex.read(getFile(INDEXED_FILE));
+    assertNotNull(index);
+    assertEquals(21, index.numSpectra());
+    assertEquals(1, index.chromatogramOffsets().length);
+
+    assertNull(MzMLIndex.read(getFile(INVALID_INDEX_FILE)), "Invalid index should be rejected");
+  }
+
+  @Test
+  @DisplayName("Indexed parallel import equals sequential import")
+  void testParallelEqualsSequential() throws InterruptedException {
+    final RawDataFile sequential = importWithMode(INDEXED_FILE, MzMLImportMode.SEQUENTIAL);
+    final RawDataFile parallel = importWithMode(INDEXED_FILE, MzMLImportMode.INDEXED_PARALLEL);
+
+    assertEquals(sequential.getNumOfScans(), parallel.getNumOfScans());
+    assertEquals(sequential.getOtherDataFiles().size(), parallel.getOtherDataFiles().size());
+    for (int i = 0; i < sequential.getNumOfScans(); i++) {
+      final Scan expected = sequential.getScan(i);
+      final Scan actual = parallel.getScan(i);
+      assertEquals(expected.getScanNumber(), actual.getScanNumber());
+      assertEquals(expected.getMSLevel(), actual.getMSLevel());
+      assertEquals(expected.getRetentionTime(), actual.getRetentionTime());
+      assertEquals(expected.getSpectrumType(), actual.getSpectrumType());
+      assertArrayEquals(expected.getMzValues(new double[0]), actual.getMzValues(new double[0]));
+      assertArrayEquals(expected.getIntensityValues(new double[0]),
+          actual.getIntensityValues(new double[0]));
+    }
+  }
+
+  @Test
+  @DisplayName("Indexed parallel import falls back to sequential import for invalid index")
+  void testParallelFallback() throws InterruptedException {
+    final RawDataFile raw = importWithMode(INVALID_INDEX_FILE, MzMLImportMode.INDEXED_PARALLEL);
+    assertEquals(2, raw.getNumOfScans());
+  }
+
+  private RawDataFile importWithMode(String fileName, MzMLImportMode mode)
+      throws InterruptedException {
+    ConfigService.getPreferences().setParameter(MZminePreferences.mzmlImportMode, mode);
+    MZmineTestUtil.cleanProject();
+    MZmineTestUtil.importFiles(List.of(fileName), 60);
+
+    final RawDataFile[] dataFiles = ProjectService.getProject().getDataFiles();
+    assertEquals(1, dataFiles.length);
+    return dataFiles[0];
+  }
+
+  private static File getFile(String name) {
+    return new File(
+        MzMLIndexedParallelImportTest.class.getClassLoader().getResource(name).getFile());
+  }
+}
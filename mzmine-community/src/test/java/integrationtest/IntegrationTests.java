@@ -25,6 +25,9 @@
 
 package integrationtest;
 
+import io.github.mzmine.gui.preferences.MZminePreferences;
+import io.github.mzmine.main.ConfigService;
+import io.github.mzmine.modules.batchmode.BatchExecutionMode;
 import io.github.mzmine.modules.tools.output_compare_csv.CheckResult;
 import java.io.File;
 import java.util.List;
@@ -85,6 +88,45 @@ public class IntegrationTests {
   }
 
 
+  @Test
+  void testSmallLcMsBatchPerFilePipeline(@TempDir File tempDir) {
+    final String batchFile = "workshop_dataset_integration_test.mzbatch";
+    final File stepByStepDir = new File(tempDir, "step_by_step");
+    final File perFileDir = new File(tempDir, "per_file_pipeline");
+    Assertions.assertTrue(stepByStepDir.mkdirs() && perFileDir.mkdirs());
+
+    final MZminePreferences preferences = ConfigService.getPreferences();
+    final BatchExecutionMode mode = preferences.getValue(MZminePreferences.batchExecutionMode);
+    try {
+      preferences.setParameter(MZminePreferences.batchExecutionMode,
+          BatchExecutionMode.STEP_BY_STEP);
+      final File stepByStep = runSmallLcMsBatch(stepByStepDir, batchFile);
+      MZmineTestUtil.clearProjectAndLibraries();
+
+      preferences.setParameter(MZminePreferences.batchExecutionMode,
+          BatchExecutionMode.PER_FILE_PIPELINE);
+      final File perFile = runSmallLcMsBatch(perFileDir, batchFile);
+
+      // the chains of both files need to create the same feature lists as the step by step run
+      Assertions.assertTrue(
+          IntegrationTestUtils.getCsvComparisonResults(stepByStep, perFile, batchFile).isEmpty());
+      Assertions.assertTrue(IntegrationTestUtils.getCsvComparisonResults(
+          "rawdatafiles/integration_tests/workshop_dataset/expected_results.csv", perFile,
+          batchFile).isEmpty());
+    } finally {
+      preferences.setParameter(MZminePreferences.batchExecutionMode, mode);
+    }
+  }
+
+  private static File runSmallLcMsBatch(File tempDir, String batchFile) {
+    return IntegrationTest.builder("rawdatafiles/integration_tests/workshop_dataset", batchFile)
+        .tempDir(tempDir)
+        .rawFiles("171103_PMA_TK_QC_04-4to5min.mzML", "171103_PMA_TK_QC_05-4to5min.mzML")
+        .specLibsFullPath("spectral_libraries/integration_tests/massbank_nist_for_tests.msp",
+            "spectral_libraries/integration_tests/MoNA-export-LC-MS-MS_Spectra.json").build()
+        .runBatchGetCsvFile();
+  }
+
   void testSmallLcMsBatch(File tempDir, String batchFile) {
     final File results = IntegrationTest.builder("rawdatafiles/integration_tests/workshop_dataset",
             batchFile).tempDir(tempDir)
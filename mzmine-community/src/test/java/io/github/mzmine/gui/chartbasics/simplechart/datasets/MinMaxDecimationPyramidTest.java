@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.gui.chartbasics.simplechart.datasets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MinMaxDecimationPyramidTest {
+
+  private static final int NUM_ITEMS = 200_000;
+  private static final int WIDTH = 800;
+
+  // chromatogram like data with noise, peaks and a few gaps
+  private static final double[] domain = new double[NUM_ITEMS];
+  private static final double[] range = new double[NUM_ITEMS];
+
+  static {
+    final Random random = new Random(42);
+    double x = 0;
+    for (int i = 0; i < NUM_ITEMS; i++) {
+      x += random.nextInt(50) == 0 ? random.nextDouble() * 0.5 : 0.001 + random.nextDouble() * 0.01;
+      domain[i] = x;
+      double y = random.nextDouble() * 100;
+      if (random.nextInt(2000) == 0) {
+        y += random.nextDouble() * 1e4;
+      }
+      range[i] = y;
+    }
+  }
+
+  private static MinMaxDecimationPyramid pyramid() {
+    final MinMaxDecimationPyramid pyramid = MinMaxDecimationPyramid.build(NUM_ITEMS,
+        i -> domain[i], i -> range[i], () -> false);
+    assertNotNull(pyramid);
+    return pyramid;
+  }
+
+  /**
+   * @return [column][min, max, first, last] of the range values drawn in each pixel column
+   */
+  private static double[][] envelope(int[] items, double lower, double upper) {
+    final double[][] envelope = new double[WIDTH][];
+    for (final int item : items) {
+      final double x = domain[item];
+      if (x < lower || x > upper) {
+        continue;
+      }
+      final int column = Math.min(WIDTH - 1, (int) ((x - lower) / (upper - lower) * WIDTH));
+      final double y = range[item];
+      final double[] env = envelope[column];
+      if (env == null) {
+        envelope[column] = new double[]{y, y, y, y};
+      } else {
+        env[0] = Math.min(env[0], y);
+        env[1] = Math.max(env[1], y);
+        env[3] = y;
+      }
+    }
+    return envelope;
+  }
+
+  /**
+   * Rasterizes the line through the items without anti-aliasing: each segment is clipped to the
+   * pixel columns it crosses and the covered range values are collected per column.
+   *
+   * @return [column][lowest, highest] range value covered by the line in each pixel column
+   */
+  private static double[][] renderLine(int[] items, double lower, double upper) {
+    final double[][] columns = new double[WIDTH][];
+    for (int i = 1; i < items.length; i++) {
+      final double x0 = (domain[items[i - 1]] - lower) / (upper - lower) * WIDTH;
+      final double x1 = (domain[items[i]] - lower) / (upper - lower) * WIDTH;
+      final double y0 = range[items[i - 1]];
+      final double y1 = range[items[i]];
+      if (x1 < 0 || x0 >= WIDTH) {
+        continue;
+      }
+      final int first = Math.max(0, (int) Math.floor(x0));
+      final int last = Math.min(WIDTH - 1, (int) Math.floor(x1));
+      for (int column = first; column <= last; column++) {
+        final double from = Math.max(x0, column);
+        final double to = Math.min(x1, column + 1);
+        final double yFrom = x1 == x0 ? y0 : y0 + (y1 - y0) * (from - x0) / (x1 - x0);
+        final double yTo = x1 == x0 ? y1 : y0 + (y1 - y0) * (to - x0) / (x1 - x0);
+        final double[] covered = columns[column];
+        final double min = Math.min(yFrom, yTo);
+        final double max = Math.max(yFrom, yTo);
+        if (covered == null) {
+          columns[column] = new double[]{min, max};
+        } else {
+          covered[0] = Math.min(covered[0], min);
+          covered[1] = Math.max(covered[1], max);
+        }
+      }
+    }
+    return columns;
+  }
+
+  @Test
+  void decimatedEnvelopeEqualsAllItems() {
+    final MinMaxDecimationPyramid pyramid = pyramid();
+    final int[] allItems = new int[NUM_ITEMS];
+    Arrays.setAll(allItems, i -> i);
+    final double max = domain[NUM_ITEMS - 1];
+
+    final double[][] ranges = {{0, max}, {max * 0.1, max * 0.6}, {max * 0.5, max * 0.51},
+        {max * 0.3, max * 0.3005}, {-10, max + 10}};
+    for (final double[] visible : ranges) {
+      final int[] items = pyramid.decimate(visible[0], visible[1], WIDTH);
+      assertTrue(items.length <= 4 * (WIDTH + 2 * MinMaxDecimationPyramid.OUTSIDE_BUCKETS));
+      for (int i = 1; i < items.length; i++) {
+        assertTrue(items[i - 1] < items[i]);
+      }
+
+      final double[][] expected = envelope(allItems, visible[0], visible[1]);
+      final double[][] actual = envelope(items, visible[0], visible[1]);
+      for (int column = 0; column < WIDTH; column++) {
+        assertArrayEquals(expected[column], actual[column]);
+      }
+    }
+  }
+
+  @Test
+  void renderedLineEqualsAllItems() {
+    final MinMaxDecimationPyramid pyramid = pyramid();
+    final int[] allItems = new int[NUM_ITEMS];
+    Arrays.setAll(allItems, i -> i);
+    final double max = domain[NUM_ITEMS - 1];
+
+    final double[][] ranges = {{0, max}, {max * 0.2, max * 0.25}, {max * 0.7, max * 0.7004}};
+    for (final double[] visible : ranges) {
+      final int[] items = pyramid.decimate(visible[0], visible[1], WIDTH);
+      assertTrue(items.length < NUM_ITEMS / 20);
+
+      final double[][] expected = renderLine(allItems, visible[0], visible[1]);
+      final double[][] actual = renderLine(items, visible[0], visible[1]);
+      for (int column = 0; column < WIDTH; column++) {
+        // interpolation at the column borders differs in the last digits
+        assertArrayEquals(expected[column], actual[column], 1e-9);
+      }
+    }
+  }
+
+  @Test
+  void keepsBoundsOfAllItems() {
+    final MinMaxDecimationPyramid pyramid = pyramid();
+    final double max = domain[NUM_ITEMS - 1];
+    final int[] items = pyramid.decimate(max * 0.4, max * 0.41, WIDTH);
+
+    assertEquals(0, items[0]);
+    assertEquals(NUM_ITEMS - 1, items[items.length - 1]);
+    final double maxY = Arrays.stream(range).max().orElseThrow();
+    final double minY = Arrays.stream(range).min().orElseThrow();
+    assertEquals(maxY, Arrays.stream(items).mapToDouble(i -> range[i]).max().orElseThrow());
+    assertEquals(minY, Arrays.stream(items).mapToDouble(i -> range[i]).min().orElseThrow());
+  }
+
+  @Test
+  void envelopeEqualsLinearScan() {
+    final MinMaxDecimationPyramid pyramid = pyramid();
+    final Random random = new Random(7);
+    final int[] envelope = new int[2];
+    for (int n = 0; n < 500; n++) {
+      final int from = random.nextInt(NUM_ITEMS - 1);
+      final int to = from + 1 + random.nextInt(Math.min(NUM_ITEMS - from, 1 << random.nextInt(18)));
+      pyramid.findEnvelope(from, to, envelope);
+
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      for (int i = from; i < to; i++) {
+        min = Math.min(min, range[i]);
+        max = Math.max(max, range[i]);
+      }
+      assertEquals(min, range[envelope[0]]);
+      assertEquals(max, range[envelope[1]]);
+    }
+  }
+
+  @Test
+  void unsortedDomainHasNoPyramid() {
+    final double[] x = {1, 2, 3, 2.5, 4};
+    assertNull(MinMaxDecimationPyramid.build(x.length, i -> x[i], i -> 1d, () -> false));
+    assertNull(MinMaxDecimationPyramid.build(NUM_ITEMS, i -> domain[i], i -> range[i],
+        () -> true));
+  }
+}
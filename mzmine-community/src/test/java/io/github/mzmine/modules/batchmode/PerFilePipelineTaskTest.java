@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.batchmode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import io.github.mzmine.modules.dataprocessing.align_join.JoinAlignerModule;
+import io.github.mzmine.modules.dataprocessing.featdet_massdetection.MassDetectionModule;
+import io.github.mzmine.parameters.parametertypes.selectors.RawDataFilesParameter;
+import io.github.mzmine.parameters.parametertypes.selectors.RawDataFilesSelection;
+import io.github.mzmine.parameters.parametertypes.selectors.RawDataFilesSelectionType;
+import io.github.mzmine.util.XMLUtils;
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import testutils.MZmineTestUtil;
+
+/**
+ * Verifies the detection of batch steps that can run as one chain per raw data file.
+ */
+class PerFilePipelineTaskTest {
+
+  private static final String BATCH_RESOURCE =
+      "rawdatafiles/integration_tests/workshop_dataset/workshop_dataset_integration_test.mzbatch";
+
+  @BeforeAll
+  static void initMzmine() {
+    MZmineTestUtil.startMzmineCore();
+  }
+
+  @Test
+  void pipelineEndsBeforeAlignment() throws Exception {
+    final BatchQueue queue = loadBatch();
+    // import is a barrier
+    assertEquals(0, PerFilePipelineTask.findPipelineEnd(queue, 0));
+
+    // mass detection (MS1, MS2), chromatogram builder, smoothing, resolver and isotope steps
+    final int alignerStep = indexOf(queue, JoinAlignerModule.class);
+    assertEquals(MassDetectionModule.class, queue.get(1).getModule().getClass());
+    assertEquals(8, alignerStep);
+    assertEquals(alignerStep, PerFilePipelineTask.findPipelineEnd(queue, 1));
+    // a later start inside the range ends at the same step
+    assertEquals(alignerStep, PerFilePipelineTask.findPipelineEnd(queue, 3));
+
+    // the aligner combines all files and is never part of a pipeline
+    assertEquals(alignerStep, PerFilePipelineTask.findPipelineEnd(queue, alignerStep));
+    assertEquals(queue.size(), PerFilePipelineTask.findPipelineEnd(queue, queue.size()));
+  }
+
+  @Test
+  void pipelineRequiresBatchLastSelection() throws Exception {
+    final BatchQueue queue = loadBatch();
+    // the first step may select any files
+    queue.get(1).getParameterSet().streamForClass(RawDataFilesParameter.class)
+        .forEach(p -> p.setValue(new RawDataFilesSelection(RawDataFilesSelectionType.ALL_FILES)));
+    assertEquals(8, PerFilePipelineTask.findPipelineEnd(queue, 1));
+
+    // a following step that selects all files depends on other files and ends the pipeline,
+    // a single step is no pipeline
+    queue.get(2).getParameterSet().streamForClass(RawDataFilesParameter.class)
+        .forEach(p -> p.setValue(new RawDataFilesSelection(RawDataFilesSelectionType.ALL_FILES)));
+    assertEquals(1, PerFilePipelineTask.findPipelineEnd(queue, 1));
+    // but it may start a new pipeline
+    assertEquals(8, PerFilePipelineTask.findPipelineEnd(queue, 2));
+  }
+
+  private static int indexOf(final BatchQueue queue, final Class<?> moduleClass) {
+    for (int i = 0; i < queue.size(); i++) {
+      if (moduleClass.isInstance(queue.get(i).getModule())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static BatchQueue loadBatch() throws Exception {
+    final URL resource = PerFilePipelineTaskTest.class.getClassLoader()
+        .getResource(BATCH_RESOURCE);
+    assertNotNull(resource, "Test resource not found on classpath: " + BATCH_RESOURCE);
+    final File batchFile = new File(resource.toURI());
+    return BatchQueue.loadFromXml(XMLUtils.load(batchFile).getDocumentElement(), new ArrayList<>(),
+        true);
+  }
+}
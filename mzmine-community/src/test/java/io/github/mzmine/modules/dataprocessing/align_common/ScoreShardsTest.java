@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.align_common;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.datamodel.features.ModularFeatureList;
+import io.github.mzmine.datamodel.features.ModularFeatureListRow;
+import io.github.mzmine.modules.dataprocessing.align_join.RowVsRowScore;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ScoreShardsTest {
+
+  private final ModularFeatureList flist = new ModularFeatureList("shards", null, List.of());
+  private final List<FeatureListRow> base = rows(0, 6);
+  private final List<FeatureListRow> listA = rows(10, 3);
+  private final List<FeatureListRow> listB = rows(20, 2);
+
+  private List<FeatureListRow> rows(int firstId, int n) {
+    return IntStream.range(firstId, firstId + n)
+        .mapToObj(id -> (FeatureListRow) new ModularFeatureListRow(flist, id))
+        .collect(ArrayList::new, List::add, List::addAll);
+  }
+
+  private List<RowVsRowScore> scores() {
+    return List.of( //
+        // shard of base 0 and 1 connected by a0
+        new RowVsRowScore(0.9, listA.get(0), base.get(0)),
+        new RowVsRowScore(0.8, listA.get(0), base.get(1)),
+        new RowVsRowScore(0.8, listB.get(0), base.get(1)),
+        // shard of base 3 and 4 connected by b1
+        new RowVsRowScore(0.5, listB.get(1), base.get(3)),
+        new RowVsRowScore(0.5, listA.get(1), base.get(3)),
+        new RowVsRowScore(0.7, listB.get(1), base.get(4)),
+        // single score
+        new RowVsRowScore(0.6, listA.get(2), base.get(5)));
+  }
+
+  @Test
+  void shardsAndOrder() {
+    final ScoreShards shards = ScoreShards.create(scores(), base, List.of(listA, listB));
+
+    assertEquals(3, shards.numShards());
+    assertArrayEquals(new int[]{0, 3, 6, 7}, shards.shardStarts());
+
+    final List<RowVsRowScore> expected = List.of( //
+        new RowVsRowScore(0.9, listA.get(0), base.get(0)),
+        new RowVsRowScore(0.8, listA.get(0), base.get(1)),
+        new RowVsRowScore(0.8, listB.get(0), base.get(1)),
+        new RowVsRowScore(0.7, listB.get(1), base.get(4)),
+        new RowVsRowScore(0.5, listA.get(1), base.get(3)),
+        new RowVsRowScore(0.5, listB.get(1), base.get(3)),
+        new RowVsRowScore(0.6, listA.get(2), base.get(5)));
+    assertEquals(expected, List.of(shards.scores()));
+  }
+
+  @Test
+  void orderIndependentOfInput() {
+    final List<RowVsRowScore> expected = List.of(
+        ScoreShards.create(scores(), base, List.of(listA, listB)).scores());
+
+    final Random random = new Random(42);
+    for (int i = 0; i < 20; i++) {
+      final List<RowVsRowScore> shuffled = new ArrayList<>(scores());
+      Collections.shuffle(shuffled, random);
+      final ScoreShards shards = ScoreShards.create(shuffled, base, List.of(listA, listB));
+      assertEquals(expected, List.of(shards.scores()));
+    }
+  }
+
+  @Test
+  void noScores() {
+    final ScoreShards shards = ScoreShards.create(List.of(), base, List.of(listA, listB));
+    assertEquals(0, shards.numShards());
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_adapchromatogrambuilder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.featuredata.IonTimeSeries;
+import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.datamodel.features.ModularFeatureList;
+import io.github.mzmine.modules.io.import_rawdata_all.AdvancedSpectraImportParameters;
+import io.github.mzmine.modules.tools.batchwizard.subparameters.MassDetectorWizardOptions;
+import io.github.mzmine.parameters.ParameterSet;
+import io.github.mzmine.parameters.parametertypes.selectors.RawDataFilesSelectionType;
+import io.github.mzmine.parameters.parametertypes.selectors.ScanSelection;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.project.impl.MZmineProjectImpl;
+import io.github.mzmine.taskcontrol.TaskStatus;
+import java.time.Instant;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import testutils.MZmineTestUtil;
+
+/**
+ * Compares the {@link ADAPChromatogramBuilderEngine#PRIMITIVE} engine to the default
+ * {@link ADAPChromatogramBuilderEngine#RANGE_MAP} engine on the test files. Both need to produce
+ * the same feature lists.
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+class ADAPChromatogramBuilderEngineTest {
+
+  private static final List<String> files = List.of("rawdatafiles/DOM_a.mzML",
+      "rawdatafiles/DOM_b.mzXML");
+
+  @BeforeAll
+  void init() throws InterruptedException {
+    MZmineTestUtil.startMzmineCore();
+    var advancedImport = AdvancedSpectraImportParameters.create(
+        MassDetectorWizardOptions.ABSOLUTE_NOISE_LEVEL, 0d, 0d, null, ScanSelection.ALL_SCANS,
+        false);
+    MZmineTestUtil.importFiles(files, 60, advancedImport);
+  }
+
+  @AfterAll
+  void tearDown() {
+    MZmineTestUtil.cleanProject();
+  }
+
+  @Test
+  void primitiveEngineEqualsRangeMap() {
+    MZmineTestUtil.streamDataFiles(files).forEach(raw -> {
+      assertNotNull(raw);
+      final ModularFeatureList expected = buildChromatograms(raw,
+          ADAPChromatogramBuilderEngine.RANGE_MAP);
+      final ModularFeatureList actual = buildChromatograms(raw,
+          ADAPChromatogramBuilderEngine.PRIMITIVE);
+      assertEqualFeatureLists(expected, actual);
+    });
+  }
+
+  private static @NotNull ModularFeatureList buildChromatograms(@NotNull RawDataFile raw,
+      @NotNull ADAPChromatogramBuilderEngine engine) {
+    final ParameterSet param = new ADAPChromatogramBuilderParameters().cloneParameterSet();
+    param.getParameter(ADAPChromatogramBuilderParameters.dataFiles)
+        .setValue(RawDataFilesSelectionType.ALL_FILES);
+    param.setParameter(ADAPChromatogramBuilderParameters.scanSelection, new ScanSelection(1));
+    param.setParameter(ADAPChromatogramBuilderParameters.minimumConsecutiveScans, 4);
+    param.setParameter(ADAPChromatogramBuilderParameters.mzTolerance, new MZTolerance(0.002, 10));
+    param.setParameter(ADAPChromatogramBuilderParameters.minHighestPoint, 3E5);
+    param.setParameter(ADAPChromatogramBuilderParameters.minGroupIntensity, 1E5);
+    param.setParameter(ADAPChromatogramBuilderParameters.suffix, "chrom");
+    param.setParameter(ADAPChromatogramBuilderParameters.builderEngine, engine);
+
+    final MZmineProjectImpl project = new MZmineProjectImpl();
+    final var task = ModularADAPChromatogramBuilderTask.forChromatography(project, raw, param, null,
+        Instant.now(), ModularADAPChromatogramBuilderModule.class);
+    task.run();
+    assertEquals(TaskStatus.FINISHED, task.getStatus(), task.getErrorMessage());
+    return (ModularFeatureList) project.getCurrentFeatureLists().getFirst();
+  }
+
+  private static void assertEqualFeatureLists(@NotNull ModularFeatureList expected,
+      @NotNull ModularFeatureList actual) {
+    assertEquals(expected.getNumberOfRows(), actual.getNumberOfRows());
+    for (int i = 0; i < expected.getNumberOfRows(); i++) {
+      final FeatureListRow a = expected.getRow(i);
+      final FeatureListRow b = actual.getRow(i);
+      assertEquals(a.getID(), b.getID());
+      assertEquals(a.getAverageMZ(), b.getAverageMZ());
+      assertEquals(a.getAverageRT(), b.getAverageRT());
+      assertEquals(a.getMaxHeight(), b.getMaxHeight());
+      assertEquals(a.getMaxArea(), b.getMaxArea());
+
+      final IonTimeSeries<?> seriesA = a.getBestFeature().getFeatureData();
+      final IonTimeSeries<?> seriesB = b.getBestFeature().getFeatureData();
+      assertEquals(seriesA.getSpectra(), seriesB.getSpectra());
+      assertArrayEquals(seriesA.getMzValues(new double[0]), seriesB.getMzValues(new double[0]));
+      assertArrayEquals(seriesA.getIntensityValues(new double[0]),
+          seriesB.getIntensityValues(new double[0]));
+      assertEquals(a.getBestFeature().getAllMS2FragmentScans(),
+          b.getBestFeature().getAllMS2FragmentScans());
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution.minimumsearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.features.FeatureList;
+import io.github.mzmine.datamodel.features.ModularFeatureList;
+import io.github.mzmine.modules.dataprocessing.featdet_chromatogramdeconvolution.ResolvingDimension;
+import io.github.mzmine.modules.dataprocessing.filter_groupms2.GroupMS2SubParameters;
+import io.github.mzmine.parameters.ParameterSet;
+import io.github.mzmine.parameters.parametertypes.OriginalFeatureListHandlingParameter.OriginalFeatureListOption;
+import io.github.mzmine.parameters.parametertypes.selectors.FeatureListsSelection;
+import io.github.mzmine.parameters.parametertypes.selectors.FeatureListsSelectionType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import testutils.MZmineTestUtil;
+
+/**
+ * Compares the {@link MinimumSearchEngine#RANGE_QUERIES} engine to the default
+ * {@link MinimumSearchEngine#NESTED_LOOPS} engine on noisy synthetic chromatograms. Both need to
+ * resolve the same ranges.
+ */
+class MinimumSearchEngineTest {
+
+  private static final ModularFeatureList flist = FeatureList.createDummy();
+
+  @BeforeAll
+  static void init() {
+    MZmineTestUtil.startMzmineCore();
+  }
+
+  @Test
+  void rangeQueriesEqualNestedLoops() {
+    final Random random = new Random(42);
+    for (final double searchRange : new double[]{0.01, 0.04, 0.2}) {
+      final MinimumSearchFeatureResolver nestedLoops = createResolver(searchRange,
+          MinimumSearchEngine.NESTED_LOOPS);
+      final MinimumSearchFeatureResolver rangeQueries = createResolver(searchRange,
+          MinimumSearchEngine.RANGE_QUERIES);
+
+      for (int i = 0; i < 50; i++) {
+        final double[] x = createRts(random, 200 + random.nextInt(3000));
+        final double[] y = createChromatogram(random, x);
+        // the resolvers set values below the chromatographic threshold to 0
+        assertEquals(nestedLoops.resolve(x, y.clone()), rangeQueries.resolve(x, y.clone()));
+      }
+    }
+  }
+
+  @Test
+  void resolveAllEqualsSequential() {
+    final Random random = new Random(7);
+    final MinimumSearchFeatureResolver resolver = createResolver(0.04,
+        MinimumSearchEngine.RANGE_QUERIES);
+
+    final List<double[]> xValues = new ArrayList<>();
+    final List<double[]> yValues = new ArrayList<>();
+    final List<List<Range<Double>>> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      final double[] x = createRts(random, 50 + random.nextInt(500));
+      final double[] y = createChromatogram(random, x);
+      xValues.add(x);
+      yValues.add(y);
+      expected.add(resolver.resolve(x, y.clone()));
+    }
+
+    assertEquals(expected, resolver.resolveAll(xValues, yValues, 4));
+  }
+
+  private static MinimumSearchFeatureResolver createResolver(final double searchRange,
+      final MinimumSearchEngine engine) {
+    final ParameterSet parameters = MinimumSearchFeatureResolverParameters.create(
+        new FeatureListsSelection(FeatureListsSelectionType.ALL_FEATURELISTS), "r",
+        OriginalFeatureListOption.KEEP, false, GroupMS2SubParameters.createDefault(),
+        ResolvingDimension.RETENTION_TIME, 0.5, searchRange, 0d, 100, 1.7, Range.closed(0d, 10d),
+        4);
+    parameters.setParameter(MinimumSearchFeatureResolverParameters.MINIMUM_SEARCH_ENGINE, engine);
+    return new MinimumSearchFeatureResolver(parameters, flist);
+  }
+
+  /**
+   * Increasing retention times with slightly irregular spacing
+   */
+  private static double[] createRts(final Random random, final int numValues) {
+    final double[] x = new double[numValues];
+    double rt = random.nextDouble();
+    for (int i = 0; i < numValues; i++) {
+      rt += 0.003 + random.nextDouble() * 0.004;
+      x[i] = rt;
+    }
+    return x;
+  }
+
+  /**
+   * Gaussian peaks with noise and some gaps of zero intensity
+   */
+  private static double[] createChromatogram(final Random random, final double[] x) {
+    final double[] y = new double[x.length];
+    final int numPeaks = 1 + random.nextInt(20);
+    for (int p = 0; p < numPeaks; p++) {
+      final double center = x[random.nextInt(x.length)];
+      final double width = 0.005 + random.nextDouble() * 0.05;
+      final double height = 1E3 + random.nextDouble() * 1E6;
+      for (int i = 0; i < x.length; i++) {
+        final double dx = (x[i] - center) / width;
+        y[i] += height * Math.exp(-0.5 * dx * dx);
+      }
+    }
+    for (int i = 0; i < y.length; i++) {
+      y[i] = random.nextInt(20) == 0 ? 0 : y[i] + random.nextDouble() * 500;
+    }
+    return y;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_imsexpander;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import io.github.mzmine.datamodel.MobilityScan;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FrameBufferTest {
+
+  @Test
+  void growsAndKeepsScanBoundaries() {
+    // start small to force growing the arrays
+    final FrameBuffer buffer = new FrameBuffer(1, 1);
+    final Random random = new Random(42);
+    final MobilityScan[] scans = new MobilityScan[20];
+    final double[][] values = new double[scans.length][];
+
+    // reuse the buffer for multiple frames
+    for (int frame = 0; frame < 3; frame++) {
+      buffer.reset(null, frame);
+      for (int s = 0; s < scans.length; s++) {
+        scans[s] = mock(MobilityScan.class);
+        values[s] = random.doubles(random.nextInt(50), 100, 200).sorted().toArray();
+        buffer.addScan(scans[s]);
+        for (final double mz : values[s]) {
+          buffer.addDataPoint(mz, mz * 2);
+        }
+      }
+
+      assertEquals(frame, buffer.getFrameIndex());
+      assertEquals(scans.length, buffer.getNumberOfScans());
+      assertEquals(Arrays.stream(values).mapToInt(v -> v.length).sum(),
+          buffer.getNumberOfValues());
+      for (int s = 0; s < scans.length; s++) {
+        assertSame(scans[s], buffer.getScan(s));
+        final int start = buffer.getScanStart(s);
+        assertEquals(values[s].length, buffer.getScanEnd(s) - start);
+        for (int i = 0; i < values[s].length; i++) {
+          assertEquals(values[s][i], buffer.getMz(start + i));
+          assertEquals(values[s][i] * 2, buffer.getIntensity(start + i));
+        }
+      }
+    }
+  }
+
+  @Test
+  void firstIndexAtLeast() {
+    final FrameBuffer buffer = new FrameBuffer(2, 8);
+    buffer.reset(null, 0);
+    buffer.addScan(mock(MobilityScan.class));
+    for (final double mz : new double[]{100, 200, 200, 300}) {
+      buffer.addDataPoint(mz, 1);
+    }
+    buffer.addScan(mock(MobilityScan.class));
+    buffer.addScan(mock(MobilityScan.class));
+    buffer.addDataPoint(150, 1);
+
+    assertEquals(0, buffer.firstIndexAtLeast(0, 50));
+    assertEquals(1, buffer.firstIndexAtLeast(0, 200));
+    assertEquals(3, buffer.firstIndexAtLeast(0, 250));
+    assertEquals(4, buffer.firstIndexAtLeast(0, 350));
+    // empty scan
+    assertEquals(4, buffer.firstIndexAtLeast(1, 100));
+    assertEquals(4, buffer.firstIndexAtLeast(2, 150));
+    assertEquals(5, buffer.firstIndexAtLeast(2, 151));
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_imsexpander;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.Frame;
+import io.github.mzmine.datamodel.IMSRawDataFile;
+import io.github.mzmine.datamodel.MassSpectrumType;
+import io.github.mzmine.datamodel.MobilityType;
+import io.github.mzmine.datamodel.PolarityType;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.datamodel.featuredata.impl.SimpleIonTimeSeries;
+import io.github.mzmine.datamodel.features.FeatureList;
+import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.datamodel.features.FeatureStatus;
+import io.github.mzmine.datamodel.features.ModularFeature;
+import io.github.mzmine.datamodel.features.ModularFeatureList;
+import io.github.mzmine.datamodel.features.ModularFeatureListRow;
+import io.github.mzmine.datamodel.impl.BuildingMobilityScan;
+import io.github.mzmine.datamodel.impl.SimpleFrame;
+import io.github.mzmine.parameters.ParameterSet;
+import io.github.mzmine.parameters.parametertypes.OriginalFeatureListHandlingParameter.OriginalFeatureListOption;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.project.impl.IMSRawDataFileImpl;
+import io.github.mzmine.project.impl.MZmineProjectImpl;
+import io.github.mzmine.taskcontrol.TaskStatus;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import testutils.MZmineTestUtil;
+
+/**
+ * Both {@link ImsExpanderReadMode}s must expand the same traces from the same frames.
+ */
+class ImsExpanderTaskTest {
+
+  private static final int FRAMES = 20;
+  private static final int MOBILITY_SCANS = 20;
+  private static final int COMPOUNDS = 40;
+  private static final int FRAMES_PER_COMPOUND = 6;
+
+  @BeforeAll
+  static void initMzmine() {
+    // the per partition mode runs on the task controller
+    MZmineTestUtil.startMzmineCore();
+  }
+
+  /**
+   * Every compound elutes over a few frames and has a shoulder within the m/z tolerance in every
+   * mobility scan, plus noise around it.
+   *
+   * @return a feature list with one row per compound
+   */
+  @NotNull
+  private static ModularFeatureList createFeatureList() {
+    final Random random = new Random(42);
+    final IMSRawDataFile file = new IMSRawDataFileImpl("ims", null, null);
+    final double[] mobilities = IntStream.range(0, MOBILITY_SCANS).mapToDouble(i -> 1.4 - i * 0.01)
+        .toArray();
+    final double[] compoundMzs = IntStream.range(0, COMPOUNDS).mapToDouble(c -> 400 + c * 0.5)
+        .toArray();
+    final int[] firstFrames = random.ints(COMPOUNDS, 0, FRAMES - FRAMES_PER_COMPOUND).toArray();
+
+    final double[][] compoundIntensities = new double[COMPOUNDS][FRAMES];
+    final List<Frame> frames = new ArrayList<>();
+    for (int frameIndex = 0; frameIndex < FRAMES; frameIndex++) {
+      final List<double[]> frameSignals = new ArrayList<>();
+      final List<List<double[]>> scanSignals = new ArrayList<>();
+      for (int scan = 0; scan < MOBILITY_SCANS; scan++) {
+        scanSignals.add(new ArrayList<>());
+        scanSignals.getLast().add(new double[]{random.nextDouble(399, 421), 50});
+      }
+      for (int compound = 0; compound < COMPOUNDS; compound++) {
+        if (frameIndex < firstFrames[compound]
+            || frameIndex >= firstFrames[compound] + FRAMES_PER_COMPOUND) {
+          continue;
+        }
+        final double mz = compoundMzs[compound];
+        double frameIntensity = 0;
+        for (int scan = 0; scan < MOBILITY_SCANS; scan++) {
+          final double intensity = 1E3 + random.nextDouble() * 1E5;
+          frameIntensity += intensity;
+          scanSignals.get(scan).add(new double[]{mz + random.nextDouble(-0.001, 0.001), intensity});
+          scanSignals.get(scan).add(new double[]{mz + random.nextDouble(0.002, 0.004), intensity});
+        }
+        frameSignals.add(new double[]{mz, frameIntensity});
+        compoundIntensities[compound][frameIndex] = frameIntensity;
+      }
+
+      final SimpleFrame frame = new SimpleFrame(file, frameIndex + 1, 1, frameIndex * 0.1f,
+          frameSignals.stream().mapToDouble(signal -> signal[0]).toArray(),
+          frameSignals.stream().mapToDouble(signal -> signal[1]).toArray(),
+          MassSpectrumType.CENTROIDED, PolarityType.POSITIVE, "", Range.closed(399d, 421d),
+          MobilityType.TIMS, null, null);
+      frame.setMobilities(mobilities);
+      final List<BuildingMobilityScan> mobilityScans = new ArrayList<>();
+      for (int scan = 0; scan < MOBILITY_SCANS; scan++) {
+        final double[][] signals = scanSignals.get(scan).stream()
+            .sorted(Comparator.comparingDouble(signal -> signal[0])).toArray(double[][]::new);
+        mobilityScans.add(new BuildingMobilityScan(scan,
+            Arrays.stream(signals).mapToDouble(signal -> signal[0]).toArray(),
+            Arrays.stream(signals).mapToDouble(signal -> signal[1]).toArray(),
+            MassSpectrumType.CENTROIDED));
+      }
+      frame.setMobilityScans(mobilityScans, true);
+      file.addScan(frame);
+      frames.add(frame);
+    }
+
+    final ModularFeatureList flist = new ModularFeatureList("flist", null, file);
+    flist.setSelectedScans(file, frames);
+    for (int compound = 0; compound < COMPOUNDS; compound++) {
+      final List<Scan> compoundFrames = List.copyOf(
+          frames.subList(firstFrames[compound], firstFrames[compound] + FRAMES_PER_COMPOUND));
+      final double[] mzs = new double[compoundFrames.size()];
+      Arrays.fill(mzs, compoundMzs[compound]);
+      final double[] intensities = Arrays.copyOfRange(compoundIntensities[compound],
+          firstFrames[compound], firstFrames[compound] + FRAMES_PER_COMPOUND);
+      final ModularFeature feature = new ModularFeature(flist, file,
+          new SimpleIonTimeSeries(null, mzs, intensities, compoundFrames),
+          FeatureStatus.DETECTED);
+      flist.addRow(new ModularFeatureListRow(flist, compound, feature));
+    }
+    return flist;
+  }
+
+  @NotNull
+  private static List<FeatureListRow> expand(@NotNull final ModularFeatureList flist,
+      @NotNull final ImsExpanderReadMode readMode) {
+    final ParameterSet parameters = new ImsExpanderParameters().cloneParameterSet();
+    parameters.setParameter(ImsExpanderParameters.mzTolerance, new MZTolerance(0.005, 10));
+    parameters.setParameter(ImsExpanderParameters.useRawData, false, 0d);
+    parameters.setParameter(ImsExpanderParameters.mobilogramBinWidth, true, 1);
+    // several partitions per thread
+    parameters.setParameter(ImsExpanderParameters.maxNumTraces, true, 3);
+    parameters.setParameter(ImsExpanderParameters.handleOriginal, OriginalFeatureListOption.KEEP);
+    parameters.setParameter(ImsExpanderParameters.readMode, readMode);
+
+    final MZmineProjectImpl project = new MZmineProjectImpl();
+    final ImsExpanderTask task = new ImsExpanderTask(null, parameters, flist, project,
+        Instant.now());
+    task.run();
+    assertEquals(TaskStatus.FINISHED, task.getStatus(), task.getErrorMessage());
+
+    final FeatureList expanded = project.getCurrentFeatureLists().getFirst();
+    return expanded.getRows().stream().sorted(Comparator.comparingInt(FeatureListRow::getID))
+        .toList();
+  }
+
+  @Test
+  void sharedReaderExpandsSameTracesAsPerPartition() {
+    final ModularFeatureList flist = createFeatureList();
+    final List<FeatureListRow> perPartition = expand(flist, ImsExpanderReadMode.PER_PARTITION);
+    final List<FeatureListRow> shared = expand(flist, ImsExpanderReadMode.SHARED_READER);
+
+    assertEquals(COMPOUNDS, perPartition.size());
+    assertEquals(perPartition.size(), shared.size());
+    for (int i = 0; i < perPartition.size(); i++) {
+      assertEquals(perPartition.get(i).getID(), shared.get(i).getID());
+      assertEquals(perPartition.get(i).getBestFeature().getFeatureData(),
+          shared.get(i).getBestFeature().getFeatureData());
+    }
+  }
+}
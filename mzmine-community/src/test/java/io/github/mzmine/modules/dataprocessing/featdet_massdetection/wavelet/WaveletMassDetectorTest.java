@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_massdetection.wavelet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.mzmine.datamodel.MassSpectrumType;
+import io.github.mzmine.datamodel.impl.SimpleMassSpectrum;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Both {@link WaveletTransformEngine}s must detect identical masses.
+ */
+class WaveletMassDetectorTest {
+
+  /**
+   * Profile spectrum with gaussian peaks on a noisy baseline
+   */
+  private static double[][] createProfileSpectrum(Random random, int numPoints) {
+    final double[] mzs = new double[numPoints];
+    final double[] intensities = new double[numPoints];
+    for (int i = 0; i < numPoints; i++) {
+      mzs[i] = 100 + i * 0.002;
+      intensities[i] = random.nextDouble() * 50;
+    }
+    for (int p = 0; p < numPoints / 100; p++) {
+      final int center = random.nextInt(numPoints);
+      final double height = random.nextDouble() * 1E5;
+      final double width = 2 + random.nextDouble() * 6;
+      for (int i = Math.max(0, center - 30); i < Math.min(numPoints, center + 30); i++) {
+        final double x = (i - center) / width;
+        intensities[i] += height * Math.exp(-x * x / 2);
+      }
+    }
+    return new double[][]{mzs, intensities};
+  }
+
+  @Test
+  void enginesDetectSameMasses() {
+    final Random random = new Random(42);
+    int totalPeaks = 0;
+    for (final int scaleLevel : new int[]{1, 3, 8}) {
+      for (final double window : new double[]{0.3, 1}) {
+        final WaveletMassDetector legacy = new WaveletMassDetector(500, scaleLevel, window,
+            WaveletTransformEngine.POINT_BY_POINT);
+        final WaveletMassDetector kernel = new WaveletMassDetector(500, scaleLevel, window,
+            WaveletTransformEngine.PRECOMPUTED_KERNEL);
+
+        // different lengths so the per-thread buffers are reused and grown
+        for (final int numPoints : new int[]{5_000, 200, 12_000, 1}) {
+          final double[][] data = createProfileSpectrum(random, numPoints);
+          final SimpleMassSpectrum spectrum = new SimpleMassSpectrum(data[0], data[1],
+              MassSpectrumType.PROFILE);
+
+          final double[][] expected = legacy.getMassValues(spectrum);
+          assertMassesEqual(expected, kernel.getMassValues(spectrum));
+          assertMassesEqual(expected,
+              kernel.getMassValues(data[0], data[1], MassSpectrumType.PROFILE));
+          assertMassesEqual(expected,
+              legacy.getMassValues(data[0], data[1], MassSpectrumType.PROFILE));
+          totalPeaks += expected[0].length;
+        }
+      }
+    }
+    assertTrue(totalPeaks > 100);
+  }
+
+  private static void assertMassesEqual(double[][] expected, double[][] actual) {
+    assertArrayEquals(expected[0], actual[0]);
+    assertArrayEquals(expected[1], actual[1]);
+  }
+}
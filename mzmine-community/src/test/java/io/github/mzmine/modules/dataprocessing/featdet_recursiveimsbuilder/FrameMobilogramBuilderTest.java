@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_recursiveimsbuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FrameMobilogramBuilderTest {
+
+  private static final MZTolerance TOLERANCE = new MZTolerance(0.001, 10);
+
+  @Test
+  void groupsByMzAndKeepsOneDataPointPerScan() {
+    final FrameMobilogramBuilder builder = new FrameMobilogramBuilder(TOLERANCE);
+    for (int scan = 0; scan < 10; scan++) {
+      builder.addDataPoint(scan, 500.0001 + scan * 1e-6, 100 + scan);
+      builder.addDataPoint(scan, 600.0002, 50);
+    }
+    // second signal within tolerance in the same scan is left over
+    builder.addDataPoint(10, 500.0003, 10);
+    builder.addDataPoint(10, 500.0004, 5);
+
+    final List<int[]> mobilograms = builder.buildMobilograms();
+    assertEquals(2, mobilograms.size());
+    final int[] first = mobilograms.stream().filter(m -> builder.getMz(m[0]) < 550).findFirst()
+        .orElseThrow();
+    assertEquals(11, first.length);
+    for (int i = 0; i < first.length; i++) {
+      assertEquals(i, builder.getScan(first[i]));
+    }
+    assertEquals(10, mobilograms.stream().filter(m -> builder.getMz(m[0]) > 550).findFirst()
+        .orElseThrow().length);
+  }
+}
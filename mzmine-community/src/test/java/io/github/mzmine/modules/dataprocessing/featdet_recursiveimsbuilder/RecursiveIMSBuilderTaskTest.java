@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_recursiveimsbuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.IMSRawDataFile;
+import io.github.mzmine.datamodel.MassSpectrumType;
+import io.github.mzmine.datamodel.MobilityType;
+import io.github.mzmine.datamodel.PolarityType;
+import io.github.mzmine.datamodel.data_access.EfficientDataAccess;
+import io.github.mzmine.datamodel.data_access.MobilityScanDataAccess;
+import io.github.mzmine.datamodel.data_access.MobilityScanDataType;
+import io.github.mzmine.datamodel.featuredata.IonMobilitySeries;
+import io.github.mzmine.datamodel.impl.BuildingMobilityScan;
+import io.github.mzmine.datamodel.impl.SimpleFrame;
+import io.github.mzmine.parameters.ParameterSet;
+import io.github.mzmine.parameters.parametertypes.selectors.ScanSelection;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.project.impl.IMSRawDataFileImpl;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Both {@link RecursiveIMSBuilderEngine}s must build the same mobilograms and traces from the same
+ * frames.
+ */
+class RecursiveIMSBuilderTaskTest {
+
+  private static final MZTolerance TOLERANCE = new MZTolerance(0.005, 15);
+  private static final int FRAMES = 15;
+  private static final int MOBILITY_SCANS = 30;
+  private static final int COMPOUNDS = 25;
+
+  /**
+   * Neighbouring compounds have overlapping tolerance ranges, and every signal has a shoulder
+   * within the tolerance of the same mobility scan. Both are left over in the first pass, so the
+   * mobilograms and traces are also built recursively.
+   */
+  @NotNull
+  private static IMSRawDataFile createFile() {
+    final Random random = new Random(42);
+    final IMSRawDataFile file = new IMSRawDataFileImpl("ims", null, null);
+    final double[] mobilities = IntStream.range(0, MOBILITY_SCANS).mapToDouble(i -> 1.4 - i * 0.01)
+        .toArray();
+    final int[] firstScans = random.ints(COMPOUNDS, 0, MOBILITY_SCANS - 12).toArray();
+
+    for (int frameNumber = 1; frameNumber <= FRAMES; frameNumber++) {
+      final List<List<double[]>> scanSignals = new ArrayList<>();
+      for (int scan = 0; scan < MOBILITY_SCANS; scan++) {
+        scanSignals.add(new ArrayList<>());
+      }
+      for (int compound = 0; compound < COMPOUNDS; compound++) {
+        if (random.nextDouble() > 0.8) {
+          continue;
+        }
+        final double mz = 300 + compound * 0.011;
+        for (int scan = firstScans[compound]; scan < firstScans[compound] + 12; scan++) {
+          final double intensity = 1E3 + random.nextDouble() * 1E5;
+          scanSignals.get(scan).add(new double[]{mz + random.nextDouble(-0.002, 0.002), intensity});
+          scanSignals.get(scan).add(
+              new double[]{mz + 0.004 + random.nextDouble(-0.001, 0.001), intensity * 0.2});
+        }
+      }
+
+      final SimpleFrame frame = new SimpleFrame(file, frameNumber, 1, frameNumber * 0.1f,
+          new double[]{300d}, new double[]{1d}, MassSpectrumType.CENTROIDED,
+          PolarityType.POSITIVE, "", Range.closed(299d, 301d), MobilityType.TIMS, null, null);
+      frame.setMobilities(mobilities);
+      final List<BuildingMobilityScan> mobilityScans = new ArrayList<>();
+      for (int scan = 0; scan < MOBILITY_SCANS; scan++) {
+        final double[][] signals = scanSignals.get(scan).stream()
+            .sorted(Comparator.comparingDouble(signal -> signal[0])).toArray(double[][]::new);
+        mobilityScans.add(new BuildingMobilityScan(scan,
+            Arrays.stream(signals).mapToDouble(signal -> signal[0]).toArray(),
+            Arrays.stream(signals).mapToDouble(signal -> signal[1]).toArray(),
+            MassSpectrumType.CENTROIDED));
+      }
+      frame.setMobilityScans(mobilityScans, true);
+      file.addScan(frame);
+    }
+    return file;
+  }
+
+  @NotNull
+  private static RecursiveIMSBuilderTask createTask(@NotNull final IMSRawDataFile file) {
+    final ParameterSet parameters = new RecursiveIMSBuilderParameters().cloneParameterSet();
+    parameters.setParameter(RecursiveIMSBuilderParameters.mzTolerance, TOLERANCE);
+    parameters.getParameter(RecursiveIMSBuilderParameters.advancedParameters).getValue()
+        .setParameter(RecursiveIMSBuilderAdvancedParameters.timsBinningWidth, true, 1);
+    return new RecursiveIMSBuilderTask(null, file, parameters, null, Instant.now());
+  }
+
+  /**
+   * @return the mobilograms of each trace, traces ordered by m/z
+   */
+  @NotNull
+  private static List<List<IonMobilitySeries>> mobilogramsByMz(
+      @NotNull final List<TempIMTrace> traces) {
+    return traces.stream().sorted(Comparator.comparingDouble(TempIMTrace::getCenterMz))
+        .map(TempIMTrace::getMobilograms).toList();
+  }
+
+  @Test
+  void primitiveArraysBuildSameMobilogramsAndTracesAsObjectSets() {
+    final IMSRawDataFile file = createFile();
+    final RecursiveIMSBuilderTask task = createTask(file);
+
+    final MobilityScanDataAccess access = EfficientDataAccess.of(file,
+        MobilityScanDataType.MASS_LIST, new ScanSelection(1));
+    final TreeSet<BuildingIonMobilitySeries> objectSets = task.buildFrameMobilograms(access);
+    final List<BuildingIonMobilitySeries> primitiveArrays = task.buildFrameMobilogramsParallel(
+        access.getEligibleFrames());
+    // both are sorted by descending summed intensity
+    assertEquals(List.copyOf(objectSets), primitiveArrays);
+
+    final List<TempIMTrace> objectSetTraces = task.createTempIMTraces(objectSets, TOLERANCE);
+    final List<TempIMTrace> primitiveArrayTraces = task.createTempIMTracesIndexed(
+        primitiveArrays);
+    assertNotNull(objectSetTraces);
+    assertNotNull(primitiveArrayTraces);
+    assertEquals(mobilogramsByMz(objectSetTraces), mobilogramsByMz(primitiveArrayTraces));
+  }
+}
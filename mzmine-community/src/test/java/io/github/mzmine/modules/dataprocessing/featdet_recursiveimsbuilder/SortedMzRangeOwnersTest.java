@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.featdet_recursiveimsbuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeMap;
+import com.google.common.collect.TreeRangeMap;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.util.scans.SpectraMerging;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link SortedMzRangeOwners} must create and find the same ranges as a {@link RangeMap} with
+ * {@link SpectraMerging#createNewNonOverlappingRange(RangeMap, Range)}.
+ */
+class SortedMzRangeOwnersTest {
+
+  private static final MZTolerance TOLERANCE = new MZTolerance(0.001, 10);
+
+  @Test
+  void sameRangesAsRangeMap() {
+    final Random random = new Random(42);
+    // dense values create many trimmed ranges
+    for (final double width : new double[]{1, 50}) {
+      final double[] values = random.doubles(3000, 200, 200 + width).toArray();
+      final double[] sorted = values.clone();
+      Arrays.sort(sorted);
+
+      final SortedMzRangeOwners index = new SortedMzRangeOwners(sorted);
+      final RangeMap<Double, Integer> map = TreeRangeMap.create();
+      for (final double mz : values) {
+        final int position = Arrays.binarySearch(sorted, mz);
+        final Integer expected = map.get(mz);
+        assertEquals(expected == null ? -1 : expected, index.getRangeAt(position));
+
+        if (expected == null) {
+          final Range<Double> proposed = TOLERANCE.getToleranceRange(mz);
+          final Range<Double> range = SpectraMerging.createNewNonOverlappingRange(map, proposed);
+          assertEquals(range, index.createNewNonOverlappingRange(proposed));
+          map.put(range, index.add(position, range));
+        }
+
+        final double other = 200 + random.nextDouble() * width;
+        final Integer expectedOther = map.get(other);
+        assertEquals(expectedOther == null ? -1 : expectedOther, index.getRange(other));
+      }
+      assertEquals(map.asMapOfRanges().size(), index.size());
+    }
+  }
+}
@@ -31,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 
 import io.github.mzmine.datamodel.FeatureStatus;
 import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.features.Feature;
 import io.github.mzmine.datamodel.features.FeatureListRow;
 import io.github.mzmine.datamodel.features.ModularFeature;
 import io.github.mzmine.datamodel.features.ModularFeatureList;
@@ -47,7 +48,9 @@ import io.github.mzmine.project.impl.MZmineProjectImpl;
 import io.github.mzmine.project.impl.RawDataFileImpl;
 import io.github.mzmine.taskcontrol.TaskStatus;
 import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
@@ -139,10 +142,67 @@ class DuplicateFilterTaskTest {
     assertEquals(900f, flist.getRow(0).getMaxHeight());
   }
 
+  @Test
+  void gridEngine_keepsAndMergesSameRowsAsNestedLoops() {
+    for (final FilterMode mode : FilterMode.values()) {
+      for (int seed = 0; seed < 5; seed++) {
+        final ModularFeatureList nested = createRandomList(seed);
+        final ModularFeatureList grid = createRandomList(seed);
+
+        runFilter(nested, mode, DuplicateFilterEngine.NESTED_LOOPS);
+        runFilter(grid, mode, DuplicateFilterEngine.GRID);
+
+        assertEquals(describeRows(nested), describeRows(grid), mode + " seed " + seed);
+      }
+    }
+  }
+
   // ---------------------------------------------------------------- helpers
 
+  /**
+   * Dense rows with many duplicates and chains of rows within tolerance
+   */
+  private static @NotNull ModularFeatureList createRandomList(final int seed) {
+    final Random rand = new Random(seed);
+    final RawDataFileImpl a = new RawDataFileImpl("sample_a", null, null);
+    final RawDataFileImpl b = new RawDataFileImpl("sample_b", null, null);
+    final ModularFeatureList flist = new ModularFeatureList("aligned", null, List.of(a, b));
+    final FeatureStatus[] statuses = {FeatureStatus.DETECTED, FeatureStatus.ESTIMATED};
+    for (int id = 1; id <= 300; id++) {
+      final double mz = 200 + rand.nextDouble() * 0.05;
+      final float rt = 5f + rand.nextFloat() * 0.2f;
+      addRow(flist, id, mz, rt,
+          new FeatureSpec(a, statuses[rand.nextInt(2)], 1f + rand.nextInt(1000)),
+          rand.nextBoolean() ? null
+              : new FeatureSpec(b, statuses[rand.nextInt(2)], 1f + rand.nextInt(1000)));
+    }
+    return flist;
+  }
+
+  /**
+   * @return the id and feature heights of all rows
+   */
+  private static @NotNull String describeRows(final @NotNull ModularFeatureList flist) {
+    final StringBuilder b = new StringBuilder();
+    flist.getRows().stream().sorted(Comparator.comparingInt(FeatureListRow::getID))
+        .forEach(row -> {
+          b.append(row.getID());
+          for (final RawDataFile raw : flist.getRawDataFiles()) {
+            final Feature f = row.getFeature(raw);
+            b.append(' ').append(f == null ? "-" : f.getHeight());
+          }
+          b.append('\n');
+        });
+    return b.toString();
+  }
+
   private static void runFilter(final @NotNull ModularFeatureList flist,
       final @NotNull FilterMode mode) {
+    runFilter(flist, mode, DuplicateFilterEngine.NESTED_LOOPS);
+  }
+
+  private static void runFilter(final @NotNull ModularFeatureList flist,
+      final @NotNull FilterMode mode, final @NotNull DuplicateFilterEngine engine) {
     final MZmineProjectImpl project = new MZmineProjectImpl();
     project.addFeatureList(flist);
 
@@ -155,6 +215,7 @@ class DuplicateFilterTaskTest {
     params.setParameter(DuplicateFilterParameters.rtDifferenceMax, RT_TOL);
     params.setParameter(DuplicateFilterParameters.mobilityDifferenceMax, false);
     params.setParameter(DuplicateFilterParameters.requireSameIdentification, false);
+    params.setParameter(DuplicateFilterParameters.engine, engine);
     params.setParameter(DuplicateFilterParameters.handleOriginal,
         OriginalFeatureListOption.PROCESS_IN_PLACE);
 
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.gapfill_peakfinder.multithreaded;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.Scan;
+import io.github.mzmine.modules.dataprocessing.gapfill_peakfinder.Gap;
+import io.github.mzmine.modules.dataprocessing.gapfill_peakfinder.GapDataPoint;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import testutils.MZmineTestUtil;
+
+/**
+ * The {@link GapSchedulingMode#SWEEP_LINE} needs to offer the same data points to each gap as
+ * {@link Gap#offerNextScan(Scan)} for all scans.
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+class GapSweepLineTest {
+
+  private static final List<String> files = List.of("rawdatafiles/DOM_a.mzML",
+      "rawdatafiles/DOM_b.mzXML");
+
+  @BeforeAll
+  void init() throws InterruptedException {
+    MZmineTestUtil.startMzmineCore();
+    MZmineTestUtil.importFiles(files, 60);
+  }
+
+  @AfterAll
+  void tearDown() {
+    MZmineTestUtil.cleanProject();
+  }
+
+  @Test
+  void sweepLineOffersSameDataPoints() {
+    MZmineTestUtil.streamDataFiles(files).forEach(raw -> {
+      final List<Scan> scans = raw.getScanNumbers(1);
+      assertFalse(scans.isEmpty());
+      assertTrue(GapSweepLine.isSortedByRt(scans));
+
+      final List<RecordingGap> allGaps = createGaps(raw, scans);
+      final List<RecordingGap> sweepGaps = createGaps(raw, scans);
+
+      for (final Scan scan : scans) {
+        for (final RecordingGap gap : allGaps) {
+          gap.offerNextScan(scan);
+        }
+      }
+
+      final GapSweepLine<RecordingGap> sweep = new GapSweepLine<>(sweepGaps);
+      for (final Scan scan : scans) {
+        sweep.offerBasePeaks(scan);
+      }
+
+      for (int i = 0; i < allGaps.size(); i++) {
+        assertEquals(allGaps.get(i).offers, sweepGaps.get(i).offers, "Gap " + i);
+      }
+    });
+  }
+
+  /**
+   * Gaps around random data points and random empty gaps. Overlapping m/z and RT ranges are
+   * intended.
+   */
+  private static @NotNull List<RecordingGap> createGaps(@NotNull RawDataFile raw,
+      @NotNull List<Scan> scans) {
+    final Random random = new Random(42);
+    final MZTolerance mzTol = new MZTolerance(0.005, 10);
+    final List<RecordingGap> gaps = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      final Scan scan = scans.get(random.nextInt(scans.size()));
+      final double mz;
+      if (i % 10 == 0 || scan.getNumberOfDataPoints() == 0) {
+        mz = 100 + random.nextDouble() * 900;
+      } else {
+        mz = scan.getMzValue(random.nextInt(scan.getNumberOfDataPoints()));
+      }
+      final float rtWidth = random.nextFloat() * 0.5f;
+      final Range<Float> rtRange = Range.closed(scan.getRetentionTime() - rtWidth,
+          scan.getRetentionTime() + rtWidth);
+      gaps.add(new RecordingGap(raw, mzTol.getToleranceRange(mz), rtRange));
+    }
+    return gaps;
+  }
+
+  private record Offer(Scan scan, double mz, double intensity) {
+
+  }
+
+  private static class RecordingGap extends Gap {
+
+    private final List<Offer> offers = new ArrayList<>();
+
+    RecordingGap(RawDataFile raw, Range<Double> mzRange, Range<Float> rtRange) {
+      super(null, raw, mzRange, rtRange, 0.2);
+    }
+
+    @Override
+    protected void offerDataPoint(GapDataPoint currentDataPoint) {
+      offers.add(new Offer(currentDataPoint.getScan(), currentDataPoint.getMZ(),
+          currentDataPoint.getIntensity()));
+      super.offerDataPoint(currentDataPoint);
+    }
+  }
+}
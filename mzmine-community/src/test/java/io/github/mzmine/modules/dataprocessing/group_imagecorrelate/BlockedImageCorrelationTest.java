@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.group_imagecorrelate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.mzmine.modules.dataprocessing.group_imagecorrelate.BlockedImageCorrelation.PackedImage;
+import io.github.mzmine.util.maths.similarity.SimilarityMeasure;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link BlockedImageCorrelation} must find the same pairs and similarities as the pairwise
+ * comparison, up to float rounding. Sizes span multiple row blocks and pixel chunks.
+ */
+class BlockedImageCorrelationTest {
+
+  private static final int ROWS = 70;
+  private static final int PIXELS = 3000;
+  // kept intensities are at least 1 after filtering
+  private static final double NOISE = 1;
+  private static final double UPPER = 30;
+
+  @Test
+  void pearson_matchesPairwise() {
+    assertSamePairs(SimilarityMeasure.PEARSON, 5, 0.5);
+  }
+
+  @Test
+  void pearson_emitsAllPairsWithoutThreshold() {
+    final double[][] data = createImages(new Random(1));
+    final Map<Long, Double> pairs = runBlocked(data, SimilarityMeasure.PEARSON, 0, 0, -1);
+    assertEquals(ROWS * (ROWS - 1) / 2, pairs.size());
+  }
+
+  @Test
+  void cosine_matchesPairwise() {
+    assertSamePairs(SimilarityMeasure.COSINE_SIM, 0, 0.7);
+  }
+
+  @Test
+  void pearson_subsamplingPrefilterKeepsPairsAboveMargin() {
+    assertPrefilteredPairs(SimilarityMeasure.PEARSON, 5, 0.5, 6);
+  }
+
+  @Test
+  void cosine_subsamplingPrefilterKeepsPairsAboveMargin() {
+    assertPrefilteredPairs(SimilarityMeasure.COSINE_SIM, 0, 0.7, 8);
+  }
+
+  /**
+   * Pairs are kept if they reach the minimum similarity minus the margin on every n-th pixel and
+   * the minimum similarity on all pixels. Their similarity is calculated on all pixels.
+   */
+  private void assertPrefilteredPairs(SimilarityMeasure measure, int minPixels,
+      double minSimilarity, int step) {
+    final Random random = new Random(42);
+    final double[][] data = createImages(random);
+    // copies of other rows with swapped signal and empty subsampled pixels, so the prefilter
+    // removes pairs that are similar on all pixels
+    for (int r = ROWS - 8; r < ROWS; r++) {
+      data[r] = data[r - 8].clone();
+      for (int p = 0; p < PIXELS; p += step) {
+        data[r][p] = isRemoved(data[r][p]) ? 2 + random.nextDouble() * 20 : 0;
+      }
+    }
+    final Map<Long, Double> pairs = runBlocked(data, measure, minPixels, step, minSimilarity);
+
+    int expected = 0;
+    int removedByPrefilter = 0;
+    for (int a = 0; a < ROWS; a++) {
+      for (int b = a + 1; b < ROWS; b++) {
+        final double similarity = pairwise(data[a], data[b], measure, minPixels, 1);
+        if (!(similarity >= minSimilarity)) {
+          continue;
+        }
+        final double subsampled = pairwise(data[a], data[b], measure, minPixels, step);
+        if (subsampled >= minSimilarity - BlockedImageCorrelation.PREFILTER_MARGIN) {
+          expected++;
+          final Double actual = pairs.get(key(a, b));
+          assertTrue(actual != null, "missing pair " + a + ", " + b);
+          assertEquals(similarity, actual, 1e-5);
+        } else {
+          removedByPrefilter++;
+        }
+      }
+    }
+    assertTrue(expected > 0, "test data must contain similar images");
+    assertTrue(removedByPrefilter > 0, "test data must contain pairs removed by the prefilter");
+    assertEquals(expected, pairs.size());
+  }
+
+  private void assertSamePairs(SimilarityMeasure measure, int minPixels, double minSimilarity) {
+    final double[][] data = createImages(new Random(42));
+    final Map<Long, Double> pairs = runBlocked(data, measure, minPixels, 0, minSimilarity);
+
+    int expected = 0;
+    for (int a = 0; a < ROWS; a++) {
+      for (int b = a + 1; b < ROWS; b++) {
+        final double similarity = pairwise(data[a], data[b], measure, minPixels, 1);
+        if (similarity >= minSimilarity) {
+          expected++;
+          final Double actual = pairs.get(key(a, b));
+          assertTrue(actual != null, "missing pair " + a + ", " + b);
+          assertEquals(similarity, actual, 1e-5);
+        }
+      }
+    }
+    assertTrue(expected > 0, "test data must contain similar images");
+    assertEquals(expected, pairs.size());
+  }
+
+  private static Map<Long, Double> runBlocked(double[][] data, SimilarityMeasure measure,
+      int minPixels, int prefilterStep, double minSimilarity) {
+    final PackedImage[][] images = new PackedImage[1][ROWS];
+    for (int r = 0; r < ROWS; r++) {
+      final double[] intensities = data[r];
+      images[0][r] = PackedImage.of(intensities, p -> isRemoved(intensities[p]));
+    }
+    final Map<Long, Double> pairs = new ConcurrentHashMap<>();
+    final AtomicLong checked = new AtomicLong();
+    new BlockedImageCorrelation(images, ROWS, measure, minPixels, prefilterStep,
+        minSimilarity).forEachPair(() -> false, checked::addAndGet,
+        (a, b, similarities) -> pairs.put(key(a, b), similarities.getDouble(0)));
+    assertEquals(ROWS * (ROWS - 1) / 2, checked.get());
+    return pairs;
+  }
+
+  /**
+   * Images of a few base patterns with noise. Most pixels are empty.
+   */
+  private static double[][] createImages(Random random) {
+    final double[][] patterns = new double[4][PIXELS];
+    for (double[] pattern : patterns) {
+      final int start = random.nextInt(PIXELS / 2);
+      final int end = start + random.nextInt(PIXELS / 2);
+      for (int p = start; p < end; p++) {
+        pattern[p] = 2 + random.nextDouble() * 20;
+      }
+    }
+    final double[][] data = new double[ROWS][PIXELS];
+    for (int r = 0; r < ROWS; r++) {
+      final double[] pattern = patterns[r % patterns.length];
+      for (int p = 0; p < PIXELS; p++) {
+        if (pattern[p] > 0) {
+          data[r][p] = pattern[p] * (0.5 + random.nextDouble());
+        } else if (random.nextDouble() < 0.02) {
+          // noise and removed signals in empty regions
+          data[r][p] = random.nextDouble() * 1.5;
+        }
+      }
+    }
+    return data;
+  }
+
+  private static boolean isRemoved(double value) {
+    return value < NOISE || value > UPPER;
+  }
+
+  /**
+   * Same as the pairwise comparison: pixels removed in both images are skipped
+   *
+   * @param step only compares every n-th pixel, like the subsampling prefilter
+   */
+  private static double pairwise(double[] x, double[] y, SimilarityMeasure measure,
+      int minPixels, int step) {
+    int n = 0;
+    double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0, sumY2 = 0;
+    for (int p = 0; p < x.length; p += step) {
+      if (!(isRemoved(x[p]) && isRemoved(y[p]))) {
+        n++;
+        sumX += x[p];
+        sumY += y[p];
+        sumXY += x[p] * y[p];
+        sumX2 += x[p] * x[p];
+        sumY2 += y[p] * y[p];
+      }
+    }
+    if (measure == SimilarityMeasure.COSINE_SIM) {
+      return sumXY / (Math.sqrt(sumX2) * Math.sqrt(sumY2));
+    }
+    if (n < minPixels) {
+      return 0;
+    }
+    final double denominator = Math.sqrt((n * sumX2 - sumX * sumX) * (n * sumY2 - sumY * sumY));
+    return denominator == 0 ? 0 : (n * sumXY - sumX * sumY) / denominator;
+  }
+
+  private static long key(int a, int b) {
+    return (long) a * ROWS + b;
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.group_spectral_networking.ms2deepscore;
+
+import static io.github.mzmine.modules.dataprocessing.group_spectral_networking.dreams.DreaMSNetworkingTask.toKNNMatrix;
+import static io.github.mzmine.modules.dataprocessing.group_spectral_networking.ms2deepscore.MS2DeepscoreNetworkingTask.convertMatrixToR2RMap;
+import static io.github.mzmine.modules.dataprocessing.group_spectral_networking.ms2deepscore.MS2DeepscoreNetworkingTask.streamSimilarPairsToR2RMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.datamodel.features.ModularFeatureList;
+import io.github.mzmine.datamodel.features.ModularFeatureListRow;
+import io.github.mzmine.datamodel.features.correlation.R2RMap;
+import io.github.mzmine.datamodel.features.correlation.R2RSimpleSimilarity;
+import io.github.mzmine.datamodel.features.correlation.RowsRelationship.Type;
+import io.github.mzmine.modules.dataprocessing.id_spectral_library_analog_search.LibraryEmbeddingStore;
+import io.github.mzmine.project.impl.RawDataFileImpl;
+import io.github.mzmine.util.scans.similarity.impl.ms2deepscore.EmbeddingBasedSimilarity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The streamed pairs must result in the same relationships as the former full similarity matrix.
+ */
+class MS2DeepscoreNetworkingTaskTest {
+
+  private List<FeatureListRow> rows;
+  private float[][] embeddings;
+  private float[][] matrix;
+
+  @BeforeEach
+  void setUp() {
+    final RawDataFileImpl file = new RawDataFileImpl("testfile", null, null, Color.BLACK);
+    final ModularFeatureList flist = new ModularFeatureList("testflist", null, file);
+    // more rows than one tile
+    final int numRows = 300;
+    final int dimension = 16;
+    final Random random = new Random(42);
+    rows = new ArrayList<>(numRows);
+    embeddings = new float[numRows][dimension];
+    for (int i = 0; i < numRows; i++) {
+      final ModularFeatureListRow row = new ModularFeatureListRow(flist, i + 1);
+      flist.addRow(row);
+      rows.add(row);
+      for (int d = 0; d < dimension; d++) {
+        embeddings[i][d] = (float) random.nextGaussian();
+      }
+      LibraryEmbeddingStore.normalize(embeddings[i], 0, dimension);
+    }
+
+    // the full matrix with the same float values as the streamed pairs
+    matrix = new float[numRows][numRows];
+    EmbeddingBasedSimilarity.streamSimilarPairs(embeddings, embeddings, Double.NEGATIVE_INFINITY,
+        0, () -> false, (row, col, similarity) -> matrix[row][col] = similarity);
+  }
+
+  /**
+   * @return the score by the undirected key of both rows
+   */
+  private static Map<Integer, Double> scores(final R2RMap<R2RSimpleSimilarity> map) {
+    final Map<Integer, Double> scores = new TreeMap<>();
+    map.forEach((key, r2r) -> scores.put(key, r2r.getScore()));
+    return scores;
+  }
+
+  @Test
+  void pairsAboveMinScoreEqualMatrix() {
+    final double minScore = 0.3;
+    final R2RMap<R2RSimpleSimilarity> expected = convertMatrixToR2RMap(rows, matrix, minScore,
+        Type.MS2Deepscore);
+    final R2RMap<R2RSimpleSimilarity> streamed = streamSimilarPairsToR2RMap(rows, embeddings,
+        minScore, 0, minScore, Type.MS2Deepscore, () -> false);
+
+    assertEquals(true, expected.size() > 0);
+    assertEquals(scores(expected), scores(streamed));
+  }
+
+  @Test
+  void topKEqualsKnnMatrix() {
+    // same parameters as the DreaMS networking
+    final int numNeighbors = 5;
+    final double minScore = 0.5;
+    final double minScoreNeighbors = 0.1;
+    final R2RMap<R2RSimpleSimilarity> expected = convertMatrixToR2RMap(rows,
+        toKNNMatrix(matrix, numNeighbors, minScore), minScoreNeighbors, Type.DREAMS);
+    final R2RMap<R2RSimpleSimilarity> streamed = streamSimilarPairsToR2RMap(rows, embeddings,
+        minScore, numNeighbors, minScoreNeighbors, Type.DREAMS, () -> false);
+
+    assertEquals(true, expected.size() > 0);
+    assertEquals(scores(expected), scores(streamed));
+  }
+
+  @Test
+  void canceledStreamAddsNoPairs() {
+    final R2RMap<R2RSimpleSimilarity> streamed = streamSimilarPairsToR2RMap(rows, embeddings, 0,
+        0, 0, Type.MS2Deepscore, () -> true);
+    assertEquals(0, streamed.size());
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.id_formulaprediction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.Range;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.openscience.cdk.config.Isotopes;
+import org.openscience.cdk.formula.MolecularFormulaGenerator;
+import org.openscience.cdk.formula.MolecularFormulaRange;
+import org.openscience.cdk.interfaces.IMolecularFormula;
+import org.openscience.cdk.silent.SilentChemObjectBuilder;
+import org.openscience.cdk.tools.manipulator.MolecularFormulaManipulator;
+
+class FormulaCandidateTableTest {
+
+  private static @NotNull MolecularFormulaRange createElements() throws Exception {
+    final Isotopes isotopes = Isotopes.getInstance();
+    final MolecularFormulaRange elements = new MolecularFormulaRange();
+    elements.addIsotope(isotopes.getMajorIsotope("C"), 0, 40);
+    elements.addIsotope(isotopes.getMajorIsotope("H"), 0, 80);
+    elements.addIsotope(isotopes.getMajorIsotope("N"), 0, 8);
+    elements.addIsotope(isotopes.getMajorIsotope("O"), 0, 12);
+    elements.addIsotope(isotopes.getMajorIsotope("S"), 0, 2);
+    return elements;
+  }
+
+  @Test
+  void candidatesEqualGeneratorPerWindow() throws Exception {
+    final MolecularFormulaRange elements = createElements();
+    final Random rand = new Random(42);
+    final List<Range<Double>> ranges = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      // overlapping windows like duplicate rows
+      final double mass = i > 0 && rand.nextBoolean() ? ranges.get(rand.nextInt(i)).lowerEndpoint()
+          + rand.nextDouble() * 0.004 : 150 + rand.nextDouble() * 200;
+      ranges.add(Range.closed(mass - 0.002, mass + 0.002));
+    }
+
+    final FormulaCandidateTable table = FormulaCandidateTable.build(elements, ranges, () -> false);
+
+    for (final Range<Double> range : ranges) {
+      final MolecularFormulaGenerator generator = new MolecularFormulaGenerator(
+          SilentChemObjectBuilder.getInstance(), range.lowerEndpoint(), range.upperEndpoint(),
+          elements);
+      final Set<String> expected = new HashSet<>();
+      IMolecularFormula formula;
+      while ((formula = generator.getNextFormula()) != null) {
+        expected.add(MolecularFormulaManipulator.getString(formula));
+      }
+
+      final List<IMolecularFormula> candidates = table.getCandidates(range);
+      final Set<String> actual = new HashSet<>();
+      double lastMass = 0;
+      for (final IMolecularFormula candidate : candidates) {
+        actual.add(MolecularFormulaManipulator.getString(candidate));
+        final double mass = MolecularFormulaManipulator.getMass(candidate,
+            MolecularFormulaManipulator.MonoIsotopic);
+        assertTrue(mass >= lastMass - 1e-9, "candidates are sorted by mass");
+        lastMass = mass;
+      }
+      assertEquals(expected, actual, range.toString());
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.id_localcsvsearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.datamodel.features.ModularFeatureList;
+import io.github.mzmine.datamodel.features.compoundannotations.CompoundDBAnnotation;
+import io.github.mzmine.datamodel.features.compoundannotations.SimpleCompoundDBAnnotation;
+import io.github.mzmine.datamodel.features.types.numbers.PrecursorMZType;
+import io.github.mzmine.datamodel.features.types.numbers.RTType;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.parameters.parametertypes.tolerances.RTTolerance;
+import io.github.mzmine.parameters.parametertypes.tolerances.RTTolerance.Unit;
+import io.github.mzmine.util.FeatureListUtils;
+import io.github.mzmine.util.FeatureListTestUtils;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The sweep of {@link SortedCompoundDatabase} must find the same candidates as the binary search of
+ * the per line search.
+ */
+class SortedCompoundDatabaseTest {
+
+  private static final MZTolerance MZ_TOL = new MZTolerance(0.005, 10);
+  private static final RTTolerance RT_TOL = new RTTolerance(0.1f, Unit.MINUTES);
+
+  @Test
+  void forEachCandidate_matchesBinarySearch() {
+    final Random random = new Random(42);
+    final List<? extends RawDataFile> files = FeatureListTestUtils.createRawFiles(1, "sample",
+        LocalDateTime.now(), Duration.ofHours(1));
+    final ModularFeatureList flist = new ModularFeatureList("flist", null,
+        files.toArray(new RawDataFile[0]));
+    for (int i = 0; i < 2000; i++) {
+      FeatureListTestUtils.addRow(flist, i + 1, files, List.of(1f),
+          100 + random.nextDouble() * 20, random.nextFloat() * 10);
+    }
+    final List<FeatureListRow> rows = new ArrayList<>(flist.getRows());
+    rows.sort(Comparator.comparingDouble(FeatureListRow::getAverageMZ));
+    final double[] rowMzs = rows.stream().mapToDouble(FeatureListRow::getAverageMZ).toArray();
+
+    final List<CompoundDBAnnotation> annotations = new ArrayList<>();
+    final int[] lines = new int[1000];
+    for (int i = 0; i < lines.length; i++) {
+      final CompoundDBAnnotation annotation = new SimpleCompoundDBAnnotation();
+      annotation.put(PrecursorMZType.class, 99 + random.nextDouble() * 22);
+      // some without RT to check the filter is skipped
+      if (i % 3 != 0) {
+        annotation.put(RTType.class, random.nextFloat() * 10);
+      }
+      annotations.add(annotation);
+      lines[i] = i + 1;
+    }
+
+    final SortedCompoundDatabase database = new SortedCompoundDatabase(annotations, lines,
+        MZ_TOL);
+    final List<List<FeatureListRow>> actual = new ArrayList<>();
+    for (int i = 0; i < annotations.size(); i++) {
+      actual.add(new ArrayList<>());
+    }
+    database.forEachCandidate(rowMzs, rows, RT_TOL, null,
+        (annotation, row) -> actual.get(annotation).add(rows.get(row)));
+
+    int matches = 0;
+    for (int i = 0; i < annotations.size(); i++) {
+      final CompoundDBAnnotation annotation = annotations.get(i);
+      final Range<Float> rtRange =
+          annotation.getRT() != null ? RT_TOL.getToleranceRange(annotation.getRT())
+              : Range.all();
+      final List<FeatureListRow> expected = FeatureListUtils.getCandidatesWithinRanges(
+          MZ_TOL.getToleranceRange(annotation.getPrecursorMZ()), rtRange, Range.all(), rows,
+          true);
+      assertEquals(expected, actual.get(i), "candidates of annotation " + i);
+      assertEquals(i + 1, database.getLine(i));
+      matches += expected.size();
+    }
+    assertFalse(matches == 0, "test data must produce matches");
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.id_spectral_library_analog_search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HnswIndexTest {
+
+  private static final int DIMENSION = 16;
+
+  @TempDir
+  File tempDir;
+
+  /**
+   * Unit length vectors in memory, compared by the dot product.
+   */
+  private record ArrayVectors(float[][] vectors) implements HnswIndex.Vectors {
+
+    @Override
+    public float similarity(final int vectorA, final int vectorB) {
+      return similarity(vectors[vectorA], vectorB);
+    }
+
+    @Override
+    public float similarity(final float[] query, final int vector) {
+      float sum = 0f;
+      for (int i = 0; i < query.length; i++) {
+        sum += query[i] * vectors[vector][i];
+      }
+      return sum;
+    }
+  }
+
+  private static float[] randomUnitVector(final Random random) {
+    final float[] vector = new float[DIMENSION];
+    for (int i = 0; i < DIMENSION; i++) {
+      vector[i] = (float) random.nextGaussian();
+    }
+    LibraryEmbeddingStore.normalize(vector, 0, DIMENSION);
+    return vector;
+  }
+
+  private static ArrayVectors randomVectors(final int size, final long seed) {
+    final Random random = new Random(seed);
+    final float[][] vectors = new float[size][];
+    for (int i = 0; i < size; i++) {
+      vectors[i] = randomUnitVector(random);
+    }
+    return new ArrayVectors(vectors);
+  }
+
+  private static int[] exactTopK(final ArrayVectors vectors, final float[] query, final int k) {
+    return IntStream.range(0, vectors.vectors().length).boxed()
+        .sorted(Comparator.comparingDouble(v -> -vectors.similarity(query, v))).limit(k)
+        .mapToInt(Integer::intValue).toArray();
+  }
+
+  @Test
+  void searchFindsExactNeighbours() {
+    final ArrayVectors vectors = randomVectors(2000, 1);
+    final int[] ids = IntStream.range(0, 2000).toArray();
+    final HnswIndex index = HnswIndex.build(vectors, ids, 16, 200, 42, () -> false);
+    assertNotNull(index);
+    assertEquals(2000, index.size());
+
+    final Random random = new Random(2);
+    final int k = 10;
+    int found = 0;
+    for (int q = 0; q < 50; q++) {
+      final float[] query = randomUnitVector(random);
+      final int[] result = index.search(vectors, query, k, 100);
+      assertEquals(k, result.length);
+      for (int i = 1; i < result.length; i++) {
+        assertTrue(vectors.similarity(query, result[i - 1]) >= vectors.similarity(query,
+            result[i]));
+      }
+      final int[] exact = exactTopK(vectors, query, k);
+      found += (int) Arrays.stream(result).filter(id -> Arrays.stream(exact).anyMatch(e -> e == id))
+          .count();
+    }
+    final double recall = found / (50d * k);
+    assertTrue(recall > 0.95, "recall " + recall);
+  }
+
+  @Test
+  void indexesOnlyGivenIds() {
+    final ArrayVectors vectors = randomVectors(200, 3);
+    // e.g. entries without embedding are not indexed
+    final int[] ids = IntStream.range(0, 200).filter(i -> i % 3 != 0).toArray();
+    final HnswIndex index = HnswIndex.build(vectors, ids, 8, 50, 42, () -> false);
+    assertNotNull(index);
+
+    // a query equal to an excluded vector returns other ids
+    final int[] result = index.search(vectors, vectors.vectors()[0], 20, 50);
+    assertEquals(20, result.length);
+    assertTrue(Arrays.stream(result).allMatch(id -> id % 3 != 0));
+    // a query equal to an indexed vector finds it first
+    assertEquals(1, index.search(vectors, vectors.vectors()[1], 1, 50)[0]);
+  }
+
+  @Test
+  void buildIsDeterministicAndCancelable() {
+    final ArrayVectors vectors = randomVectors(300, 4);
+    final int[] ids = IntStream.range(0, 300).toArray();
+    final HnswIndex a = HnswIndex.build(vectors, ids, 8, 50, 7, () -> false);
+    final HnswIndex b = HnswIndex.build(vectors, ids, 8, 50, 7, () -> false);
+    assertNotNull(a);
+    assertNotNull(b);
+    final float[] query = randomUnitVector(new Random(5));
+    assertArrayEquals(a.search(vectors, query, 30, 30), b.search(vectors, query, 30, 30));
+
+    assertNull(HnswIndex.build(vectors, ids, 8, 50, 7, () -> true));
+  }
+
+  @Test
+  void saveAndLoad() throws IOException {
+    final ArrayVectors vectors = randomVectors(500, 6);
+    final int[] ids = IntStream.range(0, 500).toArray();
+    final HnswIndex index = HnswIndex.build(vectors, ids, 8, 50, 42, () -> false);
+    assertNotNull(index);
+    final File file = new File(tempDir, "index.hnsw");
+    index.save(file);
+
+    final HnswIndex loaded = HnswIndex.load(file, ids);
+    assertNotNull(loaded);
+    final Random random = new Random(7);
+    for (int q = 0; q < 10; q++) {
+      final float[] query = randomUnitVector(random);
+      assertArrayEquals(index.search(vectors, query, 10, 50),
+          loaded.search(vectors, query, 10, 50));
+    }
+
+    // other vectors require a new index
+    assertNull(HnswIndex.load(file, Arrays.copyOf(ids, 499)));
+  }
+}
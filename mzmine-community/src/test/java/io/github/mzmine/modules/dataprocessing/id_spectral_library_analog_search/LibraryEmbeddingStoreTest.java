@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.dataprocessing.id_spectral_library_analog_search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.mzmine.util.io.BinaryFileWriter;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LibraryEmbeddingStoreTest {
+
+  private static final int DIMENSION = 8;
+  private static final long FINGERPRINT = 123456789L;
+
+  @TempDir
+  File tempDir;
+
+  /**
+   * @return random embeddings, every third is missing
+   */
+  private static float[][] randomEmbeddings(final int size) {
+    final Random random = new Random(42);
+    final float[][] embeddings = new float[size][];
+    for (int i = 0; i < size; i++) {
+      if (i % 3 == 1) {
+        continue;
+      }
+      embeddings[i] = new float[DIMENSION];
+      for (int d = 0; d < DIMENSION; d++) {
+        embeddings[i][d] = (float) random.nextGaussian() * 10;
+      }
+    }
+    return embeddings;
+  }
+
+  @Test
+  void normalizesAndMarksMissingEmbeddings() {
+    final float[][] embeddings = randomEmbeddings(10);
+    final LibraryEmbeddingStore store = LibraryEmbeddingStore.of(embeddings, DIMENSION,
+        FINGERPRINT);
+
+    assertEquals(10, store.size());
+    assertEquals(DIMENSION, store.getDimension());
+    assertArrayEquals(new int[]{0, 2, 3, 5, 6, 8, 9}, store.getAvailableEntries());
+    for (int i = 0; i < embeddings.length; i++) {
+      assertEquals(embeddings[i] != null, store.isAvailable(i));
+      // unit length or zeros
+      assertEquals(embeddings[i] != null ? 1f : 0f, store.similarity(i, i), 1E-5f);
+    }
+  }
+
+  @Test
+  void savedStoreIsLoaded() {
+    final float[][] embeddings = randomEmbeddings(25);
+    final LibraryEmbeddingStore store = LibraryEmbeddingStore.of(embeddings, DIMENSION,
+        FINGERPRINT);
+    final File file = new File(tempDir, "store.mzemb");
+    store.save(file);
+
+    final LibraryEmbeddingStore loaded = LibraryEmbeddingStore.load(file, FINGERPRINT,
+        embeddings.length);
+    assertNotNull(loaded);
+    assertEquals(store.size(), loaded.size());
+    assertEquals(DIMENSION, loaded.getDimension());
+    assertArrayEquals(store.getAvailableEntries(), loaded.getAvailableEntries());
+    for (int a = 0; a < embeddings.length; a++) {
+      for (int b = 0; b < embeddings.length; b++) {
+        assertEquals(store.similarity(a, b), loaded.similarity(a, b));
+      }
+    }
+
+    final float[] query = embeddings[0].clone();
+    LibraryEmbeddingStore.normalize(query, 0, query.length);
+    assertEquals(1f, loaded.similarity(query, 0), 1E-5f);
+    assertEquals(0f, loaded.similarity(query, 1));
+  }
+
+  @Test
+  void otherEntriesAreNotLoaded() {
+    final float[][] embeddings = randomEmbeddings(5);
+    final File file = new File(tempDir, "store.mzemb");
+    LibraryEmbeddingStore.of(embeddings, DIMENSION, FINGERPRINT).save(file);
+
+    // fingerprint mismatch
+    assertNull(LibraryEmbeddingStore.load(file, FINGERPRINT + 1, embeddings.length));
+    // count mismatch
+    assertNull(LibraryEmbeddingStore.load(file, FINGERPRINT, embeddings.length + 1));
+    // missing file
+    assertNull(LibraryEmbeddingStore.load(new File(tempDir, "missing.mzemb"), FINGERPRINT,
+        embeddings.length));
+    assertNotNull(LibraryEmbeddingStore.load(file, FINGERPRINT, embeddings.length));
+  }
+
+  @Test
+  void invalidFilesAreNotLoaded() throws IOException {
+    final File wrongMagic = new File(tempDir, "magic.mzemb");
+    try (BinaryFileWriter out = new BinaryFileWriter(wrongMagic)) {
+      out.writeInt(0);
+      out.writeInt(LibraryEmbeddingStore.VERSION);
+    }
+    assertNull(LibraryEmbeddingStore.load(wrongMagic, FINGERPRINT, 5));
+
+    // header and availability, but the embeddings are cut off
+    final File truncated = new File(tempDir, "truncated.mzemb");
+    try (BinaryFileWriter out = new BinaryFileWriter(truncated)) {
+      out.writeInt(LibraryEmbeddingStore.MAGIC);
+      out.writeInt(LibraryEmbeddingStore.VERSION);
+      out.writeInt(5);
+      out.writeInt(DIMENSION);
+      out.writeLong(FINGERPRINT);
+      for (int i = 0; i < 5; i++) {
+        out.writeByte((byte) 1);
+      }
+      out.writeFloat(1f);
+    }
+    assertNull(LibraryEmbeddingStore.load(truncated, FINGERPRINT, 5));
+  }
+
+  @Test
+  void differentDimensionsAreRejected() {
+    final float[][] embeddings = {new float[DIMENSION], new float[DIMENSION + 1]};
+    assertThrows(IllegalArgumentException.class,
+        () -> LibraryEmbeddingStore.of(embeddings, DIMENSION, FINGERPRINT));
+  }
+}
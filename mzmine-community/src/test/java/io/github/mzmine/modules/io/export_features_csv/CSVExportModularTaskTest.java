@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.mzmine.modules.io.export_features_csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.mzmine.datamodel.FeatureStatus;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.features.ModularFeature;
+import io.github.mzmine.datamodel.features.ModularFeatureList;
+import io.github.mzmine.datamodel.features.ModularFeatureListRow;
+import io.github.mzmine.datamodel.features.compoundlist.CompoundRowSelection;
+import io.github.mzmine.modules.io.export_features_gnps.fbmn.FeatureListRowsFilter;
+import io.github.mzmine.project.impl.RawDataFileImpl;
+import io.github.mzmine.taskcontrol.TaskStatus;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import testutils.MZmineTestUtil;
+
+class CSVExportModularTaskTest {
+
+  @TempDir
+  Path tempDir;
+
+  @BeforeAll
+  static void initMzmine() {
+    // uses the export formats of the preferences
+    MZmineTestUtil.startMzmineCore();
+  }
+
+  @Test
+  void parallelChunksEngineWritesSameFileAsSequential() throws IOException {
+    final ModularFeatureList flist = createRandomList(42);
+
+    for (final boolean removeEmptyCols : new boolean[]{true, false}) {
+      final String sequential = export(flist, CSVExportEngine.SEQUENTIAL, removeEmptyCols);
+      final String parallel = export(flist, CSVExportEngine.PARALLEL_CHUNKS, removeEmptyCols);
+      // header and one line per row
+      assertEquals(flist.getNumberOfRows() + 1, sequential.lines().count());
+      assertEquals(sequential, parallel);
+    }
+  }
+
+  @Test
+  void parallelChunksEngineWritesHeaderForEmptyList() throws IOException {
+    final RawDataFileImpl a = new RawDataFileImpl("sample_a", null, null);
+    final ModularFeatureList flist = new ModularFeatureList("empty", null, List.of(a));
+
+    final String sequential = export(flist, CSVExportEngine.SEQUENTIAL, false);
+    final String parallel = export(flist, CSVExportEngine.PARALLEL_CHUNKS, false);
+    assertTrue(sequential.endsWith(System.lineSeparator()));
+    assertEquals(sequential, parallel);
+  }
+
+  /**
+   * Values of a fixed feature list in the format of the baseline export, which formatted all values
+   * with the shared {@link java.text.DecimalFormat}s of the export preferences.
+   */
+  @Test
+  void fixedListMatchesBaselineFormat() throws IOException {
+    final RawDataFileImpl a = new RawDataFileImpl("sample_a", null, null);
+    final ModularFeatureList flist = new ModularFeatureList("fixed", null, List.of(a));
+    final double[] mzs = {200.123456789, 455.000004, 1000.99999};
+    final float[] rts = {1.5f, 12.375f, 29.03125f};
+    final float[] heights = {12345.5f, 987654.3f, 1.0E7f};
+    final float[] areas = {123455f, 9876543f, 1.0E8f};
+    for (int i = 0; i < mzs.length; i++) {
+      final ModularFeatureListRow row = new ModularFeatureListRow(flist, i + 1);
+      final ModularFeature f = new ModularFeature(flist, a, FeatureStatus.DETECTED);
+      f.setMZ(mzs[i]);
+      f.setRT(rts[i]);
+      f.setHeight(heights[i]);
+      f.setArea(areas[i]);
+      row.addFeature(a, f, false);
+      row.applyRowBindings();
+      flist.addRow(row);
+    }
+
+    final List<List<String>> expected = List.of( //
+        List.of("1", "200.12346", "1.5", "1.235E4", "1.235E5"),
+        List.of("2", "455", "12.375", "9.877E5", "9.877E6"),
+        List.of("3", "1000.99999", "29.0312", "1E7", "1E8"));
+    for (final CSVExportEngine engine : CSVExportEngine.values()) {
+      final List<String[]> lines = export(flist, engine, true).lines().map(l -> l.split(","))
+          .toList();
+      assertEquals(expected.size() + 1, lines.size());
+      final List<String> header = List.of(lines.getFirst());
+      for (int i = 0; i < expected.size(); i++) {
+        final String[] line = lines.get(i + 1);
+        assertEquals(expected.get(i), List.of(line[header.indexOf("id")],
+            line[header.indexOf("mz")], line[header.indexOf("rt")],
+            line[header.indexOf("height")], line[header.indexOf("area")]), engine.toString());
+        assertEquals(expected.get(i).subList(1, 5),
+            List.of(line[header.indexOf("datafile:sample_a:mz")],
+                line[header.indexOf("datafile:sample_a:rt")],
+                line[header.indexOf("datafile:sample_a:height")],
+                line[header.indexOf("datafile:sample_a:area")]), engine.toString());
+      }
+    }
+  }
+
+  private @NotNull String export(final @NotNull ModularFeatureList flist,
+      final @NotNull CSVExportEngine engine, final boolean removeEmptyCols) throws IOException {
+    final File file = tempDir.resolve("%s_%b.csv".formatted(engine.getUniqueID(), removeEmptyCols))
+        .toFile();
+    final CSVExportModularTask task = new CSVExportModularTask(new ModularFeatureList[]{flist},
+        file, ",", ";", FeatureListRowsFilter.ALL, removeEmptyCols, Instant.now(),
+        CompoundRowSelection.ALL_FEATURE_ROWS, engine);
+    task.run();
+    assertEquals(TaskStatus.FINISHED, task.getStatus());
+    return Files.readString(file.toPath(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * More rows than one chunk of the parallel engine and features missing in the second sample
+   */
+  private static @NotNull ModularFeatureList createRandomList(final int seed) {
+    final Random rand = new Random(seed);
+    final RawDataFileImpl a = new RawDataFileImpl("sample_a", null, null);
+    final RawDataFileImpl b = new RawDataFileImpl("sample_b", null, null);
+    final ModularFeatureList flist = new ModularFeatureList("export", null, List.of(a, b));
+    for (int id = 1; id <= 2500; id++) {
+      final ModularFeatureListRow row = new ModularFeatureListRow(flist, id);
+      final double mz = 100 + rand.nextDouble() * 900;
+      final float rt = rand.nextFloat() * 30f;
+      for (final RawDataFile raw : List.of(a, b)) {
+        if (raw == b && rand.nextInt(4) == 0) {
+          continue;
+        }
+        final ModularFeature f = new ModularFeature(flist, raw, FeatureStatus.DETECTED);
+        f.setMZ(mz + rand.nextGaussian() * 0.001);
+        f.setRT(rt + (float) rand.nextGaussian() * 0.01f);
+        f.setHeight(1e3f + rand.nextFloat() * 1e7f);
+        f.setArea(f.getHeight() * 10f);
+        row.addFeature(raw, f, false);
+      }
+      row.applyRowBindings();
+      flist.addRow(row);
+    }
+    return flist;
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.mzmine.modules.io.export_features_sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.mzmine.datamodel.FeatureStatus;
+import io.github.mzmine.datamodel.RawDataFile;
+import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.datamodel.features.ModularFeature;
+import io.github.mzmine.datamodel.features.ModularFeatureList;
+import io.github.mzmine.datamodel.features.ModularFeatureListRow;
+import io.github.mzmine.project.impl.RawDataFileImpl;
+import io.github.mzmine.taskcontrol.TaskStatus;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Uses an embedded SQLite database as stand-in for the reporting database
+ */
+class SQLExportTaskTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void bulkModeInsertsSameRowsAsRowByRow() throws SQLException {
+    final ModularFeatureList flist = createRandomList(7);
+    final String url = "jdbc:sqlite:" + tempDir.resolve("export.db");
+    try (Connection connection = DriverManager.getConnection(url);
+        Statement statement = connection.createStatement()) {
+      for (final String table : List.of("single_rows", "bulk_rows")) {
+        statement.execute("CREATE TABLE " + table
+            + " (row_id INTEGER, mz DOUBLE, feature_mz DOUBLE, raw TEXT, label TEXT)");
+      }
+    }
+
+    runExport(flist, url, "single_rows", SQLExportMode.ROW_BY_ROW, 1000);
+    // batch size that does not divide the number of inserts
+    runExport(flist, url, "bulk_rows", SQLExportMode.BULK, 7);
+
+    final String single = readTable(url, "single_rows");
+    assertEquals(2 * flist.getNumberOfRows(), single.lines().count());
+    assertEquals(single, readTable(url, "bulk_rows"));
+  }
+
+  @Test
+  void canceledBulkModeRollsBack() throws SQLException {
+    final String url = "jdbc:sqlite:" + tempDir.resolve("cancel.db");
+    try (Connection connection = DriverManager.getConnection(url);
+        Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE canceled_rows"
+          + " (row_id INTEGER, mz DOUBLE, feature_mz DOUBLE, raw TEXT, label TEXT)");
+    }
+
+    final AtomicReference<SQLExportTask> task = new AtomicReference<>();
+    final Random rand = new Random(11);
+    final RawDataFileImpl a = new RawDataFileImpl("sample_a", null, null);
+    final ModularFeatureList flist = new ModularFeatureList("cancel", null, List.of(a));
+    for (int id = 1; id <= 150; id++) {
+      // cancels after several batches were inserted in the transaction
+      final ModularFeatureListRow row = id != 100 ? new ModularFeatureListRow(flist, id)
+          : new ModularFeatureListRow(flist, id) {
+            @Override
+            public List<RawDataFile> getRawDataFiles() {
+              // also called while the list is created
+              final SQLExportTask running = task.get();
+              if (running != null) {
+                running.cancel();
+              }
+              return super.getRawDataFiles();
+            }
+          };
+      final ModularFeature f = new ModularFeature(flist, a, FeatureStatus.DETECTED);
+      f.setMZ(100 + rand.nextDouble() * 900);
+      f.setRT(rand.nextFloat() * 30f);
+      f.setHeight(1e3f + rand.nextFloat() * 1e7f);
+      row.addFeature(a, f, false);
+      row.applyRowBindings();
+      flist.addRow(row);
+    }
+
+    task.set(new SQLExportTask(flist, url, "canceled_rows", createColumns(), false,
+        SQLExportMode.BULK, 7, Instant.now()));
+    task.get().run();
+
+    assertEquals(TaskStatus.CANCELED, task.get().getStatus());
+    assertEquals("", readTable(url, "canceled_rows"));
+  }
+
+  @Test
+  void copyLinesQuoteStringsAndWriteNullAsEmptyField() {
+    final RawDataFileImpl a = new RawDataFileImpl("sample_a", null, null);
+    final RawDataFileImpl b = new RawDataFileImpl("sample_b", null, null);
+    final ModularFeatureList flist = new ModularFeatureList("copy", null, List.of(a, b));
+    final ModularFeatureListRow row = new ModularFeatureListRow(flist, 1);
+    for (final RawDataFile raw : List.of(a, b)) {
+      final ModularFeature f = new ModularFeature(flist, raw, FeatureStatus.DETECTED);
+      f.setMZ(200.5);
+      f.setRT(5f);
+      f.setHeight(1e4f);
+      row.addFeature(raw, f, false);
+    }
+    row.applyRowBindings();
+    flist.addRow(row);
+
+    final SQLColumnSettings columns = createColumns();
+    columns.addNewRow();
+    columns.setValueAt("comment", 5, 0);
+    columns.setValueAt(SQLExportDataType.COMMENT, 5, 1);
+
+    final SQLExportTask task = new SQLExportTask(flist, "", "copy_rows", columns, false,
+        SQLExportMode.BULK, 1000, Instant.now());
+    final String lines = new String(task.formatCopyRows(new FeatureListRow[]{row}, 0, 1),
+        StandardCharsets.UTF_8);
+
+    // the constant is: say "hi"
+    assertEquals("1,200.5,200.5,\"sample_a\",\"say \"\"hi\"\"\",\n"
+        + "1,200.5,200.5,\"sample_b\",\"say \"\"hi\"\"\",\n", lines);
+  }
+
+  private static void runExport(final @NotNull ModularFeatureList flist, final @NotNull String url,
+      final @NotNull String table, final @NotNull SQLExportMode mode, final int batchSize) {
+    final SQLExportTask task = new SQLExportTask(flist, url, table, createColumns(), false, mode,
+        batchSize, Instant.now());
+    task.run();
+    assertEquals(TaskStatus.FINISHED, task.getStatus(), task.getErrorMessage());
+  }
+
+  private static @NotNull String readTable(final @NotNull String url, final @NotNull String table)
+      throws SQLException {
+    final StringBuilder b = new StringBuilder();
+    try (Connection connection = DriverManager.getConnection(url);
+        Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery(
+            "SELECT row_id, mz, feature_mz, raw, label FROM " + table + " ORDER BY row_id, raw")) {
+      while (rs.next()) {
+        b.append(rs.getInt(1)).append(' ').append(rs.getDouble(2)).append(' ')
+            .append(rs.getDouble(3)).append(' ').append(rs.getString(4)).append(' ')
+            .append(rs.getString(5)).append('\n');
+      }
+    }
+    return b.toString();
+  }
+
+  private static @NotNull SQLColumnSettings createColumns() {
+    final SQLColumnSettings columns = new SQLColumnSettings();
+    final Object[][] definitions = {{"row_id", SQLExportDataType.ID},
+        {"mz", SQLExportDataType.MZ}, {"feature_mz", SQLExportDataType.FEATUREMZ},
+        {"raw", SQLExportDataType.RAWFILE}, {"label", SQLExportDataType.CONSTANT}};
+    for (int i = 0; i < definitions.length; i++) {
+      columns.addNewRow();
+      columns.setValueAt(definitions[i][0], i, 0);
+      columns.setValueAt(definitions[i][1], i, 1);
+    }
+    columns.setValueAt("say \"hi\"", 4, 2);
+    return columns;
+  }
+
+  private static @NotNull ModularFeatureList createRandomList(final int seed) {
+    final Random rand = new Random(seed);
+    final RawDataFileImpl a = new RawDataFileImpl("sample_a", null, null);
+    final RawDataFileImpl b = new RawDataFileImpl("sample_b", null, null);
+    final ModularFeatureList flist = new ModularFeatureList("export", null, List.of(a, b));
+    for (int id = 1; id <= 150; id++) {
+      addRow(flist, id, 100 + rand.nextDouble() * 900, rand);
+    }
+    return flist;
+  }
+
+  private static @NotNull ModularFeatureListRow addRow(final @NotNull ModularFeatureList flist,
+      final int id, final double mz, final @NotNull Random rand) {
+    final ModularFeatureListRow row = new ModularFeatureListRow(flist, id);
+    for (final RawDataFile raw : flist.getRawDataFiles()) {
+      final ModularFeature f = new ModularFeature(flist, raw, FeatureStatus.DETECTED);
+      f.setMZ(mz + rand.nextGaussian() * 0.001);
+      f.setRT(rand.nextFloat() * 30f);
+      f.setHeight(1e3f + rand.nextFloat() * 1e7f);
+      row.addFeature(raw, f, false);
+    }
+    row.applyRowBindings();
+    flist.addRow(row);
+    return row;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.io.import_spectral_library;
+
+import io.github.mzmine.util.spectraldb.entry.DBEntryField;
+import io.github.mzmine.util.spectraldb.entry.SpectralDBEntry;
+import io.github.mzmine.util.spectraldb.entry.SpectralLibrary;
+import io.github.mzmine.util.spectraldb.entry.SpectralLibraryEntry;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Round trip of a library through the {@link SpectralLibraryCache}.
+ */
+class SpectralLibraryCacheTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testRoundTrip() throws Exception {
+    final File source = tempDir.resolve("library.msp").toFile();
+    final SpectralLibrary library = new SpectralLibrary(null, source);
+    library.addEntry(new SpectralDBEntry(null, new double[]{50.1, 120.3, 250.7},
+        new double[]{100, 1000, 10},
+        Map.of(DBEntryField.NAME, "first", DBEntryField.PRECURSOR_MZ, 251.1,
+            DBEntryField.CHARGE, 1, DBEntryField.RT, 2.5f)));
+    // without precursor m/z
+    library.addEntry(new SpectralDBEntry(null, new double[]{80.2}, new double[]{5},
+        Map.of(DBEntryField.NAME, "second")));
+
+    final File cache = tempDir.resolve("library.mzlibcache").toFile();
+    SpectralLibraryCache.write(library, cache);
+    final SpectralLibrary loaded = SpectralLibraryCache.read(cache, source);
+
+    Assertions.assertEquals(library.getName(), loaded.getName());
+    Assertions.assertEquals(2, loaded.size());
+
+    final SpectralLibraryEntry first = loaded.getEntries().getFirst();
+    // precursor is available from the index before the fields are decoded
+    Assertions.assertEquals(251.1, first.getPrecursorMZ());
+    Assertions.assertSame(loaded, first.getLibrary());
+    Assertions.assertArrayEquals(new double[]{50.1, 120.3, 250.7},
+        first.getMzValues(new double[3]));
+    Assertions.assertArrayEquals(new double[]{100, 1000, 10},
+        first.getIntensityValues(new double[3]));
+    Assertions.assertEquals(1000d, first.getBasePeakIntensity());
+    Assertions.assertEquals("first", first.getOrElse(DBEntryField.NAME, null));
+    Assertions.assertEquals(1, (Integer) first.getOrElse(DBEntryField.CHARGE, null));
+    Assertions.assertEquals(2.5f, (Float) first.getOrElse(DBEntryField.RT, null));
+    Assertions.assertEquals(library.getEntries().getFirst(), first);
+
+    final SpectralLibraryEntry second = loaded.getEntries().get(1);
+    Assertions.assertNull(second.getPrecursorMZ());
+    Assertions.assertEquals(1, second.getNumberOfDataPoints());
+    Assertions.assertEquals("second", second.getOrElse(DBEntryField.NAME, null));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.tools.isotopeprediction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.github.mzmine.datamodel.IsotopePattern;
+import io.github.mzmine.datamodel.IsotopePattern.IsotopePatternStatus;
+import io.github.mzmine.datamodel.PolarityType;
+import io.github.mzmine.datamodel.impl.SimpleIsotopePattern;
+import io.github.mzmine.modules.tools.isotopepatternscore.IsotopePatternScoreCalculator;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.util.FormulaUtils;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.openscience.cdk.interfaces.IMolecularFormula;
+
+class IsotopePatternCacheTest {
+
+  private static final double NOISE_LEVEL = 1E3;
+  private static final MZTolerance MZ_TOLERANCE = new MZTolerance(0.002, 5);
+
+  /**
+   * Detected pattern like in formula prediction, slightly shifted and scaled to the height
+   */
+  private static @NotNull IsotopePattern detectedPattern(@NotNull String formula, double height) {
+    final IsotopePattern predicted = IsotopePatternCalculator.calculateIsotopePattern(
+        FormulaUtils.parse(formula), NOISE_LEVEL / height, 1, PolarityType.POSITIVE);
+    final int numPoints = predicted.getNumberOfDataPoints();
+    final double[] mzs = new double[numPoints];
+    final double[] intensities = new double[numPoints];
+    for (int i = 0; i < numPoints; i++) {
+      mzs[i] = predicted.getMzValue(i) + 0.0005;
+      intensities[i] = predicted.getIntensityValue(i) * height * (i % 2 == 0 ? 1 : 0.8);
+    }
+    return new SimpleIsotopePattern(mzs, intensities, 1, IsotopePatternStatus.DETECTED, "");
+  }
+
+  @Test
+  void trimmedPatternEqualsCalculatedPattern() {
+    IsotopePatternCache.clear();
+    final List<String> formulas = List.of("C6H13O6", "C20H26N3O", "C33H41ClN3O9S", "C12H9Br2Cl2",
+        "C45H81NO8P");
+    // last height is below the cached minimum abundance and calculated directly
+    final double[] heights = {5E3, 1E5, 3.3E5, 2E6, 7.7E7};
+    for (final String formulaString : formulas) {
+      for (final double height : heights) {
+        final IMolecularFormula formula = FormulaUtils.parse(formulaString);
+        final double minAbundance = NOISE_LEVEL / height;
+        final IsotopePattern expected = IsotopePatternCalculator.calculateIsotopePattern(formula,
+            minAbundance, 1, PolarityType.POSITIVE);
+        final IsotopePattern actual = IsotopePatternCache.calculateIsotopePattern(formula,
+            minAbundance, 1, PolarityType.POSITIVE);
+
+        assertEquals(expected.getNumberOfDataPoints(), actual.getNumberOfDataPoints());
+        for (int i = 0; i < expected.getNumberOfDataPoints(); i++) {
+          assertEquals(expected.getMzValue(i), actual.getMzValue(i), 1E-9);
+          assertEquals(expected.getIntensityValue(i), actual.getIntensityValue(i), 1E-9);
+        }
+
+        final IsotopePattern detected = detectedPattern(formulaString, height);
+        assertEquals(IsotopePatternScoreCalculator.getSimilarityScore(detected, expected,
+                MZ_TOLERANCE, NOISE_LEVEL),
+            IsotopePatternScoreCalculator.getSimilarityScore(detected, actual, MZ_TOLERANCE,
+                NOISE_LEVEL), 1E-6f);
+      }
+    }
+  }
+
+  @Test
+  void rowsWithDifferentHeightsShareCacheEntry() {
+    IsotopePatternCache.clear();
+    final IMolecularFormula formula = FormulaUtils.parse("C20H26N3O");
+    assertNull(IsotopePatternCache.getCachedPattern(formula, 1, PolarityType.POSITIVE));
+
+    final IsotopePattern low = IsotopePatternCache.calculateIsotopePattern(formula,
+        NOISE_LEVEL / 1E5, 1, PolarityType.POSITIVE);
+    final IsotopePattern cached = IsotopePatternCache.getCachedPattern(formula, 1,
+        PolarityType.POSITIVE);
+    assertNotNull(cached);
+
+    // another row with a different height and another formula instance uses the same entry
+    final IsotopePattern high = IsotopePatternCache.calculateIsotopePattern(
+        FormulaUtils.parse("C20H26N3O"), NOISE_LEVEL / 4.2E6, 1, PolarityType.POSITIVE);
+    assertSame(cached, IsotopePatternCache.getCachedPattern(formula, 1, PolarityType.POSITIVE));
+    assertNotEquals(low.getNumberOfDataPoints(), high.getNumberOfDataPoints());
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.modules.visualization.featurelisttable_modular;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.Range;
+import io.github.mzmine.datamodel.features.FeatureListRow;
+import io.github.mzmine.datamodel.features.types.DataTypes;
+import io.github.mzmine.datamodel.features.types.numbers.MZType;
+import io.github.mzmine.datamodel.features.types.numbers.RTType;
+import io.github.mzmine.modules.visualization.featurelisttable_modular.FeatureTableRowIndex.Result;
+import io.github.mzmine.modules.visualization.featurelisttable_modular.FeatureTableRowIndex.SortKey;
+import io.github.mzmine.util.collections.IndexRange;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class FeatureTableRowIndexTest {
+
+  private static FeatureListRow row(final int id, final Double mz, final Float rt,
+      final Float height) {
+    final FeatureListRow row = mock(FeatureListRow.class);
+    doReturn(id).when(row).getID();
+    doReturn(mz).when(row).getAverageMZ();
+    doReturn(rt).when(row).getAverageRT();
+    doReturn(null).when(row).getAverageMobility();
+    doReturn(height).when(row).getMaxHeight();
+    return row;
+  }
+
+  private static List<FeatureListRow> randomRows(final Random random, final int size,
+      final int firstId) {
+    final List<FeatureListRow> rows = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      // some rows without RT, which are never filtered by RT
+      final Float rt = random.nextInt(20) == 0 ? null : random.nextFloat() * 20f;
+      rows.add(row(firstId + i, 100 + random.nextDouble() * 900, rt, random.nextFloat() * 1E6f));
+    }
+    return rows;
+  }
+
+  private static List<TableFeatureListRowFilter> filters() {
+    return List.of( //
+        new TableFeatureListRowFilter(null, null, Range.closed(300d, 350d), null, null),
+        new TableFeatureListRowFilter(null, null, null, Range.closed(5d, 6d), null),
+        new TableFeatureListRowFilter(null, null, Range.atLeast(800d), Range.atMost(10d), null),
+        new TableFeatureListRowFilter(IndexRange.parseRanges("5,40-120,900-2000"), null, null,
+            null, null),
+        new TableFeatureListRowFilter(IndexRange.parseRanges("1-700"), null,
+            Range.open(200d, 600d), Range.closedOpen(2d, 15d), null));
+  }
+
+  @Test
+  void flatFilterEqualsPredicate() {
+    final List<FeatureListRow> rows = randomRows(new Random(1), 1000, 1);
+    final FeatureTableRowIndex index = FeatureTableRowIndex.of(rows);
+
+    for (final TableFeatureListRowFilter filter : filters()) {
+      final Result result = index.query(filter, false, null, true, () -> false);
+      assertNotNull(result);
+      final BitSet expected = new BitSet();
+      for (int i = 0; i < rows.size(); i++) {
+        if (filter.test(rows.get(i))) {
+          expected.set(i);
+        }
+      }
+      assertEquals(expected, result.visibleRows());
+      assertEquals(new BitSet(), result.expandRows());
+      assertNull(result.sortedRows());
+    }
+
+    final Result all = index.query(null, false, null, true, () -> false);
+    assertNotNull(all);
+    assertEquals(rows.size(), all.visibleRows().cardinality());
+  }
+
+  @Test
+  void treeFilterKeepsRowsWithMatchingChildren() {
+    final Random random = new Random(2);
+    final List<FeatureListRow> rows = randomRows(random, 200, 1);
+    final List<List<FeatureListRow>> children = new ArrayList<>();
+    int id = 1000;
+    for (int r = 0; r < rows.size(); r++) {
+      final List<FeatureListRow> members = randomRows(random, r % 4, id);
+      id += members.size();
+      children.add(members);
+    }
+    final FeatureTableRowIndex index = FeatureTableRowIndex.of(rows, children);
+
+    for (final TableFeatureListRowFilter filter : filters()) {
+      final Result result = index.query(filter, true, null, true, () -> false);
+      assertNotNull(result);
+      final BitSet visible = new BitSet();
+      final BitSet expand = new BitSet();
+      final BitSet visibleChildren = new BitSet();
+      int child = 0;
+      for (int r = 0; r < rows.size(); r++) {
+        boolean anyChild = false;
+        for (final FeatureListRow member : children.get(r)) {
+          if (filter.matchesAllExceptRT(member)) {
+            anyChild = true;
+            visibleChildren.set(child);
+          }
+          child++;
+        }
+        final FeatureListRow row = rows.get(r);
+        if (filter.matchesRT(row) && (filter.matchesAllExceptRT(row) || anyChild)) {
+          visible.set(r);
+          if (!filter.matchesAllExceptRT(row)) {
+            expand.set(r);
+          }
+        }
+      }
+      assertEquals(visible, result.visibleRows());
+      assertEquals(expand, result.expandRows());
+      // null if all children are visible
+      final BitSet resultChildren = result.visibleChildren();
+      if (resultChildren == null) {
+        assertEquals(index.getNumberOfChildren(), visibleChildren.cardinality());
+      } else {
+        assertEquals(visibleChildren, resultChildren);
+      }
+
+      // all children stay visible if children are not filtered
+      final Result keepChildren = index.query(filter, false, null, true, () -> false);
+      assertNotNull(keepChildren);
+      assertEquals(visible, keepChildren.visibleRows());
+      assertNull(keepChildren.visibleChildren());
+    }
+  }
+
+  @Test
+  void sortsVisibleRowsWithMissingValuesFirst() {
+    final List<FeatureListRow> rows = randomRows(new Random(3), 500, 1);
+    final FeatureTableRowIndex index = FeatureTableRowIndex.of(rows);
+    final TableFeatureListRowFilter filter = new TableFeatureListRowFilter(null, null,
+        Range.closed(200d, 700d), null, null);
+
+    final Comparator<Integer> byRt = Comparator.comparing(i -> rows.get(i).getAverageRT(),
+        Comparator.nullsFirst(Comparator.naturalOrder()));
+    final int[] expected = IntStream.range(0, rows.size()).filter(i -> filter.test(rows.get(i)))
+        .boxed().sorted(byRt).mapToInt(Integer::intValue).toArray();
+
+    final Result ascending = index.query(filter, false, SortKey.RT, true, () -> false);
+    assertNotNull(ascending);
+    assertArrayEquals(expected, ascending.sortedRows());
+
+    final Result descending = index.query(filter, false, SortKey.RT, false, () -> false);
+    assertNotNull(descending);
+    final int[] reversed = new int[expected.length];
+    for (int i = 0; i < expected.length; i++) {
+      reversed[i] = expected[expected.length - 1 - i];
+    }
+    assertArrayEquals(reversed, descending.sortedRows());
+  }
+
+  @Test
+  void canceledQueryReturnsNull() {
+    final List<FeatureListRow> rows = randomRows(new Random(4), 100, 1);
+    final FeatureTableRowIndex index = FeatureTableRowIndex.of(rows);
+    assertNull(index.query(filters().getFirst(), false, SortKey.MZ, true, () -> true));
+  }
+
+  @Test
+  void sortKeyForColumnType() {
+    assertEquals(SortKey.MZ, SortKey.forType(DataTypes.get(MZType.class)));
+    assertEquals(SortKey.RT, SortKey.forType(DataTypes.get(RTType.class)));
+    assertNull(SortKey.forType(null));
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ThreadPoolUtilsTest {
+
+  @Test
+  void parallelStreamRunsInLimitedPool() {
+    final Set<String> threads = ThreadPoolUtils.callParallel("test pool",
+        () -> IntStream.range(0, 10_000).parallel()
+            .mapToObj(i -> Thread.currentThread().getName()).collect(Collectors.toSet()));
+
+    assertTrue(threads.size() <= ThreadPoolUtils.getNumThreads());
+    assertTrue(threads.stream().allMatch(name -> name.startsWith("test pool ")), threads::toString);
+  }
+
+  @Test
+  void poolIsSizedFromPreferences() {
+    try (final ForkJoinPool pool = ThreadPoolUtils.newForkJoinPool("test pool")) {
+      assertEquals(ThreadPoolUtils.getNumThreads(), pool.getParallelism());
+    }
+  }
+
+  @Test
+  void failureIsRethrown() {
+    assertThrows(IllegalStateException.class, () -> ThreadPoolUtils.runParallel("test pool",
+        () -> IntStream.range(0, 100).parallel().forEach(i -> {
+          if (i == 42) {
+            throw new IllegalStateException("failed");
+          }
+        })));
+  }
+}
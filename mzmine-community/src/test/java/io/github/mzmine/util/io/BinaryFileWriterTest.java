@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BinaryFileWriterTest {
+
+  @TempDir
+  File tempDir;
+
+  @Test
+  void floatsAreAlignedAndReadBack() throws IOException {
+    final Random random = new Random(42);
+    // more values than fit into the write buffer
+    final float[] values = new float[300_000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = random.nextFloat() * 1000 - 500;
+    }
+    final float[] small = {1.5f, -2.25f, Float.NaN, Float.MAX_VALUE};
+
+    final File file = new File(tempDir, "floats.bin");
+    try (BinaryFileWriter out = new BinaryFileWriter(file)) {
+      out.writeByte((byte) 7);
+      out.writeFloats(MemorySegment.ofArray(values), values.length);
+      out.writeByte((byte) 8);
+      out.writeFloats(MemorySegment.ofArray(small), small.length);
+      out.writeInt(99);
+    }
+
+    final MappedBinaryFileReader in = new MappedBinaryFileReader(file);
+    assertEquals(7, in.readByte());
+    final MemorySegment readValues = in.readFloats(values.length);
+    // the floats start after 3 bytes of padding
+    assertEquals(Float.BYTES + (long) values.length * Float.BYTES, in.getPosition());
+    assertEquals(8, in.readByte());
+    final MemorySegment readSmall = in.readFloats(small.length);
+    assertEquals(99, in.readInt());
+    assertEquals(file.length(), in.getPosition());
+
+    for (int i = 0; i < values.length; i++) {
+      assertEquals(values[i], readValues.getAtIndex(ValueLayout.JAVA_FLOAT_UNALIGNED, i));
+    }
+    for (int i = 0; i < small.length; i++) {
+      assertEquals(small[i], readSmall.getAtIndex(ValueLayout.JAVA_FLOAT_UNALIGNED, i));
+    }
+  }
+
+  @Test
+  void writesPartOfSegment() throws IOException {
+    final float[] values = {1f, 2f, 3f, 4f};
+    final File file = new File(tempDir, "part.bin");
+    try (BinaryFileWriter out = new BinaryFileWriter(file)) {
+      out.writeFloats(MemorySegment.ofArray(values), 2);
+    }
+
+    assertEquals(2 * Float.BYTES, file.length());
+    final MemorySegment read = new MappedBinaryFileReader(file).readFloats(2);
+    assertEquals(1f, read.getAtIndex(ValueLayout.JAVA_FLOAT_UNALIGNED, 0));
+    assertEquals(2f, read.getAtIndex(ValueLayout.JAVA_FLOAT_UNALIGNED, 1));
+  }
+}
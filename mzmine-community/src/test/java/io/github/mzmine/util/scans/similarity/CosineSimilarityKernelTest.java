@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.scans.similarity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.mzmine.datamodel.DataPoint;
+import io.github.mzmine.datamodel.impl.SimpleDataPoint;
+import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.util.maths.similarity.Similarity;
+import io.github.mzmine.util.scans.ScanAlignment;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the {@link CosineSimilarityKernel} to the alignment by {@link ScanAlignment}
+ */
+class CosineSimilarityKernelTest {
+
+  private static final MZTolerance MZ_TOL = new MZTolerance(0.005, 10);
+
+  @Test
+  void testDirectMatchEqualsScanAlignment() {
+    final Random random = new Random(42);
+    for (int i = 0; i < 500; i++) {
+      final DataPoint[] a = randomSpectrum(random, null, 0);
+      final DataPoint[] b = randomSpectrum(random, a, 0);
+      for (HandleUnmatchedSignalOptions option : HandleUnmatchedSignalOptions.values()) {
+        assertSameAsAlignment(a, b, option, Double.NaN);
+      }
+    }
+  }
+
+  @Test
+  void testModifiedMatchEqualsScanAlignment() {
+    final Random random = new Random(7);
+    for (int i = 0; i < 500; i++) {
+      final double delta = 14.01565 * (1 + random.nextInt(3));
+      final DataPoint[] a = randomSpectrum(random, null, 0);
+      final DataPoint[] b = randomSpectrum(random, a, delta);
+      assertSameAsAlignment(a, b, HandleUnmatchedSignalOptions.KEEP_ALL_AND_MATCH_TO_ZERO, delta);
+    }
+  }
+
+  @Test
+  void testUpperBoundRejectsOnlyLowCosine() {
+    final Random random = new Random(3);
+    final CosineSimilarityKernel kernel = CosineSimilarityKernel.forCurrentThread();
+    for (int i = 0; i < 500; i++) {
+      final DataPoint[] a = randomSpectrum(random, null, 0);
+      final DataPoint[] b = randomSpectrum(random, a, 0);
+      final CosineSpectrum x = CosineSpectrum.of(a, Weights.SQRT);
+      final CosineSpectrum y = CosineSpectrum.of(b, Weights.SQRT);
+      kernel.match(x, y, MZ_TOL, Double.NaN, 0, Double.NEGATIVE_INFINITY, true, true);
+      final double cosine = kernel.getCosine();
+      final boolean accepted = kernel.match(x, y, MZ_TOL, Double.NaN, 0, 0.7, true, true);
+      assertEquals(cosine >= 0.7, accepted);
+    }
+  }
+
+  @Test
+  void testMinMatch() {
+    final DataPoint[] a = sorted(new DataPoint[]{new SimpleDataPoint(100, 10),
+        new SimpleDataPoint(200, 20), new SimpleDataPoint(300, 30)});
+    final DataPoint[] b = sorted(new DataPoint[]{new SimpleDataPoint(100.001, 5),
+        new SimpleDataPoint(200.001, 10), new SimpleDataPoint(400, 30)});
+    final CosineSimilarityKernel kernel = CosineSimilarityKernel.forCurrentThread();
+    final CosineSpectrum x = CosineSpectrum.of(a, Weights.SQRT);
+    final CosineSpectrum y = CosineSpectrum.of(b, Weights.SQRT);
+    assertTrue(kernel.match(x, y, MZ_TOL, Double.NaN, 2, 0, true, true));
+    assertEquals(2, kernel.getOverlap());
+    assertFalse(kernel.match(x, y, MZ_TOL, Double.NaN, 3, 0, true, true));
+  }
+
+  private static void assertSameAsAlignment(DataPoint[] a, DataPoint[] b,
+      HandleUnmatchedSignalOptions option, double delta) {
+    final List<DataPoint[]> aligned = Double.isNaN(delta) ? ScanAlignment.alignOfSorted(MZ_TOL, a,
+        b) : ScanAlignment.alignOfSortedModAware(MZ_TOL, a, b, 100, 100 + delta);
+    final List<DataPoint[]> filtered = option.handleUnmatched(aligned);
+    final int expectedOverlap = (int) filtered.stream().filter(dp -> dp[0] != null && dp[1] != null)
+        .count();
+    final double expectedCosine = Similarity.COSINE.calc(
+        ScanAlignment.toIntensityMatrixWeighted(filtered, Weights.SQRT.getIntensity(),
+            Weights.SQRT.getMz()));
+
+    final CosineSimilarityKernel kernel = CosineSimilarityKernel.forCurrentThread();
+    final CosineSpectrum x = kernel.loadX(a, Weights.SQRT, false);
+    final CosineSpectrum y = kernel.loadY(b, Weights.SQRT, false);
+    final boolean keepX = option == HandleUnmatchedSignalOptions.KEEP_ALL_AND_MATCH_TO_ZERO
+        || option == HandleUnmatchedSignalOptions.KEEP_LIBRARY_SIGNALS;
+    final boolean keepY = option == HandleUnmatchedSignalOptions.KEEP_ALL_AND_MATCH_TO_ZERO
+        || option == HandleUnmatchedSignalOptions.KEEP_EXPERIMENTAL_SIGNALS;
+    kernel.match(x, y, MZ_TOL, delta, 0, Double.NEGATIVE_INFINITY, keepX, keepY);
+
+    assertEquals(expectedOverlap, kernel.getOverlap());
+    assertEquals(expectedCosine, kernel.getCosine());
+    final long sizeX = filtered.stream().filter(dp -> dp[0] != null).count();
+    final long sizeY = filtered.stream().filter(dp -> dp[1] != null).count();
+    assertEquals(sizeX, kernel.getSizeX());
+    assertEquals(sizeY, kernel.getSizeY());
+
+    final List<DataPoint[]> pairs = kernel.createAlignedDataPoints(x, y);
+    final List<DataPoint[]> expectedPairs = ScanAlignment.removeUnaligned(filtered);
+    assertEquals(expectedPairs.size(), pairs.size());
+    for (int i = 0; i < pairs.size(); i++) {
+      assertTrue(Arrays.equals(expectedPairs.get(i), pairs.get(i)));
+    }
+  }
+
+  /**
+   * @param template signals are copied with m/z noise (and partially shifted by delta) if not
+   *                 null
+   */
+  private static DataPoint[] randomSpectrum(Random random, DataPoint[] template, double delta) {
+    final int size = 5 + random.nextInt(60);
+    final DataPoint[] dps = new DataPoint[size];
+    for (int i = 0; i < size; i++) {
+      double mz;
+      if (template != null && random.nextBoolean()) {
+        mz = template[random.nextInt(template.length)].getMZ() + (random.nextDouble() - 0.5) * 0.01;
+        if (delta != 0 && random.nextBoolean()) {
+          mz += delta;
+        }
+      } else {
+        mz = 50 + random.nextDouble() * 450;
+      }
+      // coarse intensities to include ties
+      dps[i] = new SimpleDataPoint(mz, 1 + random.nextInt(50));
+    }
+    return sorted(dps);
+  }
+
+  private static DataPoint[] sorted(DataPoint[] dps) {
+    Arrays.sort(dps, ScanAlignment.sorter);
+    return dps;
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2004-2026 The mzmine Development Team
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.github.mzmine.util.scans.similarity.impl.ms2deepscore;
+
+import static io.github.mzmine.modules.dataprocessing.group_spectral_networking.dreams.DreaMSNetworkingTask.toKNNMatrix;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+class EmbeddingBasedSimilarityTest {
+
+  private static float[][] randomEmbeddings(final int size, final int dimension, final long seed) {
+    final Random random = new Random(seed);
+    final float[][] embeddings = new float[size][dimension];
+    for (final float[] embedding : embeddings) {
+      for (int i = 0; i < dimension; i++) {
+        embedding[i] = (float) random.nextGaussian();
+      }
+    }
+    return embeddings;
+  }
+
+  /**
+   * @return the full matrix with the same float values as the streamed pairs
+   */
+  private static float[][] fullMatrix(final float[][] rows, final float[][] cols) {
+    final float[][] matrix = new float[rows.length][cols.length];
+    EmbeddingBasedSimilarity.streamSimilarPairs(rows, cols, Double.NEGATIVE_INFINITY, 0,
+        () -> false, (row, col, similarity) -> matrix[row][col] = similarity);
+    return matrix;
+  }
+
+  private static long key(final int a, final int b) {
+    return (long) Math.min(a, b) << 32 | Math.max(a, b);
+  }
+
+  @Test
+  void streamsPairsAboveMinScore() {
+    // more rows and columns than one tile
+    final float[][] rows = randomEmbeddings(70, 20, 1);
+    final float[][] cols = randomEmbeddings(600, 20, 2);
+    final float[][] matrix = fullMatrix(rows, cols);
+
+    final Map<Long, Float> expected = new TreeMap<>();
+    for (int r = 0; r < rows.length; r++) {
+      for (int c = 0; c < cols.length; c++) {
+        if (matrix[r][c] > 3) {
+          expected.put((long) r << 32 | c, matrix[r][c]);
+        }
+      }
+    }
+    final Map<Long, Float> streamed = new ConcurrentHashMap<>();
+    EmbeddingBasedSimilarity.streamSimilarPairs(rows, cols, 3, 0, () -> false,
+        (row, col, similarity) -> assertEquals(null,
+            streamed.put((long) row << 32 | col, similarity)));
+    assertEquals(expected, new TreeMap<>(streamed));
+  }
+
+  @Test
+  void symmetricStreamsEachPairOnce() {
+    final float[][] embeddings = randomEmbeddings(300, 16, 3);
+    final float[][] matrix = fullMatrix(embeddings, embeddings);
+
+    final Map<Long, Float> expected = new TreeMap<>();
+    for (int i = 0; i < embeddings.length; i++) {
+      for (int j = i + 1; j < embeddings.length; j++) {
+        if (matrix[i][j] > 2) {
+          expected.put(key(i, j), matrix[i][j]);
+        }
+      }
+    }
+    final Map<Long, Float> streamed = new ConcurrentHashMap<>();
+    EmbeddingBasedSimilarity.streamSimilarPairsSymmetric(embeddings, 2, 0, () -> false,
+        (row, col, similarity) -> {
+          assertEquals(true, row < col);
+          assertEquals(null, streamed.put(key(row, col), similarity));
+        });
+    assertEquals(expected, new TreeMap<>(streamed));
+  }
+
+  @Test
+  void symmetricTopKEqualsKnnMatrix() {
+    final float[][] embeddings = randomEmbeddings(300, 16, 4);
+    final float[][] matrix = fullMatrix(embeddings, embeddings);
+    final int k = 5;
+    final double minScore = 8;
+    final double minEdgeScore = 1;
+
+    final float[][] knn = toKNNMatrix(matrix, k, minScore);
+    final Map<Long, Float> expected = new TreeMap<>();
+    for (int i = 0; i < embeddings.length; i++) {
+      for (int j = 0; j < embeddings.length; j++) {
+        if (i != j && knn[i][j] > minEdgeScore) {
+          expected.put(key(i, j), knn[i][j]);
+        }
+      }
+    }
+    final Map<Long, Float> streamed = new ConcurrentHashMap<>();
+    EmbeddingBasedSimilarity.streamSimilarPairsSymmetric(embeddings, minScore, k, () -> false,
+        (row, col, similarity) -> {
+          if (similarity > minEdgeScore) {
+            streamed.put(key(row, col), similarity);
+          }
+        });
+    assertEquals(expected, new TreeMap<>(streamed));
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2004-2024 The mzmine Development Team
+ * Copyright (c) 2004-2026 The mzmine Development Team
  *
  * Permission is hereby granted, free of charge, to any person
  * obtaining a copy of this software and associated documentation
@@ -27,9 +27,15 @@ package util;
 
 import io.github.mzmine.datamodel.impl.masslist.SimpleMassList;
 import io.github.mzmine.parameters.parametertypes.tolerances.MZTolerance;
+import io.github.mzmine.util.maths.CenterFunction;
+import io.github.mzmine.util.maths.CenterMeasure;
+import io.github.mzmine.util.maths.Weighting;
 import io.github.mzmine.util.scans.SpectraMerging;
 import io.github.mzmine.util.scans.SpectraMerging.IntensityMergingType;
+import io.github.mzmine.util.scans.SpectraMergingEngine;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -107,4 +113,97 @@ public class SpectraMergingTest {
     Assertions.assertEquals(25d, mzsIntensities[1][2]);
   }
 
+  @Test
+  void testPrimitiveEngine_Summed() {
+    final SimpleMassList ml1 = new SimpleMassList(null, new double[]{1, 5, 10},
+        new double[]{10, 10, 10});
+    final SimpleMassList ml2 = new SimpleMassList(null, new double[]{1, 5.00001, 10},
+        new double[]{20, 30, 40});
+    final double[][] mzsIntensities = SpectraMerging.calculatedMergedMzsAndIntensities(
+        List.of(ml1, ml2), new MZTolerance(0.01, 10), IntensityMergingType.SUMMED,
+        SpectraMerging.DEFAULT_CENTER_FUNCTION, null, null, null, SpectraMergingEngine.PRIMITIVE);
+
+    Assertions.assertArrayEquals(new double[]{1, (5 * 10 + 5.00001 * 30) / 40, 10},
+        mzsIntensities[0], 1E-10);
+    Assertions.assertArrayEquals(new double[]{30, 40, 50}, mzsIntensities[1]);
+  }
+
+  @Test
+  void testPrimitiveEngine_SameSpectrumNotMerged() {
+    // the second signal of ml1 is within the tolerance but from the same spectrum
+    final SimpleMassList ml1 = new SimpleMassList(null, new double[]{100, 100.004},
+        new double[]{50, 10});
+    final SimpleMassList ml2 = new SimpleMassList(null, new double[]{100.002},
+        new double[]{20});
+
+    for (final SpectraMergingEngine engine : SpectraMergingEngine.values()) {
+      final double[][] mzsIntensities = SpectraMerging.calculatedMergedMzsAndIntensities(
+          List.of(ml1, ml2), new MZTolerance(0.005, 0), IntensityMergingType.SUMMED,
+          SpectraMerging.DEFAULT_CENTER_FUNCTION, null, null, null, engine);
+      Assertions.assertEquals(1, mzsIntensities[1].length, engine.toString());
+      Assertions.assertEquals(70d, mzsIntensities[1][0], engine.toString());
+    }
+  }
+
+  @Test
+  void testPrimitiveEngineEqualsRangeMap() {
+    final Random random = new Random(42);
+    for (int i = 0; i < 50; i++) {
+      final List<SimpleMassList> spectra = createRandomSpectra(random, i % 2 == 0 ? 1d : 500d);
+      final Double inputNoise = i % 3 == 0 ? 100d : null;
+      final Double outputNoise = i % 5 == 0 ? 500d : null;
+      final Integer minNumPeaks = i % 4 == 0 ? 3 : null;
+      final MZTolerance tolerance = i % 2 == 0 ? new MZTolerance(0.005, 15)
+          : new MZTolerance(0.0001, 20);
+
+      for (final IntensityMergingType type : IntensityMergingType.values()) {
+        for (final CenterMeasure measure : CenterMeasure.values()) {
+          for (final Weighting weighting : Weighting.values()) {
+            final CenterFunction cf = new CenterFunction(measure, weighting);
+            final double[][] expected = SpectraMerging.calculatedMergedMzsAndIntensities(spectra,
+                tolerance, type, cf, inputNoise, outputNoise, minNumPeaks,
+                SpectraMergingEngine.RANGE_MAP);
+            final double[][] actual = SpectraMerging.calculatedMergedMzsAndIntensities(spectra,
+                tolerance, type, cf, inputNoise, outputNoise, minNumPeaks,
+                SpectraMergingEngine.PRIMITIVE);
+            Assertions.assertArrayEquals(expected[0], actual[0]);
+            Assertions.assertArrayEquals(expected[1], actual[1]);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Spectra with jittered signals of the same centers. Some signals are missing or duplicated
+   * within a spectrum. A small m/z width creates overlapping tolerance ranges.
+   */
+  private static List<SimpleMassList> createRandomSpectra(final Random random,
+      final double mzWidth) {
+    final double[] centers = new double[1 + random.nextInt(150)];
+    for (int i = 0; i < centers.length; i++) {
+      centers[i] = 100 + random.nextDouble() * mzWidth;
+    }
+
+    final int numSpectra = 1 + random.nextInt(12);
+    final List<SimpleMassList> spectra = new ArrayList<>();
+    for (int s = 0; s < numSpectra; s++) {
+      final List<double[]> dataPoints = new ArrayList<>();
+      for (final double center : centers) {
+        if (random.nextDouble() < 0.2) {
+          continue;
+        }
+        dataPoints.add(new double[]{center + random.nextGaussian() * 0.002,
+            random.nextInt(5) == 0 ? 100 : random.nextDouble() * 1000});
+        if (random.nextDouble() < 0.05) {
+          dataPoints.add(
+              new double[]{center + random.nextGaussian() * 0.002, random.nextDouble() * 1000});
+        }
+      }
+      dataPoints.sort((a, b) -> Double.compare(a[0], b[0]));
+      spectra.add(new SimpleMassList(null, dataPoints.stream().mapToDouble(dp -> dp[0]).toArray(),
+          dataPoints.stream().mapToDouble(dp -> dp[1]).toArray()));
+    }
+    return spectra;
+  }
 }